@@ -0,0 +1,207 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: BenchmarkFixtures.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Synthetic projects and templates shared by the benchmarks.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Synthetic projects and templates shared by the benchmarks.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public final class BenchmarkFixtures
+{
+    /**
+     * A template with a handful of lines.
+     */
+    public static final String SMALL = "small";
+
+    /**
+     * A template like the README sample.
+     */
+    public static final String README = "readme";
+
+    /**
+     * A template rendering thousands of lines.
+     */
+    public static final String LARGE = "large";
+
+    /**
+     * How many times the large template repeats the README sample.
+     */
+    protected static final int LARGE_REPETITIONS = 100;
+
+    /**
+     * How many dependencies the synthetic project declares.
+     */
+    protected static final int DEPENDENCIES = 200;
+
+    /**
+     * The README sample, reading the project as {@code pom}.
+     */
+    protected static final String README_BODY =
+          "FROM acmsl/tomcat:201410\n"
+        + "MAINTAINER \\<rydnr@acm-sl.org>\n"
+        + "ENV HOME /root\n"
+        + "USER root\n"
+        + "# Create user <pom.artifactId>\n"
+        + "RUN groupadd <pom.artifactId>\n"
+        + "RUN useradd -s /bin/bash -g <pom.artifactId> -G <pom.artifactId>,tomcat,sudo -m -c \"User running /etc/init.d/<pom.artifactId>\" artifactory\n"
+        + "RUN sed -i '/%sudo   ALL=(ALL:ALL) ALL/a java-user localhost=NOPASSWD: /etc/init.d/<pom.artifactId> stop,/etc/init.d/<pom.artifactId> start,/etc/init.d/<pom.artifactId> restart,/sbin/services <pom.artifactId> stop,/sbin/services <pom.artifactId> start,/sbin/services <pom.artifactId> restart' /etc/sudoers\n"
+        + "RUN wget -O /opt/tomcat/webapps/<pom.artifactId>-<pom.version>.<pom.packaging> http://my.artifactory/repo/<pom.groupId>/<pom.artifactId>/<pom.version>/<pom.artifactId>-<pom.version>.<pom.packaging>\n"
+        + "RUN mv /opt/tomcat/webapps/ROOT /opt/tomcat/webapps/welcome\n"
+        + "RUN cd /home/ && /usr/lib/jvm/java/bin/jar -xvf /opt/tomcat/webapps/<pom.artifactId>-<pom.version>.<pom.packaging>\n"
+        + "RUN rm -rf /home/<pom.artifactId> && mv /home/<pom.artifactId>-<pom.version> /home/<pom.artifactId>\n"
+        + "ADD context.xml /opt/tomcat/conf/Catalina/localhost/ROOT.xml\n"
+        + "ADD .bashrc /home/<pom.artifactId>/.bashrc\n"
+        + "RUN rm -rf /opt/tomcat/webapps/*\n"
+        + "ADD config /etc/default/tomcat\n"
+        + "RUN mkdir /etc/service/<pom.artifactId>\n"
+        + "RUN cd /etc/service/<pom.artifactId> && ln -s ../tomcat/run .\n"
+        + "RUN cd /etc/service/<pom.artifactId> && ln -s tomcat <pom.artifactId>\n"
+        + "RUN cd /etc/init.d && ln -s tomcat <pom.artifactId>\n"
+        + "RUN update-rc.d <pom.artifactId> defaults\n"
+        + "RUN chown -R <pom.artifactId>:tomcat /home/<pom.artifactId> /opt/tomcat/.<pom.artifactId>\n"
+        + "RUN chmod -R g+w /home/<pom.artifactId> /opt/tomcat/.<pom.artifactId>\n"
+        + "ADD rc.local /etc/rc.local\n"
+        + "RUN chmod +x /etc/rc.local\n"
+        + "VOLUME /home/<pom.artifactId>\n"
+        + "EXPOSE 8080\n";
+
+    /**
+     * Utility class.
+     */
+    private BenchmarkFixtures()
+    {
+    }
+
+    /**
+     * Builds a synthetic project.
+     * @param directory the build directory.
+     * @return such project.
+     */
+    public static MavenProject newProject(final File directory)
+    {
+        final Model model = new Model();
+
+        model.setGroupId("org.acmsl");
+        model.setArtifactId("sample");
+        model.setVersion("1.0");
+        model.setPackaging("war");
+        model.setName("Sample");
+        model.setDescription("Sample project");
+        model.getProperties().setProperty("java.version", "17");
+
+        final Build build = new Build();
+        build.setFinalName("sample-1.0");
+        build.setDirectory(directory.getAbsolutePath());
+        model.setBuild(build);
+
+        for (int index = 0; index < DEPENDENCIES; index++)
+        {
+            final Dependency dependency = new Dependency();
+            dependency.setGroupId("org.acmsl.sample");
+            dependency.setArtifactId("library-" + index);
+            dependency.setVersion("1." + index);
+            model.addDependency(dependency);
+        }
+
+        return new MavenProject(model);
+    }
+
+    /**
+     * Writes a template group of given size.
+     * @param directory the directory.
+     * @param size {@link #SMALL}, {@link #README} or {@link #LARGE}.
+     * @return the template file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static File writeTemplate(final File directory, final String size)
+        throws IOException
+    {
+        final File result = new File(directory, "Dockerfile-" + size + ".stg");
+
+        Files.createDirectories(directory.toPath());
+        Files.write(result.toPath(), buildTemplate(size).getBytes(StandardCharsets.UTF_8));
+
+        return result;
+    }
+
+    /**
+     * Builds a template group of given size.
+     * @param size {@link #SMALL}, {@link #README} or {@link #LARGE}.
+     * @return the group text.
+     */
+    public static String buildTemplate(final String size)
+    {
+        final StringBuilder result = new StringBuilder("group Dockerfile;\n\n");
+
+        result.append("source(C) ::= <<\n<dockerfile(C=C, pom=C.T)>\n>>\n\n");
+        result.append("dockerfile(C, pom) ::= <<\n");
+
+        if (SMALL.equals(size))
+        {
+            result.append("FROM openjdk:17\nCOPY target/<pom.build.finalName>.<pom.packaging> /opt/app/\n");
+        }
+        else if (README.equals(size))
+        {
+            result.append(README_BODY);
+        }
+        else
+        {
+            for (int index = 0; index < LARGE_REPETITIONS; index++)
+            {
+                result.append(README_BODY);
+            }
+
+            result.append("<pom.dependencies:{d | LABEL dependency.<d.artifactId>=\"<d.groupId>:<d.artifactId>:<d.version>\"}; separator=\"\\n\">\n");
+        }
+
+        result.append(">>\n");
+
+        return result.toString();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: BenchmarkRunner.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Runs the benchmarks, reporting results as JSON.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JMH classes.
+ */
+import org.openjdk.jmh.Main;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks as JMH's own launcher does, but writing the results as
+ * JSON to {@code target/jmh-result.json} unless told otherwise, so that runs
+ * of different releases can be compared.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public final class BenchmarkRunner
+{
+    /**
+     * The default result file.
+     */
+    public static final String DEFAULT_RESULT = "target/jmh-result.json";
+
+    /**
+     * Utility class.
+     */
+    private BenchmarkRunner()
+    {
+    }
+
+    /**
+     * Runs the benchmarks.
+     * @param args JMH's command-line arguments.
+     * @throws Exception if the benchmarks cannot be run.
+     */
+    public static void main(final String[] args)
+        throws Exception
+    {
+        final List<String> arguments = new ArrayList<String>(Arrays.asList(args));
+
+        if (!arguments.contains("-rf"))
+        {
+            arguments.add(0, "-rf");
+            arguments.add(1, "json");
+        }
+
+        if (!arguments.contains("-rff"))
+        {
+            arguments.add(0, "-rff");
+            arguments.add(1, DEFAULT_RESULT);
+        }
+
+        Main.main(arguments.toArray(new String[arguments.size()]));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: GroupLoadingBenchmark.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Measures loading and compiling template groups.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.stringtemplate.v4.STGroup;
+
+/*
+ * Importing JMH classes.
+ */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DockerfileGenerator#retrieveGroup(File, List, org.stringtemplate.v4.STErrorListener, Charset)}:
+ * parsing and compiling a template group from scratch, as every module did
+ * before groups were cached.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupLoadingBenchmark
+{
+    /**
+     * The template size.
+     */
+    @Param({ BenchmarkFixtures.SMALL, BenchmarkFixtures.README, BenchmarkFixtures.LARGE })
+    public String size;
+
+    /**
+     * The template.
+     */
+    private File m__Template;
+
+    /**
+     * The generator.
+     */
+    private DockerfileGenerator m__Generator;
+
+    /**
+     * Writes the template.
+     * @throws IOException if it cannot be written.
+     */
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        final File directory = Files.createTempDirectory("dockerfile-benchmark").toFile();
+
+        this.m__Template = BenchmarkFixtures.writeTemplate(directory, this.size);
+        this.m__Generator =
+            new DockerfileGenerator(
+                Collections.<String, Object>emptyMap(), this.m__Template, StandardCharsets.UTF_8, null);
+    }
+
+    /**
+     * Loads and compiles the group.
+     * @return the group.
+     */
+    @Benchmark
+    public STGroup load()
+    {
+        return
+            this.m__Generator.retrieveGroup(
+                this.m__Template,
+                Arrays.asList(Literals.ORG_ACMSL_DOCKERFILE),
+                DockerfileGenerator.ST_ERROR_LISTENER,
+                StandardCharsets.UTF_8);
+    }
+}
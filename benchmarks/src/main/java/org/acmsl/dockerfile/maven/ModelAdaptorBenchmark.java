@@ -0,0 +1,183 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ModelAdaptorBenchmark.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Compares ST's reflective adaptor with MavenModelAdaptor.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.stringtemplate.v4.ST;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.misc.ObjectModelAdaptor;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing JMH classes.
+ */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ST's reflective {@link ObjectModelAdaptor} with {@link MavenModelAdaptor},
+ * both for a single property access and for a README-like template that reads
+ * {@code pom} properties repeatedly.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelAdaptorBenchmark
+{
+    /**
+     * The number of times the template repeats its property chains.
+     */
+    protected static final int REPETITIONS = 30;
+
+    /**
+     * The attribute name of the project, as in the README sample.
+     */
+    protected static final String POM = "pom";
+
+    /**
+     * Whether to register {@link MavenModelAdaptor}.
+     */
+    @Param({ "false", "true" })
+    public boolean adapted;
+
+    /**
+     * The project.
+     */
+    private MavenProject m__Project;
+
+    /**
+     * The template.
+     */
+    private ST m__Template;
+
+    /**
+     * ST's reflective adaptor.
+     */
+    private ObjectModelAdaptor m__Reflective;
+
+    /**
+     * Builds the project and the template.
+     */
+    @Setup
+    public void setUp()
+    {
+        this.m__Project = BenchmarkFixtures.newProject(new File("target"));
+
+        final STGroup group = new STGroup('$', '$');
+
+        if (this.adapted)
+        {
+            MavenModelAdaptor.register(group);
+        }
+
+        this.m__Template = new ST(group, buildTemplate(REPETITIONS));
+        this.m__Template.add(POM, this.m__Project);
+
+        this.m__Reflective = new ObjectModelAdaptor();
+    }
+
+    /**
+     * Renders the template.
+     * @return the output.
+     */
+    @Benchmark
+    public String render()
+    {
+        return this.m__Template.render();
+    }
+
+    /**
+     * Reads a single property.
+     * @return its value.
+     */
+    @Benchmark
+    public Object propertyAccess()
+    {
+        final Object result;
+
+        if (this.adapted)
+        {
+            result = MavenModelAdaptor.getInstance().getProperty(this.m__Project, "artifactId");
+        }
+        else
+        {
+            result = this.m__Reflective.getProperty(null, null, this.m__Project, "artifactId", "artifactId");
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds a template similar to the README sample, repeated.
+     * @param repetitions how many times.
+     * @return the template text.
+     */
+    protected static String buildTemplate(final int repetitions)
+    {
+        final StringBuilder result = new StringBuilder();
+
+        for (int index = 0; index < repetitions; index++)
+        {
+            result.append("LABEL name=\"$pom.groupId$:$pom.artifactId$:$pom.version$\"\n");
+            result.append("COPY target/$pom.build.finalName$.$pom.packaging$ /opt/$pom.artifactId$/\n");
+            result.append("ENV JAVA_VERSION=$pom.properties.(\"java.version\")$\n");
+        }
+
+        return result.toString();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: MojoBenchmark.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Measures the whole generation of a Dockerfile file.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing JMH classes.
+ */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DockerfileMojo#generateDockerfile(File, File, java.util.Map, java.nio.charset.Charset)}
+ * for a synthetic {@link MavenProject}: building the input, rendering, digesting
+ * and comparing against the existing file.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MojoBenchmark
+{
+    /**
+     * The template size.
+     */
+    @Param({ BenchmarkFixtures.SMALL, BenchmarkFixtures.README, BenchmarkFixtures.LARGE })
+    public String size;
+
+    /**
+     * The mojo.
+     */
+    private DockerfileMojo m__Mojo;
+
+    /**
+     * The project.
+     */
+    private MavenProject m__Project;
+
+    /**
+     * The template.
+     */
+    private File m__Template;
+
+    /**
+     * The generated file.
+     */
+    private File m__Dockerfile;
+
+    /**
+     * Writes the template.
+     * @throws IOException if it cannot be written.
+     */
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        final File directory = Files.createTempDirectory("dockerfile-benchmark").toFile();
+
+        this.m__Mojo = new DockerfileMojo();
+        this.m__Project = BenchmarkFixtures.newProject(directory);
+        this.m__Template = BenchmarkFixtures.writeTemplate(directory, this.size);
+        this.m__Dockerfile = new File(directory, "Dockerfile");
+    }
+
+    /**
+     * Generates the Dockerfile.
+     * @return the generated file.
+     * @throws IOException if it cannot be written.
+     */
+    @Benchmark
+    public File generate()
+        throws IOException
+    {
+        return
+            this.m__Mojo.generateDockerfile(
+                this.m__Dockerfile,
+                this.m__Template,
+                this.m__Mojo.retrieveModel(this.m__Project, "benchmark"),
+                StandardCharsets.UTF_8);
+    }
+}
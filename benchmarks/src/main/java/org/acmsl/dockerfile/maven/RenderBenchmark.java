@@ -0,0 +1,153 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: RenderBenchmark.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Measures rendering templates of several sizes.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JMH classes.
+ */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering templates of several sizes, with and without the
+ * {@link TemplateCache}, either into a {@code String} or streamed.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark
+{
+    /**
+     * Renders into a {@code String}.
+     */
+    public static final String STRING = "string";
+
+    /**
+     * Streams the output.
+     */
+    public static final String STREAM = "stream";
+
+    /**
+     * The template size.
+     */
+    @Param({ BenchmarkFixtures.SMALL, BenchmarkFixtures.README, BenchmarkFixtures.LARGE })
+    public String size;
+
+    /**
+     * Whether compiled groups are cached.
+     */
+    @Param({ "true", "false" })
+    public boolean cached;
+
+    /**
+     * {@link #STRING} or {@link #STREAM}.
+     */
+    @Param({ STRING, STREAM })
+    public String output;
+
+    /**
+     * The generator.
+     */
+    private DockerfileGenerator m__Generator;
+
+    /**
+     * Writes the template and builds the generator.
+     * @throws IOException if the template cannot be written.
+     */
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        final File directory = Files.createTempDirectory("dockerfile-benchmark").toFile();
+
+        final Map<String, Object> input = new HashMap<String, Object>();
+
+        input.put(Literals.T_U, BenchmarkFixtures.newProject(directory));
+        input.put(Literals.VERSION_L, "benchmark");
+
+        this.m__Generator =
+            new DockerfileGenerator(
+                input,
+                BenchmarkFixtures.writeTemplate(directory, this.size),
+                StandardCharsets.UTF_8,
+                this.cached ? new TemplateCache(TemplateCache.DEFAULT_MAX_ENTRIES) : null);
+    }
+
+    /**
+     * Renders the template.
+     * @return the output, or the number of characters streamed.
+     * @throws IOException if the output cannot be written.
+     */
+    @Benchmark
+    public Object render()
+        throws IOException
+    {
+        final Object result;
+
+        if (STRING.equals(this.output))
+        {
+            result = this.m__Generator.generateDockerfile();
+        }
+        else
+        {
+            result = this.m__Generator.writeDockerfile(OutputStream.nullOutputStream());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: AetherArtifactUploader.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Uploads artifacts with Maven's repository system.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Aether classes.
+ */
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.deployment.DeployRequest;
+import org.eclipse.aether.deployment.DeploymentException;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uploads artifacts with Maven's own repository system, so credentials,
+ * proxies, checksums and snapshot metadata are handled as for any other
+ * deployment. Each batch is one {@link DeployRequest}, so the metadata of a
+ * version is updated once for all its classifiers.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class AetherArtifactUploader
+    implements ArtifactUploader
+{
+    /**
+     * The repository system.
+     */
+    private final RepositorySystem m__RepositorySystem;
+
+    /**
+     * The repository session.
+     */
+    private final RepositorySystemSession m__Session;
+
+    /**
+     * The repository of each batch, by {@link DockerfileDeployer#retrieveBatchKey(Artifact)}.
+     */
+    private final Map<String, RemoteRepository> m__mRepositories;
+
+    /**
+     * Creates a new uploader.
+     * @param repositorySystem the repository system.
+     * @param session the repository session.
+     * @param repositories the repository of each batch.
+     */
+    public AetherArtifactUploader(
+        final RepositorySystem repositorySystem,
+        final RepositorySystemSession session,
+        final Map<String, RemoteRepository> repositories)
+    {
+        this.m__RepositorySystem = repositorySystem;
+        this.m__Session = session;
+        this.m__mRepositories = repositories;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void upload(final List<Artifact> batch)
+        throws IOException
+    {
+        final String key = DockerfileDeployer.retrieveBatchKey(batch.get(0));
+
+        final RemoteRepository repository = this.m__mRepositories.get(key);
+
+        if (repository == null)
+        {
+            throw new IOException("No deployment repository for " + key);
+        }
+
+        final DeployRequest request = new DeployRequest();
+        request.setRepository(repository);
+
+        for (final Artifact artifact : batch)
+        {
+            request.addArtifact(artifact);
+        }
+
+        try
+        {
+            this.m__RepositorySystem.deploy(this.m__Session, request);
+        }
+        catch (final DeploymentException cannotDeploy)
+        {
+            throw new IOException("Cannot deploy " + key + " to " + repository.getUrl(), cannotDeploy);
+        }
+    }
+}
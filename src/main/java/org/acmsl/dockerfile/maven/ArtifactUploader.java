@@ -0,0 +1,61 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ArtifactUploader.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Uploads a batch of artifacts to a repository.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Aether classes.
+ */
+import org.eclipse.aether.artifact.Artifact;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Uploads a batch of artifacts, all with the same coordinates but different
+ * classifiers, to a repository. Implementations must be thread-safe:
+ * {@link DockerfileDeployer} uploads several batches at once.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public interface ArtifactUploader
+{
+    /**
+     * Uploads given artifacts.
+     * @param batch the artifacts, with their files.
+     * @throws IOException if the upload fails, and may be retried.
+     */
+    void upload(final List<Artifact> batch)
+        throws IOException;
+}
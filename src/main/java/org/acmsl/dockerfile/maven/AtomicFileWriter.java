@@ -0,0 +1,475 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: AtomicFileWriter.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Writes files only when their contents change, atomically.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes files only when their contents change. New contents are written to a
+ * temporary file in the same directory, digested on the fly, and atomically
+ * renamed over the target only if they differ from what's already there, so
+ * unchanged files keep their modification time. What's there is only read
+ * back if its SHA-256 is not known already. SHA-1 and SHA-256 digests are
+ * computed in the same pass and, on demand, written to sidecar files.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public class AtomicFileWriter
+{
+    /**
+     * The SHA-1 sidecar extension.
+     */
+    public static final String SHA1_EXTENSION = ".sha1";
+
+    /**
+     * The SHA-256 sidecar extension.
+     */
+    public static final String SHA256_EXTENSION = ".sha256";
+
+    /**
+     * The size of the output buffer.
+     */
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Used to build unique temporary file names.
+     */
+    private static final AtomicLong TEMP_COUNTER = new AtomicLong();
+
+    /**
+     * Produces the contents to write.
+     */
+    public interface Content
+    {
+        /**
+         * Writes the contents to given stream.
+         * @param output the stream. It must not be closed.
+         * @throws IOException if the contents cannot be written.
+         */
+        void writeTo(OutputStream output)
+            throws IOException;
+    }
+
+    /**
+     * Where the checksum sidecars go, without extension.
+     */
+    private final File m__Sidecars;
+
+    /**
+     * The SHA-256 of files as they are now, by absolute path, where known.
+     */
+    private final Map<File, String> m__mDigests;
+
+    /**
+     * Creates a writer that writes no checksum sidecars.
+     */
+    public AtomicFileWriter()
+    {
+        this(null);
+    }
+
+    /**
+     * Creates a writer.
+     * @param sidecars where to write the checksum sidecars, to which
+     * {@link #SHA1_EXTENSION} and {@link #SHA256_EXTENSION} are appended; or
+     * {@code null} to write none.
+     */
+    public AtomicFileWriter(final File sidecars)
+    {
+        this(sidecars, new ConcurrentHashMap<File, String>());
+    }
+
+    /**
+     * Creates a writer that knows the SHA-256 of some files already, such as
+     * the ones recorded when they were last written, so it does not read
+     * them back to tell whether they change.
+     * @param sidecars where to write the checksum sidecars, or {@code null}.
+     * @param digests the SHA-256 of files as they are now, by absolute path;
+     * updated as files are written.
+     */
+    public AtomicFileWriter(final File sidecars, final Map<File, String> digests)
+    {
+        this.m__Sidecars = sidecars;
+        this.m__mDigests = digests;
+    }
+
+    /**
+     * Retrieves where the checksum sidecars go.
+     * @return such location, without extension, or {@code null} if they're
+     * not written.
+     */
+    public File getSidecars()
+    {
+        return this.m__Sidecars;
+    }
+
+    /**
+     * Retrieves the known SHA-256 of a file.
+     * @param file the file.
+     * @return its SHA-256, as last written or as given when this writer was
+     * created, or {@code null} if it's not known.
+     */
+    public String getDigest(final File file)
+    {
+        return this.m__mDigests.get(file.getAbsoluteFile());
+    }
+
+    /**
+     * Writes given contents to the target file, if they changed.
+     * @param target the target file.
+     * @param content the contents.
+     * @return the outcome.
+     * @throws IOException if the file cannot be written.
+     */
+    public Result write(final File target, final Content content)
+        throws IOException
+    {
+        final Result result;
+
+        final Path targetPath = target.toPath().toAbsolutePath();
+        final Path directory = targetPath.getParent();
+
+        Files.createDirectories(directory);
+
+        final Path temp =
+            Files.createFile(
+                directory.resolve(
+                    "." + targetPath.getFileName() + "." + TEMP_COUNTER.incrementAndGet() + ".tmp"));
+
+        try
+        {
+            final DigestingOutputStream digests;
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE))
+            {
+                digests =
+                    new DigestingOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+
+                content.writeTo(digests);
+                digests.flush();
+            }
+
+            final String sha1 = Digests.toHex(digests.getSha1().digest());
+            final String sha256 = Digests.toHex(digests.getSha256().digest());
+
+            final boolean changed = !isSame(target, digests.getCount(), sha256);
+
+            if (changed)
+            {
+                move(temp, targetPath);
+            }
+            else
+            {
+                Files.delete(temp);
+            }
+
+            this.m__mDigests.put(target.getAbsoluteFile(), sha256);
+
+            final File sidecars = getSidecars();
+
+            if (sidecars != null)
+            {
+                writeSidecar(new File(sidecars.getPath() + SHA1_EXTENSION), sha1);
+                writeSidecar(new File(sidecars.getPath() + SHA256_EXTENSION), sha256);
+            }
+
+            result = new Result(target, changed, digests.getCount(), sha1, sha256);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether given file already has the expected contents, reading
+     * it only if its SHA-256 is not known.
+     * @param file the file.
+     * @param size the expected size.
+     * @param sha256 the expected SHA-256.
+     * @return {@code true} in such case.
+     * @throws IOException if the file cannot be read.
+     */
+    protected boolean isSame(final File file, final long size, final String sha256)
+        throws IOException
+    {
+        final String known = getDigest(file);
+
+        return
+               (file.isFile())
+            && (file.length() == size)
+            && (sha256.equals((known == null) ? Digests.digest(file, Digests.SHA_256) : known));
+    }
+
+    /**
+     * Replaces the target with the temporary file, atomically if supported.
+     * @param source the temporary file.
+     * @param target the target.
+     * @throws IOException if the file cannot be moved.
+     */
+    protected void move(final Path source, final Path target)
+        throws IOException
+    {
+        try
+        {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (final AtomicMoveNotSupportedException atomicMoveNotSupported)
+        {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes a checksum sidecar, unless it's already up to date.
+     * @param sidecar the sidecar file.
+     * @param checksum the checksum.
+     * @throws IOException if the file cannot be written.
+     */
+    protected void writeSidecar(final File sidecar, final String checksum)
+        throws IOException
+    {
+        final byte[] contents = checksum.getBytes(StandardCharsets.US_ASCII);
+
+        if (   (!sidecar.isFile())
+            || (sidecar.length() != contents.length)
+            || (!checksum.equals(new String(Files.readAllBytes(sidecar.toPath()), StandardCharsets.US_ASCII))))
+        {
+            Files.createDirectories(sidecar.toPath().toAbsolutePath().getParent());
+            Files.write(sidecar.toPath(), contents);
+        }
+    }
+
+    /**
+     * The outcome of a write.
+     */
+    public static final class Result
+    {
+        /**
+         * The file.
+         */
+        private final File m__File;
+
+        /**
+         * Whether the file changed.
+         */
+        private final boolean m__bChanged;
+
+        /**
+         * The size in bytes.
+         */
+        private final long m__lSize;
+
+        /**
+         * The SHA-1 checksum.
+         */
+        private final String m__strSha1;
+
+        /**
+         * The SHA-256 checksum.
+         */
+        private final String m__strSha256;
+
+        /**
+         * Creates a new result.
+         * @param file the file.
+         * @param changed whether it changed.
+         * @param size its size.
+         * @param sha1 its SHA-1.
+         * @param sha256 its SHA-256.
+         */
+        public Result(
+            final File file,
+            final boolean changed,
+            final long size,
+            final String sha1,
+            final String sha256)
+        {
+            this.m__File = file;
+            this.m__bChanged = changed;
+            this.m__lSize = size;
+            this.m__strSha1 = sha1;
+            this.m__strSha256 = sha256;
+        }
+
+        /**
+         * Retrieves the file.
+         * @return such file.
+         */
+        public File getFile()
+        {
+            return this.m__File;
+        }
+
+        /**
+         * Checks whether the file was actually written.
+         * @return {@code true} if its contents changed.
+         */
+        public boolean isChanged()
+        {
+            return this.m__bChanged;
+        }
+
+        /**
+         * Retrieves the size.
+         * @return the size in bytes.
+         */
+        public long getSize()
+        {
+            return this.m__lSize;
+        }
+
+        /**
+         * Retrieves the SHA-1 checksum.
+         * @return such checksum.
+         */
+        public String getSha1()
+        {
+            return this.m__strSha1;
+        }
+
+        /**
+         * Retrieves the SHA-256 checksum.
+         * @return such checksum.
+         */
+        public String getSha256()
+        {
+            return this.m__strSha256;
+        }
+    }
+
+    /**
+     * Computes SHA-1 and SHA-256 digests of everything written through it.
+     */
+    protected static final class DigestingOutputStream
+        extends FilterOutputStream
+    {
+        /**
+         * The SHA-1 digest.
+         */
+        private final MessageDigest m__Sha1 = Digests.newDigest(Digests.SHA_1);
+
+        /**
+         * The SHA-256 digest.
+         */
+        private final MessageDigest m__Sha256 = Digests.newDigest(Digests.SHA_256);
+
+        /**
+         * The number of bytes written.
+         */
+        private long m__lCount;
+
+        /**
+         * Creates a new stream.
+         * @param output the underlying stream.
+         */
+        public DigestingOutputStream(final OutputStream output)
+        {
+            super(output);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(final int value)
+            throws IOException
+        {
+            out.write(value);
+            this.m__Sha1.update((byte) value);
+            this.m__Sha256.update((byte) value);
+            this.m__lCount++;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length)
+            throws IOException
+        {
+            out.write(bytes, offset, length);
+            this.m__Sha1.update(bytes, offset, length);
+            this.m__Sha256.update(bytes, offset, length);
+            this.m__lCount += length;
+        }
+
+        /**
+         * Retrieves the SHA-1 digest.
+         * @return such digest.
+         */
+        public MessageDigest getSha1()
+        {
+            return this.m__Sha1;
+        }
+
+        /**
+         * Retrieves the SHA-256 digest.
+         * @return such digest.
+         */
+        public MessageDigest getSha256()
+        {
+            return this.m__Sha256;
+        }
+
+        /**
+         * Retrieves the number of bytes written.
+         * @return such count.
+         */
+        public long getCount()
+        {
+            return this.m__lCount;
+        }
+    }
+}
@@ -0,0 +1,732 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: BuildFingerprint.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Fingerprint of the inputs a Dockerfile was generated from.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Fingerprint of the inputs a Dockerfile was generated from: the template, the
+ * groups it imports, the {@link MavenProject} properties it references, the
+ * plugin version and the encoding. Fingerprints are stored as a small properties file, so that
+ * unchanged modules can skip the generation altogether.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public class BuildFingerprint
+{
+    /**
+     * The key prefix for the template.
+     */
+    public static final String TEMPLATE_PREFIX = "template:";
+
+    /**
+     * The key prefix for imported groups.
+     */
+    public static final String IMPORT_PREFIX = "import:";
+
+    /**
+     * The key prefix for files whose checksums templates use.
+     */
+    public static final String FILE_PREFIX = "file:";
+
+    /**
+     * The key prefix for the digests base images were pinned to.
+     */
+    public static final String DIGEST_PREFIX = "digest:";
+
+    /**
+     * The key prefix for values computed on demand.
+     */
+    public static final String MODEL_PREFIX = "model.";
+
+    /**
+     * The key prefix for what values computed on demand are derived from,
+     * such as the declared dependencies of the resolved ones.
+     */
+    public static final String DECLARED_PREFIX = "declared.";
+
+    /**
+     * The key prefix for project fields.
+     */
+    public static final String PROJECT_PREFIX = "project.";
+
+    /**
+     * The key for the plugin version.
+     */
+    public static final String PLUGIN_VERSION = "plugin.version";
+
+    /**
+     * The key for the encoding.
+     */
+    public static final String ENCODING = "encoding";
+
+    /**
+     * The key for the generated file.
+     */
+    public static final String OUTPUT = "output";
+
+    /**
+     * The key for the SHA-256 of the generated file.
+     */
+    public static final String OUTPUT_DIGEST = "output.sha256";
+
+    /**
+     * The value used for files that do not exist.
+     */
+    public static final String MISSING = "(missing)";
+
+    /**
+     * The inputs, sorted by name.
+     */
+    private final SortedMap<String, String> m__mInputs;
+
+    /**
+     * Creates an empty fingerprint.
+     */
+    public BuildFingerprint()
+    {
+        this(new TreeMap<String, String>());
+    }
+
+    /**
+     * Creates a fingerprint with given inputs.
+     * @param inputs the inputs.
+     */
+    protected BuildFingerprint(final SortedMap<String, String> inputs)
+    {
+        this.m__mInputs = inputs;
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of a generation.
+     * @param template the template.
+     * @param imports the files the template imports.
+     * @param project the project properties the template references, as
+     * captured by {@link ProjectSnapshot}.
+     * @param pluginVersion the plugin version.
+     * @param encoding the encoding.
+     * @param output the generated file.
+     * @return the fingerprint.
+     * @throws IOException if any file cannot be read.
+     */
+    public static BuildFingerprint compute(
+        final File template,
+        final Collection<File> imports,
+        final Map<String, ?> project,
+        final String pluginVersion,
+        final Charset encoding,
+        final File output)
+      throws IOException
+    {
+        final BuildFingerprint result = new BuildFingerprint();
+
+        result.putFile(TEMPLATE_PREFIX, template);
+
+        final File canonicalTemplate = template.getCanonicalFile();
+
+        for (final File imported : imports)
+        {
+            if (!imported.getCanonicalFile().equals(canonicalTemplate))
+            {
+                result.putFile(IMPORT_PREFIX, imported);
+            }
+        }
+
+        result.putProject(project);
+        result.put(PLUGIN_VERSION, pluginVersion);
+        result.put(ENCODING, encoding.name());
+        result.putStamp(OUTPUT, output);
+
+        return result;
+    }
+
+    /**
+     * Loads a stored fingerprint.
+     * @param file the state file.
+     * @return the fingerprint, or {@code null} if there's none.
+     * @throws IOException if the file cannot be read.
+     */
+    public static BuildFingerprint load(final File file)
+        throws IOException
+    {
+        BuildFingerprint result = null;
+
+        if (file.isFile())
+        {
+            final Properties properties = new Properties();
+
+            try (InputStream input = Files.newInputStream(file.toPath()))
+            {
+                properties.load(input);
+            }
+
+            result = new BuildFingerprint();
+
+            for (final String name : properties.stringPropertyNames())
+            {
+                result.put(name, properties.getProperty(name));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Stores this fingerprint.
+     * @param file the state file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void store(final File file)
+        throws IOException
+    {
+        final File parent = file.getParentFile();
+
+        if (   (parent != null)
+            && (!parent.isDirectory())
+            && (!parent.mkdirs()))
+        {
+            throw new IOException("Cannot create " + parent);
+        }
+
+        final Properties properties = new Properties();
+
+        properties.putAll(this.m__mInputs);
+
+        try (OutputStream output = Files.newOutputStream(file.toPath()))
+        {
+            properties.store(output, "Dockerfile Maven Plugin build state");
+        }
+    }
+
+    /**
+     * Adds an input.
+     * @param name the input name.
+     * @param value its value.
+     * @return this instance.
+     */
+    public BuildFingerprint put(final String name, final String value)
+    {
+        this.m__mInputs.put(name, value == null ? "" : value);
+
+        return this;
+    }
+
+    /**
+     * Adds the digest of a file, or of the templates of a group directory.
+     * @param prefix the key prefix.
+     * @param file the file.
+     * @return this instance.
+     * @throws IOException if the file cannot be read.
+     */
+    public BuildFingerprint putFile(final String prefix, final File file)
+        throws IOException
+    {
+        final String value;
+
+        if (file.isFile())
+        {
+            value = Digests.digest(file, Digests.SHA_256);
+        }
+        else if (file.isDirectory())
+        {
+            value = Digests.sha256(describeDirectory(file));
+        }
+        else
+        {
+            value = MISSING;
+        }
+
+        return put(prefix + file.getAbsolutePath(), value);
+    }
+
+    /**
+     * Adds the digests of several files.
+     * @param prefix the key prefix.
+     * @param files the files.
+     * @return this instance.
+     * @throws IOException if any file cannot be read.
+     */
+    public BuildFingerprint putFiles(final String prefix, final Collection<File> files)
+        throws IOException
+    {
+        for (final File file : files)
+        {
+            putFile(prefix, file);
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds the digests of several files, hashing in parallel the ones the
+     * service does not remember unchanged.
+     * @param prefix the key prefix.
+     * @param files the files.
+     * @param checksums the service.
+     * @return this instance.
+     * @throws IOException if any file cannot be read.
+     */
+    public BuildFingerprint putFiles(
+        final String prefix, final Collection<File> files, final ChecksumService checksums)
+      throws IOException
+    {
+        final Map<File, String> digests = checksums.digestAll(files);
+
+        for (final File file : files)
+        {
+            final String digest = digests.get(file);
+
+            if (digest != null)
+            {
+                put(prefix + file.getAbsolutePath(), digest);
+            }
+            else
+            {
+                putFile(prefix, file);
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds the digests of the on-demand values of a template input, computing
+     * them if needed. {@link FileChecksums} are left out: the files they read
+     * are tracked with {@link #FILE_PREFIX} instead.
+     * @param model the template input.
+     * @return this instance.
+     */
+    public BuildFingerprint putModel(final LazyTemplateModel model)
+    {
+        for (final String name : model.getLazyNames())
+        {
+            final Object value = model.get(name);
+
+            if (!(value instanceof FileChecksums))
+            {
+                put(MODEL_PREFIX + name, Digests.sha256(describe(value)));
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds the digest of what a value computed on demand is derived from, so
+     * that a change in it is found without computing the value.
+     * @param name the value name.
+     * @param declared what it's derived from.
+     * @return this instance.
+     */
+    public BuildFingerprint putDeclared(final String name, final Object declared)
+    {
+        return put(DECLARED_PREFIX + name, Digests.sha256(describe(declared)));
+    }
+
+    /**
+     * Describes a model value, in a stable way.
+     * @param value the value.
+     * @return its description.
+     */
+    protected static String describe(final Object value)
+    {
+        final StringBuilder result = new StringBuilder();
+
+        if (value instanceof Map)
+        {
+            result.append('{');
+
+            final SortedMap<String, Object> sorted = new TreeMap<String, Object>();
+
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+
+            for (final Map.Entry<String, Object> entry : sorted.entrySet())
+            {
+                result.append(entry.getKey()).append('=').append(describe(entry.getValue())).append(',');
+            }
+
+            result.append('}');
+        }
+        else if (value instanceof Collection)
+        {
+            result.append('[');
+
+            for (final Object item : (Collection<?>) value)
+            {
+                result.append(describe(item)).append(',');
+            }
+
+            result.append(']');
+        }
+        else if (value instanceof Dependency)
+        {
+            final Dependency dependency = (Dependency) value;
+
+            result.append(
+                  dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getType()
+                + ":" + dependency.getClassifier() + ":" + dependency.getVersion() + ":" + dependency.getScope());
+        }
+        else if (value instanceof Build)
+        {
+            final Build build = (Build) value;
+
+            result.append(build.getFinalName()).append(':').append(build.getDirectory())
+                .append(':').append(build.getOutputDirectory());
+        }
+        else if (value instanceof Plugin)
+        {
+            final Plugin plugin = (Plugin) value;
+
+            // Plugin.toString() leaves the configuration out.
+            result.append(plugin.getKey()).append(':').append(plugin.getVersion())
+                .append(':').append(plugin.getConfiguration());
+        }
+        else
+        {
+            result.append(value);
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Adds the size and last-modification time of a file.
+     * @param name the input name.
+     * @param file the file.
+     * @return this instance.
+     */
+    public BuildFingerprint putStamp(final String name, final File file)
+    {
+        return put(name, describeStamp(file));
+    }
+
+    /**
+     * Describes the size and last-modification time of a file.
+     * @param file the file.
+     * @return such description, or {@link #MISSING}.
+     */
+    protected static String describeStamp(final File file)
+    {
+        return file.isFile() ? file.length() + "@" + file.lastModified() : MISSING;
+    }
+
+    /**
+     * Adds the SHA-256 of the generated file, if known.
+     * @param sha256 the SHA-256, or {@code null}.
+     * @return this instance.
+     */
+    public BuildFingerprint putOutputDigest(final String sha256)
+    {
+        if (sha256 != null)
+        {
+            put(OUTPUT_DIGEST, sha256);
+        }
+
+        return this;
+    }
+
+    /**
+     * Retrieves the SHA-256 the generated file had when this fingerprint was
+     * stored, provided its size and modification time did not change since.
+     * @param output the generated file.
+     * @return its SHA-256, or {@code null} if unknown or possibly outdated.
+     */
+    public String getOutputDigest(final File output)
+    {
+        final String stamp = this.m__mInputs.get(OUTPUT);
+
+        return
+            ((stamp != null) && (stamp.equals(describeStamp(output))))
+            ? this.m__mInputs.get(OUTPUT_DIGEST)
+            : null;
+    }
+
+    /**
+     * Adds the project properties the template references.
+     * @param project the properties, as captured by {@link ProjectSnapshot}.
+     * @return this instance.
+     */
+    public BuildFingerprint putProject(final Map<String, ?> project)
+    {
+        for (final Map.Entry<String, ?> entry : project.entrySet())
+        {
+            final Object value = entry.getValue();
+
+            put(
+                PROJECT_PREFIX + entry.getKey(),
+                (   (value == null)
+                 || (value instanceof CharSequence)
+                 || (value instanceof Number))
+                ? String.valueOf(value)
+                : Digests.sha256(describe(value)));
+        }
+
+        return this;
+    }
+
+    /**
+     * Describes the templates within a group directory.
+     * @param directory the directory.
+     * @return a description including their names, sizes and modification times.
+     */
+    protected static String describeDirectory(final File directory)
+    {
+        final StringBuilder result = new StringBuilder();
+
+        final File[] children = directory.listFiles();
+
+        if (children != null)
+        {
+            Arrays.sort(children);
+
+            for (final File child : children)
+            {
+                final String name = child.getName();
+
+                if (   (name.endsWith(".st"))
+                    || (name.endsWith(".stg")))
+                {
+                    result.append(name).append('=').append(child.length())
+                        .append('@').append(child.lastModified()).append('\n');
+                }
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Retrieves the inputs.
+     * @return such inputs.
+     */
+    public Map<String, String> getInputs()
+    {
+        return Collections.unmodifiableMap(this.m__mInputs);
+    }
+
+    /**
+     * Retrieves the imported groups recorded in this fingerprint.
+     * @return such files.
+     */
+    public List<File> getImports()
+    {
+        return getFiles(IMPORT_PREFIX);
+    }
+
+    /**
+     * Retrieves the files recorded in this fingerprint with given prefix.
+     * @param prefix the key prefix.
+     * @return such files.
+     */
+    public List<File> getFiles(final String prefix)
+    {
+        final List<File> result = new ArrayList<File>();
+
+        for (final String name : this.m__mInputs.keySet())
+        {
+            if (name.startsWith(prefix))
+            {
+                result.add(new File(name.substring(prefix.length())));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the digests images were pinned to.
+     * @param digests the digests, by image reference.
+     * @return this instance.
+     */
+    public BuildFingerprint putDigests(final Map<String, String> digests)
+    {
+        for (final Map.Entry<String, String> digest : digests.entrySet())
+        {
+            put(DIGEST_PREFIX + digest.getKey(), digest.getValue());
+        }
+
+        return this;
+    }
+
+    /**
+     * Retrieves the images pinned in this fingerprint.
+     * @return their references.
+     */
+    public List<String> getPinnedImages()
+    {
+        final List<String> result = new ArrayList<String>();
+
+        for (final String name : this.m__mInputs.keySet())
+        {
+            if (name.startsWith(DIGEST_PREFIX))
+            {
+                result.add(name.substring(DIGEST_PREFIX.length()));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether this fingerprint matches a previous one.
+     * @param previous the previous fingerprint.
+     * @return {@code true} if all inputs are the same.
+     */
+    public boolean matches(final BuildFingerprint previous)
+    {
+        return matches(previous, null);
+    }
+
+    /**
+     * Checks whether this fingerprint matches a previous one, leaving out
+     * the inputs with given prefix, such as the values computed on demand,
+     * which are only worth computing if everything else matches.
+     * @param previous the previous fingerprint.
+     * @param ignoredPrefix the prefix of the inputs to leave out, or {@code null}.
+     * @return {@code true} if all other inputs are the same.
+     */
+    public boolean matches(final BuildFingerprint previous, final String ignoredPrefix)
+    {
+        return
+               (previous != null)
+            && (explain(previous, ignoredPrefix).isEmpty());
+    }
+
+    /**
+     * Explains why this fingerprint does not match a previous one.
+     * @param previous the previous fingerprint, or {@code null}.
+     * @return the inputs that changed, one per line.
+     */
+    public List<String> explain(final BuildFingerprint previous)
+    {
+        return explain(previous, null);
+    }
+
+    /**
+     * Explains why this fingerprint does not match a previous one, leaving
+     * out the inputs with given prefix.
+     * @param previous the previous fingerprint, or {@code null}.
+     * @param ignoredPrefix the prefix of the inputs to leave out, or {@code null}.
+     * @return the inputs that changed, one per line.
+     */
+    public List<String> explain(final BuildFingerprint previous, final String ignoredPrefix)
+    {
+        final List<String> result = new ArrayList<String>();
+
+        if (previous == null)
+        {
+            result.add("no previous build state");
+        }
+        else
+        {
+            for (final Map.Entry<String, String> entry : this.m__mInputs.entrySet())
+            {
+                if (isIgnored(entry.getKey(), ignoredPrefix))
+                {
+                    continue;
+                }
+
+                final String before = previous.m__mInputs.get(entry.getKey());
+
+                if (before == null)
+                {
+                    result.add(entry.getKey() + " added");
+                }
+                else if (!before.equals(entry.getValue()))
+                {
+                    result.add(entry.getKey() + " changed: " + before + " -> " + entry.getValue());
+                }
+            }
+
+            for (final String name : previous.m__mInputs.keySet())
+            {
+                if (   (!isIgnored(name, ignoredPrefix))
+                    && (!this.m__mInputs.containsKey(name)))
+                {
+                    result.add(name + " removed");
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether an input is left out of a comparison.
+     * @param name the input name.
+     * @param ignoredPrefix the prefix of the inputs to leave out, or {@code null}.
+     * @return {@code true} in such case.
+     */
+    protected static boolean isIgnored(final String name, final String ignoredPrefix)
+    {
+        return
+               (ignoredPrefix != null)
+            && (name.startsWith(ignoredPrefix));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return this.m__mInputs.toString();
+    }
+}
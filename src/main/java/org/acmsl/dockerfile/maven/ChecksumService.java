@@ -0,0 +1,673 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ChecksumService.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Computes SHA-256 checksums of files in parallel, remembering them across builds.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computes the SHA-256 of files, remembering each one by path, size and
+ * modification time, on disk, so that unchanged files (typically, large
+ * jars in the local repository or {@code target/}) are never read again,
+ * in this build or later ones. Several files are hashed at once on a
+ * fork-join pool; large files are read through memory-mapped channels,
+ * without copying their bytes into the heap. The file is shared by every
+ * build using it; a lock file serializes changes among Maven processes.
+ * <p>As git does, checksums of files modified too recently to tell a later
+ * change apart by their modification time are not remembered.</p>
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class ChecksumService
+{
+    /**
+     * The default file, relative to the local repository.
+     */
+    public static final String DEFAULT_FILE = GenerationCache.DEFAULT_FOLDER + "/checksums.properties";
+
+    /**
+     * Files at least this large are memory-mapped.
+     */
+    public static final long MAPPED_THRESHOLD = 1024L * 1024;
+
+    /**
+     * How much of a file is mapped at once.
+     */
+    protected static final long MAPPED_CHUNK = 64L * 1024 * 1024;
+
+    /**
+     * How recent a modification must be for its checksum not to be remembered, in milliseconds.
+     */
+    protected static final long RACY_MILLIS = 2000;
+
+    /**
+     * The extension of the lock file.
+     */
+    protected static final String LOCK_EXTENSION = ".lock";
+
+    /**
+     * The services in use, by file, so that all modules share checksums.
+     */
+    private static final ConcurrentMap<Path, ChecksumService> SERVICES = new ConcurrentHashMap<Path, ChecksumService>();
+
+    /**
+     * Pool implementation, created on first use.
+     */
+    protected static final class ForkJoinPoolContainer
+    {
+        /**
+         * The pool files are hashed on. Its threads are daemons: nothing to
+         * shut down when the build ends.
+         */
+        public static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * The file, or {@code null} to keep checksums in memory only.
+     */
+    private final Path m__File;
+
+    /**
+     * Serializes changes to the file, or {@code null} if there's no file.
+     */
+    private final LockedFile m__Lock;
+
+    /**
+     * The checksums, by absolute path.
+     */
+    private final Map<String, Entry> m__mEntries = new HashMap<String, Entry>();
+
+    /**
+     * Whether the file has been read.
+     */
+    private boolean m__bLoaded;
+
+    /**
+     * Whether there are checksums not written to the file yet.
+     */
+    private boolean m__bDirty;
+
+    /**
+     * The number of checksums taken from the cache.
+     */
+    private final AtomicLong m__lHits = new AtomicLong();
+
+    /**
+     * The number of files hashed.
+     */
+    private final AtomicLong m__lHashed = new AtomicLong();
+
+    /**
+     * The number of bytes hashed.
+     */
+    private final AtomicLong m__lHashedBytes = new AtomicLong();
+
+    /**
+     * Creates a new service.
+     * @param file the file, or {@code null} to keep checksums in memory only.
+     */
+    public ChecksumService(final File file)
+    {
+        this.m__File = (file == null) ? null : file.toPath().toAbsolutePath().normalize();
+
+        this.m__Lock =
+            (this.m__File == null)
+            ? null
+            : new LockedFile(this.m__File.resolveSibling(this.m__File.getFileName() + LOCK_EXTENSION));
+    }
+
+    /**
+     * Retrieves the service of a file, shared within this process.
+     * @param file the file.
+     * @return such service.
+     */
+    public static ChecksumService retrieve(final File file)
+    {
+        final Path key = file.toPath().toAbsolutePath().normalize();
+
+        ChecksumService result = SERVICES.get(key);
+
+        if (result == null)
+        {
+            final ChecksumService service = new ChecksumService(file);
+
+            result = SERVICES.putIfAbsent(key, service);
+
+            if (result == null)
+            {
+                result = service;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the file.
+     * @return such file, or {@code null} if checksums are kept in memory only.
+     */
+    public File getFile()
+    {
+        return (this.m__File == null) ? null : this.m__File.toFile();
+    }
+
+    /**
+     * Retrieves the number of checksums taken from the cache.
+     * @return such number.
+     */
+    public long getHits()
+    {
+        return this.m__lHits.get();
+    }
+
+    /**
+     * Retrieves the number of files hashed.
+     * @return such number.
+     */
+    public long getHashed()
+    {
+        return this.m__lHashed.get();
+    }
+
+    /**
+     * Retrieves the number of bytes hashed.
+     * @return such number.
+     */
+    public long getHashedBytes()
+    {
+        return this.m__lHashedBytes.get();
+    }
+
+    /**
+     * Retrieves the SHA-256 of a file, hashing it only if it changed since
+     * it was last hashed.
+     * @param file the file.
+     * @return the hexadecimal checksum.
+     * @throws IOException if the file cannot be read.
+     */
+    public String digest(final File file)
+        throws IOException
+    {
+        final String result;
+
+        final Path path = file.toPath().toAbsolutePath().normalize();
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        final long size = attributes.size();
+        final long modified = attributes.lastModifiedTime().toMillis();
+
+        final Entry cached = retrieveEntry(path.toString());
+
+        if (   (cached != null)
+            && (cached.getSize() == size)
+            && (cached.getModifiedMillis() == modified))
+        {
+            this.m__lHits.incrementAndGet();
+            result = cached.getDigest();
+        }
+        else
+        {
+            final long start = System.currentTimeMillis();
+
+            result = compute(path, size);
+
+            this.m__lHashed.incrementAndGet();
+            this.m__lHashedBytes.addAndGet(size);
+
+            if (start - modified >= RACY_MILLIS)
+            {
+                synchronized (this.m__mEntries)
+                {
+                    this.m__mEntries.put(path.toString(), new Entry(size, modified, result));
+                    this.m__bDirty = true;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the SHA-256 of several files, hashing the changed ones in parallel.
+     * @param files the files.
+     * @return their checksums, in the same order; files that do not exist are left out.
+     * @throws IOException if any file cannot be read.
+     */
+    public Map<File, String> digestAll(final Collection<File> files)
+        throws IOException
+    {
+        final List<File> existing = new ArrayList<File>(files.size());
+
+        for (final File file : files)
+        {
+            if (file.isFile())
+            {
+                existing.add(file);
+            }
+        }
+
+        final String[] digests = new String[existing.size()];
+
+        try
+        {
+            retrievePool().invoke(new DigestTask(existing, digests, 0, existing.size()));
+        }
+        catch (final UncheckedIOException cannotRead)
+        {
+            throw cannotRead.getCause();
+        }
+
+        final Map<File, String> result = new LinkedHashMap<File, String>();
+
+        for (int index = 0; index < digests.length; index++)
+        {
+            result.put(existing.get(index), digests[index]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Hashes a file: small files are streamed, and large ones memory-mapped.
+     * @param path the file.
+     * @param size its size.
+     * @return the hexadecimal SHA-256.
+     * @throws IOException if the file cannot be read.
+     */
+    protected static String compute(final Path path, final long size)
+        throws IOException
+    {
+        final String result;
+
+        if (size < MAPPED_THRESHOLD)
+        {
+            result = Digests.digest(path.toFile(), Digests.SHA_256);
+        }
+        else
+        {
+            final MessageDigest digest = Digests.newDigest(Digests.SHA_256);
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+            {
+                final long length = channel.size();
+
+                long position = 0;
+
+                // Mapped in chunks: a single mapping cannot exceed 2 GiB.
+                while (position < length)
+                {
+                    final long chunk = Math.min(MAPPED_CHUNK, length - position);
+
+                    final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, chunk);
+
+                    digest.update(buffer);
+
+                    position += chunk;
+                }
+            }
+
+            result = Digests.toHex(digest.digest());
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the cached entry of a file, reading the cache file the first time.
+     * @param path the absolute path.
+     * @return such entry, or {@code null}.
+     * @throws IOException if the cache file cannot be read.
+     */
+    protected Entry retrieveEntry(final String path)
+        throws IOException
+    {
+        synchronized (this.m__mEntries)
+        {
+            if (!this.m__bLoaded)
+            {
+                this.m__mEntries.putAll(read());
+                this.m__bLoaded = true;
+            }
+
+            return this.m__mEntries.get(path);
+        }
+    }
+
+    /**
+     * Writes the checksums computed so far to the file, along with the ones
+     * other processes wrote meanwhile, and removes the entries of files that
+     * no longer exist.
+     * @throws IOException if the file cannot be written.
+     */
+    public void flush()
+        throws IOException
+    {
+        final Map<String, Entry> entries;
+
+        synchronized (this.m__mEntries)
+        {
+            entries = this.m__bDirty ? new HashMap<String, Entry>(this.m__mEntries) : null;
+            this.m__bDirty = false;
+        }
+
+        if (   (entries != null)
+            && (this.m__File != null))
+        {
+            this.m__Lock.withLock(
+                new Callable<Void>()
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public Void call()
+                        throws IOException
+                    {
+                        final Map<String, Entry> merged = read();
+
+                        merged.putAll(entries);
+
+                        for (final String path : new ArrayList<String>(merged.keySet()))
+                        {
+                            if (!new File(path).isFile())
+                            {
+                                merged.remove(path);
+                            }
+                        }
+
+                        write(merged);
+
+                        return null;
+                    }
+                });
+        }
+    }
+
+    /**
+     * Reads the file.
+     * @return its entries, empty if there's no file.
+     * @throws IOException if it cannot be read.
+     */
+    protected Map<String, Entry> read()
+        throws IOException
+    {
+        final Map<String, Entry> result = new HashMap<String, Entry>();
+
+        if (this.m__File != null)
+        {
+            final Map<String, String> properties = LockedFile.readProperties(this.m__File);
+
+            for (final String path : properties.keySet())
+            {
+                final Entry entry = Entry.parse(properties.get(path));
+
+                if (entry != null)
+                {
+                    result.put(path, entry);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the file atomically. Callers must hold the lock.
+     * @param entries the entries.
+     * @throws IOException if it cannot be written.
+     */
+    protected void write(final Map<String, Entry> entries)
+        throws IOException
+    {
+        final Map<String, String> properties = new HashMap<String, String>();
+
+        for (final Map.Entry<String, Entry> entry : entries.entrySet())
+        {
+            properties.put(entry.getKey(), entry.getValue().toString());
+        }
+
+        LockedFile.writeProperties(this.m__File, properties);
+    }
+
+    /**
+     * Retrieves the pool files are hashed on.
+     * @return such pool.
+     */
+    protected static ForkJoinPool retrievePool()
+    {
+        return ForkJoinPoolContainer.POOL;
+    }
+
+    /**
+     * Describes the service usage.
+     * @return such description.
+     */
+    public String describe()
+    {
+        return
+              "Checksums: " + this.m__lHits.get() + " cached, " + this.m__lHashed.get() + " hashed ("
+            + ContextAnalyzer.formatBytes(this.m__lHashedBytes.get()) + ")"
+            + ((this.m__File == null) ? "" : " in " + this.m__File);
+    }
+
+    /**
+     * Hashes a range of files, splitting it until each task has a single file.
+     */
+    protected final class DigestTask
+        extends RecursiveAction
+    {
+        /**
+         * The serial version id.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The files.
+         */
+        private final List<File> m__lFiles;
+
+        /**
+         * Where the checksums go, by index.
+         */
+        private final String[] m__aDigests;
+
+        /**
+         * The first index.
+         */
+        private final int m__iFrom;
+
+        /**
+         * The index after the last one.
+         */
+        private final int m__iTo;
+
+        /**
+         * Creates a new task.
+         * @param files the files.
+         * @param digests where the checksums go, by index.
+         * @param from the first index.
+         * @param to the index after the last one.
+         */
+        public DigestTask(final List<File> files, final String[] digests, final int from, final int to)
+        {
+            this.m__lFiles = files;
+            this.m__aDigests = digests;
+            this.m__iFrom = from;
+            this.m__iTo = to;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void compute()
+        {
+            if (this.m__iTo - this.m__iFrom == 1)
+            {
+                try
+                {
+                    this.m__aDigests[this.m__iFrom] = digest(this.m__lFiles.get(this.m__iFrom));
+                }
+                catch (final IOException cannotRead)
+                {
+                    throw new UncheckedIOException(cannotRead);
+                }
+            }
+            else if (this.m__iTo - this.m__iFrom > 1)
+            {
+                final int middle = (this.m__iFrom + this.m__iTo) >>> 1;
+
+                invokeAll(
+                    new DigestTask(this.m__lFiles, this.m__aDigests, this.m__iFrom, middle),
+                    new DigestTask(this.m__lFiles, this.m__aDigests, middle, this.m__iTo));
+            }
+        }
+    }
+
+    /**
+     * A remembered checksum.
+     */
+    protected static final class Entry
+    {
+        /**
+         * The size of the file.
+         */
+        private final long m__lSize;
+
+        /**
+         * When the file was modified.
+         */
+        private final long m__lModifiedMillis;
+
+        /**
+         * The checksum.
+         */
+        private final String m__strDigest;
+
+        /**
+         * Creates a new entry.
+         * @param size the size of the file.
+         * @param modifiedMillis when the file was modified.
+         * @param digest the checksum.
+         */
+        public Entry(final long size, final long modifiedMillis, final String digest)
+        {
+            this.m__lSize = size;
+            this.m__lModifiedMillis = modifiedMillis;
+            this.m__strDigest = digest;
+        }
+
+        /**
+         * Parses an entry.
+         * @param text the text, as written by {@link #toString()}.
+         * @return the entry, or {@code null} if it's not valid.
+         */
+        public static Entry parse(final String text)
+        {
+            Entry result = null;
+
+            final String[] parts = text.trim().split(" ");
+
+            if (parts.length == 3)
+            {
+                try
+                {
+                    result = new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]);
+                }
+                catch (final NumberFormatException invalid)
+                {
+                    result = null;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the size of the file.
+         * @return such size.
+         */
+        public long getSize()
+        {
+            return this.m__lSize;
+        }
+
+        /**
+         * Retrieves when the file was modified.
+         * @return such time, in milliseconds since the epoch.
+         */
+        public long getModifiedMillis()
+        {
+            return this.m__lModifiedMillis;
+        }
+
+        /**
+         * Retrieves the checksum.
+         * @return such checksum.
+         */
+        public String getDigest()
+        {
+            return this.m__strDigest;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return this.m__lSize + " " + this.m__lModifiedMillis + " " + this.m__strDigest;
+        }
+    }
+}
@@ -0,0 +1,537 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ContextAnalyzer.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Measures a docker build context, with and without an ignore file.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Measures what {@code docker build} would send to the daemon for a build
+ * context, and what a {@link Dockerignore} saves. Folders are walked in
+ * parallel, one fork-join task per folder, without following links. The
+ * largest paths the ignore file leaves out are reported: whole folders when
+ * nothing inside them is kept, single files otherwise.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class ContextAnalyzer
+{
+    /**
+     * The default number of offending paths to report.
+     */
+    public static final int DEFAULT_OFFENDERS = 10;
+
+    /**
+     * The ignore file.
+     */
+    private final Dockerignore m__Ignore;
+
+    /**
+     * How many offending paths to report.
+     */
+    private final int m__iOffenders;
+
+    /**
+     * Creates a new analyzer.
+     * @param ignore the ignore file.
+     * @param offenders how many offending paths to report.
+     */
+    public ContextAnalyzer(final Dockerignore ignore, final int offenders)
+    {
+        this.m__Ignore = ignore;
+        this.m__iOffenders = Math.max(0, offenders);
+    }
+
+    /**
+     * Retrieves the ignore file.
+     * @return such file.
+     */
+    public Dockerignore getIgnore()
+    {
+        return this.m__Ignore;
+    }
+
+    /**
+     * Analyzes a build context.
+     * @param root the context folder.
+     * @param pool the pool to walk it with.
+     * @return the report.
+     * @throws IOException if the folder cannot be read.
+     */
+    public Report analyze(final File root, final ForkJoinPool pool)
+        throws IOException
+    {
+        final long start = System.nanoTime();
+
+        final Tally tally;
+
+        try
+        {
+            tally = pool.invoke(new FolderTask(root.toPath(), ""));
+        }
+        catch (final UncheckedIOException cannotRead)
+        {
+            throw cannotRead.getCause();
+        }
+
+        return
+            new Report(
+                tally.m__lTotalBytes,
+                tally.m__lTotalFiles,
+                tally.m__lKeptBytes,
+                tally.m__lKeptFiles,
+                tally.m__lOffenders,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Keeps the largest offenders only.
+     * @param offenders the offenders.
+     * @return the largest ones, largest first.
+     */
+    protected List<Offender> retrieveLargest(final List<Offender> offenders)
+    {
+        final List<Offender> result = new ArrayList<Offender>(offenders);
+
+        Collections.sort(
+            result,
+            new Comparator<Offender>()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int compare(final Offender first, final Offender second)
+                {
+                    return Long.compare(second.getBytes(), first.getBytes());
+                }
+            });
+
+        return
+            (result.size() > this.m__iOffenders)
+            ? new ArrayList<Offender>(result.subList(0, this.m__iOffenders))
+            : result;
+    }
+
+    /**
+     * Measures a folder, forking a task for each subfolder.
+     */
+    protected class FolderTask
+        extends RecursiveTask<Tally>
+    {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The folder.
+         */
+        private final transient Path m__Folder;
+
+        /**
+         * Its path in the context, with a trailing slash unless it's the root.
+         */
+        private final String m__strPath;
+
+        /**
+         * Creates a new task.
+         * @param folder the folder.
+         * @param path its path in the context.
+         */
+        public FolderTask(final Path folder, final String path)
+        {
+            this.m__Folder = folder;
+            this.m__strPath = path;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Tally compute()
+        {
+            final Tally result = new Tally();
+
+            final List<FolderTask> subfolders = new ArrayList<FolderTask>();
+            final List<Offender> offenders = new ArrayList<Offender>();
+
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(this.m__Folder))
+            {
+                for (final Path child : children)
+                {
+                    final String path = this.m__strPath + child.getFileName();
+
+                    final BasicFileAttributes attributes =
+                        Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+                    if (attributes.isDirectory())
+                    {
+                        final FolderTask subfolder = new FolderTask(child, path + "/");
+                        subfolder.fork();
+                        subfolders.add(subfolder);
+                    }
+                    else
+                    {
+                        result.m__lTotalBytes += attributes.size();
+                        result.m__lTotalFiles++;
+
+                        if (m__Ignore.isExcluded(path))
+                        {
+                            offenders.add(new Offender(path, attributes.size(), 1));
+                        }
+                        else
+                        {
+                            result.m__lKeptBytes += attributes.size();
+                            result.m__lKeptFiles++;
+                        }
+                    }
+                }
+            }
+            catch (final IOException cannotRead)
+            {
+                throw new UncheckedIOException(cannotRead);
+            }
+
+            for (final FolderTask subfolder : subfolders)
+            {
+                final Tally tally = subfolder.join();
+
+                result.m__lTotalBytes += tally.m__lTotalBytes;
+                result.m__lTotalFiles += tally.m__lTotalFiles;
+                result.m__lKeptBytes += tally.m__lKeptBytes;
+                result.m__lKeptFiles += tally.m__lKeptFiles;
+                offenders.addAll(tally.m__lOffenders);
+            }
+
+            if (   (result.m__lKeptFiles == 0)
+                && (result.m__lTotalFiles > 0)
+                && (!this.m__strPath.isEmpty()))
+            {
+                // Nothing inside is kept: report the folder as a whole.
+                result.m__lOffenders =
+                    Collections.singletonList(
+                        new Offender(this.m__strPath, result.m__lTotalBytes, result.m__lTotalFiles));
+            }
+            else
+            {
+                result.m__lOffenders = retrieveLargest(offenders);
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * The running totals of a folder.
+     */
+    protected static final class Tally
+    {
+        /**
+         * The size of all files.
+         */
+        protected long m__lTotalBytes;
+
+        /**
+         * The number of files.
+         */
+        protected long m__lTotalFiles;
+
+        /**
+         * The size of the files kept.
+         */
+        protected long m__lKeptBytes;
+
+        /**
+         * The number of files kept.
+         */
+        protected long m__lKeptFiles;
+
+        /**
+         * The largest offenders.
+         */
+        protected List<Offender> m__lOffenders = Collections.emptyList();
+    }
+
+    /**
+     * A path the ignore file leaves out.
+     */
+    public static final class Offender
+    {
+        /**
+         * The path, with a trailing slash for folders.
+         */
+        private final String m__strPath;
+
+        /**
+         * Its size.
+         */
+        private final long m__lBytes;
+
+        /**
+         * The number of files.
+         */
+        private final long m__lFiles;
+
+        /**
+         * Creates a new offender.
+         * @param path the path.
+         * @param bytes its size.
+         * @param files the number of files.
+         */
+        public Offender(final String path, final long bytes, final long files)
+        {
+            this.m__strPath = path;
+            this.m__lBytes = bytes;
+            this.m__lFiles = files;
+        }
+
+        /**
+         * Retrieves the path.
+         * @return such path, with a trailing slash for folders.
+         */
+        public String getPath()
+        {
+            return this.m__strPath;
+        }
+
+        /**
+         * Retrieves the size.
+         * @return such size, in bytes.
+         */
+        public long getBytes()
+        {
+            return this.m__lBytes;
+        }
+
+        /**
+         * Retrieves the number of files.
+         * @return such number.
+         */
+        public long getFiles()
+        {
+            return this.m__lFiles;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return this.m__strPath + " (" + formatBytes(this.m__lBytes) + ", " + this.m__lFiles + " file(s))";
+        }
+    }
+
+    /**
+     * The size of a context, with and without the ignore file.
+     */
+    public static final class Report
+    {
+        /**
+         * The size of all files.
+         */
+        private final long m__lTotalBytes;
+
+        /**
+         * The number of files.
+         */
+        private final long m__lTotalFiles;
+
+        /**
+         * The size of the files kept.
+         */
+        private final long m__lKeptBytes;
+
+        /**
+         * The number of files kept.
+         */
+        private final long m__lKeptFiles;
+
+        /**
+         * The largest offenders.
+         */
+        private final List<Offender> m__lOffenders;
+
+        /**
+         * The time spent.
+         */
+        private final long m__lNanos;
+
+        /**
+         * Creates a new report.
+         * @param totalBytes the size of all files.
+         * @param totalFiles the number of files.
+         * @param keptBytes the size of the files kept.
+         * @param keptFiles the number of files kept.
+         * @param offenders the largest offenders.
+         * @param nanos the time spent.
+         */
+        public Report(
+            final long totalBytes,
+            final long totalFiles,
+            final long keptBytes,
+            final long keptFiles,
+            final List<Offender> offenders,
+            final long nanos)
+        {
+            this.m__lTotalBytes = totalBytes;
+            this.m__lTotalFiles = totalFiles;
+            this.m__lKeptBytes = keptBytes;
+            this.m__lKeptFiles = keptFiles;
+            this.m__lOffenders = Collections.unmodifiableList(new ArrayList<Offender>(offenders));
+            this.m__lNanos = nanos;
+        }
+
+        /**
+         * Retrieves the size of the whole context.
+         * @return such size, in bytes.
+         */
+        public long getTotalBytes()
+        {
+            return this.m__lTotalBytes;
+        }
+
+        /**
+         * Retrieves the number of files in the whole context.
+         * @return such number.
+         */
+        public long getTotalFiles()
+        {
+            return this.m__lTotalFiles;
+        }
+
+        /**
+         * Retrieves the size of the files the ignore file keeps.
+         * @return such size, in bytes.
+         */
+        public long getKeptBytes()
+        {
+            return this.m__lKeptBytes;
+        }
+
+        /**
+         * Retrieves the number of files the ignore file keeps.
+         * @return such number.
+         */
+        public long getKeptFiles()
+        {
+            return this.m__lKeptFiles;
+        }
+
+        /**
+         * Retrieves the bytes the ignore file saves.
+         * @return such size.
+         */
+        public long getSavedBytes()
+        {
+            return this.m__lTotalBytes - this.m__lKeptBytes;
+        }
+
+        /**
+         * Retrieves the largest paths left out, largest first.
+         * @return such paths.
+         */
+        public List<Offender> getOffenders()
+        {
+            return this.m__lOffenders;
+        }
+
+        /**
+         * Retrieves the time spent.
+         * @return such time, in nanoseconds.
+         */
+        public long getNanos()
+        {
+            return this.m__lNanos;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            final StringBuilder result = new StringBuilder();
+
+            result
+                .append(formatBytes(this.m__lTotalBytes)).append(" in ").append(this.m__lTotalFiles)
+                .append(" file(s); ").append(formatBytes(this.m__lKeptBytes)).append(" in ")
+                .append(this.m__lKeptFiles).append(" file(s) with the ignore file, saving ")
+                .append(formatBytes(getSavedBytes())).append(" (walked in ")
+                .append(this.m__lNanos / 1000000).append(" ms)");
+
+            for (final Offender offender : this.m__lOffenders)
+            {
+                result.append("\n  ").append(offender);
+            }
+
+            return result.toString();
+        }
+    }
+
+    /**
+     * Formats a size.
+     * @param bytes the size.
+     * @return the size, in the largest unit below 1024.
+     */
+    public static String formatBytes(final long bytes)
+    {
+        final String result;
+
+        if (bytes < 1024)
+        {
+            result = bytes + " B";
+        }
+        else
+        {
+            final int unit = Math.min(4, (63 - Long.numberOfLeadingZeros(bytes)) / 10);
+
+            result = String.format(Locale.US, "%.1f %sB", bytes / (double) (1L << (unit * 10)), "KMGT".charAt(unit - 1));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,611 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ContextStager.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Places files into a docker build context without duplicating them.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Places files into a docker build context. Files are hard-linked when the
+ * context lives in the same filesystem, and copied with
+ * {@link FileChannel#transferTo} (which the kernel can do without moving the
+ * bytes through the JVM) otherwise. Files already staged, with the same size
+ * and modification time, are left alone; so are hard links to the source.
+ * What was staged is recorded in a manifest, so that only the files a previous
+ * run staged, and this one did not, are removed: whatever else is in the
+ * context, including what other executions staged, is left alone.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class ContextStager
+{
+    /**
+     * How a file was staged.
+     */
+    public enum Outcome
+    {
+        /**
+         * Hard-linked to the source.
+         */
+        LINKED,
+
+        /**
+         * Copied from the source.
+         */
+        COPIED,
+
+        /**
+         * Already up to date.
+         */
+        UNCHANGED
+    }
+
+    /**
+     * The context directory.
+     */
+    private final File m__ContextDir;
+
+    /**
+     * Whether to try hard links.
+     */
+    private final boolean m__bLinks;
+
+    /**
+     * The list of the files staged last time.
+     */
+    private final File m__Manifest;
+
+    /**
+     * Whether hard links failed once, e.g. across filesystems.
+     */
+    private volatile boolean m__bLinksUnsupported;
+
+    /**
+     * Creates a new stager that removes nothing.
+     * @param contextDir the context directory.
+     * @param links whether to hard-link files when possible.
+     */
+    public ContextStager(final File contextDir, final boolean links)
+    {
+        this(contextDir, links, null);
+    }
+
+    /**
+     * Creates a new stager.
+     * @param contextDir the context directory.
+     * @param links whether to hard-link files when possible.
+     * @param manifest the list of the files staged last time, outside the
+     * context; or {@code null} to remove nothing.
+     */
+    public ContextStager(final File contextDir, final boolean links, final File manifest)
+    {
+        this.m__ContextDir = contextDir;
+        this.m__bLinks = links;
+        this.m__Manifest = manifest;
+    }
+
+    /**
+     * Retrieves the context directory.
+     * @return such directory.
+     */
+    public File getContextDir()
+    {
+        return this.m__ContextDir;
+    }
+
+    /**
+     * Stages a file.
+     * @param path its path in the context, with {@code /} separators.
+     * @param source the file.
+     * @return how it was staged.
+     * @throws IOException if it cannot be staged.
+     */
+    public Outcome stage(final String path, final File source)
+        throws IOException
+    {
+        final Outcome result;
+
+        final Path from = source.toPath();
+        final Path to = resolve(path);
+
+        if (isUnchanged(from, to))
+        {
+            result = Outcome.UNCHANGED;
+        }
+        else
+        {
+            Files.createDirectories(to.getParent());
+            Files.deleteIfExists(to);
+
+            if (link(from, to))
+            {
+                result = Outcome.LINKED;
+            }
+            else
+            {
+                copy(from, to);
+                result = Outcome.COPIED;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the list of the files staged last time.
+     * @return such file, or {@code null} if nothing is removed.
+     */
+    public File getManifest()
+    {
+        return this.m__Manifest;
+    }
+
+    /**
+     * Stages the files concurrently, and removes the ones staged last time
+     * but not now.
+     * @param files the files, by path in the context.
+     * @param executor the executor.
+     * @return the outcome.
+     * @throws IOException if any file cannot be staged.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Result stageAll(final Map<String, File> files, final ExecutorService executor)
+        throws IOException,
+               InterruptedException
+    {
+        final long start = System.nanoTime();
+
+        final List<Future<Outcome>> outcomes = new ArrayList<Future<Outcome>>(files.size());
+
+        for (final Map.Entry<String, File> entry : files.entrySet())
+        {
+            outcomes.add(
+                executor.submit(
+                    new Callable<Outcome>()
+                    {
+                        /**
+                         * {@inheritDoc}
+                         */
+                        @Override
+                        public Outcome call()
+                            throws IOException
+                        {
+                            return stage(entry.getKey(), entry.getValue());
+                        }
+                    }));
+        }
+
+        final int[] counts = new int[Outcome.values().length];
+
+        for (final Future<Outcome> outcome : outcomes)
+        {
+            try
+            {
+                counts[outcome.get().ordinal()]++;
+            }
+            catch (final ExecutionException failed)
+            {
+                if (failed.getCause() instanceof IOException)
+                {
+                    throw (IOException) failed.getCause();
+                }
+
+                throw new IOException(failed.getCause());
+            }
+        }
+
+        final int removed = prune(files.keySet());
+
+        return
+            new Result(
+                counts[Outcome.LINKED.ordinal()],
+                counts[Outcome.COPIED.ordinal()],
+                counts[Outcome.UNCHANGED.ordinal()],
+                removed,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Removes the files staged last time, according to the manifest, but not
+     * now, and the directories they leave empty; then records what was staged.
+     * @param paths the staged paths.
+     * @return the number of removed files.
+     * @throws IOException if they cannot be removed, or the manifest cannot be
+     * read or written.
+     */
+    public int prune(final Set<String> paths)
+        throws IOException
+    {
+        int result = 0;
+
+        final File manifest = getManifest();
+
+        if (manifest != null)
+        {
+            final Path root = this.m__ContextDir.toPath().toAbsolutePath().normalize();
+
+            if (manifest.isFile())
+            {
+                for (final String path : Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8))
+                {
+                    if (   (!path.isEmpty())
+                        && (!paths.contains(path)))
+                    {
+                        final Path file = resolve(path);
+
+                        if (Files.deleteIfExists(file))
+                        {
+                            result++;
+                            removeEmptyDirectories(file.getParent(), root);
+                        }
+                    }
+                }
+            }
+
+            final StringBuilder contents = new StringBuilder();
+
+            for (final String path : new TreeSet<String>(paths))
+            {
+                contents.append(path).append('\n');
+            }
+
+            new AtomicFileWriter().write(
+                manifest,
+                new AtomicFileWriter.Content()
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void writeTo(final OutputStream output)
+                        throws IOException
+                    {
+                        output.write(contents.toString().getBytes(StandardCharsets.UTF_8));
+                    }
+                });
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes a directory of the context if empty, and then its parents.
+     * @param directory the directory.
+     * @param root the context directory, which is never removed.
+     * @throws IOException if they cannot be removed.
+     */
+    protected void removeEmptyDirectories(final Path directory, final Path root)
+        throws IOException
+    {
+        Path current = directory;
+
+        while (   (current != null)
+               && (current.startsWith(root))
+               && (!current.equals(root))
+               && (isEmpty(current)))
+        {
+            Files.delete(current);
+            current = current.getParent();
+        }
+    }
+
+    /**
+     * Checks whether a directory is empty.
+     * @param directory the directory.
+     * @return {@code true} in such case.
+     * @throws IOException if it cannot be listed.
+     */
+    protected boolean isEmpty(final Path directory)
+        throws IOException
+    {
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(directory))
+        {
+            return !children.iterator().hasNext();
+        }
+    }
+
+    /**
+     * Resolves a path in the context.
+     * @param path the path, with {@code /} separators.
+     * @return the file.
+     * @throws IOException if the path is outside the context.
+     */
+    protected Path resolve(final String path)
+        throws IOException
+    {
+        final Path root = this.m__ContextDir.toPath().toAbsolutePath().normalize();
+        final Path result = root.resolve(path).normalize();
+
+        if (!result.startsWith(root))
+        {
+            throw new IOException(path + " is outside the context " + root);
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether a staged file is up to date.
+     * @param source the source.
+     * @param target the staged file.
+     * @return {@code true} if it's a link to the source, or has its size and modification time.
+     * @throws IOException if their attributes cannot be read.
+     */
+    protected boolean isUnchanged(final Path source, final Path target)
+        throws IOException
+    {
+        return
+               (Files.isRegularFile(target))
+            && (   (Files.isSameFile(source, target))
+                || (   (Files.size(source) == Files.size(target))
+                    && (Files.getLastModifiedTime(source).equals(Files.getLastModifiedTime(target)))));
+    }
+
+    /**
+     * Hard-links the target to the source, if enabled and supported.
+     * @param source the source.
+     * @param target the target.
+     * @return {@code true} if linked; {@code false} if it has to be copied.
+     * @throws IOException if it cannot be linked for any other reason than
+     * the filesystems, such as permissions.
+     */
+    protected boolean link(final Path source, final Path target)
+        throws IOException
+    {
+        boolean result = false;
+
+        if (   (this.m__bLinks)
+            && (!this.m__bLinksUnsupported))
+        {
+            try
+            {
+                Files.createLink(target, source);
+                result = true;
+            }
+            catch (final UnsupportedOperationException notSupported)
+            {
+                // No hard links at all: copy from now on.
+                this.m__bLinksUnsupported = true;
+            }
+            catch (final AccessDeniedException | FileAlreadyExistsException | NoSuchFileException cannotLink)
+            {
+                throw cannotLink;
+            }
+            catch (final FileSystemException cannotLink)
+            {
+                if (!isLinkUnsupported(source, target, cannotLink))
+                {
+                    throw cannotLink;
+                }
+
+                // Different filesystems, or no hard links in this one: copy from now on.
+                this.m__bLinksUnsupported = true;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether a link failed because the files are in different
+     * filesystems, or the filesystem does not support hard links.
+     * @param source the source.
+     * @param target the target.
+     * @param failure the failure.
+     * @return {@code true} in such case.
+     */
+    protected boolean isLinkUnsupported(final Path source, final Path target, final FileSystemException failure)
+    {
+        boolean result;
+
+        final String reason = (failure.getReason() == null) ? "" : failure.getReason().toLowerCase(Locale.US);
+
+        result =
+               (reason.contains("cross-device"))
+            || (reason.contains("different disk drive"))
+            || (reason.contains("not supported"));
+
+        if (!result)
+        {
+            try
+            {
+                result = !Files.getFileStore(source).equals(Files.getFileStore(target.getParent()));
+            }
+            catch (final IOException cannotTell)
+            {
+                result = false;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Copies the source with {@link FileChannel#transferTo}, keeping its
+     * modification time so later runs can skip it.
+     * @param source the source.
+     * @param target the target.
+     * @throws IOException if it cannot be copied.
+     */
+    protected void copy(final Path source, final Path target)
+        throws IOException
+    {
+        try (FileChannel input = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel output =
+                 FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))
+        {
+            final long size = input.size();
+
+            long position = 0;
+
+            while (position < size)
+            {
+                position += input.transferTo(position, size - position, output);
+            }
+        }
+
+        final FileTime modified = Files.getLastModifiedTime(source);
+
+        Files.setLastModifiedTime(target, modified);
+    }
+
+    /**
+     * The outcome of staging a context.
+     */
+    public static final class Result
+    {
+        /**
+         * The number of linked files.
+         */
+        private final int m__iLinked;
+
+        /**
+         * The number of copied files.
+         */
+        private final int m__iCopied;
+
+        /**
+         * The number of unchanged files.
+         */
+        private final int m__iUnchanged;
+
+        /**
+         * The number of removed files.
+         */
+        private final int m__iRemoved;
+
+        /**
+         * The elapsed time.
+         */
+        private final long m__lNanos;
+
+        /**
+         * Creates a new result.
+         * @param linked the number of linked files.
+         * @param copied the number of copied files.
+         * @param unchanged the number of unchanged files.
+         * @param removed the number of removed files.
+         * @param nanos the elapsed time.
+         */
+        public Result(
+            final int linked, final int copied, final int unchanged, final int removed, final long nanos)
+        {
+            this.m__iLinked = linked;
+            this.m__iCopied = copied;
+            this.m__iUnchanged = unchanged;
+            this.m__iRemoved = removed;
+            this.m__lNanos = nanos;
+        }
+
+        /**
+         * Retrieves the number of linked files.
+         * @return such number.
+         */
+        public int getLinked()
+        {
+            return this.m__iLinked;
+        }
+
+        /**
+         * Retrieves the number of copied files.
+         * @return such number.
+         */
+        public int getCopied()
+        {
+            return this.m__iCopied;
+        }
+
+        /**
+         * Retrieves the number of unchanged files.
+         * @return such number.
+         */
+        public int getUnchanged()
+        {
+            return this.m__iUnchanged;
+        }
+
+        /**
+         * Retrieves the number of removed files.
+         * @return such number.
+         */
+        public int getRemoved()
+        {
+            return this.m__iRemoved;
+        }
+
+        /**
+         * Retrieves the elapsed time.
+         * @return such time, in nanoseconds.
+         */
+        public long getNanos()
+        {
+            return this.m__lNanos;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return
+                  this.m__iLinked + " linked, " + this.m__iCopied + " copied, "
+                + this.m__iUnchanged + " unchanged, " + this.m__iRemoved + " removed in "
+                + (this.m__lNanos / 1000000) + " ms";
+        }
+    }
+}
@@ -0,0 +1,520 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DependencyPartitions.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Runtime dependencies split by how often they change.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.artifact.Artifact;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The runtime dependencies of a project, split by how often they change:
+ * third-party releases, modules of the same reactor, third-party snapshots,
+ * and finally the project's own classes. Templates can emit one {@code COPY}
+ * per partition, in that order, so that {@code docker build} reuses every
+ * layer below the first one that changed. Each partition carries a hash that
+ * changes only when its contents do.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class DependencyPartitions
+{
+    /**
+     * The name of the partition of third-party releases.
+     */
+    public static final String RELEASE = "release";
+
+    /**
+     * The name of the partition of modules of the same reactor.
+     */
+    public static final String REACTOR = "reactor";
+
+    /**
+     * The name of the partition of third-party snapshots.
+     */
+    public static final String SNAPSHOT = "snapshot";
+
+    /**
+     * The name of the partition of the project's own classes.
+     */
+    public static final String PROJECT = "project";
+
+    /**
+     * The folder of the build context where partitions are staged, as in
+     * {@code lib/release/}.
+     */
+    public static final String CONTEXT_FOLDER = "lib/";
+
+    /**
+     * The scopes of the runtime classpath.
+     */
+    protected static final Set<String> RUNTIME_SCOPES =
+        Collections.unmodifiableSet(
+            new HashSet<String>(Arrays.asList(Artifact.SCOPE_COMPILE, Artifact.SCOPE_RUNTIME)));
+
+    /**
+     * The length of the short hashes.
+     */
+    protected static final int SHORT_HASH_LENGTH = 12;
+
+    /**
+     * The partitions, in stability order.
+     */
+    private final List<Partition> m__lPartitions;
+
+    /**
+     * Creates a new instance.
+     * @param partitions the partitions, in stability order.
+     */
+    protected DependencyPartitions(final List<Partition> partitions)
+    {
+        this.m__lPartitions = Collections.unmodifiableList(partitions);
+    }
+
+    /**
+     * Partitions the runtime dependencies of a project.
+     * @param dependencies the resolved dependencies, with their scopes.
+     * @param reactor the {@code groupId:artifactId} of the modules in the reactor.
+     * @param classes the project's own classes.
+     * @return the partitions.
+     * @throws IOException if the contents of snapshots, modules or classes cannot be read.
+     */
+    public static DependencyPartitions partition(
+        final Collection<Artifact> dependencies, final Set<String> reactor, final File classes)
+      throws IOException
+    {
+        final List<Artifact> releases = new ArrayList<Artifact>();
+        final List<Artifact> modules = new ArrayList<Artifact>();
+        final List<Artifact> snapshots = new ArrayList<Artifact>();
+
+        for (final Artifact artifact : dependencies)
+        {
+            if (isRuntime(artifact))
+            {
+                if (reactor.contains(artifact.getGroupId() + ":" + artifact.getArtifactId()))
+                {
+                    modules.add(artifact);
+                }
+                else if (artifact.isSnapshot())
+                {
+                    snapshots.add(artifact);
+                }
+                else
+                {
+                    releases.add(artifact);
+                }
+            }
+        }
+
+        final List<Partition> partitions = new ArrayList<Partition>(4);
+
+        // Releases never change under the same coordinates: there's no need to read them.
+        partitions.add(new Partition(RELEASE, releases, Collections.<File>emptyList(), hash(releases, false)));
+        partitions.add(new Partition(REACTOR, modules, Collections.<File>emptyList(), hash(modules, true)));
+        partitions.add(new Partition(SNAPSHOT, snapshots, Collections.<File>emptyList(), hash(snapshots, true)));
+        partitions.add(
+            new Partition(
+                PROJECT,
+                Collections.<Artifact>emptyList(),
+                Collections.singletonList(classes),
+                hashTree(classes)));
+
+        return new DependencyPartitions(partitions);
+    }
+
+    /**
+     * Checks whether given artifact is on the runtime classpath.
+     * @param artifact the artifact.
+     * @return {@code true} in such case.
+     */
+    protected static boolean isRuntime(final Artifact artifact)
+    {
+        return
+               (artifact.getScope() == null)
+            || (RUNTIME_SCOPES.contains(artifact.getScope()));
+    }
+
+    /**
+     * Hashes given artifacts, in a way independent of their order.
+     * @param artifacts the artifacts.
+     * @param contents whether to include their contents, or just their coordinates.
+     * @return the hexadecimal SHA-256.
+     * @throws IOException if their contents cannot be read.
+     */
+    protected static String hash(final List<Artifact> artifacts, final boolean contents)
+        throws IOException
+    {
+        final TreeMap<String, String> lines = new TreeMap<String, String>();
+
+        for (final Artifact artifact : artifacts)
+        {
+            final File file = artifact.getFile();
+
+            final String digest;
+
+            if (!contents)
+            {
+                digest = "";
+            }
+            else if (file == null)
+            {
+                digest = "unresolved";
+            }
+            else if (file.isDirectory())
+            {
+                digest = hashTree(file);
+            }
+            else
+            {
+                digest = Digests.digest(file, Digests.SHA_256);
+            }
+
+            lines.put(artifact.getId(), digest);
+        }
+
+        return Digests.sha256(lines.toString());
+    }
+
+    /**
+     * Hashes the files under given directory, with their relative paths.
+     * @param directory the directory.
+     * @return the hexadecimal SHA-256; the one of nothing if it doesn't exist.
+     * @throws IOException if the files cannot be read.
+     */
+    protected static String hashTree(final File directory)
+        throws IOException
+    {
+        final MessageDigest digest = Digests.newDigest(Digests.SHA_256);
+
+        hashTree(directory, "", digest);
+
+        return Digests.toHex(digest.digest());
+    }
+
+    /**
+     * Hashes the files under given directory.
+     * @param directory the directory.
+     * @param prefix the relative path of the directory.
+     * @param digest the digest to update.
+     * @throws IOException if the files cannot be read.
+     */
+    protected static void hashTree(final File directory, final String prefix, final MessageDigest digest)
+        throws IOException
+    {
+        final File[] children = directory.listFiles();
+
+        if (children != null)
+        {
+            Arrays.sort(children);
+
+            for (final File child : children)
+            {
+                final String path = prefix + child.getName();
+
+                if (child.isDirectory())
+                {
+                    hashTree(child, path + "/", digest);
+                }
+                else
+                {
+                    digest.update((path + "=" + Digests.digest(child, Digests.SHA_256) + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves all partitions, from the most to the least stable.
+     * @return such partitions.
+     */
+    public List<Partition> getAll()
+    {
+        return this.m__lPartitions;
+    }
+
+    /**
+     * Retrieves the partitions with contents, from the most to the least stable.
+     * @return such partitions.
+     */
+    public List<Partition> getNonEmpty()
+    {
+        final List<Partition> result = new ArrayList<Partition>(this.m__lPartitions.size());
+
+        for (final Partition partition : this.m__lPartitions)
+        {
+            if (!partition.isEmpty())
+            {
+                result.add(partition);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves a partition by name.
+     * @param name the name.
+     * @return such partition, or {@code null} if there's none with that name.
+     */
+    public Partition get(final String name)
+    {
+        Partition result = null;
+
+        for (final Partition partition : this.m__lPartitions)
+        {
+            if (partition.getName().equals(name))
+            {
+                result = partition;
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the third-party releases.
+     * @return such partition.
+     */
+    public Partition getRelease()
+    {
+        return get(RELEASE);
+    }
+
+    /**
+     * Retrieves the modules of the same reactor.
+     * @return such partition.
+     */
+    public Partition getReactor()
+    {
+        return get(REACTOR);
+    }
+
+    /**
+     * Retrieves the third-party snapshots.
+     * @return such partition.
+     */
+    public Partition getSnapshot()
+    {
+        return get(SNAPSHOT);
+    }
+
+    /**
+     * Retrieves the project's own classes.
+     * @return such partition.
+     */
+    public Partition getProject()
+    {
+        return get(PROJECT);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return this.m__lPartitions.toString();
+    }
+
+    /**
+     * A set of dependencies that tend to change together.
+     */
+    public static final class Partition
+    {
+        /**
+         * The name.
+         */
+        private final String m__strName;
+
+        /**
+         * The artifacts.
+         */
+        private final List<Artifact> m__lArtifacts;
+
+        /**
+         * The files or directories not coming from artifacts.
+         */
+        private final List<File> m__lExtraFiles;
+
+        /**
+         * The hash.
+         */
+        private final String m__strHash;
+
+        /**
+         * Creates a new partition.
+         * @param name the name.
+         * @param artifacts the artifacts.
+         * @param extraFiles the files or directories not coming from artifacts.
+         * @param hash the hash.
+         */
+        public Partition(
+            final String name,
+            final List<Artifact> artifacts,
+            final List<File> extraFiles,
+            final String hash)
+        {
+            this.m__strName = name;
+            this.m__lArtifacts = Collections.unmodifiableList(new ArrayList<Artifact>(artifacts));
+            this.m__lExtraFiles = Collections.unmodifiableList(new ArrayList<File>(extraFiles));
+            this.m__strHash = hash;
+        }
+
+        /**
+         * Retrieves the name.
+         * @return such name.
+         */
+        public String getName()
+        {
+            return this.m__strName;
+        }
+
+        /**
+         * Retrieves the artifacts.
+         * @return such artifacts.
+         */
+        public List<Artifact> getArtifacts()
+        {
+            return this.m__lArtifacts;
+        }
+
+        /**
+         * Retrieves the files of the partition.
+         * @return the resolved artifact files, and any other file or directory.
+         */
+        public List<File> getFiles()
+        {
+            final List<File> result = new ArrayList<File>(this.m__lArtifacts.size() + this.m__lExtraFiles.size());
+
+            for (final Artifact artifact : this.m__lArtifacts)
+            {
+                if (artifact.getFile() != null)
+                {
+                    result.add(artifact.getFile());
+                }
+            }
+
+            result.addAll(this.m__lExtraFiles);
+
+            return result;
+        }
+
+        /**
+         * Retrieves the file names of the artifacts, as copied into an image.
+         * @return such names.
+         */
+        public List<String> getFileNames()
+        {
+            final List<String> result = new ArrayList<String>(this.m__lArtifacts.size());
+
+            for (final Artifact artifact : this.m__lArtifacts)
+            {
+                result.add(
+                      artifact.getArtifactId() + "-" + artifact.getVersion()
+                    + (artifact.hasClassifier() ? "-" + artifact.getClassifier() : "")
+                    + "." + ((artifact.getArtifactHandler() == null)
+                             ? artifact.getType()
+                             : artifact.getArtifactHandler().getExtension()));
+            }
+
+            return result;
+        }
+
+        /**
+         * Checks whether the partition has no contents.
+         * @return {@code true} in such case.
+         */
+        public boolean isEmpty()
+        {
+            boolean result = this.m__lArtifacts.isEmpty();
+
+            for (final File file : this.m__lExtraFiles)
+            {
+                final String[] children = file.list();
+
+                if (   (file.isFile())
+                    || (   (children != null)
+                        && (children.length > 0)))
+                {
+                    result = false;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the hash of the contents.
+         * @return the hexadecimal SHA-256.
+         */
+        public String getHash()
+        {
+            return this.m__strHash;
+        }
+
+        /**
+         * Retrieves the first characters of the hash, as used in tags or labels.
+         * @return such characters.
+         */
+        public String getShortHash()
+        {
+            return this.m__strHash.substring(0, SHORT_HASH_LENGTH);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return this.m__strName + "@" + this.m__strHash;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: Digests.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Message digest helpers.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Message digest helpers.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public final class Digests
+{
+    /**
+     * The SHA-1 algorithm.
+     */
+    public static final String SHA_1 = "SHA-1";
+
+    /**
+     * The SHA-256 algorithm.
+     */
+    public static final String SHA_256 = "SHA-256";
+
+    /**
+     * The hexadecimal digits.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Utility class.
+     */
+    private Digests()
+    {
+    }
+
+    /**
+     * Creates a new digest.
+     * @param algorithm the algorithm.
+     * @return such digest.
+     */
+    public static MessageDigest newDigest(final String algorithm)
+    {
+        try
+        {
+            return MessageDigest.getInstance(algorithm);
+        }
+        catch (final NoSuchAlgorithmException missingAlgorithm)
+        {
+            // SHA-1 and SHA-256 are mandatory in every JRE.
+            throw new IllegalStateException(missingAlgorithm);
+        }
+    }
+
+    /**
+     * Converts given bytes to lowercase hexadecimal.
+     * @param bytes the bytes.
+     * @return the hexadecimal representation.
+     */
+    public static String toHex(final byte[] bytes)
+    {
+        final char[] result = new char[bytes.length * 2];
+
+        for (int index = 0; index < bytes.length; index++)
+        {
+            result[index * 2] = HEX[(bytes[index] >> 4) & 0x0f];
+            result[index * 2 + 1] = HEX[bytes[index] & 0x0f];
+        }
+
+        return new String(result);
+    }
+
+    /**
+     * Computes the SHA-256 of given text.
+     * @param text the text.
+     * @return the hexadecimal digest.
+     */
+    public static String sha256(final String text)
+    {
+        return toHex(newDigest(SHA_256).digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Computes the digest of given file, streaming its contents.
+     * @param file the file.
+     * @param algorithm the algorithm.
+     * @return the hexadecimal digest.
+     * @throws IOException if the file cannot be read.
+     */
+    public static String digest(final File file, final String algorithm)
+        throws IOException
+    {
+        final MessageDigest digest = newDigest(algorithm);
+
+        final byte[] buffer = new byte[8192];
+
+        try (InputStream input = Files.newInputStream(file.toPath()))
+        {
+            int read;
+
+            while ((read = input.read(buffer)) != -1)
+            {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        return toHex(digest.digest());
+    }
+}
@@ -0,0 +1,849 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileAggregateMojo.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Renders the Dockerfiles of all reactor modules in one parallel pass.
+ */
+package org.acmsl.dockerfile.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Renders the Dockerfiles of every module in the reactor in a single parallel
+ * pass, sharing one {@link TemplateCache}, instead of once per module. Each
+ * module is configured as for the {@code dockerfile} goal, except for the
+ * caches, parallelism and logging, which are the aggregate goal's own; any
+ * other parameter is ignored, with a warning. Templates get a
+ * {@link ProjectSnapshot} of the project fields they reference.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@Mojo(name = Literals.AGGREGATE_L,
+      aggregator = true,
+      threadSafe = true)
+public class DockerfileAggregateMojo extends DockerfileMojo {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DockerfileAggregateMojo.class);
+
+  /**
+   * The parameters read from the configuration of each module.
+   */
+  protected static final Set<String> MODULE_PARAMETERS =
+      Collections.unmodifiableSet(
+          new HashSet<>(
+              Arrays.asList(
+                  Literals.TEMPLATE_L, Literals.OUTPUT_DIR_CC, Literals.CLASSIFIER_L, Literals.DOCKERFILES_L,
+                  Literals.MATRIX_L, Literals.TEMPLATE_PACKS_L, Literals.ENCODING_L, Literals.OPTIMIZE_L,
+                  Literals.POST_PROCESSORS_CC, Literals.PIN_DIGESTS_CC, Literals.LAYERED_JARS_CC,
+                  Literals.FAIL_ON_TEMPLATE_ERRORS_CC, Literals.CHECKSUM_SIDECARS_CC, Literals.STAGE_CONTEXT_CC,
+                  Literals.CONTEXT_DIR_CC, Literals.CONTEXT_LINKS_CC, Literals.DOCKERIGNORE_L,
+                  Literals.ANALYZE_CONTEXT_CC)));
+
+  /**
+   * The parameters of the other goals, which modules may inherit from their parent.
+   */
+  protected static final Set<String> OTHER_GOAL_PARAMETERS =
+      Collections.unmodifiableSet(
+          new HashSet<>(
+              Arrays.asList(
+                  Literals.DEPLOYMENT_RETRIES, Literals.DEPLOYMENT_BACKOFF_CC, Literals.ALT_DEPLOYMENT_REPOSITORY,
+                  Literals.DEBOUNCE_L, Literals.TIMEOUT_L)));
+
+  /**
+   * The plugin configuration of each module using it, read once, before rendering.
+   */
+  protected final Map<MavenProject, Xpp3Dom> moduleConfigurations = new ConcurrentHashMap<>();
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    String ownVersion = (pluginVersion == null) ? Literals.UNKNOWN_L : pluginVersion;
+    List<ModuleDockerfile> jobs = new ArrayList<>();
+    Map<MavenProject, List<DockerfileEntry>> modules = new LinkedHashMap<>();
+
+    for (MavenProject module : session.getProjects()) {
+      List<DockerfileEntry> entries = retrieveModuleEntries(module);
+
+      if (!entries.isEmpty()) {
+        Charset cs = retrieveModuleCharset(module);
+        List<File> packs = resolveTemplatePacks(module, retrieveModuleTemplatePacks(module));
+        LazyTemplateModel model = retrieveModel(module, ownVersion);
+
+        modules.put(module, entries);
+
+        for (DockerfileEntry entry : entries) {
+          jobs.add(new ModuleDockerfile(module, entry, cs, packs, model));
+        }
+      }
+    }
+
+    if (jobs.isEmpty()) {
+      LOGGER.info("No module in the reactor configures " + Literals.DOCKERFILE_MAVEN_PLUGIN);
+      return;
+    }
+
+    prefetchImageDigests(modules);
+
+    int threads = ThreadPools.retrieveParallelism(jobs.size(), parallelism);
+    ExecutorService executor = ThreadPools.newBoundedExecutor(threads, "dockerfile-aggregate");
+    List<String> failures = new ArrayList<>();
+    Map<MavenProject, Map<DockerfileEntry, File>> generated = new LinkedHashMap<>();
+    Map<MavenProject, ModuleDockerfile> failed = new HashMap<>();
+
+    LOGGER.info("Rendering " + jobs.size() + " Dockerfile(s) with up to " + threads + " thread(s)");
+
+    try {
+      List<Future<File>> results = new ArrayList<>(jobs.size());
+
+      for (ModuleDockerfile job : jobs) {
+        results.add(executor.submit(
+            () -> generate(
+                job.getEntry(), job.getModule(), job.getModel(), ownVersion, job.getCharset(), job.getTemplatePacks(), job.getMetrics())));
+      }
+
+      // Attach on this thread, in reactor order: MavenProject is not thread-safe.
+      for (int index = 0; index < jobs.size(); index++) {
+        ModuleDockerfile job = jobs.get(index);
+
+        try {
+          File dockerfile = results.get(index).get();
+          long attaching = System.nanoTime();
+          generated.computeIfAbsent(job.getModule(), m -> new LinkedHashMap<>()).put(job.getEntry(), dockerfile);
+
+          projectHelper.attachArtifact(job.getModule(), "txt", job.getEntry().getClassifier(), dockerfile);
+          job.getMetrics().record(GenerationMetrics.Phase.ATTACH, attaching);
+        } catch (final ExecutionException e) {
+          LOGGER.error("Failed to generate " + job, e.getCause());
+          job.getMetrics().setFailed(true);
+          failures.add(job + ": " + e.getCause());
+          failed.put(job.getModule(), job);
+        }
+      }
+
+      for (ModuleDockerfile job : jobs) {
+        Map<DockerfileEntry, File> dockerfiles = generated.remove(job.getModule());
+
+        if (dockerfiles != null && !failed.containsKey(job.getModule())) {
+          try {
+            processContext(job.getModule(), job.getModel(), dockerfiles, job.getCharset());
+          } catch (final MojoExecutionException e) {
+            LOGGER.error("Failed to process the build context of " + job.getModule().getId(), e);
+            failures.add(job.getModule().getId() + ": " + e.getMessage());
+          }
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("Interrupted while generating Dockerfiles", e);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    LOGGER.info(TemplateCache.getInstance().describe());
+
+    GenerationCache cache = retrieveGenerationCache();
+
+    if (cache != null) {
+      LOGGER.info(cache.describe());
+    }
+
+    flushChecksums();
+
+    ImageDigestCache digests = retrieveImageDigestCache();
+
+    if (digests.getHits() + digests.getResolved() > 0) {
+      LOGGER.info(digests.describe());
+    }
+
+    reportMetrics(jobs);
+
+    if (!failures.isEmpty()) {
+      throw new MojoExecutionException(
+          failures.size() + " of " + jobs.size() + " Dockerfile(s) failed: " + failures);
+    }
+  }
+
+    /**
+     * Replaces the project with a {@link ProjectSnapshot} of the fields the
+     * template references. Templates resolving names at render time keep the
+     * project itself, since a snapshot cannot know what they read.
+     * @param model the template input shared by all entries of the module.
+     * @param references what the template references.
+     * @param target the target project.
+     * @return the input of the template.
+     */
+    @Override
+    protected LazyTemplateModel selectInput(
+        final LazyTemplateModel model,
+        final TemplateAttributeScanner.Result references,
+        final MavenProject target)
+    {
+        final LazyTemplateModel result = model.select(references);
+
+        if (   (references.references(Literals.T_U))
+            && (ProjectSnapshot.isCapturable(references)))
+        {
+            result.put(Literals.T_U, ProjectSnapshot.capture(target, references));
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the metrics of each module, and logs the summary of all of them.
+     * @param jobs the Dockerfiles.
+     */
+    protected void reportMetrics(final List<ModuleDockerfile> jobs)
+    {
+        final Map<MavenProject, List<GenerationMetrics>> modules =
+            new LinkedHashMap<MavenProject, List<GenerationMetrics>>();
+        final List<GenerationMetrics> all = new ArrayList<GenerationMetrics>(jobs.size());
+
+        for (final ModuleDockerfile job : jobs)
+        {
+            List<GenerationMetrics> metrics = modules.get(job.getModule());
+
+            if (metrics == null)
+            {
+                metrics = new ArrayList<GenerationMetrics>();
+                modules.put(job.getModule(), metrics);
+            }
+
+            metrics.add(job.getMetrics());
+            all.add(job.getMetrics());
+        }
+
+        for (final Map.Entry<MavenProject, List<GenerationMetrics>> module : modules.entrySet())
+        {
+            final File report = new File(module.getKey().getBuild().getDirectory(), MetricsReport.FILE_NAME);
+
+            try
+            {
+                MetricsReport.write(report, module.getKey().getGroupId() + ":" + module.getKey().getArtifactId(), module.getValue());
+            }
+            catch (final IOException cannotWrite)
+            {
+                LOGGER.warn("Cannot write " + report + ": " + cannotWrite);
+            }
+        }
+
+        LOGGER.info("Dockerfile generation summary (ms):\n" + MetricsReport.summarize(all));
+    }
+
+    /**
+     * Retrieves the Dockerfiles a module configures for this plugin.
+     * @param module the module.
+     * @return the entries, empty if the module does not use this plugin.
+     * @throws MojoExecutionException if the configuration is not valid.
+     */
+    protected List<DockerfileEntry> retrieveModuleEntries(final MavenProject module)
+        throws MojoExecutionException
+    {
+        final List<DockerfileEntry> result = new ArrayList<DockerfileEntry>();
+
+        final Xpp3Dom configuration = retrieveModuleConfiguration(module);
+
+        if (configuration != null)
+        {
+            checkModuleConfiguration(module, configuration);
+
+            final File moduleOutputDir =
+                resolveFile(
+                    module,
+                    retrieveValue(configuration, Literals.OUTPUT_DIR_CC),
+                    module.getBuild().getOutputDirectory() + File.separator + "META-INF");
+
+            final String moduleTemplate = retrieveValue(configuration, Literals.TEMPLATE_L);
+
+            if (moduleTemplate != null)
+            {
+                final String moduleClassifier = retrieveValue(configuration, Literals.CLASSIFIER_L);
+
+                result.add(
+                    new DockerfileEntry(
+                        resolveFile(module, moduleTemplate, null),
+                        moduleOutputDir,
+                        Literals.DOCKERFILE_U,
+                        (moduleClassifier == null) ? Literals.DOCKERFILE_U : moduleClassifier));
+            }
+
+            final Xpp3Dom entries = configuration.getChild(Literals.DOCKERFILES_L);
+
+            if (entries != null)
+            {
+                for (final Xpp3Dom entry : entries.getChildren(Literals.DOCKERFILE_L))
+                {
+                    result.add(
+                        new DockerfileEntry(
+                            resolveFile(module, retrieveValue(entry, Literals.TEMPLATE_L), null),
+                            resolveFile(module, retrieveValue(entry, Literals.OUTPUT_DIR_CC), moduleOutputDir.getPath()),
+                            retrieveValue(entry, Literals.OUTPUT_L),
+                            retrieveValue(entry, Literals.CLASSIFIER_L)));
+                }
+            }
+
+            final List<MatrixAxis> axes = retrieveModuleMatrix(configuration);
+
+            if (   (!result.isEmpty())
+                && (!axes.isEmpty()))
+            {
+                final List<DockerfileEntry> cells = expandMatrix(result, axes);
+
+                result.clear();
+                result.addAll(cells);
+            }
+
+            checkEntries(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the matrix a module configures.
+     * @param configuration the plugin configuration of the module.
+     * @return its axes, in order.
+     */
+    protected List<MatrixAxis> retrieveModuleMatrix(final Xpp3Dom configuration)
+    {
+        final List<MatrixAxis> result = new ArrayList<MatrixAxis>();
+
+        final Xpp3Dom axes = configuration.getChild(Literals.MATRIX_L);
+
+        if (axes != null)
+        {
+            for (final Xpp3Dom axis : axes.getChildren())
+            {
+                final List<String> values = new ArrayList<String>();
+
+                final Xpp3Dom valueList = axis.getChild(Literals.VALUES_L);
+
+                if (valueList != null)
+                {
+                    for (final Xpp3Dom value : valueList.getChildren())
+                    {
+                        if (value.getValue() != null)
+                        {
+                            values.add(value.getValue().trim());
+                        }
+                    }
+                }
+
+                result.add(
+                    new MatrixAxis(retrieveValue(axis, Literals.NAME_L), retrieveValue(axis, Literals.PREFIX_L), values));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the configuration of this plugin in a module, merging the one
+     * of the execution running the {@code dockerfile} goal, if any.
+     * @param module the module.
+     * @return such configuration, or {@code null} if the module does not use this plugin.
+     */
+    protected Xpp3Dom retrievePluginConfiguration(final MavenProject module)
+    {
+        Xpp3Dom result = null;
+
+        for (final Plugin plugin : module.getBuildPlugins())
+        {
+            if (Literals.DOCKERFILE_MAVEN_PLUGIN.equals(plugin.getArtifactId()))
+            {
+                result = copy((Xpp3Dom) plugin.getConfiguration());
+
+                for (final PluginExecution execution : plugin.getExecutions())
+                {
+                    if (execution.getGoals().contains(Literals.DOCKERFILE_L))
+                    {
+                        // Merging changes the dominant configuration: never the module's own.
+                        result = Xpp3Dom.mergeXpp3Dom(copy((Xpp3Dom) execution.getConfiguration()), result);
+                        break;
+                    }
+                }
+
+                if (result == null)
+                {
+                    result = new Xpp3Dom("configuration");
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Copies a configuration.
+     * @param configuration the configuration.
+     * @return the copy, or {@code null} if there's none.
+     */
+    protected Xpp3Dom copy(final Xpp3Dom configuration)
+    {
+        return (configuration == null) ? null : new Xpp3Dom(configuration);
+    }
+
+    /**
+     * Retrieves the configuration of this plugin in a module, read once.
+     * @param module the module.
+     * @return such configuration, or {@code null} if the module does not use this plugin.
+     */
+    protected Xpp3Dom retrieveModuleConfiguration(final MavenProject module)
+    {
+        return this.moduleConfigurations.computeIfAbsent(module, m -> retrievePluginConfiguration(m));
+    }
+
+    /**
+     * Warns about what a module configures that this goal ignores: parameters
+     * it does not read per module, unless they match its own, or belong to
+     * the other goals.
+     * @param module the module.
+     * @param configuration the plugin configuration of the module.
+     */
+    protected void checkModuleConfiguration(final MavenProject module, final Xpp3Dom configuration)
+    {
+        final List<String> unsupported = new ArrayList<String>();
+
+        final Map<String, String> reactor = describeReactorParameters();
+
+        for (final Xpp3Dom child : configuration.getChildren())
+        {
+            final String name = child.getName();
+
+            if (   (!MODULE_PARAMETERS.contains(name))
+                && (!OTHER_GOAL_PARAMETERS.contains(name)))
+            {
+                final String value = retrieveValue(configuration, name);
+
+                if (   (!reactor.containsKey(name))
+                    || (!describeReactorParameter(module, name, value).equals(reactor.get(name))))
+                {
+                    unsupported.add(name);
+                }
+            }
+        }
+
+        if (!unsupported.isEmpty())
+        {
+            LOGGER.warn(
+                module.getId() + " configures " + unsupported + ", which the " + Literals.AGGREGATE_L
+                + " goal does not read per module, and ignores: configure them on the " + Literals.AGGREGATE_L
+                + " goal itself, if they apply to the whole reactor, or use the " + Literals.DOCKERFILE_L + " goal");
+        }
+    }
+
+    /**
+     * Describes the parameters this goal applies to the whole reactor.
+     * @return their values, by name.
+     */
+    protected Map<String, String> describeReactorParameters()
+    {
+        final Map<String, String> result = new TreeMap<String, String>();
+
+        result.put(Literals.PARALLELISM_L, String.valueOf(parallelism));
+        result.put(Literals.EXPLAIN_L, String.valueOf(explain));
+        result.put(Literals.USE_GENERATION_CACHE_CC, String.valueOf(useGenerationCache));
+        result.put(Literals.GENERATION_CACHE_DIR_CC, describeFile(generationCacheDir));
+        result.put(Literals.GENERATION_CACHE_MAX_BYTES_CC, String.valueOf(generationCacheMaxBytes));
+        result.put(Literals.IMAGE_DIGESTS_CC, describeFile(imageDigests));
+        result.put(Literals.IMAGE_DIGEST_CACHE_CC, describeFile(imageDigestCache));
+        result.put(Literals.IMAGE_DIGEST_TTL_CC, String.valueOf(imageDigestTtl));
+        result.put(Literals.IMAGE_DIGESTS_OFFLINE_CC, String.valueOf(imageDigestsOffline));
+        result.put(Literals.CHECKSUM_CACHE_CC, describeFile(checksumCache));
+
+        return result;
+    }
+
+    /**
+     * Describes the value a module gives to a parameter this goal applies to
+     * the whole reactor, as {@link #describeReactorParameters()} does.
+     * @param module the module.
+     * @param name the parameter name.
+     * @param value the configured value.
+     * @return its description.
+     */
+    protected String describeReactorParameter(final MavenProject module, final String name, final String value)
+    {
+        final String result;
+
+        if (   (Literals.GENERATION_CACHE_DIR_CC.equals(name))
+            || (Literals.IMAGE_DIGESTS_CC.equals(name))
+            || (Literals.IMAGE_DIGEST_CACHE_CC.equals(name))
+            || (Literals.CHECKSUM_CACHE_CC.equals(name)))
+        {
+            result = describeFile(resolveFile(module, value, null));
+        }
+        else
+        {
+            result = String.valueOf(value);
+        }
+
+        return result;
+    }
+
+    /**
+     * Describes a file parameter.
+     * @param file the file.
+     * @return its absolute path, or {@code "null"}.
+     */
+    protected String describeFile(final File file)
+    {
+        return (file == null) ? String.valueOf(file) : file.getAbsolutePath();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected File retrieveContextDir(final MavenProject target)
+    {
+        final Xpp3Dom configuration = retrieveModuleConfiguration(target);
+
+        return
+            resolveFile(
+                target,
+                (configuration == null) ? null : retrieveValue(configuration, Literals.CONTEXT_DIR_CC),
+                target.getBuild().getDirectory() + File.separator + "docker-context");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isEnabled(final MavenProject target, final String name, final boolean value)
+    {
+        final Xpp3Dom configuration = retrieveModuleConfiguration(target);
+
+        final String configured = (configuration == null) ? null : retrieveValue(configuration, name);
+
+        return (configured == null) ? value : Boolean.parseBoolean(configured);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected List<String> retrieveValues(final MavenProject target, final String name, final List<String> values)
+    {
+        final List<String> configured = retrieveModuleValues(target, name);
+
+        return (configured == null) ? values : configured;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected List<File> retrieveFiles(final MavenProject target, final String name, final List<File> files)
+    {
+        List<File> result = files;
+
+        final List<String> configured = retrieveModuleValues(target, name);
+
+        if (configured != null)
+        {
+            result = new ArrayList<File>(configured.size());
+
+            for (final String path : configured)
+            {
+                result.add(resolveFile(target, path, null));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the values of a list parameter a module configures.
+     * @param module the module.
+     * @param name the parameter name.
+     * @return the trimmed values, or {@code null} if the module does not configure it.
+     */
+    protected List<String> retrieveModuleValues(final MavenProject module, final String name)
+    {
+        List<String> result = null;
+
+        final Xpp3Dom configuration = retrieveModuleConfiguration(module);
+
+        final Xpp3Dom list = (configuration == null) ? null : configuration.getChild(name);
+
+        if (list != null)
+        {
+            result = new ArrayList<String>();
+
+            for (final Xpp3Dom item : list.getChildren())
+            {
+                final String value = item.getValue();
+
+                if (   (value != null)
+                    && (!value.isBlank()))
+                {
+                    result.add(value.trim());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the template packs a module configures.
+     * @param module the module.
+     * @return their coordinates, or paths.
+     */
+    protected List<String> retrieveModuleTemplatePacks(final MavenProject module)
+    {
+        final List<String> result = retrieveModuleValues(module, Literals.TEMPLATE_PACKS_L);
+
+        return (result == null) ? new ArrayList<String>() : result;
+    }
+
+    /**
+     * Retrieves the charset of a module.
+     * @param module the module.
+     * @return the configured encoding, or the module's source encoding, or the platform's.
+     */
+    protected Charset retrieveModuleCharset(final MavenProject module)
+    {
+        final Xpp3Dom configuration = retrieveModuleConfiguration(module);
+
+        String name = (configuration == null) ? null : retrieveValue(configuration, Literals.ENCODING_L);
+
+        if (name == null)
+        {
+            name = module.getProperties().getProperty("project.build.sourceEncoding");
+        }
+
+        return
+            ((name == null) || (name.isBlank()))
+            ? Charset.defaultCharset()
+            : Charset.forName(name);
+    }
+
+    /**
+     * Retrieves the value of a configuration element.
+     * @param configuration the configuration.
+     * @param name the element name.
+     * @return its trimmed value, or {@code null} if it's not there.
+     */
+    protected String retrieveValue(final Xpp3Dom configuration, final String name)
+    {
+        String result = null;
+
+        final Xpp3Dom child = configuration.getChild(name);
+
+        if (child != null)
+        {
+            result = child.getValue();
+        }
+
+        if (result != null)
+        {
+            result = result.trim();
+
+            if (result.isEmpty())
+            {
+                result = null;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves a path against the module directory.
+     * @param module the module.
+     * @param path the path, possibly relative.
+     * @param defaultPath the path to use if none was configured.
+     * @return the file, or {@code null} if there's no path.
+     */
+    protected File resolveFile(final MavenProject module, final String path, final String defaultPath)
+    {
+        File result = null;
+
+        final String actualPath = (path == null) ? defaultPath : path;
+
+        if (actualPath != null)
+        {
+            result = new File(actualPath);
+
+            if (!result.isAbsolute())
+            {
+                result = new File(module.getBasedir(), actualPath);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * One Dockerfile of one module.
+     */
+    protected static final class ModuleDockerfile
+    {
+        /**
+         * The module.
+         */
+        private final MavenProject m__Module;
+
+        /**
+         * The entry.
+         */
+        private final DockerfileEntry m__Entry;
+
+        /**
+         * The charset.
+         */
+        private final Charset m__Charset;
+
+        /**
+         * The template packs.
+         */
+        private final List<File> m__lTemplatePacks;
+
+        /**
+         * The template input shared by all Dockerfiles of the module.
+         */
+        private final LazyTemplateModel m__Model;
+
+        /**
+         * The metrics.
+         */
+        private final GenerationMetrics m__Metrics;
+
+        /**
+         * Creates a new instance.
+         * @param module the module.
+         * @param entry the entry.
+         * @param charset the charset.
+         * @param templatePacks the template packs.
+         * @param model the template input.
+         */
+        public ModuleDockerfile(
+            final MavenProject module,
+            final DockerfileEntry entry,
+            final Charset charset,
+            final List<File> templatePacks,
+            final LazyTemplateModel model)
+        {
+            this.m__Module = module;
+            this.m__Entry = entry;
+            this.m__Charset = charset;
+            this.m__lTemplatePacks = templatePacks;
+            this.m__Model = model;
+            this.m__Metrics =
+                new GenerationMetrics(module.getGroupId() + ":" + module.getArtifactId(), entry.getClassifier());
+        }
+
+        /**
+         * Retrieves the module.
+         * @return such module.
+         */
+        public MavenProject getModule()
+        {
+            return this.m__Module;
+        }
+
+        /**
+         * Retrieves the entry.
+         * @return such entry.
+         */
+        public DockerfileEntry getEntry()
+        {
+            return this.m__Entry;
+        }
+
+        /**
+         * Retrieves the charset.
+         * @return such charset.
+         */
+        public Charset getCharset()
+        {
+            return this.m__Charset;
+        }
+
+        /**
+         * Retrieves the template packs.
+         * @return such jars.
+         */
+        public List<File> getTemplatePacks()
+        {
+            return this.m__lTemplatePacks;
+        }
+
+        /**
+         * Retrieves the template input.
+         * @return such input.
+         */
+        public LazyTemplateModel getModel()
+        {
+            return this.m__Model;
+        }
+
+        /**
+         * Retrieves the metrics.
+         * @return such metrics.
+         */
+        public GenerationMetrics getMetrics()
+        {
+            return this.m__Metrics;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return this.m__Module.getArtifactId() + "/" + this.m__Entry.getClassifier();
+        }
+    }
+}
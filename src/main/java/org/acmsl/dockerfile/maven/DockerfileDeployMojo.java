@@ -0,0 +1,334 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileDeployMojo.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Deploys the generated Dockerfiles of the whole reactor at once.
+ */
+package org.acmsl.dockerfile.maven;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.maven.model.DeploymentRepository;
+import org.apache.maven.model.DistributionManagement;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deploys the Dockerfiles generated for every module of the reactor straight
+ * to the deployment repository, concurrently and with bounded retries,
+ * instead of one artifact at a time. Run it after the Dockerfiles are
+ * generated, e.g. {@code mvn package dockerfile:deploy}. The SHA-256
+ * sidecars of modules enabling {@code checksumSidecars} are deployed next
+ * to their Dockerfiles; SHA-1 checksums are published by the repository
+ * system itself, as for any artifact.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@Mojo(name = Literals.DEPLOY_L,
+      aggregator = true,
+      threadSafe = true)
+public class DockerfileDeployMojo extends DockerfileAggregateMojo {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DockerfileDeployMojo.class);
+
+  /**
+   * The {@code id::url} (or legacy {@code id::layout::url}) syntax of alternative repositories.
+   */
+  private static final Pattern ALT_REPO_SYNTAX_PATTERN = Pattern.compile("([^:]+)::(?:([^:]+)::)?(.+)");
+
+  /**
+   * How many times a failed upload is retried.
+   */
+  @Parameter(name = Literals.DEPLOYMENT_RETRIES, property = Literals.DOCKERFILE_DEPLOYMENT_RETRIES, defaultValue = "3")
+  private int deploymentRetries;
+
+  /**
+   * The backoff before the first retry, in milliseconds, doubled for each subsequent one.
+   */
+  @Parameter(property = Literals.DOCKERFILE_DEPLOYMENT_BACKOFF, defaultValue = "500")
+  private long deploymentBackoff;
+
+  /**
+   * Deploys to this repository, as {@code id::url}, instead of the {@code distributionManagement} one.
+   */
+  @Parameter(property = Literals.ALT_DEPLOYMENT_REPOSITORY)
+  private String altDeploymentRepository;
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    List<Artifact> artifacts = new ArrayList<>();
+    Map<String, RemoteRepository> repositories = new HashMap<>();
+
+    for (MavenProject module : session.getProjects()) {
+      List<DockerfileEntry> entries = retrieveModuleEntries(module);
+
+      if (!entries.isEmpty()) {
+        repositories.put(
+            DockerfileDeployer.retrieveBatchKey(toArtifact(module, entries.get(0).getClassifier(), null)),
+            retrieveDeploymentRepository(module));
+
+        artifacts.addAll(retrieveArtifacts(module, entries));
+      }
+    }
+
+    if (artifacts.isEmpty()) {
+      LOGGER.info("No module in the reactor configures " + Literals.DOCKERFILE_MAVEN_PLUGIN);
+      return;
+    }
+
+    int threads = ThreadPools.retrieveParallelism(repositories.size(), parallelism);
+
+    LOGGER.info("Deploying " + artifacts.size() + " Dockerfile(s) with up to " + threads + " concurrent upload(s)");
+
+    DockerfileDeployer deployer = new DockerfileDeployer(
+        new AetherArtifactUploader(repositorySystem, session.getRepositorySession(), repositories),
+        threads,
+        deploymentRetries,
+        deploymentBackoff,
+        DockerfileDeployer.DEFAULT_MAX_BACKOFF_MILLIS);
+
+    List<DockerfileDeployer.DeploymentResult> results;
+
+    try {
+      results = deployer.deploy(artifacts);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("Interrupted while deploying Dockerfiles", e);
+    }
+
+    LOGGER.info("Dockerfile deployment summary:\n" + DockerfileDeployer.summarize(results));
+
+    List<String> failures = new ArrayList<>();
+
+    for (DockerfileDeployer.DeploymentResult result : results) {
+      if (!result.isSuccessful()) {
+        failures.add(result.getArtifact() + ": " + result.getFailure().getMessage());
+      }
+    }
+
+    if (!failures.isEmpty()) {
+      throw new MojoExecutionException(
+          failures.size() + " of " + results.size() + " Dockerfile(s) could not be deployed: " + failures);
+    }
+  }
+
+    /**
+     * Reads nothing but where each module's Dockerfiles are, so the rest of
+     * its configuration, such as the deployment settings of this goal, or
+     * how the {@code dockerfile} goal stages contexts, is not checked.
+     * @param module the module.
+     * @param configuration the plugin configuration of the module.
+     */
+    @Override
+    protected void checkModuleConfiguration(final MavenProject module, final Xpp3Dom configuration)
+    {
+        // Only where the Dockerfiles are is read: there is nothing to check.
+    }
+
+    /**
+     * Retrieves the artifacts to deploy for a module: its Dockerfiles and,
+     * if enabled, their SHA-256 sidecars.
+     * @param module the module.
+     * @param entries its Dockerfiles.
+     * @return such artifacts.
+     * @throws MojoExecutionException if any Dockerfile was not generated.
+     */
+    protected List<Artifact> retrieveArtifacts(final MavenProject module, final List<DockerfileEntry> entries)
+        throws MojoExecutionException
+    {
+        final List<Artifact> result = new ArrayList<Artifact>();
+
+        final boolean sidecars = isEnabled(module, Literals.CHECKSUM_SIDECARS_CC, checksumSidecars);
+
+        for (final DockerfileEntry entry : entries)
+        {
+            final File dockerfile = entry.resolveOutputFile(null);
+
+            if (!dockerfile.isFile())
+            {
+                throw new MojoExecutionException(
+                    dockerfile + " does not exist: generate it first, with the " + Literals.DOCKERFILE_L + " or "
+                    + Literals.AGGREGATE_L + " goal");
+            }
+
+            result.add(toArtifact(module, entry.getClassifier(), dockerfile));
+
+            final File sha256 =
+                new File(retrieveSidecars(module, entry.getClassifier()).getPath() + AtomicFileWriter.SHA256_EXTENSION);
+
+            if (   (sidecars)
+                && (sha256.isFile()))
+            {
+                result.add(
+                    toArtifact(module, entry.getClassifier(), Literals.TXT_L + AtomicFileWriter.SHA256_EXTENSION, sha256));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds the artifact of a Dockerfile.
+     * @param module the module.
+     * @param classifier the Dockerfile classifier.
+     * @param file the Dockerfile.
+     * @return such artifact.
+     */
+    protected Artifact toArtifact(final MavenProject module, final String classifier, final File file)
+    {
+        return toArtifact(module, classifier, Literals.TXT_L, file);
+    }
+
+    /**
+     * Builds the artifact of a file published with a Dockerfile.
+     * @param module the module.
+     * @param classifier the Dockerfile classifier.
+     * @param extension the file extension.
+     * @param file the file.
+     * @return such artifact.
+     */
+    protected Artifact toArtifact(
+        final MavenProject module, final String classifier, final String extension, final File file)
+    {
+        return
+            new DefaultArtifact(
+                module.getGroupId(), module.getArtifactId(), classifier, extension, module.getVersion())
+            .setFile(file);
+    }
+
+    /**
+     * Retrieves the repository to deploy a module to, with the credentials
+     * and proxy configured in the settings.
+     * @param module the module.
+     * @return such repository.
+     * @throws MojoExecutionException if there's none.
+     */
+    protected RemoteRepository retrieveDeploymentRepository(final MavenProject module)
+        throws MojoExecutionException
+    {
+        RemoteRepository result;
+
+        if (altDeploymentRepository != null)
+        {
+            final Matcher matcher = ALT_REPO_SYNTAX_PATTERN.matcher(altDeploymentRepository.trim());
+
+            if (!matcher.matches())
+            {
+                throw new MojoExecutionException(
+                    "Invalid " + Literals.ALT_DEPLOYMENT_REPOSITORY + ": " + altDeploymentRepository
+                    + ". Expected id::url");
+            }
+
+            result = new RemoteRepository.Builder(matcher.group(1), "default", matcher.group(3)).build();
+        }
+        else
+        {
+            final DeploymentRepository repository = retrieveDistributionRepository(module);
+
+            if (   (repository == null)
+                || (repository.getUrl() == null))
+            {
+                throw new MojoExecutionException(
+                    module.getId() + " has no repository in distributionManagement, nor -D"
+                    + Literals.ALT_DEPLOYMENT_REPOSITORY + "=id::url");
+            }
+
+            result =
+                new RemoteRepository.Builder(
+                    repository.getId(),
+                    (repository.getLayout() == null) ? "default" : repository.getLayout(),
+                    repository.getUrl())
+                .build();
+        }
+
+        final RepositorySystemSession repositorySession = session.getRepositorySession();
+
+        if (   (result.getAuthentication() == null)
+            || (result.getProxy() == null))
+        {
+            final RemoteRepository.Builder builder = new RemoteRepository.Builder(result);
+
+            if (result.getAuthentication() == null)
+            {
+                builder.setAuthentication(repositorySession.getAuthenticationSelector().getAuthentication(result));
+            }
+
+            if (result.getProxy() == null)
+            {
+                builder.setProxy(repositorySession.getProxySelector().getProxy(result));
+            }
+
+            result = builder.build();
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the repository in {@code distributionManagement} for the
+     * module's version: the snapshot one, if declared, for snapshots.
+     * @param module the module.
+     * @return such repository, or {@code null} if none.
+     */
+    protected DeploymentRepository retrieveDistributionRepository(final MavenProject module)
+    {
+        DeploymentRepository result = null;
+
+        final DistributionManagement distribution = module.getDistributionManagement();
+
+        if (distribution != null)
+        {
+            if (   (module.getVersion() != null)
+                && (module.getVersion().endsWith(org.apache.maven.artifact.Artifact.SNAPSHOT_VERSION))
+                && (distribution.getSnapshotRepository() != null))
+            {
+                result = distribution.getSnapshotRepository();
+            }
+            else
+            {
+                result = distribution.getRepository();
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,436 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileDeployer.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Deploys generated Dockerfiles concurrently, retrying with backoff.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Aether classes.
+ */
+import org.eclipse.aether.artifact.Artifact;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deploys artifacts concurrently. Artifacts are batched by coordinates, so
+ * all the classifiers of a module go together, and batches are uploaded with
+ * bounded parallelism. Failed uploads are retried after an exponential
+ * backoff with full jitter, so that modules failing together against an
+ * overloaded repository do not retry in lockstep.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class DockerfileDeployer
+{
+    /**
+     * The default backoff before the first retry, in milliseconds.
+     */
+    public static final long DEFAULT_BACKOFF_MILLIS = 500;
+
+    /**
+     * The default maximum backoff, in milliseconds.
+     */
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 30000;
+
+    /**
+     * The uploader.
+     */
+    private final ArtifactUploader m__Uploader;
+
+    /**
+     * The maximum number of concurrent uploads.
+     */
+    private final int m__iParallelism;
+
+    /**
+     * How many times a failed upload is retried.
+     */
+    private final int m__iRetries;
+
+    /**
+     * The backoff before the first retry, in milliseconds.
+     */
+    private final long m__lBackoffMillis;
+
+    /**
+     * The maximum backoff, in milliseconds.
+     */
+    private final long m__lMaxBackoffMillis;
+
+    /**
+     * Creates a new deployer.
+     * @param uploader the uploader.
+     * @param parallelism the maximum number of concurrent uploads.
+     * @param retries how many times a failed upload is retried.
+     * @param backoffMillis the backoff before the first retry, doubled for each subsequent one.
+     * @param maxBackoffMillis the maximum backoff.
+     */
+    public DockerfileDeployer(
+        final ArtifactUploader uploader,
+        final int parallelism,
+        final int retries,
+        final long backoffMillis,
+        final long maxBackoffMillis)
+    {
+        this.m__Uploader = uploader;
+        this.m__iParallelism = Math.max(1, parallelism);
+        this.m__iRetries = Math.max(0, retries);
+        this.m__lBackoffMillis = Math.max(0, backoffMillis);
+        this.m__lMaxBackoffMillis = Math.max(this.m__lBackoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     * Retrieves the uploader.
+     * @return such instance.
+     */
+    public ArtifactUploader getUploader()
+    {
+        return this.m__Uploader;
+    }
+
+    /**
+     * Retrieves the maximum number of concurrent uploads.
+     * @return such number.
+     */
+    public int getParallelism()
+    {
+        return this.m__iParallelism;
+    }
+
+    /**
+     * Retrieves how many times a failed upload is retried.
+     * @return such number.
+     */
+    public int getRetries()
+    {
+        return this.m__iRetries;
+    }
+
+    /**
+     * Retrieves the key artifacts are batched by.
+     * @param artifact the artifact.
+     * @return its {@code groupId:artifactId:version}.
+     */
+    public static String retrieveBatchKey(final Artifact artifact)
+    {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getBaseVersion();
+    }
+
+    /**
+     * Deploys given artifacts. Failures do not stop other batches.
+     * @param artifacts the artifacts, with their files.
+     * @return the result for each artifact, in the given order.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public List<DeploymentResult> deploy(final Collection<Artifact> artifacts)
+        throws InterruptedException
+    {
+        final Map<String, List<Artifact>> batches = new LinkedHashMap<String, List<Artifact>>();
+
+        for (final Artifact artifact : artifacts)
+        {
+            final String key = retrieveBatchKey(artifact);
+
+            List<Artifact> batch = batches.get(key);
+
+            if (batch == null)
+            {
+                batch = new ArrayList<Artifact>();
+                batches.put(key, batch);
+            }
+
+            batch.add(artifact);
+        }
+
+        final ExecutorService executor =
+            ThreadPools.newBoundedExecutor(
+                ThreadPools.retrieveParallelism(batches.size(), this.m__iParallelism), "dockerfile-deploy");
+
+        final Map<Artifact, DeploymentResult> outcomes = new LinkedHashMap<Artifact, DeploymentResult>();
+
+        try
+        {
+            final List<Future<List<DeploymentResult>>> futures =
+                new ArrayList<Future<List<DeploymentResult>>>(batches.size());
+
+            for (final List<Artifact> batch : batches.values())
+            {
+                futures.add(
+                    executor.submit(
+                        new Callable<List<DeploymentResult>>()
+                        {
+                            /**
+                             * {@inheritDoc}
+                             */
+                            @Override
+                            public List<DeploymentResult> call()
+                                throws InterruptedException
+                            {
+                                return upload(batch);
+                            }
+                        }));
+            }
+
+            for (final Future<List<DeploymentResult>> future : futures)
+            {
+                try
+                {
+                    for (final DeploymentResult outcome : future.get())
+                    {
+                        outcomes.put(outcome.getArtifact(), outcome);
+                    }
+                }
+                catch (final ExecutionException unexpected)
+                {
+                    throw new IllegalStateException(unexpected.getCause());
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        final List<DeploymentResult> result = new ArrayList<DeploymentResult>(artifacts.size());
+
+        for (final Artifact artifact : artifacts)
+        {
+            result.add(outcomes.get(artifact));
+        }
+
+        return result;
+    }
+
+    /**
+     * Uploads a batch, retrying after a backoff if it fails.
+     * @param batch the batch.
+     * @return the result of each of its artifacts.
+     * @throws InterruptedException if interrupted while backing off.
+     */
+    protected List<DeploymentResult> upload(final List<Artifact> batch)
+        throws InterruptedException
+    {
+        final long start = System.nanoTime();
+
+        IOException failure = null;
+        int attempts = 0;
+
+        while (attempts <= this.m__iRetries)
+        {
+            if (attempts > 0)
+            {
+                TimeUnit.MILLISECONDS.sleep(retrieveBackoffMillis(attempts));
+            }
+
+            attempts++;
+
+            try
+            {
+                this.m__Uploader.upload(batch);
+                failure = null;
+                break;
+            }
+            catch (final IOException | RuntimeException cannotUpload)
+            {
+                failure =
+                    (cannotUpload instanceof IOException)
+                    ? (IOException) cannotUpload
+                    : new IOException(cannotUpload);
+            }
+        }
+
+        final long nanos = System.nanoTime() - start;
+
+        final List<DeploymentResult> result = new ArrayList<DeploymentResult>(batch.size());
+
+        for (final Artifact artifact : batch)
+        {
+            result.add(new DeploymentResult(artifact, attempts, nanos, failure));
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves how long to wait before given retry: a random time between
+     * zero and the backoff, doubled for each retry up to the maximum.
+     * @param retry the retry, starting at one.
+     * @return such time, in milliseconds.
+     */
+    protected long retrieveBackoffMillis(final int retry)
+    {
+        final long ceiling =
+            (retry > 62)
+            ? this.m__lMaxBackoffMillis
+            : Math.min(this.m__lMaxBackoffMillis, this.m__lBackoffMillis << Math.min(retry - 1, 30));
+
+        return (ceiling <= 0) ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Summarizes given results, one line per artifact.
+     * @param results the results.
+     * @return the summary.
+     */
+    public static String summarize(final List<DeploymentResult> results)
+    {
+        final StringBuilder result = new StringBuilder();
+
+        int failed = 0;
+
+        for (final DeploymentResult outcome : results)
+        {
+            result.append("  ").append(outcome).append('\n');
+
+            if (!outcome.isSuccessful())
+            {
+                failed++;
+            }
+        }
+
+        result.append(results.size() - failed).append(" deployed, ").append(failed).append(" failed");
+
+        return result.toString();
+    }
+
+    /**
+     * The outcome of deploying one artifact.
+     */
+    public static final class DeploymentResult
+    {
+        /**
+         * The artifact.
+         */
+        private final Artifact m__Artifact;
+
+        /**
+         * The number of attempts.
+         */
+        private final int m__iAttempts;
+
+        /**
+         * The time spent, including backoffs.
+         */
+        private final long m__lNanos;
+
+        /**
+         * The last failure, if it could not be deployed.
+         */
+        private final IOException m__Failure;
+
+        /**
+         * Creates a new result.
+         * @param artifact the artifact.
+         * @param attempts the number of attempts.
+         * @param nanos the time spent.
+         * @param failure the last failure, or {@code null} if deployed.
+         */
+        public DeploymentResult(
+            final Artifact artifact, final int attempts, final long nanos, final IOException failure)
+        {
+            this.m__Artifact = artifact;
+            this.m__iAttempts = attempts;
+            this.m__lNanos = nanos;
+            this.m__Failure = failure;
+        }
+
+        /**
+         * Retrieves the artifact.
+         * @return such artifact.
+         */
+        public Artifact getArtifact()
+        {
+            return this.m__Artifact;
+        }
+
+        /**
+         * Retrieves the number of attempts.
+         * @return such number.
+         */
+        public int getAttempts()
+        {
+            return this.m__iAttempts;
+        }
+
+        /**
+         * Retrieves the time spent, including backoffs.
+         * @return such time, in nanoseconds.
+         */
+        public long getNanos()
+        {
+            return this.m__lNanos;
+        }
+
+        /**
+         * Retrieves the last failure.
+         * @return such failure, or {@code null} if deployed.
+         */
+        public IOException getFailure()
+        {
+            return this.m__Failure;
+        }
+
+        /**
+         * Checks whether the artifact was deployed.
+         * @return {@code true} in such case.
+         */
+        public boolean isSuccessful()
+        {
+            return this.m__Failure == null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return
+                  this.m__Artifact + ": "
+                + (isSuccessful() ? "deployed" : "FAILED (" + this.m__Failure.getMessage() + ")")
+                + " after " + this.m__iAttempts + " attempt(s) in "
+                + TimeUnit.NANOSECONDS.toMillis(this.m__lNanos) + " ms";
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileEntry.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: One Dockerfile to generate: its template, output and classifier.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One Dockerfile to generate: its template, output and classifier.
+ * Configured as {@code <dockerfiles><dockerfile>...</dockerfile></dockerfiles>}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public class DockerfileEntry
+{
+    /**
+     * The template.
+     */
+    private File template;
+
+    /**
+     * The output directory, or {@code null} to use the plugin's.
+     */
+    private File outputDir;
+
+    /**
+     * The output file name.
+     */
+    private String output;
+
+    /**
+     * The classifier, or {@code null} to use the output file name.
+     */
+    private String classifier;
+
+    /**
+     * The matrix values, by axis, if this entry is one cell of a matrix.
+     */
+    private Map<String, String> matrix;
+
+    /**
+     * Creates an empty entry, as Maven does.
+     */
+    public DockerfileEntry()
+    {
+    }
+
+    /**
+     * Creates a new entry.
+     * @param template the template.
+     * @param outputDir the output directory.
+     * @param output the output file name.
+     * @param classifier the classifier.
+     */
+    public DockerfileEntry(
+        final File template, final File outputDir, final String output, final String classifier)
+    {
+        this.template = template;
+        this.outputDir = outputDir;
+        this.output = output;
+        this.classifier = classifier;
+    }
+
+    /**
+     * Retrieves the template.
+     * @return such file.
+     */
+    public File getTemplate()
+    {
+        return this.template;
+    }
+
+    /**
+     * Specifies the template.
+     * @param template such file.
+     */
+    public void setTemplate(final File template)
+    {
+        this.template = template;
+    }
+
+    /**
+     * Retrieves the output directory.
+     * @return such directory, or {@code null} to use the plugin's.
+     */
+    public File getOutputDir()
+    {
+        return this.outputDir;
+    }
+
+    /**
+     * Specifies the output directory.
+     * @param outputDir such directory.
+     */
+    public void setOutputDir(final File outputDir)
+    {
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * Retrieves the output file name.
+     * @return such name, {@code Dockerfile} by default.
+     */
+    public String getOutput()
+    {
+        return (this.output == null) ? Literals.DOCKERFILE_U : this.output;
+    }
+
+    /**
+     * Specifies the output file name.
+     * @param output such name.
+     */
+    public void setOutput(final String output)
+    {
+        this.output = output;
+    }
+
+    /**
+     * Retrieves the classifier.
+     * @return such classifier, or the output file name if not specified.
+     */
+    public String getClassifier()
+    {
+        return (this.classifier == null) ? getOutput() : this.classifier;
+    }
+
+    /**
+     * Specifies the classifier.
+     * @param classifier such classifier.
+     */
+    public void setClassifier(final String classifier)
+    {
+        this.classifier = classifier;
+    }
+
+    /**
+     * Retrieves the matrix values.
+     * @return such values, by axis; empty unless this entry is one cell of a matrix.
+     */
+    public Map<String, String> getMatrix()
+    {
+        return (this.matrix == null) ? Collections.<String, String>emptyMap() : this.matrix;
+    }
+
+    /**
+     * Creates one cell of a matrix out of this entry.
+     * @param values the matrix values, by axis.
+     * @param suffix the suffix of the output file name and the classifier.
+     * @return the new entry.
+     */
+    public DockerfileEntry withMatrix(final Map<String, String> values, final String suffix)
+    {
+        final DockerfileEntry result =
+            new DockerfileEntry(
+                this.template,
+                this.outputDir,
+                getOutput() + "." + suffix,
+                (this.classifier == null) ? null : this.classifier + "." + suffix);
+
+        result.matrix = Collections.unmodifiableMap(new LinkedHashMap<String, String>(values));
+
+        return result;
+    }
+
+    /**
+     * Resolves the output file.
+     * @param defaultOutputDir the output directory to use if none was specified.
+     * @return such file.
+     */
+    public File resolveOutputFile(final File defaultOutputDir)
+    {
+        final File directory = (this.outputDir == null) ? defaultOutputDir : this.outputDir;
+
+        return new File(directory.getAbsolutePath() + File.separator + getOutput());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return getClassifier() + " (" + this.template + " -> " + getOutput() + ")";
+    }
+}
@@ -0,0 +1,121 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileEstimateMojo.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Estimates the image size and build cost of generated Dockerfiles.
+ */
+package org.acmsl.dockerfile.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estimates, without building images, what each generated Dockerfile costs:
+ * the bytes its {@code COPY} and {@code ADD} layers add, from the local
+ * files they copy; its layers; the {@code RUN}s fetching from the network;
+ * and the instructions that change on every build, with the layers they
+ * force to be rebuilt. Dockerfiles not generated yet are rendered first.
+ * Writes {@code target/dockerfile-estimate.json}, and sums up the whole
+ * reactor after its last module using this plugin.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@Mojo(name = Literals.ESTIMATE_L,
+      defaultPhase = LifecyclePhase.PACKAGE,
+      threadSafe = true)
+public class DockerfileEstimateMojo extends DockerfileMojo {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DockerfileEstimateMojo.class);
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    Charset cs = (encoding == null || encoding.isBlank())
+        ? Charset.defaultCharset()
+        : Charset.forName(encoding);
+
+    String ownVersion = (pluginVersion == null) ? Literals.UNKNOWN_L : pluginVersion;
+    String module = project.getGroupId() + ":" + project.getArtifactId();
+    List<DockerfileEntry> entries = retrieveEntries(template, classifier, dockerfiles);
+    LazyTemplateModel model = retrieveModel(project, ownVersion);
+    List<DockerfileEstimator.Estimate> estimates = new ArrayList<>(entries.size());
+
+    DockerfileEstimator estimator = new DockerfileEstimator(source -> {
+      Map<String, File> files = new TreeMap<>();
+      resolveContextFiles(project, model, source, files);
+      return files;
+    });
+
+    try {
+      for (DockerfileEntry entry : entries) {
+        File dockerfile = entry.resolveOutputFile(outputDir);
+
+        if (!dockerfile.isFile()) {
+          dockerfile = generate(entry, project, model, ownVersion, cs, resolveTemplatePacks(project, templatePacks),
+              new GenerationMetrics(module, entry.getClassifier()));
+        }
+
+        DockerfileEstimator.Estimate estimate = estimator.estimate(
+            module, entry.getClassifier(), new String(Files.readAllBytes(dockerfile.toPath()), cs));
+        estimates.add(estimate);
+
+        LOGGER.info("Estimate of " + entry.getOutput() + ": " + estimate);
+
+        for (DockerfileEstimator.Step step : estimate.getNotableSteps()) {
+          if (step.getCacheBusters().isEmpty()) {
+            LOGGER.info("  " + step);
+          } else {
+            LOGGER.warn("  " + step);
+          }
+        }
+      }
+
+      EstimateReport.write(new File(project.getBuild().getDirectory(), EstimateReport.FILE_NAME), module, estimates);
+    } catch (final IOException e) {
+      throw new MojoExecutionException("Cannot estimate the Dockerfiles of " + module, e);
+    }
+
+    if (session != null) {
+      EstimateReport.record(session, estimates);
+
+      if (isLastModule(session.getProjects(), project)) {
+        LOGGER.info("Dockerfile estimates:\n" + EstimateReport.summarize(EstimateReport.retrieve(session)));
+      }
+    }
+  }
+}
@@ -0,0 +1,920 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileEstimator.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Estimates the image size and build cost of a Dockerfile.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Estimates, without building it, what a Dockerfile costs: the bytes each
+ * {@code COPY} and {@code ADD} adds, from the local files it copies; the
+ * number of layers; the {@code RUN}s fetching things from the network; and
+ * the instructions that change on every build, invalidating the cache of
+ * every layer after them.
+ * <p>Only local files can be measured: what {@code RUN}s produce, remote
+ * {@code ADD}s and copies from other stages are of unknown size. Only the
+ * last stage ends up in the image.</p>
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class DockerfileEstimator
+{
+    /**
+     * Commands fetching things from the network.
+     */
+    protected static final Pattern NETWORK_PATTERN =
+        Pattern.compile(
+              "(?i)(?<![\\w.-])(wget|curl|git\\s+(?:clone|fetch|pull)|(?:apt-get|apt)\\s+(?:update|install)"
+            + "|apk\\s+(?:add|update)|(?:yum|dnf|microdnf|zypper)\\s+install|pip3?\\s+install|npm\\s+(?:install|ci)"
+            + "|yarn\\s+install|go\\s+(?:get|mod\\s+download)|mvn|gradle)(?![\\w.-])|https?://[^\\s\"']+");
+
+    /**
+     * Timestamps, as rendered from build times.
+     */
+    protected static final Pattern TIMESTAMP_PATTERN =
+        Pattern.compile("(?<!\\d)(?:\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}|20\\d{6}-\\d{4}(?!\\d))");
+
+    /**
+     * Versions of deployed snapshots, e.g. {@code 1.0-20261018.101500-3}.
+     */
+    protected static final Pattern SNAPSHOT_PATTERN = Pattern.compile("-\\d{8}\\.\\d{6}-\\d+");
+
+    /**
+     * Commit ids.
+     */
+    protected static final Pattern COMMIT_PATTERN = Pattern.compile("(?<![0-9a-fA-F])[0-9a-f]{40}(?![0-9a-fA-F])");
+
+    /**
+     * Build arguments meant to bust the cache.
+     */
+    protected static final Pattern CACHE_BUST_ARG_PATTERN =
+        Pattern.compile("(?i)^(?:\\w*cache_?bust\\w*|build_?(?:date|time|timestamp|number|id))(?:=.*)?$");
+
+    /**
+     * Finds the local files a source refers to.
+     */
+    public interface SourceResolver
+    {
+        /**
+         * Finds the local files a {@code COPY} or {@code ADD} source refers to.
+         * @param source the source, relative to the context.
+         * @return the files, by path in the context; empty if none.
+         * @throws IOException if they cannot be listed.
+         */
+        Map<String, File> resolve(String source)
+            throws IOException;
+    }
+
+    /**
+     * The resolver.
+     */
+    private final SourceResolver m__Resolver;
+
+    /**
+     * Creates a new estimator.
+     * @param resolver finds the local files of each source.
+     */
+    public DockerfileEstimator(final SourceResolver resolver)
+    {
+        this.m__Resolver = resolver;
+    }
+
+    /**
+     * Estimates a Dockerfile.
+     * @param module the module.
+     * @param classifier the Dockerfile classifier.
+     * @param dockerfile its contents.
+     * @return the estimate.
+     * @throws IOException if the files it copies cannot be listed.
+     */
+    public Estimate estimate(final String module, final String classifier, final CharSequence dockerfile)
+        throws IOException
+    {
+        final List<Step> steps = new ArrayList<Step>();
+
+        int stage = -1;
+        boolean busted = false;
+
+        for (final DockerfileInstruction instruction : DockerfileParser.parse(dockerfile).getInstructions())
+        {
+            if (instruction.is("FROM"))
+            {
+                stage++;
+                busted = false;
+            }
+
+            final boolean layer = DockerfileOptimizer.LAYERS.contains(instruction.getKeyword());
+
+            final List<String> fetches = retrieveFetches(instruction);
+            final List<String> busters = retrieveCacheBusters(instruction);
+
+            final long[] size = layer ? measure(instruction) : new long[] { 0, 0 };
+
+            busted |= !busters.isEmpty();
+
+            steps.add(
+                new Step(
+                    Math.max(stage, 0),
+                    instruction.getLine(),
+                    instruction.getKeyword(),
+                    summarize(instruction),
+                    layer,
+                    size[0],
+                    size[1],
+                    fetches,
+                    busters,
+                    layer && busted));
+        }
+
+        return new Estimate(module, classifier, Math.max(stage, 0), steps);
+    }
+
+    /**
+     * Measures what a {@code COPY} or {@code ADD} copies from the context.
+     * @param instruction the instruction.
+     * @return the bytes, or {@link Step#UNKNOWN}, and the number of files.
+     * @throws IOException if the files cannot be listed.
+     */
+    protected long[] measure(final DockerfileInstruction instruction)
+        throws IOException
+    {
+        final long[] result = new long[] { Step.UNKNOWN, 0 };
+
+        boolean fromStage = false;
+
+        for (final String flag : instruction.getFlags())
+        {
+            fromStage |= flag.startsWith("--from=");
+        }
+
+        if (   (!DockerfileSources.isCopy(instruction.getKeyword()))
+            || (fromStage)
+            || (instruction.getCommand().contains("://")))
+        {
+            // What RUNs produce, remote files and copies from other stages cannot be measured.
+            result[0] = Step.UNKNOWN;
+        }
+        else if (instruction.isHeredoc())
+        {
+            // The contents are the lines between the first one and the terminator.
+            result[0] =
+                Math.max(0, instruction.getText().lastIndexOf('\n') - instruction.getText().indexOf('\n'));
+            result[1] = 1;
+        }
+        else
+        {
+            final List<String> sources = new ArrayList<String>();
+
+            DockerfileSources.collectSources(instruction, sources);
+
+            result[0] = 0;
+
+            for (final String source : sources)
+            {
+                for (final File file : this.m__Resolver.resolve(source).values())
+                {
+                    result[0] += file.length();
+                    result[1]++;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds what an instruction fetches from the network.
+     * @param instruction the instruction.
+     * @return the commands and URLs fetching things, in order, without duplicates.
+     */
+    protected List<String> retrieveFetches(final DockerfileInstruction instruction)
+    {
+        final Set<String> result = new LinkedHashSet<String>();
+
+        if (instruction.is("RUN"))
+        {
+            final Matcher matcher = NETWORK_PATTERN.matcher(instruction.getText());
+
+            while (matcher.find())
+            {
+                result.add(matcher.group().replaceAll("\\s+", " "));
+            }
+        }
+        else if (instruction.is("ADD"))
+        {
+            for (final String token : instruction.getCommand().split("\\s+"))
+            {
+                if (token.contains("://"))
+                {
+                    result.add(token);
+                }
+            }
+        }
+
+        return new ArrayList<String>(result);
+    }
+
+    /**
+     * Finds why an instruction changes on every build.
+     * @param instruction the instruction.
+     * @return the reasons; empty if none.
+     */
+    protected List<String> retrieveCacheBusters(final DockerfileInstruction instruction)
+    {
+        final List<String> result = new ArrayList<String>();
+
+        final String text = instruction.getText();
+
+        if (TIMESTAMP_PATTERN.matcher(text).find())
+        {
+            result.add("contains a timestamp");
+        }
+
+        if (SNAPSHOT_PATTERN.matcher(text).find())
+        {
+            result.add("contains a timestamped snapshot version");
+        }
+
+        if (COMMIT_PATTERN.matcher(text).find())
+        {
+            result.add("contains a commit id, which changes on every commit");
+        }
+
+        if (   (instruction.is("ADD"))
+            && (instruction.getCommand().contains("://"))
+            && (!instruction.getFlags().toString().contains("--checksum=")))
+        {
+            result.add("fetches a remote URL without --checksum, checked on every build");
+        }
+
+        if (   (DockerfileSources.isCopy(instruction.getKeyword()))
+            && (copiesWholeContext(instruction)))
+        {
+            result.add("copies the whole context, so any change to it invalidates the cache");
+        }
+
+        if (   (instruction.is("ARG"))
+            && (CACHE_BUST_ARG_PATTERN.matcher(instruction.getArguments().trim()).matches()))
+        {
+            result.add("declares a cache-busting build argument");
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether an instruction copies the whole context.
+     * @param instruction a {@code COPY} or {@code ADD}.
+     * @return {@code true} if a source is {@code .} or {@code *}.
+     */
+    protected boolean copiesWholeContext(final DockerfileInstruction instruction)
+    {
+        boolean result = false;
+
+        final List<String> sources = new ArrayList<String>();
+
+        if (!instruction.isHeredoc())
+        {
+            DockerfileSources.collectSources(instruction, sources);
+        }
+
+        for (final String source : sources)
+        {
+            if (   (".".equals(source))
+                || ("./".equals(source))
+                || (source.isEmpty())
+                || ("*".equals(source)))
+            {
+                result = true;
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Summarizes an instruction for reports.
+     * @param instruction the instruction.
+     * @return its keyword and the beginning of its arguments.
+     */
+    protected static String summarize(final DockerfileInstruction instruction)
+    {
+        final String arguments = instruction.getArguments().replaceAll("\\s+", " ").trim();
+
+        return
+              instruction.getKeyword() + " "
+            + ((arguments.length() > 60) ? arguments.substring(0, 57) + "..." : arguments);
+    }
+
+    /**
+     * The estimate of one instruction.
+     */
+    public static final class Step
+    {
+        /**
+         * The size of layers that cannot be measured.
+         */
+        public static final long UNKNOWN = -1;
+
+        /**
+         * The stage, from zero.
+         */
+        private final int m__iStage;
+
+        /**
+         * The line.
+         */
+        private final int m__iLine;
+
+        /**
+         * The keyword.
+         */
+        private final String m__strKeyword;
+
+        /**
+         * The summary.
+         */
+        private final String m__strSummary;
+
+        /**
+         * Whether it adds a layer.
+         */
+        private final boolean m__bLayer;
+
+        /**
+         * The bytes it adds.
+         */
+        private final long m__lBytes;
+
+        /**
+         * The files it copies.
+         */
+        private final long m__lFiles;
+
+        /**
+         * What it fetches from the network.
+         */
+        private final List<String> m__lFetches;
+
+        /**
+         * Why it changes on every build.
+         */
+        private final List<String> m__lCacheBusters;
+
+        /**
+         * Whether it's rebuilt on every build.
+         */
+        private final boolean m__bRebuilt;
+
+        /**
+         * Creates a new step.
+         * @param stage the stage.
+         * @param line the line.
+         * @param keyword the keyword.
+         * @param summary the summary.
+         * @param layer whether it adds a layer.
+         * @param bytes the bytes it adds, or {@link #UNKNOWN}.
+         * @param files the files it copies.
+         * @param fetches what it fetches from the network.
+         * @param cacheBusters why it changes on every build.
+         * @param rebuilt whether it's rebuilt on every build.
+         */
+        public Step(
+            final int stage,
+            final int line,
+            final String keyword,
+            final String summary,
+            final boolean layer,
+            final long bytes,
+            final long files,
+            final List<String> fetches,
+            final List<String> cacheBusters,
+            final boolean rebuilt)
+        {
+            this.m__iStage = stage;
+            this.m__iLine = line;
+            this.m__strKeyword = keyword;
+            this.m__strSummary = summary;
+            this.m__bLayer = layer;
+            this.m__lBytes = bytes;
+            this.m__lFiles = files;
+            this.m__lFetches = Collections.unmodifiableList(new ArrayList<String>(fetches));
+            this.m__lCacheBusters = Collections.unmodifiableList(new ArrayList<String>(cacheBusters));
+            this.m__bRebuilt = rebuilt;
+        }
+
+        /**
+         * Retrieves the stage.
+         * @return such stage, from zero.
+         */
+        public int getStage()
+        {
+            return this.m__iStage;
+        }
+
+        /**
+         * Retrieves the line.
+         * @return such line.
+         */
+        public int getLine()
+        {
+            return this.m__iLine;
+        }
+
+        /**
+         * Retrieves the keyword.
+         * @return such keyword.
+         */
+        public String getKeyword()
+        {
+            return this.m__strKeyword;
+        }
+
+        /**
+         * Retrieves the summary.
+         * @return the keyword and the beginning of the arguments.
+         */
+        public String getSummary()
+        {
+            return this.m__strSummary;
+        }
+
+        /**
+         * Checks whether it adds a layer.
+         * @return {@code true} in such case.
+         */
+        public boolean isLayer()
+        {
+            return this.m__bLayer;
+        }
+
+        /**
+         * Retrieves the bytes it adds.
+         * @return such bytes, or {@link #UNKNOWN}.
+         */
+        public long getBytes()
+        {
+            return this.m__lBytes;
+        }
+
+        /**
+         * Retrieves the number of files it copies.
+         * @return such number.
+         */
+        public long getFiles()
+        {
+            return this.m__lFiles;
+        }
+
+        /**
+         * Retrieves what it fetches from the network.
+         * @return the commands and URLs.
+         */
+        public List<String> getFetches()
+        {
+            return this.m__lFetches;
+        }
+
+        /**
+         * Retrieves why it changes on every build.
+         * @return the reasons.
+         */
+        public List<String> getCacheBusters()
+        {
+            return this.m__lCacheBusters;
+        }
+
+        /**
+         * Checks whether it's rebuilt on every build, because it or an
+         * instruction before it in its stage changes on every build.
+         * @return {@code true} in such case.
+         */
+        public boolean isRebuilt()
+        {
+            return this.m__bRebuilt;
+        }
+
+        /**
+         * Writes this step as JSON.
+         * @param json where to write it.
+         * @return the same builder.
+         */
+        public StringBuilder toJson(final StringBuilder json)
+        {
+            json.append("{\"stage\":").append(this.m__iStage);
+            json.append(",\"line\":").append(this.m__iLine);
+            json.append(",\"instruction\":").append(GenerationMetrics.quote(this.m__strSummary));
+            json.append(",\"layer\":").append(this.m__bLayer);
+            json.append(",\"bytes\":").append(this.m__lBytes);
+            json.append(",\"files\":").append(this.m__lFiles);
+            json.append(",\"rebuilt\":").append(this.m__bRebuilt);
+            json.append(",\"networkFetches\":");
+            appendJson(this.m__lFetches, json);
+            json.append(",\"cacheBusters\":");
+            appendJson(this.m__lCacheBusters, json);
+            json.append('}');
+
+            return json;
+        }
+
+        /**
+         * Writes strings as a JSON array.
+         * @param values the strings.
+         * @param json where to write them.
+         */
+        protected static void appendJson(final List<String> values, final StringBuilder json)
+        {
+            json.append('[');
+
+            for (int index = 0; index < values.size(); index++)
+            {
+                if (index > 0)
+                {
+                    json.append(',');
+                }
+
+                json.append(GenerationMetrics.quote(values.get(index)));
+            }
+
+            json.append(']');
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            final StringBuilder result = new StringBuilder();
+
+            result.append("line ").append(this.m__iLine).append(": ").append(this.m__strSummary);
+
+            if (this.m__bLayer)
+            {
+                result.append(" (")
+                    .append(
+                        (this.m__lBytes == UNKNOWN) ? "unknown size" : ContextAnalyzer.formatBytes(this.m__lBytes))
+                    .append(')');
+            }
+
+            if (!this.m__lFetches.isEmpty())
+            {
+                result.append("; fetches ").append(String.join(", ", this.m__lFetches));
+            }
+
+            if (!this.m__lCacheBusters.isEmpty())
+            {
+                result.append("; ").append(String.join(", ", this.m__lCacheBusters));
+            }
+
+            return result.toString();
+        }
+    }
+
+    /**
+     * The estimate of a Dockerfile.
+     */
+    public static final class Estimate
+    {
+        /**
+         * The module.
+         */
+        private final String m__strModule;
+
+        /**
+         * The Dockerfile classifier.
+         */
+        private final String m__strClassifier;
+
+        /**
+         * The last stage, from zero.
+         */
+        private final int m__iLastStage;
+
+        /**
+         * The steps.
+         */
+        private final List<Step> m__lSteps;
+
+        /**
+         * Creates a new estimate.
+         * @param module the module.
+         * @param classifier the Dockerfile classifier.
+         * @param lastStage the last stage, from zero.
+         * @param steps the steps.
+         */
+        public Estimate(final String module, final String classifier, final int lastStage, final List<Step> steps)
+        {
+            this.m__strModule = module;
+            this.m__strClassifier = classifier;
+            this.m__iLastStage = lastStage;
+            this.m__lSteps = Collections.unmodifiableList(new ArrayList<Step>(steps));
+        }
+
+        /**
+         * Retrieves the module.
+         * @return such module.
+         */
+        public String getModule()
+        {
+            return this.m__strModule;
+        }
+
+        /**
+         * Retrieves the Dockerfile classifier.
+         * @return such classifier.
+         */
+        public String getClassifier()
+        {
+            return this.m__strClassifier;
+        }
+
+        /**
+         * Retrieves the steps.
+         * @return one per instruction.
+         */
+        public List<Step> getSteps()
+        {
+            return this.m__lSteps;
+        }
+
+        /**
+         * Retrieves the number of stages.
+         * @return such number.
+         */
+        public int getStages()
+        {
+            return this.m__iLastStage + 1;
+        }
+
+        /**
+         * Retrieves the number of layers built, in every stage.
+         * @return such number.
+         */
+        public int getLayers()
+        {
+            int result = 0;
+
+            for (final Step step : this.m__lSteps)
+            {
+                if (step.isLayer())
+                {
+                    result++;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the number of layers added to the image, by its last stage.
+         * @return such number.
+         */
+        public int getImageLayers()
+        {
+            int result = 0;
+
+            for (final Step step : this.m__lSteps)
+            {
+                if (   (step.isLayer())
+                    && (step.getStage() == this.m__iLastStage))
+                {
+                    result++;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the bytes the last stage adds to the image, as far as known.
+         * @return the bytes of the layers of known size.
+         */
+        public long getImageBytes()
+        {
+            long result = 0;
+
+            for (final Step step : this.m__lSteps)
+            {
+                if (   (step.isLayer())
+                    && (step.getStage() == this.m__iLastStage)
+                    && (step.getBytes() != Step.UNKNOWN))
+                {
+                    result += step.getBytes();
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the number of layers of the image whose size is unknown.
+         * @return such number.
+         */
+        public int getUnknownLayers()
+        {
+            int result = 0;
+
+            for (final Step step : this.m__lSteps)
+            {
+                if (   (step.isLayer())
+                    && (step.getStage() == this.m__iLastStage)
+                    && (step.getBytes() == Step.UNKNOWN))
+                {
+                    result++;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the number of instructions fetching things from the network.
+         * @return such number.
+         */
+        public int getNetworkFetches()
+        {
+            int result = 0;
+
+            for (final Step step : this.m__lSteps)
+            {
+                if (!step.getFetches().isEmpty())
+                {
+                    result++;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the number of instructions changing on every build.
+         * @return such number.
+         */
+        public int getCacheBusters()
+        {
+            int result = 0;
+
+            for (final Step step : this.m__lSteps)
+            {
+                if (!step.getCacheBusters().isEmpty())
+                {
+                    result++;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the number of layers rebuilt on every build.
+         * @return such number.
+         */
+        public int getRebuiltLayers()
+        {
+            int result = 0;
+
+            for (final Step step : this.m__lSteps)
+            {
+                if (step.isRebuilt())
+                {
+                    result++;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the bytes of the layers rebuilt on every build, as far as known.
+         * @return such bytes.
+         */
+        public long getRebuiltBytes()
+        {
+            long result = 0;
+
+            for (final Step step : this.m__lSteps)
+            {
+                if (   (step.isRebuilt())
+                    && (step.getBytes() != Step.UNKNOWN))
+                {
+                    result += step.getBytes();
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the steps worth reporting.
+         * @return the steps that add bytes, fetch from the network or change on every build.
+         */
+        public List<Step> getNotableSteps()
+        {
+            final List<Step> result = new ArrayList<Step>();
+
+            for (final Step step : this.m__lSteps)
+            {
+                if (   (step.getBytes() > 0)
+                    || (!step.getFetches().isEmpty())
+                    || (!step.getCacheBusters().isEmpty()))
+                {
+                    result.add(step);
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Writes this estimate as JSON.
+         * @param json where to write it.
+         * @return the same builder.
+         */
+        public StringBuilder toJson(final StringBuilder json)
+        {
+            json.append("{\"module\":").append(GenerationMetrics.quote(this.m__strModule));
+            json.append(",\"classifier\":").append(GenerationMetrics.quote(this.m__strClassifier));
+            json.append(",\"stages\":").append(getStages());
+            json.append(",\"layers\":").append(getLayers());
+            json.append(",\"imageLayers\":").append(getImageLayers());
+            json.append(",\"imageBytes\":").append(getImageBytes());
+            json.append(",\"unknownLayers\":").append(getUnknownLayers());
+            json.append(",\"networkFetches\":").append(getNetworkFetches());
+            json.append(",\"cacheBusters\":").append(getCacheBusters());
+            json.append(",\"rebuiltLayers\":").append(getRebuiltLayers());
+            json.append(",\"rebuiltBytes\":").append(getRebuiltBytes());
+            json.append(",\"steps\":[");
+
+            for (int index = 0; index < this.m__lSteps.size(); index++)
+            {
+                if (index > 0)
+                {
+                    json.append(',');
+                }
+
+                this.m__lSteps.get(index).toJson(json);
+            }
+
+            json.append("]}");
+
+            return json;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return
+                  getLayers() + " layer(s) in " + getStages() + " stage(s), " + getImageLayers()
+                + " in the image adding " + ContextAnalyzer.formatBytes(getImageBytes())
+                + ((getUnknownLayers() > 0) ? " plus " + getUnknownLayers() + " layer(s) of unknown size" : "")
+                + "; " + getNetworkFetches() + " network fetch(es); " + getCacheBusters()
+                + " instruction(s) changing on every build, rebuilding " + getRebuiltLayers() + " layer(s) ("
+                + ContextAnalyzer.formatBytes(getRebuiltBytes()) + " known)";
+        }
+    }
+}
@@ -34,11 +34,13 @@ package org.acmsl.dockerfile.maven;
 /*
  * Importing StringTemplate classes.
  */
+import org.stringtemplate.v4.AutoIndentWriter;
 import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STErrorListener;
 import org.stringtemplate.v4.STGroup;
 import org.stringtemplate.v4.STGroupDir;
 import org.stringtemplate.v4.STGroupFile;
+import org.stringtemplate.v4.STWriter;
 import org.stringtemplate.v4.misc.STMessage;
 
 /*
@@ -54,12 +56,24 @@ import org.apache.commons.logging.Log;
 /*
  * Importing some JDK classes.
  */
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
-import java.util.Arrays;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Generates Dockerfile files using StringTemplate.
@@ -131,6 +145,11 @@ public class DockerfileGenerator
             }
         };
 
+    /**
+     * The size of the output buffer.
+     */
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
     /**
      * The input parameters to the template.
      */
@@ -142,15 +161,92 @@ public class DockerfileGenerator
     private final File m__Template;
 
     /**
-     * Creates a new instance.
+     * The compiled-template cache, or {@code null} to compile the template every time.
+     */
+    private final TemplateCache m__TemplateCache;
+
+    /**
+     * The charset of the template and the generated file.
+     */
+    private final Charset m__Charset;
+
+    /**
+     * The template packs, looked up before the built-in templates.
+     */
+    private final List<File> m__lTemplatePacks;
+
+    /**
+     * Creates a new instance, using the platform charset and the process-wide
+     * {@link TemplateCache}.
      * @param input the input.
      * @param template the template.
      */
     public DockerfileGenerator(
         final Map<String, ?> input, final File template)
+    {
+        this(input, template, Charset.defaultCharset());
+    }
+
+    /**
+     * Creates a new instance, using the process-wide {@link TemplateCache}.
+     * @param input the input.
+     * @param template the template.
+     * @param charset the charset of the template and the generated file.
+     */
+    public DockerfileGenerator(
+        final Map<String, ?> input, final File template, final Charset charset)
+    {
+        this(input, template, charset, TemplateCache.getInstance());
+    }
+
+    /**
+     * Creates a new instance, using the platform charset.
+     * @param input the input.
+     * @param template the template.
+     * @param templateCache the {@link TemplateCache}, or {@code null} to disable caching.
+     */
+    public DockerfileGenerator(
+        final Map<String, ?> input, final File template, final TemplateCache templateCache)
+    {
+        this(input, template, Charset.defaultCharset(), templateCache);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param input the input.
+     * @param template the template.
+     * @param charset the charset of the template and the generated file.
+     * @param templateCache the {@link TemplateCache}, or {@code null} to disable caching.
+     */
+    public DockerfileGenerator(
+        final Map<String, ?> input,
+        final File template,
+        final Charset charset,
+        final TemplateCache templateCache)
+    {
+        this(input, template, charset, templateCache, Collections.<File>emptyList());
+    }
+
+    /**
+     * Creates a new instance.
+     * @param input the input.
+     * @param template the template.
+     * @param charset the charset of the template and the generated file.
+     * @param templateCache the {@link TemplateCache}, or {@code null} to disable caching.
+     * @param templatePacks the {@link TemplatePack} jars, in lookup order.
+     */
+    public DockerfileGenerator(
+        final Map<String, ?> input,
+        final File template,
+        final Charset charset,
+        final TemplateCache templateCache,
+        final List<File> templatePacks)
     {
         this.m__mInput = input;
         this.m__Template = template;
+        this.m__Charset = charset;
+        this.m__TemplateCache = templateCache;
+        this.m__lTemplatePacks = templatePacks;
     }
 
     /**
@@ -184,6 +280,33 @@ public class DockerfileGenerator
         return this.m__Template;
     }
 
+    /**
+     * Retrieves the charset of the template and the generated file.
+     * @return such charset.
+     */
+    public Charset getCharset()
+    {
+        return this.m__Charset;
+    }
+
+    /**
+     * Retrieves the compiled-template cache.
+     * @return such cache, or {@code null} if caching is disabled.
+     */
+    public TemplateCache getTemplateCache()
+    {
+        return this.m__TemplateCache;
+    }
+
+    /**
+     * Retrieves the template packs.
+     * @return such jars.
+     */
+    public List<File> getTemplatePacks()
+    {
+        return this.m__lTemplatePacks;
+    }
+
     /**
      * Generates a new Dockerfile using given information.
      * @return the Dockerfile content.
@@ -202,18 +325,261 @@ public class DockerfileGenerator
     protected String generateDockerfile(
         final Map<String, ?> input, final File template)
     {
-        final STGroup templateGroup =
-            retrieveGroup(
+        return retrieveSourceTemplate(input, template).render();
+    }
+
+    /**
+     * Generates a new Dockerfile, streaming it to given file.
+     * @param output the file to write.
+     * @return the number of characters written.
+     * @throws IOException if the file cannot be written.
+     */
+    public int writeDockerfile(final File output)
+        throws IOException
+    {
+        final int result;
+
+        try (FileChannel channel =
+                 FileChannel.open(
+                     output.toPath(),
+                     StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.WRITE);
+             Writer writer =
+                 new BufferedWriter(
+                     Channels.newWriter(channel, getCharset().newEncoder(), -1), BUFFER_SIZE))
+        {
+            result = writeDockerfile(writer);
+        }
+
+        return result;
+    }
+
+    /**
+     * Generates a new Dockerfile, streaming it to given output stream.
+     * The stream is flushed, but not closed.
+     * @param output the output stream.
+     * @return the number of characters written.
+     * @throws IOException if the stream fails.
+     */
+    public int writeDockerfile(final OutputStream output)
+        throws IOException
+    {
+        return writeDockerfile(new BufferedWriter(new OutputStreamWriter(output, getCharset().newEncoder()), BUFFER_SIZE));
+    }
+
+    /**
+     * Generates a new Dockerfile, streaming it to given writer.
+     * The writer is flushed, but not closed.
+     * @param writer the writer.
+     * @return the number of characters written.
+     * @throws IOException if the writer fails.
+     */
+    public int writeDockerfile(final Writer writer)
+        throws IOException
+    {
+        final int result =
+            writeDockerfile(immutableGetInput(), getTemplate(), new AutoIndentWriter(writer));
+
+        writer.flush();
+
+        return result;
+    }
+
+    /**
+     * Generates a new Dockerfile, streaming it to given {@link STWriter}.
+     * @param input the input.
+     * @param template the template.
+     * @param writer the writer.
+     * @return the number of characters written.
+     * @throws IOException if the writer fails.
+     */
+    protected int writeDockerfile(
+        final Map<String, ?> input, final File template, final STWriter writer)
+      throws IOException
+    {
+        return retrieveSourceTemplate(input, template).write(writer);
+    }
+
+    /**
+     * Retrieves the {@code source} template, bound to given input.
+     * @param input the input.
+     * @param template the template.
+     * @return such template.
+     */
+    protected ST retrieveSourceTemplate(final Map<String, ?> input, final File template)
+    {
+        final STGroup templateGroup = retrieveTemplateGroup(template);
+
+        final ST result = templateGroup.getInstanceOf(Literals.SOURCE_L);
+
+        result.add(Literals.C_U, input);
+
+        return result;
+    }
+
+    /**
+     * Retrieves the group of the template, compiling it if not cached.
+     * The groups it imports are loaded when first used.
+     * @return such group.
+     */
+    public STGroup retrieveTemplateGroup()
+    {
+        return retrieveTemplateGroup(getTemplate());
+    }
+
+    /**
+     * Retrieves the local files the template, and the groups it imports,
+     * come from, loading the imported groups not loaded yet.
+     * @return such files.
+     */
+    public Set<File> retrieveTemplateDependencies()
+    {
+        final STGroup group = retrieveTemplateGroup(getTemplate());
+
+        loadImports(group, Collections.newSetFromMap(new IdentityHashMap<STGroup, Boolean>()));
+
+        return TemplateCache.collectDependencies(group);
+    }
+
+    /**
+     * Loads the groups given one imports, transitively.
+     * @param group the group.
+     * @param visited the groups already visited.
+     */
+    protected void loadImports(final STGroup group, final Set<STGroup> visited)
+    {
+        if (visited.add(group))
+        {
+            for (final STGroup imported : group.getImportedGroups())
+            {
+                imported.load();
+                loadImports(imported, visited);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the attribute and property names the template, and the
+     * templates it includes, reference.
+     * @return such references.
+     */
+    public TemplateAttributeScanner.Result retrieveReferencedAttributes()
+    {
+        return TemplateAttributeScanner.scan(retrieveTemplateGroup(getTemplate()), Literals.SOURCE_L);
+    }
+
+    /**
+     * Compiles the template, and the templates it includes, without rendering them.
+     * @param modelNames the names the model provides, to check {@code C.x}
+     * references against, or {@code null} to skip that check.
+     * @return the problems found, errors first.
+     */
+    public List<TemplateProblem> validate(final Set<String> modelNames)
+    {
+        return TemplateValidator.validate(retrieveTemplateGroup(getTemplate()), Literals.SOURCE_L, modelNames);
+    }
+
+    /**
+     * Checks the template compiled, so that it's not rendered with parts missing.
+     * @throws TemplateCompilationException if it did not.
+     */
+    public void checkTemplate()
+        throws TemplateCompilationException
+    {
+        final List<TemplateProblem> errors = new ArrayList<TemplateProblem>();
+
+        for (final TemplateProblem problem : validate(null))
+        {
+            if (!problem.isWarning())
+            {
+                errors.add(problem);
+            }
+        }
+
+        if (!errors.isEmpty())
+        {
+            throw new TemplateCompilationException(getTemplate().getPath(), errors);
+        }
+    }
+
+    /**
+     * Retrieves the group for given template.
+     * @param template the template.
+     * @return such group.
+     */
+    protected STGroup retrieveTemplateGroup(final File template)
+    {
+        return
+            retrieveCachedGroup(
                 template,
-                Arrays.asList(Literals.ORG_ACMSL_DOCKERFILE),
+                retrieveLookupPaths(getTemplatePacks()),
                 ST_ERROR_LISTENER,
-                Charset.defaultCharset());
+                getCharset(),
+                getTemplateCache());
+    }
 
-        final ST st = templateGroup.getInstanceOf(Literals.SOURCE_L);
+    /**
+     * Retrieves the lookup paths: the template packs, then the built-in templates.
+     * @param templatePacks the template packs.
+     * @return such paths.
+     */
+    protected List<String> retrieveLookupPaths(final List<File> templatePacks)
+    {
+        final List<String> result = new ArrayList<String>(templatePacks.size() + 1);
 
-        st.add(Literals.C_U, input);
+        for (final File templatePack : templatePacks)
+        {
+            result.add(templatePack.getAbsolutePath());
+        }
+
+        result.add(Literals.ORG_ACMSL_DOCKERFILE);
 
-        return st.render();
+        return result;
+    }
+
+    /**
+     * Retrieves the string template group, reusing an already-compiled one if
+     * none of its sources changed.
+     * @param template the template.
+     * @param lookupPaths the lookup paths.
+     * @param errorListener the {@link STErrorListener} instance.
+     * @param charset the charset.
+     * @param templateCache the {@link TemplateCache}, or {@code null} to bypass it.
+     * @return such instance.
+     */
+    protected STGroup retrieveCachedGroup(
+        final File template,
+        final List<String> lookupPaths,
+        final STErrorListener errorListener,
+        final Charset charset,
+        final TemplateCache templateCache)
+    {
+        final STGroup result;
+
+        if (templateCache == null)
+        {
+            result = retrieveGroup(template, lookupPaths, errorListener, charset);
+        }
+        else
+        {
+            result =
+                templateCache.retrieve(
+                    TemplateCache.buildKey(template, lookupPaths, charset),
+                    new TemplateCache.GroupLoader()
+                    {
+                        /**
+                         * {@inheritDoc}
+                         */
+                        @Override
+                        public STGroup load()
+                        {
+                            return retrieveGroup(template, lookupPaths, errorListener, charset);
+                        }
+                    });
+        }
+
+        return result;
     }
 
     /**
@@ -276,18 +642,58 @@ public class DockerfileGenerator
     {
         final STGroupFile result = groupFile;
 
+        // Before loading anything, so compile errors are kept, and reported through errorListener.
+        final TemplateErrorCollector collector = new TemplateErrorCollector(errorListener);
+
+        result.setListener(collector);
+
         for (final String lookupPath : lookupPaths)
         {
             if (lookupPath != null)
             {
-                result.importTemplates(new STGroupDir(lookupPath, charset.displayName()));
+                final STGroup lookupGroup = retrieveLookupGroup(lookupPath, charset);
+
+                lookupGroup.setListener(collector);
+                result.importTemplates(lookupGroup);
             }
         }
 
+        MavenModelAdaptor.register(result);
+
         result.isDefined(Literals.SOURCE_L);
-        result.setListener(errorListener);
 
         return result;
     }
 
+    /**
+     * Retrieves the group for a lookup path: a {@link TemplatePack} if it's a
+     * jar file, or a directory (in the filesystem or the classpath) otherwise.
+     * @param lookupPath the lookup path.
+     * @param charset the charset.
+     * @return such group.
+     */
+    protected STGroup retrieveLookupGroup(final String lookupPath, final Charset charset)
+    {
+        final STGroup result;
+
+        final File file = new File(lookupPath);
+
+        if (file.isFile())
+        {
+            try
+            {
+                result = TemplatePack.retrieve(file).newGroup(charset);
+            }
+            catch (final IOException cannotReadPack)
+            {
+                throw new UncheckedIOException("Cannot read template pack " + file, cannotReadPack);
+            }
+        }
+        else
+        {
+            result = new STGroupDir(lookupPath, charset.displayName());
+        }
+
+        return result;
+    }
 }
@@ -0,0 +1,312 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileInstruction.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: One instruction of a Dockerfile.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One instruction of a Dockerfile, as written: its keyword, its arguments
+ * with line continuations joined, and its original text, including
+ * continuation lines and heredoc bodies, so unchanged instructions can be
+ * written back verbatim. Comments and blank lines before it travel with it.
+ * Instructions as read also keep their exact text, line terminators included.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public final class DockerfileInstruction
+{
+    /**
+     * The keyword, in upper case.
+     */
+    private final String m__strKeyword;
+
+    /**
+     * The arguments, with continuations joined.
+     */
+    private final String m__strArguments;
+
+    /**
+     * The original text, its lines separated by {@code \n}.
+     */
+    private final String m__strText;
+
+    /**
+     * The comments and blank lines before it.
+     */
+    private final List<String> m__lComments;
+
+    /**
+     * The line it starts at, or zero if synthesized.
+     */
+    private final int m__iLine;
+
+    /**
+     * Whether it has heredocs.
+     */
+    private final boolean m__bHeredoc;
+
+    /**
+     * The original text, with the comments before it and every line
+     * terminator.
+     */
+    private final String m__strOriginal;
+
+    /**
+     * Creates a new instruction.
+     * @param keyword the keyword.
+     * @param arguments the arguments, with continuations joined.
+     * @param text the original text.
+     * @param comments the comments and blank lines before it.
+     * @param line the line it starts at.
+     * @param heredoc whether it has heredocs.
+     */
+    public DockerfileInstruction(
+        final String keyword,
+        final String arguments,
+        final String text,
+        final List<String> comments,
+        final int line,
+        final boolean heredoc)
+    {
+        this(keyword, arguments, text, comments, line, heredoc, null);
+    }
+
+    /**
+     * Creates a new instruction, as read.
+     * @param keyword the keyword.
+     * @param arguments the arguments, with continuations joined.
+     * @param text the original text.
+     * @param comments the comments and blank lines before it.
+     * @param line the line it starts at.
+     * @param heredoc whether it has heredocs.
+     * @param original the original text, with the comments before it and
+     * every line terminator; or {@code null} if it's not as read.
+     */
+    public DockerfileInstruction(
+        final String keyword,
+        final String arguments,
+        final String text,
+        final List<String> comments,
+        final int line,
+        final boolean heredoc,
+        final String original)
+    {
+        this.m__strKeyword = keyword.toUpperCase(Locale.US);
+        this.m__strArguments = arguments;
+        this.m__strText = text;
+        this.m__lComments = Collections.unmodifiableList(new ArrayList<String>(comments));
+        this.m__iLine = line;
+        this.m__bHeredoc = heredoc;
+        this.m__strOriginal = original;
+    }
+
+    /**
+     * Creates an instruction that was not parsed.
+     * @param keyword the keyword.
+     * @param arguments the arguments.
+     * @param comments the comments before it.
+     * @return the instruction.
+     */
+    public static DockerfileInstruction of(
+        final String keyword, final String arguments, final List<String> comments)
+    {
+        final String upper = keyword.toUpperCase(Locale.US);
+
+        return new DockerfileInstruction(upper, arguments, upper + " " + arguments, comments, 0, false);
+    }
+
+    /**
+     * Retrieves the keyword.
+     * @return such keyword, in upper case.
+     */
+    public String getKeyword()
+    {
+        return this.m__strKeyword;
+    }
+
+    /**
+     * Checks the keyword.
+     * @param keyword the keyword.
+     * @return {@code true} if this instruction is such.
+     */
+    public boolean is(final String keyword)
+    {
+        return this.m__strKeyword.equals(keyword);
+    }
+
+    /**
+     * Retrieves the arguments.
+     * @return such arguments, with continuations joined, including flags.
+     */
+    public String getArguments()
+    {
+        return this.m__strArguments;
+    }
+
+    /**
+     * Retrieves the original text, its lines separated by {@code \n}.
+     * @return such text, without a trailing line break.
+     */
+    public String getText()
+    {
+        return this.m__strText;
+    }
+
+    /**
+     * Retrieves the comments and blank lines before it.
+     * @return such lines.
+     */
+    public List<String> getComments()
+    {
+        return this.m__lComments;
+    }
+
+    /**
+     * Retrieves the line it starts at.
+     * @return such line, or zero if synthesized.
+     */
+    public int getLine()
+    {
+        return this.m__iLine;
+    }
+
+    /**
+     * Checks whether it has heredocs.
+     * @return {@code true} in such case.
+     */
+    public boolean isHeredoc()
+    {
+        return this.m__bHeredoc;
+    }
+
+    /**
+     * Retrieves the leading {@code --flag} arguments.
+     * @return such flags.
+     */
+    public List<String> getFlags()
+    {
+        final List<String> result = new ArrayList<String>();
+
+        String rest = this.m__strArguments.trim();
+
+        while (rest.startsWith("--"))
+        {
+            final String[] flag = rest.split("\\s+", 2);
+
+            result.add(flag[0]);
+            rest = (flag.length > 1) ? flag[1].trim() : "";
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the arguments after the flags.
+     * @return such arguments.
+     */
+    public String getCommand()
+    {
+        String result = this.m__strArguments.trim();
+
+        while (result.startsWith("--"))
+        {
+            final String[] flag = result.split("\\s+", 2);
+
+            result = (flag.length > 1) ? flag[1].trim() : "";
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the arguments use the JSON (exec) form.
+     * @return {@code true} in such case.
+     */
+    public boolean isExecForm()
+    {
+        return getCommand().startsWith("[");
+    }
+
+    /**
+     * Retrieves the arguments of the JSON (exec) form.
+     * @return the strings of the array, or {@code null} if the arguments
+     * are not a valid JSON array, in which case Docker uses the shell form.
+     */
+    public List<String> getExecArguments()
+    {
+        return isExecForm() ? DockerfileTokenizer.parseJsonArray(getCommand()) : null;
+    }
+
+    /**
+     * Retrieves the original text, as read.
+     * @return the text with the comments before it and every line terminator,
+     * byte for byte; or {@code null} if the instruction was not read as is.
+     */
+    public String getOriginal()
+    {
+        return this.m__strOriginal;
+    }
+
+    /**
+     * Creates a copy with other comments.
+     * @param comments the comments.
+     * @return the copy.
+     */
+    public DockerfileInstruction withComments(final List<String> comments)
+    {
+        return
+            new DockerfileInstruction(
+                this.m__strKeyword, this.m__strArguments, this.m__strText, comments, this.m__iLine, this.m__bHeredoc);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder result = new StringBuilder();
+
+        for (final String comment : this.m__lComments)
+        {
+            result.append(comment).append('\n');
+        }
+
+        return result.append(this.m__strText).toString();
+    }
+}
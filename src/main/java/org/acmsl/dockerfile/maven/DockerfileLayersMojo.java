@@ -0,0 +1,91 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileLayersMojo.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Splits fat jars into layer jars for multi-stage images.
+ */
+package org.acmsl.dockerfile.maven;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Splits the module's fat jars into dependencies, snapshot dependencies,
+ * resources and application classes, so a multi-stage Dockerfile can copy
+ * them in cache-friendly order. Templates find the layer paths under
+ * {@code jarLayers}. Jars are split concurrently, copying entries raw.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@Mojo(name = Literals.LAYERS_L,
+      defaultPhase = LifecyclePhase.PACKAGE,
+      threadSafe = true)
+public class DockerfileLayersMojo extends DockerfileMojo {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DockerfileLayersMojo.class);
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    List<LayeredJar> jars = new ArrayList<>();
+
+    for (LayeredJar jar : retrieveLayeredJars(project)) {
+      if (jar.getSource().isFile()) {
+        jars.add(jar);
+      } else {
+        LOGGER.warn("Cannot split " + jar.getSource() + ": it does not exist. Has the module been packaged?");
+      }
+    }
+
+    if (jars.isEmpty()) {
+      return;
+    }
+
+    ExecutorService executor = ThreadPools.newBoundedExecutor(
+        ThreadPools.retrieveParallelism(jars.size(), parallelism), "dockerfile-layers");
+
+    try {
+      for (LayeredJarExtractor.Result result : new LayeredJarExtractor().extractAll(jars, executor)) {
+        LOGGER.info("Layered " + result);
+      }
+    } catch (final IOException e) {
+      throw new MojoExecutionException("Cannot split jars into layers", e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("Interrupted while splitting jars into layers", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -31,23 +31,63 @@
  */
 package org.acmsl.dockerfile.maven;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
-import org.acmsl.commons.utils.io.FileUtils;
+import org.apache.maven.RepositoryUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.project.DefaultDependencyResolutionRequest;
+import org.apache.maven.project.DependencyResolutionException;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectHelper;
+import org.apache.maven.project.ProjectDependenciesResolver;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,84 +98,2246 @@ public class DockerfileMojo extends AbstractMojo {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DockerfileMojo.class);
 
+  /**
+   * What matrix values may look like in file names and classifiers.
+   */
+  protected static final Pattern MATRIX_LABEL_PATTERN = Pattern.compile("[A-Za-z0-9_.]+");
+
   @Parameter(defaultValue = "${project}", readonly = true, required = true)
-  private MavenProject project;
+  protected MavenProject project;
 
   @Parameter(defaultValue = "${project.build.outputDirectory}/META-INF/", required = true)
-  private File outputDir;
+  protected File outputDir;
 
-  @Parameter(property = Literals.TEMPLATE_L, required = true)
-  private File template;
+  @Parameter(property = Literals.TEMPLATE_L)
+  protected File template;
 
   @Parameter(defaultValue = "${project.build.sourceEncoding}")
-  private String encoding;
+  protected String encoding;
 
   @Parameter(property = Literals.CLASSIFIER_L, defaultValue = "Dockerfile")
-  private String classifier;
+  protected String classifier;
+
+  /**
+   * Several Dockerfiles to generate in one execution, instead of the single
+   * {@code template}/{@code classifier} pair.
+   */
+  @Parameter
+  protected List<DockerfileEntry> dockerfiles;
+
+  /**
+   * Axes, such as JDKs or architectures, to render every Dockerfile for each
+   * combination of. Templates read the values as {@code C.matrix.<axis>}.
+   */
+  @Parameter
+  protected List<MatrixAxis> matrix;
+
+  /**
+   * How many Dockerfiles to render concurrently. Defaults to the number of processors.
+   */
+  @Parameter(property = Literals.DOCKERFILE_PARALLELISM, defaultValue = "0")
+  protected int parallelism;
+
+  @Parameter(defaultValue = "${plugin.version}", readonly = true)
+  protected String pluginVersion;
+
+  @Parameter(property = Literals.DOCKERFILE_EXPLAIN, defaultValue = "false")
+  protected boolean explain;
+
+  @org.apache.maven.plugins.annotations.Component
+  protected MavenProjectHelper projectHelper;
+
+  @Parameter(defaultValue = "${session}", readonly = true, required = true)
+  protected MavenSession session;
+
+  /**
+   * The running execution, so that each one keeps track of its own staged files.
+   */
+  @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+  protected MojoExecution mojoExecution;
 
+  /**
+   * Resolves dependencies only for templates that use them, instead of
+   * declaring {@code requiresDependencyResolution} for every module.
+   */
   @org.apache.maven.plugins.annotations.Component
-  private MavenProjectHelper projectHelper;
+  private ProjectDependenciesResolver dependenciesResolver;
+
+  /**
+   * Jars of shared templates, as {@code groupId:artifactId[:extension[:classifier]]:version}
+   * coordinates or paths. Their templates can be used from any Dockerfile template.
+   */
+  @Parameter
+  protected List<String> templatePacks;
+
+  @org.apache.maven.plugins.annotations.Component
+  protected RepositorySystem repositorySystem;
+
+  /**
+   * Whether to assemble a docker build context with the generated Dockerfiles
+   * and the files their {@code ADD}/{@code COPY} instructions use.
+   */
+  @Parameter(property = Literals.DOCKERFILE_STAGE_CONTEXT, defaultValue = "false")
+  protected boolean stageContext;
+
+  /**
+   * Where to assemble the build context. Only the files a previous run of
+   * the same execution staged, and this one does not, are removed from it.
+   */
+  @Parameter(defaultValue = "${project.build.directory}/docker-context", required = true)
+  protected File contextDir;
+
+  /**
+   * Whether to hard-link files into the context, when in the same filesystem, instead of copying them.
+   */
+  @Parameter(property = Literals.DOCKERFILE_CONTEXT_LINKS, defaultValue = "true")
+  protected boolean contextLinks;
+
+  /**
+   * Whether to write a {@code <output>.dockerignore} next to each Dockerfile, keeping only what it copies.
+   */
+  @Parameter(property = Literals.DOCKERFILE_DOCKERIGNORE, defaultValue = "false")
+  protected boolean dockerignore;
+
+  /**
+   * Whether to report the size of the module's build context, and what the derived ignore file saves.
+   */
+  @Parameter(property = Literals.DOCKERFILE_ANALYZE_CONTEXT, defaultValue = "false")
+  protected boolean analyzeContext;
+
+  /**
+   * The fat jars to split into layers. Defaults to the module's own artifact.
+   */
+  @Parameter
+  protected List<File> layeredJars;
+
+  /**
+   * Whether to reuse Dockerfiles rendered by other checkouts or workspaces from the shared generation cache.
+   */
+  @Parameter(property = Literals.DOCKERFILE_GENERATION_CACHE, defaultValue = "false")
+  protected boolean useGenerationCache;
+
+  /**
+   * The shared generation cache. Defaults to {@code .cache/dockerfile-maven-plugin} in the local repository.
+   */
+  @Parameter(property = Literals.DOCKERFILE_GENERATION_CACHE_DIR)
+  protected File generationCacheDir;
+
+  /**
+   * The maximum size of the shared generation cache, in bytes; the least recently used entries go first.
+   */
+  @Parameter(property = Literals.DOCKERFILE_GENERATION_CACHE_MAX_BYTES, defaultValue = "67108864")
+  protected long generationCacheMaxBytes;
+
+  /**
+   * Whether to write the SHA-1 and SHA-256 of each generated Dockerfile to {@code <classifier>.sha1} and
+   * {@code <classifier>.sha256} under {@code ${project.build.directory}/dockerfile-maven-plugin}.
+   */
+  @Parameter(property = Literals.DOCKERFILE_CHECKSUM_SIDECARS, defaultValue = "false")
+  protected boolean checksumSidecars;
+
+  /**
+   * Whether to fail, instead of rendering, when a template or a group it imports does not compile.
+   */
+  @Parameter(property = Literals.DOCKERFILE_FAIL_ON_TEMPLATE_ERRORS, defaultValue = "false")
+  protected boolean failOnTemplateErrors;
+
+  /**
+   * Whether to merge layers, move the ones not depending on the artifact above those that do, and drop redundant
+   * ENV and LABEL instructions from the rendered Dockerfiles.
+   */
+  @Parameter(property = Literals.DOCKERFILE_OPTIMIZE, defaultValue = "false")
+  protected boolean optimize;
+
+  /**
+   * The {@link DockerfilePostProcessor} classes to run, in order, over each rendered Dockerfile while it's written.
+   * They are loaded from the plugin's dependencies. The optimizer, if enabled, runs after them.
+   */
+  @Parameter
+  protected List<String> postProcessors;
+
+  /**
+   * Whether to pin the base image of each FROM instruction to the digest it currently points to.
+   */
+  @Parameter(property = Literals.DOCKERFILE_PIN_DIGESTS, defaultValue = "false")
+  protected boolean pinDigests;
+
+  /**
+   * A properties file mapping image references to their digests, used instead of asking the registries.
+   */
+  @Parameter(property = Literals.DOCKERFILE_IMAGE_DIGESTS)
+  protected File imageDigests;
+
+  /**
+   * Where resolved digests are remembered. Defaults to {@code .cache/dockerfile-maven-plugin/image-digests.properties}
+   * in the local repository, or to memory only when {@code imageDigests} is set.
+   */
+  @Parameter(property = Literals.DOCKERFILE_IMAGE_DIGEST_CACHE)
+  protected File imageDigestCache;
+
+  /**
+   * How long resolved digests are used before asking the registry again, in seconds.
+   */
+  @Parameter(property = Literals.DOCKERFILE_IMAGE_DIGEST_TTL, defaultValue = "86400")
+  protected long imageDigestTtl;
+
+  /**
+   * Whether to use remembered digests only, however old. Maven's offline mode implies it.
+   */
+  @Parameter(property = Literals.DOCKERFILE_IMAGE_DIGESTS_OFFLINE, defaultValue = "false")
+  protected boolean imageDigestsOffline;
+
+  /**
+   * Where the checksums of files are remembered, by path, size and modification time. Defaults to
+   * {@code .cache/dockerfile-maven-plugin/checksums.properties} in the local repository.
+   */
+  @Parameter(property = Literals.DOCKERFILE_CHECKSUM_CACHE)
+  protected File checksumCache;
+
+  /**
+   * The checksums of this execution, when there's no local repository to remember them in.
+   */
+  private ChecksumService memoryChecksums;
 
   @Override
   public void execute() throws MojoExecutionException {
+    if (!outputDir.exists() && !outputDir.mkdirs()) {
+      LOGGER.warn("Cannot create output folder: " + outputDir);
+    }
+
+    Charset cs = (encoding == null || encoding.isBlank())
+        ? Charset.defaultCharset()
+        : Charset.forName(encoding);
+
+    String ownVersion = (pluginVersion == null) ? Literals.UNKNOWN_L : pluginVersion;
+    List<DockerfileEntry> entries = retrieveEntries(template, classifier, dockerfiles);
+    List<File> packs = resolveTemplatePacks(project, templatePacks);
+    LazyTemplateModel model = retrieveModel(project, ownVersion);
+
+    prefetchImageDigests(Collections.singletonMap(project, entries));
+
+    int threads = ThreadPools.retrieveParallelism(entries.size(), parallelism);
+    ExecutorService executor = ThreadPools.newBoundedExecutor(threads, "dockerfile-render");
+    List<String> failures = new ArrayList<>();
+    List<GenerationMetrics> metrics = new ArrayList<>(entries.size());
+    Map<DockerfileEntry, File> generated = new LinkedHashMap<>();
+
     try {
-      if (!outputDir.exists() && !outputDir.mkdirs()) {
-        LOGGER.warn("Cannot create output folder: " + outputDir);
+      List<Future<File>> results = new ArrayList<>(entries.size());
+
+      for (DockerfileEntry entry : entries) {
+        GenerationMetrics metric = new GenerationMetrics(project.getGroupId() + ":" + project.getArtifactId(), entry.getClassifier());
+        metrics.add(metric);
+        results.add(executor.submit(() -> generate(entry, project, model, ownVersion, cs, packs, metric)));
+      }
+
+      // Attach on this thread, in configuration order: MavenProject is not thread-safe.
+      for (int index = 0; index < entries.size(); index++) {
+        DockerfileEntry entry = entries.get(index);
+
+        try {
+          File dockerfile = results.get(index).get();
+          long attaching = System.nanoTime();
+          generated.put(entry, dockerfile);
+
+          // Attach the Dockerfile so the normal install/deploy phases publish it.
+          // Choose a sensible type; "txt" is common for plain files.
+          projectHelper.attachArtifact(project, "txt", entry.getClassifier(), dockerfile);
+          metrics.get(index).record(GenerationMetrics.Phase.ATTACH, attaching);
+
+          LOGGER.info("Attached Dockerfile as classifier '" + entry.getClassifier() + "'.");
+        } catch (final ExecutionException e) {
+          LOGGER.error("Failed to generate " + entry, e.getCause());
+          metrics.get(index).setFailed(true);
+          failures.add(entry.getClassifier() + ": " + e.getCause());
+        }
+      }
+
+      if (failures.isEmpty()) {
+        processContext(project, model, generated, cs);
       }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("Interrupted while generating Dockerfiles", e);
+    } finally {
+      executor.shutdownNow();
+    }
 
-      Charset cs = (encoding == null || encoding.isBlank())
-          ? Charset.defaultCharset()
-          : Charset.forName(encoding);
+    LOGGER.info(TemplateCache.getInstance().describe());
 
-      File dockerfile = generateDockerfile(
-          outputDir, template, project, /* ownVersion: */ Literals.UNKNOWN_L, cs, FileUtils.getInstance());
+    GenerationCache cache = retrieveGenerationCache();
 
-      // Attach the Dockerfile so the normal install/deploy phases publish it.
-      // Choose a sensible type; "txt" is common for plain files.
-      projectHelper.attachArtifact(project, "txt", classifier, dockerfile);
+    if (cache != null) {
+      LOGGER.info(cache.describe());
+    }
+
+    flushChecksums();
+
+    ImageDigestCache digests = retrieveImageDigestCache();
+
+    if (digests.getHits() + digests.getResolved() > 0) {
+      LOGGER.info(digests.describe());
+    }
+
+    reportMetrics(project, metrics);
 
-      LOGGER.info("Attached Dockerfile as classifier '" + classifier + "'.");
-    } catch (final IOException e) {
-      throw new MojoExecutionException("Failed to generate Dockerfile", e);
+    if (!failures.isEmpty()) {
+      throw new MojoExecutionException(
+          failures.size() + " of " + entries.size() + " Dockerfile(s) failed: " + failures);
     }
   }
 
     /**
-     * Generates the dockerfile.
-     * @param outputDir the output path.
-     * @param template the Dockerfile.stg template.
+     * Retrieves the Dockerfiles to generate.
+     * @param template the single template, if any.
+     * @param classifier the classifier of the single template.
+     * @param dockerfiles the configured entries, if any.
+     * @return the entries.
+     * @throws MojoExecutionException if there's nothing to generate, or entries clash.
+     */
+    protected List<DockerfileEntry> retrieveEntries(
+        final File template,
+        final String classifier,
+        final List<DockerfileEntry> dockerfiles)
+      throws MojoExecutionException
+    {
+        final List<DockerfileEntry> result = new ArrayList<DockerfileEntry>();
+
+        if (template != null)
+        {
+            result.add(new DockerfileEntry(template, null, Literals.DOCKERFILE_U, classifier));
+        }
+
+        if (dockerfiles != null)
+        {
+            result.addAll(dockerfiles);
+        }
+
+        if (result.isEmpty())
+        {
+            throw new MojoExecutionException(
+                "Either " + Literals.TEMPLATE_L + " or " + Literals.DOCKERFILES_L + " must be configured");
+        }
+
+        if (   (matrix != null)
+            && (!matrix.isEmpty()))
+        {
+            final List<DockerfileEntry> cells = expandMatrix(result, matrix);
+
+            result.clear();
+            result.addAll(cells);
+        }
+
+        checkEntries(result);
+
+        return result;
+    }
+
+    /**
+     * Checks the Dockerfiles to generate.
+     * @param entries the Dockerfiles.
+     * @throws MojoExecutionException if any has no template, or entries clash.
+     */
+    protected void checkEntries(final List<DockerfileEntry> entries)
+        throws MojoExecutionException
+    {
+        final Set<String> classifiers = new HashSet<String>();
+        final Set<File> outputs = new HashSet<File>();
+
+        for (final DockerfileEntry entry : entries)
+        {
+            if (entry.getTemplate() == null)
+            {
+                throw new MojoExecutionException(Literals.TEMPLATE_L + " is null in " + entry);
+            }
+
+            if (!classifiers.add(entry.getClassifier()))
+            {
+                throw new MojoExecutionException("Duplicate " + Literals.CLASSIFIER_L + ": " + entry.getClassifier());
+            }
+
+            if (!outputs.add(entry.resolveOutputFile(outputDir)))
+            {
+                throw new MojoExecutionException("Duplicate output: " + entry.resolveOutputFile(outputDir));
+            }
+        }
+    }
+
+    /**
+     * Expands each Dockerfile into one per combination of the matrix values.
+     * @param entries the Dockerfiles.
+     * @param axes the matrix axes.
+     * @return one entry per Dockerfile and combination, named after the values.
+     * @throws MojoExecutionException if an axis has no name or values, or
+     * values unfit for file names.
+     */
+    protected List<DockerfileEntry> expandMatrix(final List<DockerfileEntry> entries, final List<MatrixAxis> axes)
+        throws MojoExecutionException
+    {
+        final Set<String> names = new HashSet<String>();
+
+        for (final MatrixAxis axis : axes)
+        {
+            if (   (axis.getName() == null)
+                || (axis.getValues().isEmpty())
+                || (!names.add(axis.getName())))
+            {
+                throw new MojoExecutionException(
+                    "Each " + Literals.MATRIX_L + " axis needs a unique name and some values: " + axis);
+            }
+
+            for (final String value : axis.getValues())
+            {
+                if (!MATRIX_LABEL_PATTERN.matcher(axis.getLabel(value)).matches())
+                {
+                    throw new MojoExecutionException(
+                        "Matrix value '" + axis.getLabel(value) + "' cannot be part of a file name");
+                }
+            }
+        }
+
+        final List<Map<String, String>> combinations = MatrixAxis.combine(axes);
+
+        final List<DockerfileEntry> result = new ArrayList<DockerfileEntry>(entries.size() * combinations.size());
+
+        for (final DockerfileEntry entry : entries)
+        {
+            for (final Map<String, String> combination : combinations)
+            {
+                result.add(entry.withMatrix(combination, MatrixAxis.retrieveSuffix(axes, combination)));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Generates one of the Dockerfiles, unless it's up to date.
+     * @param entry the entry.
      * @param target the target project.
+     * @param model the template input shared by all entries.
      * @param ownVersion my own version.
      * @param encoding the file encoding.
-     * @param fileUtils the {@link FileUtils} instance.
+     * @param templatePacks the template packs.
+     * @param metrics where to record timings and sizes.
      * @return the generated file.
      * @throws IOException if the file cannot be written.
-     * @throws SecurityException if we're not allowed to write the file.
      */
-    protected File generateDockerfile(
-        final File outputDir,
-        final File template,
+    protected File generate(
+        final DockerfileEntry entry,
         final MavenProject target,
+        final LazyTemplateModel model,
         final String ownVersion,
         final Charset encoding,
-        final FileUtils fileUtils)
-      throws IOException,
-             SecurityException
+        final List<File> templatePacks,
+        final GenerationMetrics metrics)
+      throws IOException
     {
-        final File result;
+        final long allocated = GenerationMetrics.currentThreadAllocatedBytes();
 
-        final Map<String, Object> input = new HashMap<String, Object>();
+        try
+        {
+            return generate(entry, target, model, ownVersion, encoding, templatePacks, metrics, System.nanoTime());
+        }
+        finally
+        {
+            final long allocatedNow = GenerationMetrics.currentThreadAllocatedBytes();
 
-        input.put(Literals.T_U, target);
-        input.put(Literals.VERSION_L, ownVersion);
+            if (   (allocated != GenerationMetrics.UNKNOWN)
+                && (allocatedNow != GenerationMetrics.UNKNOWN))
+            {
+                metrics.setAllocatedBytes(allocatedNow - allocated);
+            }
+        }
+    }
 
-        final DockerfileGenerator generator = new DockerfileGenerator(input, template);
+    /**
+     * Generates one of the Dockerfiles, unless it's up to date.
+     * @param entry the entry.
+     * @param target the target project.
+     * @param model the template input shared by all entries.
+     * @param ownVersion my own version.
+     * @param encoding the file encoding.
+     * @param templatePacks the template packs.
+     * @param metrics where to record timings and sizes.
+     * @param start when the generation started.
+     * @return the generated file.
+     * @throws IOException if the file cannot be written.
+     */
+    protected File generate(
+        final DockerfileEntry entry,
+        final MavenProject target,
+        final LazyTemplateModel model,
+        final String ownVersion,
+        final Charset encoding,
+        final List<File> templatePacks,
+        final GenerationMetrics metrics,
+        final long start)
+      throws IOException
+    {
+        File result = entry.resolveOutputFile(outputDir);
 
-        final String contents = generator.generateDockerfile();
+        final File entryTemplate = entry.getTemplate();
+        final File stateFile = retrieveStateFile(target, entry.getClassifier());
 
-        result = new File(outputDir.getAbsolutePath() + File.separator + "Dockerfile");
+        final DockerfileGenerator templates =
+            new DockerfileGenerator(
+                Collections.<String, Object>emptyMap(),
+                entryTemplate,
+                encoding,
+                TemplateCache.getInstance(),
+                templatePacks);
 
-        fileUtils.writeFile(result, contents, encoding);
+        templates.retrieveTemplateGroup();
+
+        long phase = metrics.record(GenerationMetrics.Phase.LOAD, start);
+
+        final Set<File> imports = templates.retrieveTemplateDependencies();
+
+        phase = metrics.record(GenerationMetrics.Phase.IMPORTS, phase);
+
+        final TemplateAttributeScanner.Result references = templates.retrieveReferencedAttributes();
+
+        if (isEnabled(target, Literals.FAIL_ON_TEMPLATE_ERRORS_CC, failOnTemplateErrors))
+        {
+            templates.checkTemplate();
+        }
+
+        final LazyTemplateModel input = selectInput(model, references, target);
+        final ImageDigests pinned = new ImageDigests(retrieveImageDigestCache());
+        final List<DockerfilePostProcessor> processors = retrievePostProcessors(target, pinned);
+
+        if (references.references(Literals.PINNED_L))
+        {
+            // Each Dockerfile records the digests it used, for its own fingerprint.
+            input.put(Literals.PINNED_L, pinned);
+        }
+
+        if (!entry.getMatrix().isEmpty())
+        {
+            // Only this cell's view gets its values: the rest of the model is shared by the whole matrix.
+            input.put(Literals.MATRIX_L, entry.getMatrix());
+        }
+
+        phase = metrics.record(GenerationMetrics.Phase.PREPARE, phase);
+
+        LOGGER.debug(
+            "Dockerfile " + entry.getClassifier() + " references " + references
+            + "; computed on demand: " + input.getLazyNames());
+
+        final BuildFingerprint previous = BuildFingerprint.load(stateFile);
+        final BuildFingerprint current =
+            computeFingerprint(
+                entry,
+                target,
+                references,
+                imports,
+                (previous == null) ? Collections.<File>emptyList() : previous.getFiles(BuildFingerprint.FILE_PREFIX),
+                input,
+                ownVersion,
+                encoding,
+                processors,
+                retrievePinnedDigests(previous, pinned.getCache()),
+                result);
+
+        final Map<File, String> outputDigests = new HashMap<File, String>();
+        final String outputDigest = (previous == null) ? null : previous.getOutputDigest(result);
+
+        if (outputDigest != null)
+        {
+            // The Dockerfile did not change since: no need to read it back to tell whether it changes now.
+            current.putOutputDigest(outputDigest);
+            outputDigests.put(result.getAbsoluteFile(), outputDigest);
+        }
+
+        // Values computed on demand, such as resolved dependencies, only matter if nothing cheaper changed.
+        final boolean computed = current.matches(previous, BuildFingerprint.MODEL_PREFIX);
+
+        if (computed)
+        {
+            current.putModel(input);
+        }
+
+        phase = metrics.record(GenerationMetrics.Phase.FINGERPRINT, phase);
+
+        if (current.matches(previous))
+        {
+            LOGGER.info("Dockerfile is up to date: " + result);
+            metrics.setUpToDate(true);
+        }
+        else
+        {
+            for (final String reason : current.explain(previous, computed ? null : BuildFingerprint.MODEL_PREFIX))
+            {
+                if (explain)
+                {
+                    LOGGER.info("Dockerfile " + entry.getClassifier() + " is stale: " + reason);
+                }
+                else
+                {
+                    LOGGER.debug("Dockerfile " + entry.getClassifier() + " is stale: " + reason);
+                }
+            }
+
+            final GenerationCache cache = retrieveGenerationCache();
+            final String key =
+                (   (cache == null)
+                 || (isEnabled(target, Literals.PIN_DIGESTS_CC, pinDigests)))
+                ? null
+                : retrieveGenerationKey(
+                      entryTemplate,
+                      templates,
+                      templatePacks,
+                      references,
+                      input,
+                      target,
+                      ownVersion,
+                      encoding,
+                      describePostProcessors(processors));
+            final byte[] cached = (key == null) ? null : retrieveCachedDockerfile(cache, key);
+            final AtomicFileWriter writer =
+                new AtomicFileWriter(
+                    isEnabled(target, Literals.CHECKSUM_SIDECARS_CC, checksumSidecars)
+                    ? retrieveSidecars(target, entry.getClassifier())
+                    : null,
+                    outputDigests);
+
+            final Object checksums = input.containsKey(Literals.CHECKSUMS_L) ? input.get(Literals.CHECKSUMS_L) : null;
+
+            if (   (cached == null)
+                && (checksums instanceof FileChecksums))
+            {
+                prefetchChecksums((FileChecksums) checksums, previous, result, encoding);
+            }
+
+            metrics.record(GenerationMetrics.Phase.FINGERPRINT, phase);
+
+            if (cached != null)
+            {
+                result = restoreDockerfile(result, cached, metrics, writer);
+            }
+            else
+            {
+                result =
+                    generateDockerfile(
+                        result, entryTemplate, input, encoding, templatePacks, metrics, processors, writer);
+
+                if (key != null)
+                {
+                    storeCachedDockerfile(cache, key, result);
+                }
+            }
+
+            phase = System.nanoTime();
+
+            computeFingerprint(
+                entry,
+                target,
+                references,
+                imports,
+                (checksums instanceof FileChecksums)
+                ? ((FileChecksums) checksums).getFiles()
+                : Collections.<File>emptySet(),
+                input,
+                ownVersion,
+                encoding,
+                processors,
+                pinned.getDigests(),
+                result)
+              .putModel(input)
+              .putOutputDigest(writer.getDigest(result))
+              .store(stateFile);
+
+            metrics.record(GenerationMetrics.Phase.FINGERPRINT, phase);
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes ahead of rendering the checksums the template is likely to
+     * ask for: the files it read last time, and the {@code ADD} and
+     * {@code COPY} sources of the Dockerfile it rendered then. Failures are
+     * only logged: whatever is missing is computed while rendering.
+     * @param checksums the checksums of the template input.
+     * @param previous the previous fingerprint, if any.
+     * @param dockerfile the Dockerfile, if it was rendered before.
+     * @param encoding its encoding.
+     */
+    protected void prefetchChecksums(
+        final FileChecksums checksums,
+        final BuildFingerprint previous,
+        final File dockerfile,
+        final Charset encoding)
+    {
+        final Set<File> files = new LinkedHashSet<File>();
+
+        if (previous != null)
+        {
+            files.addAll(previous.getFiles(BuildFingerprint.FILE_PREFIX));
+        }
+
+        try
+        {
+            if (dockerfile.isFile())
+            {
+                for (final String source
+                         : DockerfileSources.parse(new String(Files.readAllBytes(dockerfile.toPath()), encoding)))
+                {
+                    files.add(checksums.resolve(source));
+                }
+            }
+
+            checksums.prefetch(files);
+        }
+        catch (final IOException cannotRead)
+        {
+            LOGGER.debug("Cannot prefetch the checksums of " + files + ": " + cannotRead);
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of a Dockerfile, except the
+     * values computed on demand: {@link BuildFingerprint#putModel(LazyTemplateModel)}
+     * adds them, once the cheaper inputs are known to match. What those
+     * values are derived from, such as the declared dependencies, is added.
+     * @param entry the Dockerfile entry.
+     * @param target the target project.
+     * @param references what the template references.
+     * @param imports the files the template imports.
+     * @param files the local files the template reads.
+     * @param input the template input.
+     * @param ownVersion my own version.
+     * @param encoding the file encoding.
+     * @param processors the post-processors.
+     * @param digests the digests the base images are pinned to.
+     * @param output the Dockerfile.
+     * @return the fingerprint.
+     * @throws IOException if any file cannot be read.
+     */
+    protected BuildFingerprint computeFingerprint(
+        final DockerfileEntry entry,
+        final MavenProject target,
+        final TemplateAttributeScanner.Result references,
+        final Collection<File> imports,
+        final Collection<File> files,
+        final LazyTemplateModel input,
+        final String ownVersion,
+        final Charset encoding,
+        final List<DockerfilePostProcessor> processors,
+        final Map<String, String> digests,
+        final File output)
+      throws IOException
+    {
+        final Set<String> names = new TreeSet<String>(references.getProperties());
+
+        if (!ProjectSnapshot.isCapturable(references))
+        {
+            // Names resolved at render time are not known: take the usual ones, and the POM itself.
+            names.addAll(Arrays.asList(ProjectSnapshot.DEFAULT_PROPERTIES));
+        }
+
+        final BuildFingerprint result =
+            BuildFingerprint.compute(
+                entry.getTemplate(),
+                imports,
+                ProjectSnapshot.capture(target, names),
+                ownVersion,
+                encoding,
+                output);
+
+        if (   (!ProjectSnapshot.isCapturable(references))
+            && (target.getFile() != null))
+        {
+            result.putStamp(BuildFingerprint.PROJECT_PREFIX + Literals.POM_L, target.getFile());
+        }
+
+        if (   (input.isLazy(Literals.DEPENDENCIES_L))
+            || (input.isLazy(Literals.PARTITIONS_L)))
+        {
+            result.putDeclared(Literals.DEPENDENCIES_L, target.getDependencies());
+        }
+
+        return
+            result
+              .putFiles(BuildFingerprint.FILE_PREFIX, files, retrieveChecksumService())
+              .put(BuildFingerprint.MODEL_PREFIX + Literals.MATRIX_L, String.valueOf(entry.getMatrix()))
+              .put(Literals.DOCKERFILE_OPTIMIZE, describePostProcessors(processors))
+              .putDigests(digests);
+    }
+
+    /**
+     * Retrieves a flag for given project.
+     * @param target the target project.
+     * @param name the parameter name.
+     * @param value the value configured for this execution.
+     * @return the value to use.
+     */
+    protected boolean isEnabled(final MavenProject target, final String name, final boolean value)
+    {
+        return value;
+    }
+
+    /**
+     * Retrieves a list of values for given project.
+     * @param target the target project.
+     * @param name the parameter name.
+     * @param values the values configured for this execution.
+     * @return the values to use.
+     */
+    protected List<String> retrieveValues(final MavenProject target, final String name, final List<String> values)
+    {
+        return values;
+    }
+
+    /**
+     * Retrieves a list of files for given project.
+     * @param target the target project.
+     * @param name the parameter name.
+     * @param files the files configured for this execution.
+     * @return the files to use.
+     */
+    protected List<File> retrieveFiles(final MavenProject target, final String name, final List<File> files)
+    {
+        return files;
+    }
+
+    /**
+     * Creates the post-processors of a Dockerfile: the configured ones, and
+     * the digest pinner and the optimizer if enabled.
+     * @param target the target project.
+     * @param pinned the digests of the Dockerfile.
+     * @return new instances, in order.
+     * @throws IOException if a configured class cannot be instantiated.
+     */
+    protected List<DockerfilePostProcessor> retrievePostProcessors(
+        final MavenProject target, final ImageDigests pinned)
+      throws IOException
+    {
+        final List<DockerfilePostProcessor> result = new ArrayList<DockerfilePostProcessor>();
+
+        final List<String> classes = retrieveValues(target, Literals.POST_PROCESSORS_CC, postProcessors);
+
+        if (classes != null)
+        {
+            for (final String name : classes)
+            {
+                try
+                {
+                    result.add(
+                        Class.forName(name.trim(), true, DockerfileMojo.class.getClassLoader())
+                            .asSubclass(DockerfilePostProcessor.class)
+                            .getConstructor()
+                            .newInstance());
+                }
+                catch (final ReflectiveOperationException | ClassCastException | LinkageError invalid)
+                {
+                    throw new IOException("Cannot create the Dockerfile post-processor " + name + ": " + invalid, invalid);
+                }
+            }
+        }
+
+        if (isEnabled(target, Literals.PIN_DIGESTS_CC, pinDigests))
+        {
+            result.add(new ImageDigestPinner(pinned));
+        }
+
+        if (isEnabled(target, Literals.OPTIMIZE_L, optimize))
+        {
+            // The artifact is recognized by its artifactId and final name.
+            final List<String> markers = new ArrayList<String>();
+            markers.add(target.getArtifactId());
+
+            if (target.getBuild() != null)
+            {
+                markers.add(target.getBuild().getFinalName());
+            }
+
+            result.add(new DockerfileOptimizer(markers));
+        }
+
+        return result;
+    }
+
+    /**
+     * Describes the post-processors, for the build fingerprint and the
+     * generation cache: their classes, and where they were loaded from.
+     * @param processors the post-processors.
+     * @return their description.
+     */
+    protected String describePostProcessors(final List<DockerfilePostProcessor> processors)
+    {
+        final StringBuilder result = new StringBuilder();
+
+        for (final DockerfilePostProcessor processor : processors)
+        {
+            result.append("\npostProcessor=").append(processor.getClass().getName());
+
+            if (processor instanceof DockerfileOptimizer)
+            {
+                result.append(((DockerfileOptimizer) processor).getMarkers());
+            }
+            else if (processor.getClass().getProtectionDomain().getCodeSource() != null)
+            {
+                final File location =
+                    new File(processor.getClass().getProtectionDomain().getCodeSource().getLocation().getPath());
+
+                result.append('@').append(location).append(':').append(location.lastModified());
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Retrieves the shared generation cache, if enabled.
+     * @return such cache, or {@code null}.
+     */
+    protected GenerationCache retrieveGenerationCache()
+    {
+        GenerationCache result = null;
+
+        if (useGenerationCache)
+        {
+            File folder = generationCacheDir;
+
+            if (   (folder == null)
+                && (session != null)
+                && (session.getRepositorySession() != null))
+            {
+                folder =
+                    new File(
+                        session.getRepositorySession().getLocalRepository().getBasedir(),
+                        GenerationCache.DEFAULT_FOLDER);
+            }
+
+            if (folder != null)
+            {
+                result = GenerationCache.retrieve(folder, generationCacheMaxBytes);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the service computing the checksums of files, shared by all
+     * modules using the same cache file.
+     * @return such service.
+     */
+    protected ChecksumService retrieveChecksumService()
+    {
+        final ChecksumService result;
+
+        File file = checksumCache;
+
+        if (   (file == null)
+            && (session != null)
+            && (session.getRepositorySession() != null))
+        {
+            file =
+                new File(
+                    session.getRepositorySession().getLocalRepository().getBasedir(),
+                    ChecksumService.DEFAULT_FILE);
+        }
+
+        if (file != null)
+        {
+            result = ChecksumService.retrieve(file);
+        }
+        else
+        {
+            synchronized (this)
+            {
+                if (memoryChecksums == null)
+                {
+                    memoryChecksums = new ChecksumService(null);
+                }
+
+                result = memoryChecksums;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the checksums computed so far to the cache file. Failures are
+     * logged: the cache must never break the build.
+     */
+    protected void flushChecksums()
+    {
+        final ChecksumService checksums = retrieveChecksumService();
+
+        try
+        {
+            checksums.flush();
+        }
+        catch (final IOException cannotWrite)
+        {
+            LOGGER.warn("Cannot write the checksum cache " + checksums.getFile() + ": " + cannotWrite);
+        }
+
+        if (checksums.getHits() + checksums.getHashed() > 0)
+        {
+            LOGGER.info(checksums.describe());
+        }
+    }
+
+    /**
+     * Retrieves the cache of image digests: the registries are asked, unless
+     * a file of digests stands in for them.
+     * @return such cache, shared by the modules using the same settings.
+     */
+    protected ImageDigestCache retrieveImageDigestCache()
+    {
+        final ImageDigestResolver resolver;
+        File file = imageDigestCache;
+
+        if (imageDigests != null)
+        {
+            resolver = new FileDigestResolver(imageDigests);
+        }
+        else
+        {
+            resolver = new RegistryDigestResolver();
+
+            if (   (file == null)
+                && (session != null)
+                && (session.getRepositorySession() != null))
+            {
+                file =
+                    new File(
+                        session.getRepositorySession().getLocalRepository().getBasedir(),
+                        ImageDigestCache.DEFAULT_FILE);
+            }
+        }
+
+        return
+            ImageDigestCache.retrieve(
+                file,
+                resolver,
+                imageDigestTtl,
+                (imageDigestsOffline) || ((session != null) && (session.isOffline())));
+    }
+
+    /**
+     * Resolves, before rendering, the images every Dockerfile is likely to
+     * pin, so that all distinct images are looked up at once, instead of
+     * one module or {@code FROM} after another: the images they were pinned
+     * to last time and, where pinning is enabled, the {@code FROM} images
+     * of their templates and of the Dockerfiles rendered last time.
+     * Failures are only logged: rendering reports them.
+     * @param modules the Dockerfiles, by project.
+     */
+    protected void prefetchImageDigests(final Map<MavenProject, List<DockerfileEntry>> modules)
+    {
+        final Set<String> images = new TreeSet<String>();
+
+        for (final Map.Entry<MavenProject, List<DockerfileEntry>> module : modules.entrySet())
+        {
+            final MavenProject target = module.getKey();
+            final boolean pinning = isEnabled(target, Literals.PIN_DIGESTS_CC, pinDigests);
+
+            for (final DockerfileEntry entry : module.getValue())
+            {
+                try
+                {
+                    final BuildFingerprint previous =
+                        BuildFingerprint.load(retrieveStateFile(target, entry.getClassifier()));
+
+                    if (previous != null)
+                    {
+                        images.addAll(previous.getPinnedImages());
+                    }
+
+                    if (pinning)
+                    {
+                        images.addAll(retrieveImages(entry.getTemplate()));
+                        images.addAll(retrieveImages(entry.resolveOutputFile(outputDir)));
+                    }
+                }
+                catch (final IOException cannotRead)
+                {
+                    // Nothing to prefetch: the Dockerfile will be rendered again anyway.
+                    LOGGER.debug("Cannot read the build state of " + entry + ": " + cannotRead);
+                }
+            }
+        }
+
+        if (!images.isEmpty())
+        {
+            try
+            {
+                retrieveImageDigestCache().resolveAll(images);
+            }
+            catch (final IOException cannotResolve)
+            {
+                LOGGER.debug("Cannot prefetch " + images + ": " + cannotResolve);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the images a Dockerfile, or its template, uses.
+     * @param file the file.
+     * @return its {@code FROM} images, empty if there's no file.
+     * @throws IOException if it cannot be read.
+     */
+    protected Set<String> retrieveImages(final File file)
+        throws IOException
+    {
+        Set<String> result = Collections.<String>emptySet();
+
+        if (   (file != null)
+            && (file.isFile()))
+        {
+            // Image references are ASCII: any encoding reads them right.
+            result =
+                ImageDigestPinner.retrieveImages(
+                    new String(Files.readAllBytes(file.toPath()), StandardCharsets.ISO_8859_1));
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves again the images a Dockerfile was pinned to, to find out
+     * whether they moved. Within their time to live, they come from the cache.
+     * @param previous the previous fingerprint, if any.
+     * @param cache the cache.
+     * @return the digests, by image; images that cannot be resolved are
+     * {@link BuildFingerprint#MISSING}, so that the Dockerfile is rendered
+     * again and the failure reported.
+     */
+    protected Map<String, String> retrievePinnedDigests(final BuildFingerprint previous, final ImageDigestCache cache)
+    {
+        Map<String, String> result = Collections.<String, String>emptyMap();
+
+        if (previous != null)
+        {
+            final List<String> images = previous.getPinnedImages();
+
+            try
+            {
+                result = cache.resolveAll(images);
+            }
+            catch (final IOException cannotResolve)
+            {
+                LOGGER.debug("Cannot resolve " + images + ": " + cannotResolve);
+
+                result = new TreeMap<String, String>();
+
+                for (final String image : images)
+                {
+                    result.put(image, BuildFingerprint.MISSING);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the key of a Dockerfile in the shared generation cache.
+     * @param template the template.
+     * @param templates the generator, to find what the template imports.
+     * @param templatePacks the template packs.
+     * @param references what the template references.
+     * @param input the template input.
+     * @param target the target project.
+     * @param ownVersion my own version.
+     * @param encoding the file encoding.
+     * @param processing how the rendered Dockerfile is post-processed.
+     * @return the key, or {@code null} if the output depends on something
+     * the key cannot capture, such as checksums of local files, or digests
+     * images currently point to.
+     */
+    protected String retrieveGenerationKey(
+        final File template,
+        final DockerfileGenerator templates,
+        final List<File> templatePacks,
+        final TemplateAttributeScanner.Result references,
+        final LazyTemplateModel input,
+        final MavenProject target,
+        final String ownVersion,
+        final Charset encoding,
+        final String processing)
+    {
+        String result = null;
+
+        if (   (!input.containsKey(Literals.CHECKSUMS_L))
+            && (!input.containsKey(Literals.PINNED_L)))
+        {
+            final Map<String, Object> values = new TreeMap<String, Object>();
+
+            for (final String name : input.keySet())
+            {
+                // Templates resolving names at render time get the whole project, which cannot be described.
+                values.put(
+                    name,
+                    (   (Literals.T_U.equals(name))
+                     && (ProjectSnapshot.isCapturable(references)))
+                    ? ProjectSnapshot.capture(target, references)
+                    : input.get(name));
+            }
+
+            final String description = GenerationCache.describeInput(values, target.getBasedir());
+
+            if (description == null)
+            {
+                LOGGER.debug("Not caching " + template + ": its input cannot be described reliably");
+            }
+            else
+            {
+                final List<File> imports = new ArrayList<File>(templates.retrieveTemplateDependencies());
+                imports.addAll(templatePacks);
+
+                try
+                {
+                    result =
+                        GenerationCache.computeKey(template, imports, ownVersion, encoding, description + processing);
+                }
+                catch (final IOException cannotDigest)
+                {
+                    LOGGER.warn("Not caching " + template + ": " + cannotDigest);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves a Dockerfile from the shared generation cache. Failures are
+     * logged and count as misses: the cache must never break the build.
+     * @param cache the cache.
+     * @param key the key.
+     * @return the contents, or {@code null}.
+     */
+    protected byte[] retrieveCachedDockerfile(final GenerationCache cache, final String key)
+    {
+        byte[] result = null;
+
+        try
+        {
+            result = cache.get(key);
+        }
+        catch (final IOException cannotRead)
+        {
+            LOGGER.warn("Cannot read the generation cache " + cache.getRoot() + ": " + cannotRead);
+        }
+
+        return result;
+    }
+
+    /**
+     * Stores a Dockerfile in the shared generation cache. Failures are logged.
+     * @param cache the cache.
+     * @param key the key.
+     * @param dockerfile the Dockerfile.
+     */
+    protected void storeCachedDockerfile(final GenerationCache cache, final String key, final File dockerfile)
+    {
+        try
+        {
+            cache.put(key, Files.readAllBytes(dockerfile.toPath()));
+        }
+        catch (final IOException cannotWrite)
+        {
+            LOGGER.warn("Cannot write the generation cache " + cache.getRoot() + ": " + cannotWrite);
+        }
+    }
+
+    /**
+     * Writes a Dockerfile taken from the shared generation cache.
+     * @param dockerfile the file to write.
+     * @param contents its contents.
+     * @param metrics where to record timings and sizes.
+     * @param writer the writer.
+     * @return the written file.
+     * @throws IOException if the file cannot be written.
+     */
+    protected File restoreDockerfile(
+        final File dockerfile,
+        final byte[] contents,
+        final GenerationMetrics metrics,
+        final AtomicFileWriter writer)
+      throws IOException
+    {
+        final File result = dockerfile;
+
+        final long start = System.nanoTime();
+
+        final AtomicFileWriter.Result outcome =
+            writer.write(
+                result,
+                new AtomicFileWriter.Content()
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void writeTo(final OutputStream output)
+                        throws IOException
+                    {
+                        output.write(contents);
+                    }
+                });
+
+        metrics.add(GenerationMetrics.Phase.WRITE, System.nanoTime() - start);
+        metrics.setBytesWritten(outcome.getSize());
+
+        LOGGER.info(
+            "Restored " + result + " from the generation cache (" + outcome.getSize()
+            + " bytes, sha256 " + outcome.getSha256() + ")");
+
+        return result;
+    }
+
+    /**
+     * Retrieves the input of one template.
+     * @param model the template input shared by all entries.
+     * @param references what the template references.
+     * @param target the target project.
+     * @return the input of the template.
+     */
+    protected LazyTemplateModel selectInput(
+        final LazyTemplateModel model,
+        final TemplateAttributeScanner.Result references,
+        final MavenProject target)
+    {
+        return model.select(references);
+    }
+
+    /**
+     * Retrieves the template input of given project. Besides the project
+     * ({@code T}) and the plugin version, it provides {@code dependencies},
+     * {@code partitions}, {@code plugins}, {@code git} and {@code checksums},
+     * each computed the first time a template reads it. The providers belong
+     * to this execution; what they compute is shared with the other executions
+     * on the same project and with the same configuration in this build.
+     * @param target the target project.
+     * @param ownVersion my own version.
+     * @return such input.
+     */
+    protected LazyTemplateModel retrieveModel(final MavenProject target, final String ownVersion)
+    {
+        final LazyTemplateModel result = new LazyTemplateModel(retrieveComputedValues(target));
+
+        result.provide(
+            Literals.DEPENDENCIES_L,
+            new LazyTemplateModel.ValueProvider()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Object provide()
+                    throws DependencyResolutionException
+                {
+                    return resolveDependencies(target);
+                }
+            });
+
+        result.provide(
+            Literals.PARTITIONS_L,
+            new LazyTemplateModel.ValueProvider()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object provide()
+                    throws IOException
+                {
+                    return
+                        DependencyPartitions.partition(
+                            (List<Artifact>) result.get(Literals.DEPENDENCIES_L),
+                            retrieveReactorKeys(),
+                            new File(target.getBuild().getOutputDirectory()));
+                }
+            });
+
+        result.provide(
+            Literals.JAR_LAYERS_L,
+            new LazyTemplateModel.ValueProvider()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Object provide()
+                {
+                    return retrieveLayeredJars(target);
+                }
+            });
+
+        result.provide(
+            Literals.PLUGINS_L,
+            new LazyTemplateModel.ValueProvider()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Object provide()
+                {
+                    return retrievePlugins(target);
+                }
+            });
+
+        result.provide(
+            Literals.GIT_L,
+            new LazyTemplateModel.ValueProvider()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Object provide()
+                    throws IOException
+                {
+                    return GitMetadata.read(target.getBasedir());
+                }
+            });
+
+        result.provide(
+            Literals.CHECKSUMS_L,
+            new LazyTemplateModel.ValueProvider()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Object provide()
+                {
+                    return new FileChecksums(target.getBasedir(), retrieveChecksumService());
+                }
+            });
+
+        result.put(Literals.T_U, target);
+        result.put(Literals.VERSION_L, ownVersion);
+
+        return result;
+    }
+
+    /**
+     * Retrieves the values computed so far for the model of given project,
+     * by executions with the same configuration.
+     * @param target the target project.
+     * @return such values, by name.
+     */
+    @SuppressWarnings("unchecked")
+    protected ConcurrentMap<String, FutureTask<Object>> retrieveComputedValues(final MavenProject target)
+    {
+        final ConcurrentMap<String, ConcurrentMap<String, FutureTask<Object>>> configurations;
+
+        synchronized (target)
+        {
+            final Object cached = target.getContextValue(Literals.DOCKERFILE_MAVEN_PLUGIN_MODEL);
+
+            if (cached instanceof ConcurrentMap)
+            {
+                configurations = (ConcurrentMap<String, ConcurrentMap<String, FutureTask<Object>>>) cached;
+            }
+            else
+            {
+                configurations = new ConcurrentHashMap<String, ConcurrentMap<String, FutureTask<Object>>>();
+
+                target.setContextValue(Literals.DOCKERFILE_MAVEN_PLUGIN_MODEL, configurations);
+            }
+        }
+
+        return
+            configurations.computeIfAbsent(
+                describeModelConfiguration(target), k -> new ConcurrentHashMap<String, FutureTask<Object>>());
+    }
+
+    /**
+     * Describes the configuration the model values depend on.
+     * @param target the target project.
+     * @return such description.
+     */
+    protected String describeModelConfiguration(final MavenProject target)
+    {
+        return
+              Literals.JAR_LAYERS_L + "=" + retrieveFiles(target, Literals.LAYERED_JARS_CC, layeredJars) + ","
+            + Literals.CHECKSUMS_L + "=" + retrieveChecksumService().getFile();
+    }
+
+    /**
+     * Resolves the dependencies of given project, transitively.
+     * @param target the target project.
+     * @return the resolved artifacts, with their scopes.
+     * @throws DependencyResolutionException if they cannot be resolved.
+     */
+    protected List<Artifact> resolveDependencies(final MavenProject target)
+        throws DependencyResolutionException
+    {
+        final List<Artifact> result = new ArrayList<Artifact>();
+
+        final long start = System.nanoTime();
+
+        final List<Dependency> dependencies =
+            dependenciesResolver.resolve(
+                new DefaultDependencyResolutionRequest(target, session.getRepositorySession()))
+              .getDependencies();
+
+        for (final Dependency dependency : dependencies)
+        {
+            final Artifact artifact = RepositoryUtils.toArtifact(dependency.getArtifact());
+
+            artifact.setScope(dependency.getScope());
+            artifact.setOptional(dependency.isOptional());
+
+            result.add(artifact);
+        }
+
+        LOGGER.info(
+            "Resolved " + result.size() + " dependencies of " + target.getArtifactId() + " in "
+            + ((System.nanoTime() - start) / 1000000) + " ms");
+
+        return result;
+    }
+
+    /**
+     * Retrieves the build plugins of given project, by artifact id.
+     * @param target the target project.
+     * @return such plugins, in declaration order.
+     */
+    protected Map<String, Plugin> retrievePlugins(final MavenProject target)
+    {
+        final Map<String, Plugin> result = new LinkedHashMap<String, Plugin>();
+
+        for (final Plugin plugin : target.getBuildPlugins())
+        {
+            result.put(plugin.getArtifactId(), plugin);
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the metrics of this module to {@code target/dockerfile-metrics.json},
+     * and prints the summary of the whole reactor once its last module using
+     * this plugin is done.
+     * @param target the target project.
+     * @param metrics the metrics of its Dockerfiles.
+     */
+    protected void reportMetrics(final MavenProject target, final List<GenerationMetrics> metrics)
+    {
+        final File report = new File(target.getBuild().getDirectory(), MetricsReport.FILE_NAME);
+
+        try
+        {
+            MetricsReport.write(report, target.getGroupId() + ":" + target.getArtifactId(), metrics);
+        }
+        catch (final IOException cannotWrite)
+        {
+            LOGGER.warn("Cannot write " + report + ": " + cannotWrite);
+        }
+
+        for (final GenerationMetrics metric : metrics)
+        {
+            LOGGER.debug("Dockerfile metrics: " + metric);
+        }
+
+        if (session != null)
+        {
+            MetricsReport.record(session, metrics);
+
+            if (isLastModule(session.getProjects(), target))
+            {
+                LOGGER.info("Dockerfile generation summary (ms):\n" + MetricsReport.summarize(MetricsReport.retrieve(session)));
+            }
+        }
+    }
+
+    /**
+     * Checks whether given project is the last one in the reactor using this plugin.
+     * In parallel builds, modules built later are not included in the summary.
+     * @param projects the projects in the reactor, in build order.
+     * @param target the target project.
+     * @return {@code true} in such case.
+     */
+    protected boolean isLastModule(final List<MavenProject> projects, final MavenProject target)
+    {
+        MavenProject last = null;
+
+        if (projects != null)
+        {
+            for (final MavenProject candidate : projects)
+            {
+                for (final Plugin plugin : candidate.getBuildPlugins())
+                {
+                    if (Literals.DOCKERFILE_MAVEN_PLUGIN.equals(plugin.getArtifactId()))
+                    {
+                        last = candidate;
+                        break;
+                    }
+                }
+            }
+        }
+
+        return
+               (last == null)
+            || (last.getId().equals(target.getId()));
+    }
+
+    /**
+     * Retrieves the file the build fingerprint is stored in.
+     * @param target the target project.
+     * @param classifier the Dockerfile classifier.
+     * @return such file.
+     */
+    protected File retrieveStateFile(final MavenProject target, final String classifier)
+    {
+        return
+            new File(
+                  target.getBuild().getDirectory() + File.separator + Literals.DOCKERFILE_MAVEN_PLUGIN
+                + File.separator + classifier + ".properties");
+    }
+
+    /**
+     * Retrieves the list of the files the current execution staged into the
+     * build context, next to the build state.
+     * @param target the target project.
+     * @return such file.
+     */
+    protected File retrieveContextManifest(final MavenProject target)
+    {
+        final String executionId =
+            ((mojoExecution == null) || (mojoExecution.getExecutionId() == null))
+            ? "default"
+            : mojoExecution.getExecutionId();
+
+        return
+            new File(
+                target.getBuild().getDirectory() + File.separator + Literals.DOCKERFILE_MAVEN_PLUGIN
+                + File.separator + "context-" + executionId + ".txt");
+    }
+
+    /**
+     * Retrieves where the checksum sidecars of a Dockerfile go: next to its
+     * build state, away from the packaged classes.
+     * @param target the target project.
+     * @param classifier the classifier.
+     * @return the sidecars, without extension.
+     */
+    protected File retrieveSidecars(final MavenProject target, final String classifier)
+    {
+        return
+            new File(
+                target.getBuild().getDirectory() + File.separator + Literals.DOCKERFILE_MAVEN_PLUGIN
+                + File.separator + classifier);
+    }
+
+    /**
+     * Retrieves the fat jars to split into layers, and where their layers go.
+     * @param target the target project.
+     * @return the configured jars, or the project's own artifact.
+     */
+    protected List<LayeredJar> retrieveLayeredJars(final MavenProject target)
+    {
+        final List<LayeredJar> result = new ArrayList<LayeredJar>();
+
+        final File layersDir = new File(target.getBuild().getDirectory(), Literals.LAYERS_L);
+
+        final List<File> jars = retrieveFiles(target, Literals.LAYERED_JARS_CC, layeredJars);
+
+        if (   (jars != null)
+            && (!jars.isEmpty()))
+        {
+            for (final File jar : jars)
+            {
+                result.add(
+                    new LayeredJar(
+                        jar.isAbsolute() ? jar : new File(target.getBasedir(), jar.getPath()),
+                        layersDir,
+                        target.getBasedir()));
+            }
+        }
+        else if (   ("jar".equals(target.getPackaging()))
+                 || ("war".equals(target.getPackaging())))
+        {
+            result.add(
+                new LayeredJar(
+                    new File(
+                        target.getBuild().getDirectory(),
+                        target.getBuild().getFinalName() + "." + target.getPackaging()),
+                    layersDir,
+                    target.getBasedir()));
+        }
+
+        return result;
+    }
+
+    /**
+     * Stages the build context, and derives the ignore files, as configured
+     * for the project.
+     * @param target the target project.
+     * @param model the template input, to stage dependency partitions.
+     * @param dockerfiles the generated Dockerfiles.
+     * @param encoding their encoding.
+     * @throws MojoExecutionException if the context cannot be staged, or the
+     * ignore files written.
+     * @throws InterruptedException if interrupted while staging.
+     */
+    protected void processContext(
+        final MavenProject target,
+        final LazyTemplateModel model,
+        final Map<DockerfileEntry, File> dockerfiles,
+        final Charset encoding)
+      throws MojoExecutionException,
+             InterruptedException
+    {
+        if (isEnabled(target, Literals.STAGE_CONTEXT_CC, stageContext))
+        {
+            stageContext(target, model, dockerfiles, encoding);
+        }
+
+        if (   (isEnabled(target, Literals.DOCKERIGNORE_L, dockerignore))
+            || (isEnabled(target, Literals.ANALYZE_CONTEXT_CC, analyzeContext)))
+        {
+            processDockerignores(target, dockerfiles, encoding);
+        }
+    }
+
+    /**
+     * Retrieves where the build context of a project is staged.
+     * @param target the target project.
+     * @return such folder.
+     */
+    protected File retrieveContextDir(final MavenProject target)
+    {
+        return contextDir;
+    }
+
+    /**
+     * Derives the ignore file of each Dockerfile from its {@code ADD} and
+     * {@code COPY} sources, writes it next to the Dockerfile and reports how
+     * much of the module's folder it keeps out of the build context, as configured.
+     * @param target the target project.
+     * @param dockerfiles the generated Dockerfiles.
+     * @param encoding their encoding.
+     * @throws MojoExecutionException if the ignore files cannot be written.
+     */
+    protected void processDockerignores(
+        final MavenProject target,
+        final Map<DockerfileEntry, File> dockerfiles,
+        final Charset encoding)
+      throws MojoExecutionException
+    {
+        final boolean writeIgnoreFiles = isEnabled(target, Literals.DOCKERIGNORE_L, dockerignore);
+
+        final ForkJoinPool pool =
+            isEnabled(target, Literals.ANALYZE_CONTEXT_CC, analyzeContext)
+            ? new ForkJoinPool(ThreadPools.retrieveParallelism(Integer.MAX_VALUE, parallelism))
+            : null;
+
+        try
+        {
+            for (final Map.Entry<DockerfileEntry, File> dockerfile : dockerfiles.entrySet())
+            {
+                final File file = dockerfile.getValue();
+
+                final Dockerignore ignore =
+                    Dockerignore.generate(
+                        DockerfileSources.parse(new String(Files.readAllBytes(file.toPath()), encoding)),
+                        file.getName());
+
+                if (writeIgnoreFiles)
+                {
+                    new AtomicFileWriter().write(
+                        new File(file.getParentFile(), file.getName() + Dockerignore.EXTENSION),
+                        new AtomicFileWriter.Content()
+                        {
+                            /**
+                             * {@inheritDoc}
+                             */
+                            @Override
+                            public void writeTo(final OutputStream output)
+                                throws IOException
+                            {
+                                output.write(ignore.toString().getBytes(encoding));
+                            }
+                        });
+                }
+
+                if (pool != null)
+                {
+                    LOGGER.info(
+                        "Build context of " + dockerfile.getKey().getOutput() + " (" + target.getBasedir() + "): "
+                        + new ContextAnalyzer(ignore, ContextAnalyzer.DEFAULT_OFFENDERS).analyze(target.getBasedir(), pool));
+                }
+            }
+        }
+        catch (final IOException cannotWrite)
+        {
+            throw new MojoExecutionException("Cannot derive the ignore files", cannotWrite);
+        }
+        finally
+        {
+            if (pool != null)
+            {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Assembles the build context: the generated Dockerfiles, under their
+     * output names, and the files their {@code ADD} and {@code COPY}
+     * instructions use. Anything else in the context is removed.
+     * @param target the target project.
+     * @param model the template input, to stage dependency partitions.
+     * @param dockerfiles the generated Dockerfiles.
+     * @param encoding their encoding.
+     * @throws MojoExecutionException if the context cannot be staged.
+     * @throws InterruptedException if interrupted while staging.
+     */
+    protected void stageContext(
+        final MavenProject target,
+        final LazyTemplateModel model,
+        final Map<DockerfileEntry, File> dockerfiles,
+        final Charset encoding)
+      throws MojoExecutionException,
+             InterruptedException
+    {
+        final Map<String, File> files = new TreeMap<String, File>();
+
+        final ExecutorService executor;
+
+        try
+        {
+            for (final Map.Entry<DockerfileEntry, File> dockerfile : dockerfiles.entrySet())
+            {
+                files.put(dockerfile.getKey().getOutput(), dockerfile.getValue());
+
+                final String contents =
+                    new String(Files.readAllBytes(dockerfile.getValue().toPath()), encoding);
+
+                for (final String source : DockerfileSources.parse(contents))
+                {
+                    if (!resolveContextFiles(target, model, source, files))
+                    {
+                        LOGGER.warn(
+                            dockerfile.getKey().getOutput() + " copies " + source + ", which cannot be found in "
+                            + target.getBasedir());
+                    }
+                }
+            }
+
+            executor =
+                ThreadPools.newBoundedExecutor(
+                    ThreadPools.retrieveParallelism(files.size(), parallelism), "dockerfile-context");
+        }
+        catch (final IOException cannotRead)
+        {
+            throw new MojoExecutionException("Cannot find the files of the build context", cannotRead);
+        }
+
+        final File context = retrieveContextDir(target);
+
+        try
+        {
+            final ContextStager.Result result =
+                new ContextStager(
+                    context,
+                    isEnabled(target, Literals.CONTEXT_LINKS_CC, contextLinks),
+                    retrieveContextManifest(target))
+                .stageAll(files, executor);
+
+            LOGGER.info("Staged " + files.size() + " file(s) into " + context + ": " + result);
+        }
+        catch (final IOException cannotStage)
+        {
+            throw new MojoExecutionException("Cannot stage the build context in " + context, cannotStage);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Finds the files an {@code ADD} or {@code COPY} source refers to.
+     * {@code lib/<partition>} sources refer to the {@link DependencyPartitions};
+     * others, which may use wildcards, to files in the project's base directory.
+     * @param target the target project.
+     * @param model the template input.
+     * @param source the source, relative to the context.
+     * @param files the files found so far, by context path.
+     * @return {@code false} if nothing was found.
+     * @throws IOException if the files cannot be listed.
+     */
+    protected boolean resolveContextFiles(
+        final MavenProject target,
+        final LazyTemplateModel model,
+        final String source,
+        final Map<String, File> files)
+      throws IOException
+    {
+        final int before = files.size();
+
+        final String path = source.endsWith("/") ? source.substring(0, source.length() - 1) : source;
+
+        final DependencyPartitions.Partition partition = retrievePartition(model, path);
+
+        if (partition != null)
+        {
+            final String folder = DependencyPartitions.CONTEXT_FOLDER + partition.getName() + "/";
+            final List<String> names = partition.getFileNames();
+
+            for (int index = 0; index < names.size(); index++)
+            {
+                final File file = partition.getArtifacts().get(index).getFile();
+
+                if (file != null)
+                {
+                    addContextFiles(file, folder + names.get(index), files);
+                }
+            }
+
+            if (partition.getArtifacts().isEmpty())
+            {
+                for (final File file : partition.getFiles())
+                {
+                    addContextFiles(file, folder.substring(0, folder.length() - 1), files);
+                }
+            }
+        }
+        else if (   (path.indexOf('*') >= 0)
+                 || (path.indexOf('?') >= 0)
+                 || (path.indexOf('[') >= 0))
+        {
+            final Path basedir = target.getBasedir().toPath();
+            final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + path);
+
+            try (Stream<Path> walk = Files.walk(basedir))
+            {
+                for (final Path candidate : (Iterable<Path>) walk::iterator)
+                {
+                    final Path relative = basedir.relativize(candidate);
+
+                    if (matcher.matches(relative))
+                    {
+                        addContextFiles(candidate.toFile(), relative.toString().replace(File.separatorChar, '/'), files);
+                    }
+                }
+            }
+        }
+        else
+        {
+            addContextFiles(new File(target.getBasedir(), path), path, files);
+        }
+
+        return (files.size() > before) || (files.containsKey(path));
+    }
+
+    /**
+     * Retrieves the partition a context path refers to.
+     * @param model the template input.
+     * @param path the path.
+     * @return the partition, or {@code null} if the path is not {@code lib/<partition>}.
+     */
+    protected DependencyPartitions.Partition retrievePartition(final LazyTemplateModel model, final String path)
+    {
+        DependencyPartitions.Partition result = null;
+
+        if (path.startsWith(DependencyPartitions.CONTEXT_FOLDER))
+        {
+            final String name = path.substring(DependencyPartitions.CONTEXT_FOLDER.length());
+
+            if (   (name.indexOf('/') < 0)
+                && (Arrays.asList(
+                        DependencyPartitions.RELEASE,
+                        DependencyPartitions.REACTOR,
+                        DependencyPartitions.SNAPSHOT,
+                        DependencyPartitions.PROJECT)
+                      .contains(name)))
+            {
+                result = ((DependencyPartitions) model.get(Literals.PARTITIONS_L)).get(name);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds a file, or the files under a directory, to the context.
+     * @param file the file or directory.
+     * @param path its path in the context.
+     * @param files the files found so far, by context path.
+     */
+    protected void addContextFiles(final File file, final String path, final Map<String, File> files)
+    {
+        if (file.isDirectory())
+        {
+            final File[] children = file.listFiles();
+
+            if (children != null)
+            {
+                for (final File child : children)
+                {
+                    addContextFiles(child, path + "/" + child.getName(), files);
+                }
+            }
+        }
+        else if (file.isFile())
+        {
+            files.put(path, file);
+        }
+    }
+
+    /**
+     * Retrieves the modules of the reactor.
+     * @return their {@code groupId:artifactId}.
+     */
+    protected Set<String> retrieveReactorKeys()
+    {
+        final Set<String> result = new HashSet<String>();
+
+        if (   (session != null)
+            && (session.getProjects() != null))
+        {
+            for (final MavenProject module : session.getProjects())
+            {
+                result.add(module.getGroupId() + ":" + module.getArtifactId());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves the template packs, so their indexes can be built (once per build).
+     * @param target the target project.
+     * @param coordinates the {@code groupId:artifactId[:extension[:classifier]]:version}
+     * coordinates, or paths relative to the project, of the packs.
+     * @return the jars, in the same order.
+     * @throws MojoExecutionException if any of them cannot be resolved.
+     */
+    protected List<File> resolveTemplatePacks(final MavenProject target, final List<String> coordinates)
+        throws MojoExecutionException
+    {
+        final List<File> result = new ArrayList<File>();
+
+        if (coordinates != null)
+        {
+            for (final String coordinate : coordinates)
+            {
+                final String trimmed = coordinate.trim();
+
+                if (trimmed.indexOf(':') < 0)
+                {
+                    File file = new File(trimmed);
+
+                    if (!file.isAbsolute())
+                    {
+                        file = new File(target.getBasedir(), trimmed);
+                    }
+
+                    if (!file.isFile())
+                    {
+                        throw new MojoExecutionException("Template pack not found: " + file);
+                    }
+
+                    result.add(file);
+                }
+                else
+                {
+                    try
+                    {
+                        result.add(
+                            repositorySystem.resolveArtifact(
+                                session.getRepositorySession(),
+                                new ArtifactRequest(
+                                    new DefaultArtifact(trimmed), target.getRemoteProjectRepositories(), null))
+                              .getArtifact()
+                              .getFile());
+                    }
+                    catch (final ArtifactResolutionException | IllegalArgumentException cannotResolve)
+                    {
+                        throw new MojoExecutionException(
+                            "Cannot resolve template pack " + trimmed + ": " + cannotResolve.getMessage(),
+                            cannotResolve);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Generates the dockerfile.
+     * @param dockerfile the file to generate.
+     * @param template the Dockerfile.stg template.
+     * @param input the template input.
+     * @param encoding the file encoding.
+     * @return the generated file.
+     * @throws IOException if the file cannot be written.
+     * @throws SecurityException if we're not allowed to write the file.
+     */
+    protected File generateDockerfile(
+        final File dockerfile,
+        final File template,
+        final Map<String, ?> input,
+        final Charset encoding)
+      throws IOException,
+             SecurityException
+    {
+        return
+            generateDockerfile(
+                dockerfile,
+                template,
+                input,
+                encoding,
+                Collections.<File>emptyList(),
+                new GenerationMetrics(null, null));
+    }
+
+    /**
+     * Generates the dockerfile, recording how long rendering and writing take.
+     * @param dockerfile the file to generate.
+     * @param template the Dockerfile.stg template.
+     * @param input the template input.
+     * @param encoding the file encoding.
+     * @param templatePacks the template packs.
+     * @param metrics where to record timings and sizes.
+     * @return the generated file.
+     * @throws IOException if the file cannot be written.
+     * @throws SecurityException if we're not allowed to write the file.
+     */
+    protected File generateDockerfile(
+        final File dockerfile,
+        final File template,
+        final Map<String, ?> input,
+        final Charset encoding,
+        final List<File> templatePacks,
+        final GenerationMetrics metrics)
+      throws IOException,
+             SecurityException
+    {
+        return
+            generateDockerfile(
+                dockerfile,
+                template,
+                input,
+                encoding,
+                templatePacks,
+                metrics,
+                Collections.<DockerfilePostProcessor>emptyList(),
+                new AtomicFileWriter());
+    }
+
+    /**
+     * Generates the dockerfile, running the post-processors over it while
+     * it's streamed to the file, and recording how long rendering and
+     * writing take. Post-processing counts as rendering.
+     * @param dockerfile the file to generate.
+     * @param template the Dockerfile.stg template.
+     * @param input the template input.
+     * @param encoding the file encoding.
+     * @param templatePacks the template packs.
+     * @param metrics where to record timings and sizes.
+     * @param processors the post-processors, in order.
+     * @param writer the writer.
+     * @return the generated file.
+     * @throws IOException if the file cannot be written.
+     * @throws SecurityException if we're not allowed to write the file.
+     */
+    protected File generateDockerfile(
+        final File dockerfile,
+        final File template,
+        final Map<String, ?> input,
+        final Charset encoding,
+        final List<File> templatePacks,
+        final GenerationMetrics metrics,
+        final List<DockerfilePostProcessor> processors,
+        final AtomicFileWriter writer)
+      throws IOException,
+             SecurityException
+    {
+        final File result = dockerfile;
+
+        final long start = System.nanoTime();
+        final long[] rendering = new long[1];
+
+        final DockerfileGenerator generator =
+            new DockerfileGenerator(input, template, encoding, TemplateCache.getInstance(), templatePacks);
+
+        final AtomicFileWriter.Result outcome =
+            writer.write(
+                result,
+                new AtomicFileWriter.Content()
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void writeTo(final OutputStream output)
+                        throws IOException
+                    {
+                        final long rendered = System.nanoTime();
+                        final long written = metrics.getNanos(GenerationMetrics.Phase.WRITE);
+
+                        // Encoding and digesting count as writing, the rest as rendering.
+                        final Writer writer =
+                            new BufferedWriter(
+                                metrics.timeWrites(new OutputStreamWriter(output, encoding.newEncoder())),
+                                DockerfileGenerator.BUFFER_SIZE);
+
+                        if (processors.isEmpty())
+                        {
+                            generator.writeDockerfile(writer);
+                        }
+                        else
+                        {
+                            final DockerfileStreamWriter processed = new DockerfileStreamWriter(writer, processors);
+
+                            generator.writeDockerfile(processed);
+                            processed.finish();
+                        }
+
+                        rendering[0] = System.nanoTime() - rendered;
+                        metrics.add(
+                            GenerationMetrics.Phase.RENDER,
+                            rendering[0] - (metrics.getNanos(GenerationMetrics.Phase.WRITE) - written));
+                    }
+                });
+
+        // Comparing with the existing file, and replacing it, count as writing too.
+        metrics.add(GenerationMetrics.Phase.WRITE, System.nanoTime() - start - rendering[0]);
+        metrics.setBytesWritten(outcome.getSize());
+
+        for (final DockerfilePostProcessor processor : processors)
+        {
+            if (   (processor instanceof DockerfileOptimizer)
+                && (((DockerfileOptimizer) processor).getResult().isChanged()))
+            {
+                LOGGER.info("Optimized " + result + ": " + ((DockerfileOptimizer) processor).getResult());
+            }
+            else if (   (processor instanceof ImageDigestPinner)
+                     && (((ImageDigestPinner) processor).getPinned() > 0))
+            {
+                LOGGER.info(
+                    "Pinned " + ((ImageDigestPinner) processor).getPinned() + " base image(s) of " + result + ": "
+                    + ((ImageDigestPinner) processor).getDigests().getDigests().keySet());
+            }
+        }
+
+        if (outcome.isChanged())
+        {
+            LOGGER.info("Wrote " + result + " (" + outcome.getSize() + " bytes, sha256 " + outcome.getSha256() + ")");
+        }
+        else
+        {
+            LOGGER.info("Dockerfile contents unchanged, kept " + result);
+        }
 
         return result;
     }
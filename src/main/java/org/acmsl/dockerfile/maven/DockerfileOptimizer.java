@@ -0,0 +1,1450 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileOptimizer.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Merges layers and reorders instructions of rendered Dockerfiles.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites a rendered Dockerfile so it builds fewer layers and reuses more of
+ * the build cache, without changing what the image contains:
+ * <ul>
+ *   <li>instructions that do not depend on the project's artifact are moved
+ *   above those that do, so rebuilding the artifact does not invalidate
+ *   them;</li>
+ *   <li>adjacent shell-form {@code RUN}s are merged into one layer, each
+ *   command that changes the shell's state running in its own subshell;</li>
+ *   <li>{@code ENV} and {@code LABEL} instructions setting values already in
+ *   effect are removed, and adjacent ones are merged.</li>
+ * </ul>
+ * The heuristics are conservative: an instruction depends on the artifact if
+ * it mentions it, or shares a path with an instruction that does, and nothing
+ * moves past {@code ENV}, {@code ARG}, {@code WORKDIR}, {@code USER} or
+ * {@code SHELL}. The paths of an instruction include where {@code COPY} and
+ * {@code ADD} write, and every word of a {@code RUN}, relative ones resolved
+ * against the {@code WORKDIR}; a {@code RUN} using variables, globs or
+ * {@code cd} may touch any path. Dockerfiles with a custom escape character are left alone.
+ * <p>As a {@link DockerfilePostProcessor}, each stage is held back until
+ * the next one starts. Instances keep the state of the Dockerfile being
+ * optimized, and are not thread-safe.</p>
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class DockerfileOptimizer
+    implements DockerfilePostProcessor
+{
+    /**
+     * The instructions adding layers.
+     */
+    protected static final Set<String> LAYERS = new HashSet<String>(Arrays.asList("RUN", "COPY", "ADD"));
+
+    /**
+     * The instructions an independent one can move above: they only add
+     * metadata, which does not depend on the order of the layers.
+     */
+    protected static final Set<String> METADATA =
+        new HashSet<String>(
+            Arrays.asList("LABEL", "EXPOSE", "MAINTAINER", "STOPSIGNAL", "HEALTHCHECK", "CMD", "ENTRYPOINT"));
+
+    /**
+     * The shell builtins changing the state later commands see.
+     */
+    protected static final Set<String> STATEFUL_BUILTINS =
+        new HashSet<String>(
+            Arrays.asList(
+                "cd", "pushd", "popd", "export", "unset", "set", "shopt", "umask", "alias", "unalias", "source",
+                ".", "trap", "exec", "exit", "return", "ulimit", "readonly", "declare", "typeset", "local",
+                "eval", "break", "continue", "shift", "wait"));
+
+    /**
+     * The path standing for any path, when an instruction's cannot be known.
+     */
+    protected static final String ANYWHERE = "*";
+
+    /**
+     * The shell builtins changing the directory later commands see.
+     */
+    protected static final Set<String> DIRECTORY_BUILTINS =
+        new HashSet<String>(Arrays.asList("cd", "pushd", "popd"));
+
+    /**
+     * The names identifying the artifact: its artifactId, final name, and so on.
+     */
+    private final Set<String> m__sMarkers;
+
+    /**
+     * The instructions of the stage held back.
+     */
+    private final List<DockerfileInstruction> m__lStage = new ArrayList<DockerfileInstruction>();
+
+    /**
+     * The merged, moved and removed instructions.
+     */
+    private final int[] m__aCounts = new int[3];
+
+    /**
+     * The layers before optimizing.
+     */
+    private int m__iLayersBefore;
+
+    /**
+     * The layers after optimizing.
+     */
+    private int m__iLayersAfter;
+
+    /**
+     * Whether the Dockerfile can be optimized.
+     */
+    private boolean m__bEnabled = true;
+
+    /**
+     * Creates a new optimizer that does not know the artifact: it merges
+     * layers and drops redundant metadata, but does not move layers.
+     */
+    public DockerfileOptimizer()
+    {
+        this(Collections.<String>emptyList());
+    }
+
+    /**
+     * Creates a new optimizer.
+     * @param markers the names identifying the project's artifact.
+     */
+    public DockerfileOptimizer(final Collection<String> markers)
+    {
+        final Set<String> names = new LinkedHashSet<String>();
+
+        for (final String marker : markers)
+        {
+            if (   (marker != null)
+                && (!marker.trim().isEmpty()))
+            {
+                names.add(marker.trim());
+            }
+        }
+
+        this.m__sMarkers = Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Retrieves the names identifying the artifact.
+     * @return such names.
+     */
+    public Set<String> getMarkers()
+    {
+        return this.m__sMarkers;
+    }
+
+    /**
+     * Optimizes a Dockerfile.
+     * @param dockerfile its contents.
+     * @return the outcome.
+     */
+    public Result optimize(final CharSequence dockerfile)
+    {
+        final StringWriter output = new StringWriter(dockerfile.length());
+
+        try (DockerfileStreamWriter writer =
+                 new DockerfileStreamWriter(output, Collections.<DockerfilePostProcessor>singletonList(this)))
+        {
+            writer.append(dockerfile);
+        }
+        catch (final IOException cannotHappen)
+        {
+            // Nothing but memory is written.
+            throw new UncheckedIOException(cannotHappen);
+        }
+
+        final Result outcome = getResult();
+
+        return
+            new Result(
+                outcome.isChanged() ? output.toString() : dockerfile.toString(),
+                outcome.getLayersBefore(),
+                outcome.getLayersAfter(),
+                outcome.getMerged(),
+                outcome.getHoisted(),
+                outcome.getRemoved());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start(final Map<String, String> directives)
+    {
+        final String escape = directives.get("escape");
+
+        this.m__bEnabled =
+               (escape == null)
+            || (escape.length() != 1)
+            || (escape.charAt(0) == DockerfileParser.DEFAULT_ESCAPE);
+        this.m__lStage.clear();
+        Arrays.fill(this.m__aCounts, 0);
+        this.m__iLayersBefore = 0;
+        this.m__iLayersAfter = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void process(final DockerfileInstruction instruction, final DockerfilePostProcessor.Sink next)
+        throws IOException
+    {
+        if (LAYERS.contains(instruction.getKeyword()))
+        {
+            this.m__iLayersBefore++;
+        }
+
+        if (!this.m__bEnabled)
+        {
+            emit(instruction, next);
+        }
+        else
+        {
+            // Stages are optimized independently, so each one is held back until the next starts.
+            if (   (instruction.is("FROM"))
+                && (!this.m__lStage.isEmpty()))
+            {
+                flush(next);
+            }
+
+            this.m__lStage.add(instruction);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finish(final DockerfilePostProcessor.Sink next)
+        throws IOException
+    {
+        flush(next);
+    }
+
+    /**
+     * Retrieves the outcome of the last Dockerfile processed.
+     * @return such outcome, without the optimized contents.
+     */
+    public Result getResult()
+    {
+        return
+            new Result(
+                null,
+                this.m__iLayersBefore,
+                this.m__iLayersAfter,
+                this.m__aCounts[0],
+                this.m__aCounts[1],
+                this.m__aCounts[2]);
+    }
+
+    /**
+     * Optimizes the stage held back, and emits it.
+     * @param next where to emit it.
+     * @throws IOException if it cannot be emitted.
+     */
+    protected void flush(final DockerfilePostProcessor.Sink next)
+        throws IOException
+    {
+        if (!this.m__lStage.isEmpty())
+        {
+            for (final DockerfileInstruction instruction : optimizeStage(this.m__lStage, this.m__aCounts))
+            {
+                emit(instruction, next);
+            }
+
+            this.m__lStage.clear();
+        }
+    }
+
+    /**
+     * Emits an instruction.
+     * @param instruction the instruction.
+     * @param next where to emit it.
+     * @throws IOException if it cannot be emitted.
+     */
+    protected void emit(final DockerfileInstruction instruction, final DockerfilePostProcessor.Sink next)
+        throws IOException
+    {
+        if (LAYERS.contains(instruction.getKeyword()))
+        {
+            this.m__iLayersAfter++;
+        }
+
+        next.accept(instruction);
+    }
+
+    /**
+     * Optimizes one stage.
+     * @param stage its instructions, starting with {@code FROM} unless it's the preamble.
+     * @param counts the merged, hoisted and removed instructions so far.
+     * @return the optimized instructions.
+     */
+    protected List<DockerfileInstruction> optimizeStage(final List<DockerfileInstruction> stage, final int[] counts)
+    {
+        final List<DockerfileInstruction> instructions = new ArrayList<DockerfileInstruction>(stage);
+        final List<Boolean> dependent = retrieveDependencies(instructions);
+
+        counts[1] += hoist(instructions, dependent);
+        counts[2] += removeRedundant(instructions, dependent);
+        counts[0] += mergeRuns(instructions, dependent);
+        counts[0] += mergeMetadata(instructions, dependent, "LABEL");
+        counts[0] += mergeMetadata(instructions, dependent, "ENV");
+
+        return instructions;
+    }
+
+    /**
+     * Finds the instructions depending on the artifact.
+     * @param instructions the instructions of a stage.
+     * @return whether each one mentions the artifact, or shares a path with
+     * an earlier one that depends on it.
+     */
+    protected List<Boolean> retrieveDependencies(final List<DockerfileInstruction> instructions)
+    {
+        final List<Boolean> result = new ArrayList<Boolean>(instructions.size());
+
+        final Set<String> paths = new HashSet<String>();
+
+        // The base image's, unknown: relative paths are kept relative.
+        String workdir = "";
+
+        for (final DockerfileInstruction instruction : instructions)
+        {
+            if (instruction.is("WORKDIR"))
+            {
+                workdir = resolvePath(workdir, instruction.getArguments().trim());
+            }
+
+            final Set<String> own = retrievePaths(instruction.getText());
+            own.addAll(retrieveTouchedPaths(instruction, workdir));
+
+            final boolean depends = (mentionsArtifact(instruction.getText())) || (overlaps(own, paths));
+
+            if (depends)
+            {
+                paths.addAll(own);
+            }
+
+            result.add(depends);
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether a text mentions the artifact.
+     * @param text the text.
+     * @return {@code true} if it contains any marker.
+     */
+    protected boolean mentionsArtifact(final String text)
+    {
+        boolean result = false;
+
+        for (final String marker : this.m__sMarkers)
+        {
+            if (text.contains(marker))
+            {
+                result = true;
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the path-like tokens of a text.
+     * @param text the text.
+     * @return the tokens containing a {@code /}, without trailing ones.
+     */
+    protected static Set<String> retrievePaths(final String text)
+    {
+        final Set<String> result = new HashSet<String>();
+
+        for (final String token : text.split("[\\s=:;,|&()\"'\\[\\]<>]+"))
+        {
+            if (token.contains("/"))
+            {
+                String path = token.startsWith("./") ? token.substring(1) : token;
+
+                while (   (path.length() > 1)
+                       && (path.endsWith("/")))
+                {
+                    path = path.substring(0, path.length() - 1);
+                }
+
+                result.add(path);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the paths in the image an instruction writes or reads: where
+     * {@code COPY} and {@code ADD} write, and the words of a {@code RUN}.
+     * @param instruction the instruction.
+     * @param workdir the working directory: absolute, empty if it's the base
+     * image's, or {@link #ANYWHERE} if unknown.
+     * @return such paths, resolved against the working directory; or
+     * {@link #ANYWHERE} if they cannot be known.
+     */
+    protected static Set<String> retrieveTouchedPaths(final DockerfileInstruction instruction, final String workdir)
+    {
+        final Set<String> result;
+
+        if (instruction.is("RUN"))
+        {
+            result = retrieveRunPaths(instruction, workdir);
+        }
+        else if (   (instruction.is("COPY"))
+                 || (instruction.is("ADD")))
+        {
+            result = retrieveWrittenPaths(instruction, workdir);
+        }
+        else
+        {
+            result = new HashSet<String>();
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves where a {@code COPY} or {@code ADD} writes: its destination,
+     * or the files it places into it when that's a directory and the sources
+     * are plain files.
+     * @param instruction the instruction.
+     * @param workdir the working directory.
+     * @return such paths, or {@link #ANYWHERE} if they cannot be known.
+     */
+    protected static Set<String> retrieveWrittenPaths(final DockerfileInstruction instruction, final String workdir)
+    {
+        final Set<String> result = new HashSet<String>();
+
+        final List<String> words;
+
+        if (instruction.isExecForm())
+        {
+            words = instruction.getExecArguments();
+        }
+        else
+        {
+            words = splitWords(instruction.getCommand().split("\n", 2)[0]);
+        }
+
+        if (   (words == null)
+            || (words.size() < 2))
+        {
+            result.add(ANYWHERE);
+        }
+        else
+        {
+            final String destination = unquote(words.get(words.size() - 1));
+            final List<String> sources = words.subList(0, words.size() - 1);
+            final String target = resolvePath(workdir, destination);
+
+            if (   (destination.endsWith("/"))
+                || (destination.equals("."))
+                || (destination.endsWith("/."))
+                || (sources.size() > 1))
+            {
+                for (final String source : sources)
+                {
+                    final String name = unquote(source);
+
+                    if (   (instruction.is("COPY"))
+                        && (isFileName(name)))
+                    {
+                        result.add(resolvePath(target, name.substring(name.lastIndexOf('/') + 1)));
+                    }
+                    else
+                    {
+                        // Directories, wildcards and archives fill the destination.
+                        result.add(target);
+                    }
+                }
+            }
+            else
+            {
+                result.add(target);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the paths a {@code RUN} may touch: each of its words, as a
+     * path relative to the working directory unless absolute.
+     * @param instruction the instruction.
+     * @param workdir the working directory.
+     * @return such paths, or {@link #ANYWHERE} if it uses variables, globs,
+     * or changes the directory.
+     */
+    protected static Set<String> retrieveRunPaths(final DockerfileInstruction instruction, final String workdir)
+    {
+        final Set<String> result = new HashSet<String>();
+
+        final String text =
+            instruction.isHeredoc() ? instruction.getText() : instruction.getCommand();
+
+        if (   (text.contains("$"))
+            || (text.contains("`"))
+            || (text.contains("~")))
+        {
+            result.add(ANYWHERE);
+        }
+        else
+        {
+            for (final String word : text.split("[\\s=:;,|&()\"'\\[\\]<>{}]+"))
+            {
+                if (DIRECTORY_BUILTINS.contains(word))
+                {
+                    result.clear();
+                    result.add(ANYWHERE);
+                    break;
+                }
+                else if (   (!word.isEmpty())
+                         && (!word.startsWith("-"))
+                         && (!word.equals("\\")))
+                {
+                    final int glob = indexOfGlob(word);
+
+                    if (glob < 0)
+                    {
+                        result.add(resolvePath(workdir, word));
+                    }
+                    else
+                    {
+                        // The folder the wildcard expands in.
+                        final int folder = word.lastIndexOf('/', glob);
+
+                        result.add(
+                            (folder < 0)
+                            ? resolvePath(workdir, ".")
+                            : resolvePath(workdir, (folder == 0) ? "/" : word.substring(0, folder)));
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds the first wildcard in a word.
+     * @param word the word.
+     * @return its position, or {@code -1} if none.
+     */
+    protected static int indexOfGlob(final String word)
+    {
+        int result = -1;
+
+        for (int index = 0; index < word.length(); index++)
+        {
+            if ("*?[".indexOf(word.charAt(index)) >= 0)
+            {
+                result = index;
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether a {@code COPY} source is a plain file, copied with its
+     * own name into a destination directory.
+     * @param source the source.
+     * @return {@code true} if it has an extension, and no wildcards, variables
+     * or trailing {@code /}.
+     */
+    protected static boolean isFileName(final String source)
+    {
+        final String name = source.substring(source.lastIndexOf('/') + 1);
+
+        return
+               (!name.isEmpty())
+            && (name.indexOf('.') > 0)
+            && (indexOfGlob(source) < 0)
+            && (!source.contains("$"))
+            && (!source.startsWith("<<"));
+    }
+
+    /**
+     * Removes the quotes around a word.
+     * @param word the word.
+     * @return the word without them.
+     */
+    protected static String unquote(final String word)
+    {
+        String result = word;
+
+        if (   (result.length() > 1)
+            && ((result.charAt(0) == '"') || (result.charAt(0) == '\''))
+            && (result.charAt(result.length() - 1) == result.charAt(0)))
+        {
+            result = result.substring(1, result.length() - 1);
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves a path against a working directory, and normalizes it.
+     * @param workdir the working directory: absolute, empty if it's the base
+     * image's, or {@link #ANYWHERE} if unknown.
+     * @param path the path.
+     * @return the absolute path; relative, without {@code ./}, if the working
+     * directory is the base image's; or {@link #ANYWHERE} if it cannot be known.
+     */
+    protected static String resolvePath(final String workdir, final String path)
+    {
+        String result;
+
+        if (   (path.contains("$"))
+            || (   (!path.startsWith("/"))
+                && (ANYWHERE.equals(workdir))))
+        {
+            result = ANYWHERE;
+        }
+        else
+        {
+            final boolean absolute = (path.startsWith("/")) || (workdir.startsWith("/"));
+
+            final List<String> parts = new ArrayList<String>();
+
+            for (final String part : (path.startsWith("/") ? path : workdir + "/" + path).split("/+"))
+            {
+                if ("..".equals(part))
+                {
+                    if (!parts.isEmpty())
+                    {
+                        parts.remove(parts.size() - 1);
+                    }
+                    else if (!absolute)
+                    {
+                        // Somewhere above the base image's working directory.
+                        parts.add(ANYWHERE);
+                        break;
+                    }
+                }
+                else if (   (!part.isEmpty())
+                         && (!".".equals(part)))
+                {
+                    parts.add(part);
+                }
+            }
+
+            if (parts.contains(ANYWHERE))
+            {
+                result = ANYWHERE;
+            }
+            else if (absolute)
+            {
+                result = "/" + String.join("/", parts);
+            }
+            else
+            {
+                result = parts.isEmpty() ? "." : String.join("/", parts);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether some path is, contains, or is contained in another.
+     * @param paths the paths.
+     * @param others the other paths.
+     * @return {@code true} in such case.
+     */
+    protected static boolean overlaps(final Set<String> paths, final Set<String> others)
+    {
+        boolean result = false;
+
+        for (final String path : paths)
+        {
+            for (final String other : others)
+            {
+                if (   (path.equals(other))
+                    || (ANYWHERE.equals(path))
+                    || (ANYWHERE.equals(other))
+                    || (isParent(path, other))
+                    || (isParent(other, path)))
+                {
+                    result = true;
+                    break;
+                }
+            }
+
+            if (result)
+            {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether a path contains another.
+     * @param parent the path.
+     * @param child the other path.
+     * @return {@code true} in such case.
+     */
+    protected static boolean isParent(final String parent, final String child)
+    {
+        final boolean result;
+
+        if (".".equals(parent))
+        {
+            // The base image's working directory contains every relative path.
+            result = !child.startsWith("/");
+        }
+        else
+        {
+            result = child.startsWith(parent.endsWith("/") ? parent : parent + "/");
+        }
+
+        return result;
+    }
+
+    /**
+     * Moves the layers independent of the artifact above the dependent
+     * layers before them, when only dependent layers and metadata are in
+     * between.
+     * @param instructions the instructions of a stage.
+     * @param dependent whether each one depends on the artifact; kept in sync.
+     * @return the number of moved instructions.
+     */
+    protected int hoist(final List<DockerfileInstruction> instructions, final List<Boolean> dependent)
+    {
+        int result = 0;
+
+        for (int index = 0; index < instructions.size(); index++)
+        {
+            final DockerfileInstruction instruction = instructions.get(index);
+
+            if (   (LAYERS.contains(instruction.getKeyword()))
+                && (!dependent.get(index)))
+            {
+                int target = -1;
+                int position = index - 1;
+
+                while (position >= 0)
+                {
+                    final DockerfileInstruction previous = instructions.get(position);
+
+                    if (   (LAYERS.contains(previous.getKeyword()))
+                        && (dependent.get(position)))
+                    {
+                        target = position;
+                    }
+                    else if (!METADATA.contains(previous.getKeyword()))
+                    {
+                        break;
+                    }
+
+                    position--;
+                }
+
+                if (target >= 0)
+                {
+                    instructions.add(target, instructions.remove(index));
+                    dependent.add(target, dependent.remove(index));
+                    result++;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the {@code ENV} and {@code LABEL} instructions whose values are
+     * already in effect. Values referring to variables are kept, since the
+     * variables may have changed in between.
+     * @param instructions the instructions of a stage.
+     * @param dependent whether each one depends on the artifact; kept in sync.
+     * @return the number of removed instructions.
+     */
+    protected int removeRedundant(final List<DockerfileInstruction> instructions, final List<Boolean> dependent)
+    {
+        int result = 0;
+
+        final Map<String, Map<String, String>> effective = new HashMap<String, Map<String, String>>();
+        effective.put("ENV", new HashMap<String, String>());
+        effective.put("LABEL", new HashMap<String, String>());
+
+        int index = 0;
+
+        while (index < instructions.size())
+        {
+            final DockerfileInstruction instruction = instructions.get(index);
+            final Map<String, String> values = effective.get(instruction.getKeyword());
+            final Map<String, String> pairs = (values == null) ? null : parsePairs(instruction);
+
+            if (   (pairs != null)
+                && (!pairs.isEmpty())
+                && (values.entrySet().containsAll(pairs.entrySet()))
+                && (!pairs.toString().contains("$")))
+            {
+                instructions.remove(index);
+                dependent.remove(index);
+                keepComments(instructions, index, instruction);
+                result++;
+            }
+            else
+            {
+                if (values != null)
+                {
+                    if (pairs == null)
+                    {
+                        values.clear();
+                    }
+                    else
+                    {
+                        values.putAll(pairs);
+                    }
+                }
+                else if ("ARG".equals(instruction.getKeyword()))
+                {
+                    // Values may refer to it, and mean something else from now on.
+                    effective.get("ENV").clear();
+                    effective.get("LABEL").clear();
+                }
+
+                index++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Merges adjacent shell-form {@code RUN} instructions.
+     * @param instructions the instructions of a stage.
+     * @param dependent whether each one depends on the artifact; kept in sync.
+     * @return the number of merged instructions.
+     */
+    protected int mergeRuns(final List<DockerfileInstruction> instructions, final List<Boolean> dependent)
+    {
+        int result = 0;
+
+        boolean customShell = false;
+
+        int index = 0;
+
+        while (index < instructions.size())
+        {
+            final DockerfileInstruction instruction = instructions.get(index);
+
+            customShell |= instruction.is("SHELL");
+
+            int last = index;
+
+            if (   (!customShell)
+                && (isMergeable(instruction)))
+            {
+                while (   (last + 1 < instructions.size())
+                       && (isMergeable(instructions.get(last + 1)))
+                       && (instructions.get(last + 1).getComments().isEmpty())
+                       && (dependent.get(last + 1).equals(dependent.get(index)))
+                       && (instructions.get(last + 1).getFlags().equals(instruction.getFlags())))
+                {
+                    last++;
+                }
+            }
+
+            if (last > index)
+            {
+                final StringBuilder arguments = new StringBuilder();
+
+                for (final String flag : instruction.getFlags())
+                {
+                    arguments.append(flag).append(' ');
+                }
+
+                for (int position = index; position <= last; position++)
+                {
+                    if (position > index)
+                    {
+                        arguments.append(" \\\n && ");
+                    }
+
+                    arguments.append(asChainable(instructions.get(position).getCommand()));
+                }
+
+                final DockerfileInstruction merged =
+                    DockerfileInstruction.of("RUN", arguments.toString(), instruction.getComments());
+
+                for (int position = last; position > index; position--)
+                {
+                    instructions.remove(position);
+                    dependent.remove(position);
+                }
+
+                instructions.set(index, merged);
+                result += last - index;
+            }
+
+            index++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether a {@code RUN} can be merged with others.
+     * @param instruction the instruction.
+     * @return {@code true} if it's a shell-form {@code RUN}, without heredocs or comments.
+     */
+    protected boolean isMergeable(final DockerfileInstruction instruction)
+    {
+        return
+               (instruction.is("RUN"))
+            && (!instruction.isExecForm())
+            && (!instruction.isHeredoc())
+            && (!instruction.getCommand().isEmpty())
+            && (instruction.getCommand().indexOf('#') < 0)
+            && (!instruction.getText().contains("\n#"))
+            && (!instruction.getText().matches("(?s).*\\n\\s+#.*"));
+    }
+
+    /**
+     * Makes a command safe to chain with {@code &&}: it's kept as is if it's
+     * a list of simple commands joined by {@code &&}, and wrapped in a
+     * subshell otherwise, so that {@code cd}, {@code export}, {@code ;} and
+     * the like do not leak into the next command.
+     * @param command the command.
+     * @return the chainable command.
+     */
+    protected static String asChainable(final String command)
+    {
+        final String trimmed = command.trim();
+
+        return isSimple(trimmed) ? trimmed : "(" + trimmed + ")";
+    }
+
+    /**
+     * Checks whether a command is a list of simple commands joined by {@code &&}.
+     * @param command the command.
+     * @return {@code true} if it has no other operators outside quotes, and
+     * no command changes the shell's state.
+     */
+    protected static boolean isSimple(final String command)
+    {
+        boolean result = true;
+
+        final List<String> commands = new ArrayList<String>();
+        final StringBuilder current = new StringBuilder();
+
+        char quote = 0;
+
+        for (int index = 0; (result) && (index < command.length()); index++)
+        {
+            final char character = command.charAt(index);
+
+            if (quote != 0)
+            {
+                if (   (character == '\\')
+                    && (quote == '"'))
+                {
+                    current.append(character);
+                    index++;
+
+                    if (index < command.length())
+                    {
+                        current.append(command.charAt(index));
+                    }
+
+                    continue;
+                }
+
+                if (character == quote)
+                {
+                    quote = 0;
+                }
+
+                current.append(character);
+            }
+            else if (   (character == '\'')
+                     || (character == '"'))
+            {
+                quote = character;
+                current.append(character);
+            }
+            else if (   (character == '&')
+                     && (index + 1 < command.length())
+                     && (command.charAt(index + 1) == '&'))
+            {
+                commands.add(current.toString().trim());
+                current.setLength(0);
+                index++;
+            }
+            else if ("&|;()`\\\n{}".indexOf(character) >= 0)
+            {
+                result = false;
+            }
+            else
+            {
+                current.append(character);
+            }
+        }
+
+        commands.add(current.toString().trim());
+
+        if (quote != 0)
+        {
+            result = false;
+        }
+
+        for (int index = 0; (result) && (index < commands.size()); index++)
+        {
+            final String[] words = commands.get(index).split("\\s+");
+
+            result =
+                   (!words[0].isEmpty())
+                && (!STATEFUL_BUILTINS.contains(words[0]))
+                // A bare assignment sets a shell variable.
+                && (   (words.length > 1)
+                    || (!words[0].contains("=")));
+        }
+
+        return result;
+    }
+
+    /**
+     * Merges adjacent {@code LABEL} or {@code ENV} instructions.
+     * {@code ENV}s are only merged if their values do not refer to variables,
+     * since an {@code ENV} sees the values set by the previous one, but not
+     * those set within itself.
+     * @param instructions the instructions of a stage.
+     * @param dependent whether each one depends on the artifact; kept in sync.
+     * @param keyword either {@code LABEL} or {@code ENV}.
+     * @return the number of merged instructions.
+     */
+    protected int mergeMetadata(
+        final List<DockerfileInstruction> instructions, final List<Boolean> dependent, final String keyword)
+    {
+        int result = 0;
+
+        int index = 0;
+
+        while (index < instructions.size())
+        {
+            int last = index;
+
+            final Set<String> keys = new HashSet<String>();
+
+            if (isMergeableMetadata(instructions.get(index), keyword, keys))
+            {
+                while (   (last + 1 < instructions.size())
+                       && (instructions.get(last + 1).getComments().isEmpty())
+                       && (isMergeableMetadata(instructions.get(last + 1), keyword, keys)))
+                {
+                    last++;
+                }
+            }
+
+            if (last > index)
+            {
+                final StringBuilder arguments = new StringBuilder();
+
+                for (int position = index; position <= last; position++)
+                {
+                    if (position > index)
+                    {
+                        arguments.append(" \\\n    ");
+                    }
+
+                    arguments.append(instructions.get(position).getArguments().trim());
+                }
+
+                final DockerfileInstruction merged =
+                    DockerfileInstruction.of(keyword, arguments.toString(), instructions.get(index).getComments());
+
+                boolean depends = false;
+
+                for (int position = last; position >= index; position--)
+                {
+                    depends |= dependent.get(position);
+
+                    if (position > index)
+                    {
+                        instructions.remove(position);
+                        dependent.remove(position);
+                    }
+                }
+
+                instructions.set(index, merged);
+                dependent.set(index, depends);
+                result += last - index;
+            }
+
+            index++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether an instruction can be merged with the adjacent ones.
+     * @param instruction the instruction.
+     * @param keyword the keyword.
+     * @param keys the keys set by the previous ones; updated.
+     * @return {@code true} if it uses the {@code key=value} form, and sets
+     * different keys than the previous ones.
+     */
+    protected boolean isMergeableMetadata(
+        final DockerfileInstruction instruction, final String keyword, final Set<String> keys)
+    {
+        boolean result = false;
+
+        final Map<String, String> pairs = instruction.is(keyword) ? parsePairs(instruction) : null;
+
+        if (   (pairs != null)
+            && (!pairs.isEmpty())
+            && (instruction.getArguments().trim().contains("=")))
+        {
+            result = Collections.disjoint(keys, pairs.keySet());
+
+            if (   (result)
+                && ("ENV".equals(keyword)))
+            {
+                for (final String value : pairs.values())
+                {
+                    if (value.contains("$"))
+                    {
+                        result = false;
+                        break;
+                    }
+                }
+            }
+
+            if (result)
+            {
+                keys.addAll(pairs.keySet());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses the pairs of an {@code ENV} or {@code LABEL}.
+     * @param instruction the instruction.
+     * @return the raw values, by key; or {@code null} if they cannot be parsed.
+     */
+    protected static Map<String, String> parsePairs(final DockerfileInstruction instruction)
+    {
+        Map<String, String> result = new LinkedHashMap<String, String>();
+
+        final String arguments = instruction.getArguments().trim();
+        final String[] legacy = arguments.split("\\s+", 2);
+
+        if (!legacy[0].contains("="))
+        {
+            // The legacy "KEY value" form sets a single key.
+            if (legacy.length > 1)
+            {
+                result.put(legacy[0], legacy[1].trim());
+            }
+            else
+            {
+                result = null;
+            }
+        }
+        else
+        {
+            final List<String> tokens = splitWords(arguments);
+
+            if (tokens == null)
+            {
+                result = null;
+            }
+            else
+            {
+                for (final String token : tokens)
+                {
+                    final int equals = token.indexOf('=');
+
+                    if (equals <= 0)
+                    {
+                        result = null;
+                        break;
+                    }
+
+                    result.put(token.substring(0, equals), token.substring(equals + 1));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Splits a text by whitespace outside quotes.
+     * @param text the text.
+     * @return the words, quotes included; or {@code null} if a quote is not closed.
+     */
+    protected static List<String> splitWords(final String text)
+    {
+        List<String> result = new ArrayList<String>();
+
+        final StringBuilder current = new StringBuilder();
+
+        char quote = 0;
+
+        for (int index = 0; index < text.length(); index++)
+        {
+            final char character = text.charAt(index);
+
+            if (   (character == '\\')
+                && (quote != '\'')
+                && (index + 1 < text.length()))
+            {
+                current.append(character).append(text.charAt(++index));
+            }
+            else if (quote != 0)
+            {
+                quote = (character == quote) ? 0 : quote;
+                current.append(character);
+            }
+            else if (   (character == '"')
+                     || (character == '\''))
+            {
+                quote = character;
+                current.append(character);
+            }
+            else if (Character.isWhitespace(character))
+            {
+                if (current.length() > 0)
+                {
+                    result.add(current.toString());
+                    current.setLength(0);
+                }
+            }
+            else
+            {
+                current.append(character);
+            }
+        }
+
+        if (current.length() > 0)
+        {
+            result.add(current.toString());
+        }
+
+        if (quote != 0)
+        {
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Moves the comments of a removed instruction to the next one, so they are not lost.
+     * @param instructions the instructions.
+     * @param index the position of the next one.
+     * @param removed the removed instruction.
+     */
+    protected void keepComments(
+        final List<DockerfileInstruction> instructions, final int index, final DockerfileInstruction removed)
+    {
+        if (   (!removed.getComments().isEmpty())
+            && (index < instructions.size()))
+        {
+            final List<String> comments = new ArrayList<String>(removed.getComments());
+            comments.addAll(instructions.get(index).getComments());
+
+            instructions.set(index, instructions.get(index).withComments(comments));
+        }
+    }
+
+    /**
+     * The outcome of optimizing a Dockerfile.
+     */
+    public static final class Result
+    {
+        /**
+         * The optimized Dockerfile.
+         */
+        private final String m__strDockerfile;
+
+        /**
+         * The layers before.
+         */
+        private final int m__iLayersBefore;
+
+        /**
+         * The layers after.
+         */
+        private final int m__iLayersAfter;
+
+        /**
+         * The merged instructions.
+         */
+        private final int m__iMerged;
+
+        /**
+         * The moved instructions.
+         */
+        private final int m__iHoisted;
+
+        /**
+         * The removed instructions.
+         */
+        private final int m__iRemoved;
+
+        /**
+         * Creates a new result.
+         * @param dockerfile the optimized Dockerfile.
+         * @param layersBefore the layers before.
+         * @param layersAfter the layers after.
+         * @param merged the merged instructions.
+         * @param hoisted the moved instructions.
+         * @param removed the removed instructions.
+         */
+        public Result(
+            final String dockerfile,
+            final int layersBefore,
+            final int layersAfter,
+            final int merged,
+            final int hoisted,
+            final int removed)
+        {
+            this.m__strDockerfile = dockerfile;
+            this.m__iLayersBefore = layersBefore;
+            this.m__iLayersAfter = layersAfter;
+            this.m__iMerged = merged;
+            this.m__iHoisted = hoisted;
+            this.m__iRemoved = removed;
+        }
+
+        /**
+         * Retrieves the optimized Dockerfile.
+         * @return such contents, or {@code null} if it was streamed.
+         */
+        public String getDockerfile()
+        {
+            return this.m__strDockerfile;
+        }
+
+        /**
+         * Retrieves the layers before.
+         * @return such number.
+         */
+        public int getLayersBefore()
+        {
+            return this.m__iLayersBefore;
+        }
+
+        /**
+         * Retrieves the layers after.
+         * @return such number.
+         */
+        public int getLayersAfter()
+        {
+            return this.m__iLayersAfter;
+        }
+
+        /**
+         * Retrieves the number of instructions merged into others.
+         * @return such number.
+         */
+        public int getMerged()
+        {
+            return this.m__iMerged;
+        }
+
+        /**
+         * Retrieves the number of moved instructions.
+         * @return such number.
+         */
+        public int getHoisted()
+        {
+            return this.m__iHoisted;
+        }
+
+        /**
+         * Retrieves the number of removed instructions.
+         * @return such number.
+         */
+        public int getRemoved()
+        {
+            return this.m__iRemoved;
+        }
+
+        /**
+         * Checks whether anything changed.
+         * @return {@code true} in such case.
+         */
+        public boolean isChanged()
+        {
+            return this.m__iMerged + this.m__iHoisted + this.m__iRemoved > 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return
+                  this.m__iLayersBefore + " -> " + this.m__iLayersAfter + " layer(s): "
+                + this.m__iMerged + " merged, " + this.m__iHoisted + " moved, "
+                + this.m__iRemoved + " removed";
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileParser.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Splits a Dockerfile into instructions.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses a whole Dockerfile into {@link DockerfileInstruction}s, collecting
+ * what a {@link DockerfileTokenizer} finds.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public final class DockerfileParser
+{
+    /**
+     * The default escape character.
+     */
+    public static final char DEFAULT_ESCAPE = DockerfileTokenizer.DEFAULT_ESCAPE;
+
+    /**
+     * The size of the read buffer.
+     */
+    protected static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Utility class.
+     */
+    private DockerfileParser()
+    {
+    }
+
+    /**
+     * Parses a Dockerfile.
+     * @param dockerfile its contents.
+     * @return the parsed Dockerfile.
+     */
+    public static Document parse(final CharSequence dockerfile)
+    {
+        final Collector collector = new Collector();
+        final DockerfileTokenizer tokenizer = new DockerfileTokenizer(collector);
+
+        try
+        {
+            tokenizer.feed(dockerfile);
+            tokenizer.finish();
+        }
+        catch (final IOException cannotHappen)
+        {
+            // The collector does no I/O.
+            throw new UncheckedIOException(cannotHappen);
+        }
+
+        return collector.getDocument();
+    }
+
+    /**
+     * Parses a Dockerfile.
+     * @param reader its contents.
+     * @return the parsed Dockerfile.
+     * @throws IOException if it cannot be read.
+     */
+    public static Document parse(final Reader reader)
+        throws IOException
+    {
+        final Collector collector = new Collector();
+        final DockerfileTokenizer tokenizer = new DockerfileTokenizer(collector);
+
+        final char[] buffer = new char[READ_BUFFER_SIZE];
+
+        int read = reader.read(buffer);
+
+        while (read >= 0)
+        {
+            tokenizer.feed(buffer, 0, read);
+            read = reader.read(buffer);
+        }
+
+        tokenizer.finish();
+
+        return collector.getDocument();
+    }
+
+    /**
+     * Collects what the tokenizer finds.
+     */
+    protected static final class Collector
+        implements DockerfileTokenizer.Listener
+    {
+        /**
+         * The directive lines.
+         */
+        private final List<String> m__lHeader = new ArrayList<String>();
+
+        /**
+         * The directives.
+         */
+        private final Map<String, String> m__mDirectives = new LinkedHashMap<String, String>();
+
+        /**
+         * The instructions.
+         */
+        private final List<DockerfileInstruction> m__lInstructions = new ArrayList<DockerfileInstruction>();
+
+        /**
+         * The lines after the last instruction.
+         */
+        private final List<String> m__lTrailer = new ArrayList<String>();
+
+        /**
+         * The escape character.
+         */
+        private char m__cEscape = DEFAULT_ESCAPE;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void directives(
+            final List<String> lines, final String text, final Map<String, String> directives, final char escape)
+        {
+            this.m__lHeader.addAll(lines);
+            this.m__mDirectives.putAll(directives);
+            this.m__cEscape = escape;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void instruction(final DockerfileInstruction instruction)
+        {
+            this.m__lInstructions.add(instruction);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void end(final List<String> lines, final String text)
+        {
+            this.m__lTrailer.addAll(lines);
+        }
+
+        /**
+         * Retrieves what was collected.
+         * @return the parsed Dockerfile.
+         */
+        public Document getDocument()
+        {
+            return
+                new Document(
+                    this.m__lHeader, this.m__mDirectives, this.m__cEscape, this.m__lInstructions, this.m__lTrailer);
+        }
+    }
+
+    /**
+     * A parsed Dockerfile.
+     */
+    public static final class Document
+    {
+        /**
+         * The parser directive lines.
+         */
+        private final List<String> m__lHeader;
+
+        /**
+         * The parser directives.
+         */
+        private final Map<String, String> m__mDirectives;
+
+        /**
+         * The escape character.
+         */
+        private final char m__cEscape;
+
+        /**
+         * The instructions.
+         */
+        private final List<DockerfileInstruction> m__lInstructions;
+
+        /**
+         * The comments and blank lines after the last instruction.
+         */
+        private final List<String> m__lTrailer;
+
+        /**
+         * Creates a new document.
+         * @param header the parser directive lines.
+         * @param directives the parser directives.
+         * @param escape the escape character.
+         * @param instructions the instructions.
+         * @param trailer the lines after the last instruction.
+         */
+        public Document(
+            final List<String> header,
+            final Map<String, String> directives,
+            final char escape,
+            final List<DockerfileInstruction> instructions,
+            final List<String> trailer)
+        {
+            this.m__lHeader = Collections.unmodifiableList(new ArrayList<String>(header));
+            this.m__mDirectives = Collections.unmodifiableMap(new LinkedHashMap<String, String>(directives));
+            this.m__cEscape = escape;
+            this.m__lInstructions = Collections.unmodifiableList(new ArrayList<DockerfileInstruction>(instructions));
+            this.m__lTrailer = Collections.unmodifiableList(new ArrayList<String>(trailer));
+        }
+
+        /**
+         * Retrieves the parser directive lines.
+         * @return such lines.
+         */
+        public List<String> getHeader()
+        {
+            return this.m__lHeader;
+        }
+
+        /**
+         * Retrieves the parser directives.
+         * @return such directives, by lower-case name.
+         */
+        public Map<String, String> getDirectives()
+        {
+            return this.m__mDirectives;
+        }
+
+        /**
+         * Retrieves the escape character.
+         * @return such character.
+         */
+        public char getEscape()
+        {
+            return this.m__cEscape;
+        }
+
+        /**
+         * Retrieves the instructions.
+         * @return such instructions.
+         */
+        public List<DockerfileInstruction> getInstructions()
+        {
+            return this.m__lInstructions;
+        }
+
+        /**
+         * Retrieves the lines after the last instruction.
+         * @return such lines.
+         */
+        public List<String> getTrailer()
+        {
+            return this.m__lTrailer;
+        }
+
+        /**
+         * Creates a copy with other instructions.
+         * @param instructions the instructions.
+         * @return the copy.
+         */
+        public Document withInstructions(final List<DockerfileInstruction> instructions)
+        {
+            return new Document(this.m__lHeader, this.m__mDirectives, this.m__cEscape, instructions, this.m__lTrailer);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            final StringBuilder result = new StringBuilder();
+
+            for (final String line : this.m__lHeader)
+            {
+                result.append(line).append('\n');
+            }
+
+            for (final DockerfileInstruction instruction : this.m__lInstructions)
+            {
+                result.append(instruction).append('\n');
+            }
+
+            for (final String line : this.m__lTrailer)
+            {
+                result.append(line).append('\n');
+            }
+
+            return result.toString();
+        }
+    }
+}
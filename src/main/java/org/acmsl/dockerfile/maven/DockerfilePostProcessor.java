@@ -0,0 +1,93 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfilePostProcessor.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Transforms the instructions of rendered Dockerfiles.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Transforms the instructions of rendered Dockerfiles while they are
+ * streamed to the output file. Processors are chained in the configured
+ * order: each one receives the instructions the previous one emitted, and
+ * emits any number of instructions to the next one, so it can drop, replace,
+ * insert or hold back instructions (until a later one, or the end, shows
+ * what to do with them).
+ * <p>Implementations need a public no-argument constructor. A new instance
+ * processes each Dockerfile, so they can keep state without synchronizing.</p>
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public interface DockerfilePostProcessor
+{
+    /**
+     * Receives the instructions a processor emits.
+     */
+    interface Sink
+    {
+        /**
+         * Accepts an instruction.
+         * @param instruction the instruction.
+         * @throws IOException if it cannot be written.
+         */
+        void accept(DockerfileInstruction instruction)
+            throws IOException;
+    }
+
+    /**
+     * Starts processing a Dockerfile.
+     * @param directives its parser directives, such as {@code syntax} or
+     * {@code escape}, by lower-case name.
+     * @throws IOException if the processor cannot start.
+     */
+    void start(Map<String, String> directives)
+        throws IOException;
+
+    /**
+     * Processes an instruction.
+     * @param instruction the instruction.
+     * @param next where to emit the resulting instructions.
+     * @throws IOException if they cannot be emitted.
+     */
+    void process(DockerfileInstruction instruction, Sink next)
+        throws IOException;
+
+    /**
+     * Finishes processing a Dockerfile, emitting any instruction held back.
+     * @param next where to emit them.
+     * @throws IOException if they cannot be emitted.
+     */
+    void finish(Sink next)
+        throws IOException;
+}
@@ -0,0 +1,135 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileSources.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Finds the build-context files a Dockerfile copies.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Finds the build-context paths the {@code ADD} and {@code COPY} instructions
+ * of a Dockerfile copy. Remote URLs and copies from other stages or images
+ * ({@code --from}) are not part of the context, and are left out.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public final class DockerfileSources
+{
+    /**
+     * Utility class.
+     */
+    private DockerfileSources()
+    {
+    }
+
+    /**
+     * Retrieves the context paths given Dockerfile copies.
+     * @param dockerfile the Dockerfile contents.
+     * @return such paths, in order, without a leading {@code ./}.
+     */
+    public static List<String> parse(final CharSequence dockerfile)
+    {
+        final List<String> result = new ArrayList<String>();
+
+        for (final DockerfileInstruction instruction : DockerfileParser.parse(dockerfile).getInstructions())
+        {
+            if (   (isCopy(instruction.getKeyword()))
+                && (!instruction.isHeredoc()))
+            {
+                collectSources(instruction, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether given keyword copies files from the context.
+     * @param keyword the instruction keyword.
+     * @return {@code true} for {@code ADD} and {@code COPY}.
+     */
+    protected static boolean isCopy(final String keyword)
+    {
+        final String upper = keyword.toUpperCase(Locale.US);
+
+        return ("COPY".equals(upper)) || ("ADD".equals(upper));
+    }
+
+    /**
+     * Collects the sources of an {@code ADD} or {@code COPY} instruction.
+     * @param instruction the instruction.
+     * @param sources the sources found so far.
+     */
+    protected static void collectSources(final DockerfileInstruction instruction, final List<String> sources)
+    {
+        boolean fromContext = true;
+
+        for (final String flag : instruction.getFlags())
+        {
+            if (flag.startsWith("--from="))
+            {
+                fromContext = false;
+            }
+        }
+
+        List<String> paths = instruction.getExecArguments();
+
+        if (paths == null)
+        {
+            paths = new ArrayList<String>();
+
+            for (final String token : instruction.getCommand().split("\\s+"))
+            {
+                if (!token.isEmpty())
+                {
+                    paths.add(token);
+                }
+            }
+        }
+
+        if (   (fromContext)
+            && (!paths.isEmpty()))
+        {
+            // The last path is the destination.
+            for (final String path : paths.subList(0, paths.size() - 1))
+            {
+                if (!path.contains("://"))
+                {
+                    sources.add(path.startsWith("./") ? path.substring(2) : path);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileStreamWriter.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Runs post-processors over Dockerfile text as it's written.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Writer} that tokenizes the Dockerfile written to it, runs each
+ * instruction through a chain of {@link DockerfilePostProcessor}s as soon as
+ * it's complete, and writes what comes out to another writer. Instructions
+ * no processor changes are written back byte for byte, with their comments
+ * and line terminators; new or changed ones end their lines as the first
+ * line read does.
+ * <p>{@link #finish()} must be called once everything is written, since the
+ * last instruction, and any held back by processors, are only written then.
+ * {@link #close()} does it too.</p>
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class DockerfileStreamWriter
+    extends Writer
+{
+    /**
+     * The writer receiving the processed Dockerfile.
+     */
+    private final Writer m__Output;
+
+    /**
+     * The processors.
+     */
+    private final List<DockerfilePostProcessor> m__lProcessors;
+
+    /**
+     * The sink of each processor; the last one writes to the output.
+     */
+    private final List<DockerfilePostProcessor.Sink> m__lSinks;
+
+    /**
+     * The tokenizer.
+     */
+    private final DockerfileTokenizer m__Tokenizer;
+
+    /**
+     * The number of instructions written.
+     */
+    private int m__iInstructions;
+
+    /**
+     * Whether the last line written has no terminator yet.
+     */
+    private boolean m__bOpenLine;
+
+    /**
+     * Creates a new writer.
+     * @param output the writer receiving the processed Dockerfile.
+     * @param processors the processors, in order.
+     */
+    public DockerfileStreamWriter(final Writer output, final List<DockerfilePostProcessor> processors)
+    {
+        this.m__Output = output;
+        this.m__lProcessors = new ArrayList<DockerfilePostProcessor>(processors);
+        this.m__lSinks = new ArrayList<DockerfilePostProcessor.Sink>(processors.size() + 1);
+
+        for (int index = 0; index < this.m__lProcessors.size(); index++)
+        {
+            final DockerfilePostProcessor processor = this.m__lProcessors.get(index);
+            final int next = index + 1;
+
+            this.m__lSinks.add(
+                new DockerfilePostProcessor.Sink()
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void accept(final DockerfileInstruction instruction)
+                        throws IOException
+                    {
+                        processor.process(instruction, m__lSinks.get(next));
+                    }
+                });
+        }
+
+        this.m__lSinks.add(
+            new DockerfilePostProcessor.Sink()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void accept(final DockerfileInstruction instruction)
+                    throws IOException
+                {
+                    if (instruction.getOriginal() != null)
+                    {
+                        writeText(instruction.getOriginal());
+                    }
+                    else
+                    {
+                        writeLines(instruction.getComments());
+                        writeLines(Collections.singletonList(instruction.getText()));
+                    }
+
+                    m__iInstructions++;
+                }
+            });
+
+        this.m__Tokenizer =
+            new DockerfileTokenizer(
+                new DockerfileTokenizer.Listener()
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void directives(
+                        final List<String> lines,
+                        final String text,
+                        final Map<String, String> directives,
+                        final char escape)
+                      throws IOException
+                    {
+                        writeText(text);
+
+                        for (final DockerfilePostProcessor processor : m__lProcessors)
+                        {
+                            processor.start(directives);
+                        }
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void instruction(final DockerfileInstruction instruction)
+                        throws IOException
+                    {
+                        m__lSinks.get(0).accept(instruction);
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void end(final List<String> lines, final String text)
+                        throws IOException
+                    {
+                        // Whatever a processor flushes still goes through the ones after it.
+                        for (int index = 0; index < m__lProcessors.size(); index++)
+                        {
+                            m__lProcessors.get(index).finish(m__lSinks.get(index + 1));
+                        }
+
+                        writeText(text);
+                    }
+                });
+    }
+
+    /**
+     * Retrieves the processors.
+     * @return such processors.
+     */
+    public List<DockerfilePostProcessor> getProcessors()
+    {
+        return this.m__lProcessors;
+    }
+
+    /**
+     * Retrieves the number of instructions written so far.
+     * @return such number.
+     */
+    public int getInstructions()
+    {
+        return this.m__iInstructions;
+    }
+
+    /**
+     * Writes some lines to the output, ending them as the first line read.
+     * @param lines the lines, separated by {@code \n} if they span several.
+     * @throws IOException if they cannot be written.
+     */
+    protected void writeLines(final List<String> lines)
+        throws IOException
+    {
+        final String separator = this.m__Tokenizer.getLineSeparator();
+
+        for (final String line : lines)
+        {
+            writeText(("\n".equals(separator) ? line : line.replace("\n", separator)) + separator);
+        }
+    }
+
+    /**
+     * Writes some text to the output as is, ending the last line first if
+     * it had no terminator.
+     * @param text the text.
+     * @throws IOException if it cannot be written.
+     */
+    protected void writeText(final String text)
+        throws IOException
+    {
+        if (!text.isEmpty())
+        {
+            if (this.m__bOpenLine)
+            {
+                // Only the very last line keeps lacking its terminator.
+                this.m__Output.write(this.m__Tokenizer.getLineSeparator());
+            }
+
+            this.m__Output.write(text);
+
+            final char last = text.charAt(text.length() - 1);
+
+            this.m__bOpenLine = (last != '\n') && (last != '\r');
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final char[] chars, final int offset, final int length)
+        throws IOException
+    {
+        this.m__Tokenizer.feed(chars, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final int character)
+        throws IOException
+    {
+        this.m__Tokenizer.feed((char) character);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final String text, final int offset, final int length)
+        throws IOException
+    {
+        this.m__Tokenizer.feed(text, offset, offset + length);
+    }
+
+    /**
+     * Writes the last instruction, and the ones processors held back, and
+     * flushes the output. Later calls do nothing.
+     * @throws IOException if they cannot be written.
+     */
+    public void finish()
+        throws IOException
+    {
+        this.m__Tokenizer.finish();
+        this.m__Output.flush();
+    }
+
+    /**
+     * Flushes the output. Incomplete instructions are not written until
+     * they are complete, or {@link #finish()} is called.
+     * @throws IOException if the output cannot be flushed.
+     */
+    @Override
+    public void flush()
+        throws IOException
+    {
+        this.m__Output.flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        try
+        {
+            finish();
+        }
+        finally
+        {
+            this.m__Output.close();
+        }
+    }
+}
@@ -0,0 +1,857 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileTokenizer.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Splits a stream of Dockerfile text into instructions as it arrives.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits Dockerfile text into {@link DockerfileInstruction}s as it arrives,
+ * so they can be processed while a template is still rendering. Text is fed
+ * in chunks of any size; each instruction is handed to the {@link Listener}
+ * as soon as its last line, its last continuation line, or the terminator
+ * of its last heredoc is seen. Follows Docker's rules: parser directives at
+ * the top, the escape character they may set, continuations (ignoring
+ * comment and blank lines inside them), and heredocs in {@code RUN},
+ * {@code COPY} and {@code ADD}. Lines may end with {@code \n}, {@code \r\n}
+ * or {@code \r}; the listener also gets the original text, terminators
+ * included, so it can be written back byte for byte.
+ * <p>Instances are not thread-safe, and parse a single Dockerfile.</p>
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class DockerfileTokenizer
+{
+    /**
+     * The default escape character.
+     */
+    public static final char DEFAULT_ESCAPE = '\\';
+
+    /**
+     * A parser directive.
+     */
+    protected static final Pattern DIRECTIVE_PATTERN = Pattern.compile("#\\s*([A-Za-z]+)\\s*=\\s*(\\S+)\\s*");
+
+    /**
+     * A heredoc start: {@code <<EOF}, {@code <<-EOF}, {@code <<"EOF"}.
+     */
+    protected static final Pattern HEREDOC_PATTERN = Pattern.compile("<<(-?)([\"']?)([A-Za-z_][A-Za-z0-9_]*)\\2");
+
+    /**
+     * Receives what the tokenizer finds.
+     */
+    public interface Listener
+    {
+        /**
+         * Receives the parser directives, before any instruction.
+         * @param lines the directive lines.
+         * @param text their original text, with their terminators.
+         * @param directives the directives, by lower-case name.
+         * @param escape the escape character.
+         * @throws IOException if the listener fails.
+         */
+        void directives(List<String> lines, String text, Map<String, String> directives, char escape)
+            throws IOException;
+
+        /**
+         * Receives an instruction.
+         * @param instruction the instruction.
+         * @throws IOException if the listener fails.
+         */
+        void instruction(DockerfileInstruction instruction)
+            throws IOException;
+
+        /**
+         * Receives the comments and blank lines after the last instruction.
+         * @param lines such lines.
+         * @param text their original text, with their terminators.
+         * @throws IOException if the listener fails.
+         */
+        void end(List<String> lines, String text)
+            throws IOException;
+    }
+
+    /**
+     * The listener.
+     */
+    private final Listener m__Listener;
+
+    /**
+     * The line being read.
+     */
+    private final StringBuilder m__sbLine = new StringBuilder(128);
+
+    /**
+     * The text of the current instruction.
+     */
+    private final StringBuilder m__sbText = new StringBuilder(256);
+
+    /**
+     * The current instruction, continuations joined.
+     */
+    private final StringBuilder m__sbLogical = new StringBuilder(256);
+
+    /**
+     * The original text of the lines not handed to the listener yet,
+     * terminators included.
+     */
+    private final StringBuilder m__sbOriginal = new StringBuilder(256);
+
+    /**
+     * The comments and blank lines before the current instruction.
+     */
+    private final List<String> m__lComments = new ArrayList<String>();
+
+    /**
+     * The directive lines.
+     */
+    private final List<String> m__lHeader = new ArrayList<String>();
+
+    /**
+     * The directives.
+     */
+    private final Map<String, String> m__mDirectives = new LinkedHashMap<String, String>();
+
+    /**
+     * The terminators of the heredocs still open, preceded by {@code -} if
+     * they strip leading tabs, and by {@code +} otherwise.
+     */
+    private final Deque<String> m__dHeredocs = new ArrayDeque<String>();
+
+    /**
+     * The escape character.
+     */
+    private char m__cEscape = DEFAULT_ESCAPE;
+
+    /**
+     * Whether directives are still allowed.
+     */
+    private boolean m__bHeader = true;
+
+    /**
+     * Whether the current instruction continues on the next line.
+     */
+    private boolean m__bContinued;
+
+    /**
+     * Whether the current instruction is complete, but waiting for its heredocs.
+     */
+    private boolean m__bPending;
+
+    /**
+     * The keyword of the current instruction, once complete.
+     */
+    private String m__strKeyword;
+
+    /**
+     * The arguments of the current instruction, once complete.
+     */
+    private String m__strArguments;
+
+    /**
+     * Whether the current instruction has heredocs.
+     */
+    private boolean m__bHeredoc;
+
+    /**
+     * The number of lines read.
+     */
+    private int m__iLines;
+
+    /**
+     * The line the current instruction starts at.
+     */
+    private int m__iStart;
+
+    /**
+     * Whether the previous character was a carriage return, whose line
+     * ends once it's known whether a line feed follows.
+     */
+    private boolean m__bCarriageReturn;
+
+    /**
+     * The terminator of the first line.
+     */
+    private String m__strLineSeparator;
+
+    /**
+     * Whether {@link #finish()} was called.
+     */
+    private boolean m__bFinished;
+
+    /**
+     * Creates a new tokenizer.
+     * @param listener the listener.
+     */
+    public DockerfileTokenizer(final Listener listener)
+    {
+        this.m__Listener = listener;
+    }
+
+    /**
+     * Feeds some text.
+     * @param chars the characters.
+     * @param offset where they start.
+     * @param length how many there are.
+     * @throws IOException if the listener fails.
+     */
+    public void feed(final char[] chars, final int offset, final int length)
+        throws IOException
+    {
+        for (int index = offset; index < offset + length; index++)
+        {
+            feed(chars[index]);
+        }
+    }
+
+    /**
+     * Feeds some text.
+     * @param text the text.
+     * @throws IOException if the listener fails.
+     */
+    public void feed(final CharSequence text)
+        throws IOException
+    {
+        feed(text, 0, text.length());
+    }
+
+    /**
+     * Feeds part of some text.
+     * @param text the text.
+     * @param start where the part starts.
+     * @param end where the part ends, exclusive.
+     * @throws IOException if the listener fails.
+     */
+    public void feed(final CharSequence text, final int start, final int end)
+        throws IOException
+    {
+        for (int index = start; index < end; index++)
+        {
+            feed(text.charAt(index));
+        }
+    }
+
+    /**
+     * Feeds a character.
+     * @param character the character.
+     * @throws IOException if the listener fails.
+     */
+    public void feed(final char character)
+        throws IOException
+    {
+        if (this.m__bCarriageReturn)
+        {
+            this.m__bCarriageReturn = false;
+
+            if (character == '\n')
+            {
+                endLine("\r\n");
+            }
+            else
+            {
+                endLine("\r");
+                accept(character);
+            }
+        }
+        else
+        {
+            accept(character);
+        }
+    }
+
+    /**
+     * Adds a character to the line, or ends it.
+     * @param character the character.
+     * @throws IOException if the listener fails.
+     */
+    protected void accept(final char character)
+        throws IOException
+    {
+        if (character == '\n')
+        {
+            endLine("\n");
+        }
+        else if (character == '\r')
+        {
+            this.m__bCarriageReturn = true;
+        }
+        else
+        {
+            this.m__sbLine.append(character);
+        }
+    }
+
+    /**
+     * Signals the end of the text, completing the last instruction even if
+     * it ends with an escape character or an open heredoc.
+     * @throws IOException if the listener fails.
+     */
+    public void finish()
+        throws IOException
+    {
+        if (!this.m__bFinished)
+        {
+            this.m__bFinished = true;
+
+            if (this.m__bCarriageReturn)
+            {
+                this.m__bCarriageReturn = false;
+                endLine("\r");
+            }
+            else if (this.m__sbLine.length() > 0)
+            {
+                // The last line has no terminator, and keeps having none.
+                endLine("");
+            }
+
+            endHeader();
+
+            if (this.m__bPending)
+            {
+                emit();
+            }
+            else if (this.m__bContinued)
+            {
+                complete();
+                emit();
+            }
+
+            this.m__Listener.end(new ArrayList<String>(this.m__lComments), takeOriginal());
+            this.m__lComments.clear();
+        }
+    }
+
+    /**
+     * Retrieves the escape character.
+     * @return such character, once the directives are read.
+     */
+    public char getEscape()
+    {
+        return this.m__cEscape;
+    }
+
+    /**
+     * Retrieves the terminator of the first line, for new lines to match.
+     * @return such terminator, or {@code \n} if no line has one yet.
+     */
+    public String getLineSeparator()
+    {
+        return (this.m__strLineSeparator == null) ? "\n" : this.m__strLineSeparator;
+    }
+
+    /**
+     * Retrieves the parser directives.
+     * @return such directives, by lower-case name.
+     */
+    public Map<String, String> getDirectives()
+    {
+        return Collections.unmodifiableMap(this.m__mDirectives);
+    }
+
+    /**
+     * Processes the line read so far.
+     * @param lineEnd how it ends: {@code \n}, {@code \r\n}, {@code \r},
+     * or nothing if it's the last one.
+     * @throws IOException if the listener fails.
+     */
+    protected void endLine(final String lineEnd)
+        throws IOException
+    {
+        final String line = this.m__sbLine.toString();
+        this.m__sbLine.setLength(0);
+        this.m__iLines++;
+
+        if (   (this.m__strLineSeparator == null)
+            && (!lineEnd.isEmpty()))
+        {
+            this.m__strLineSeparator = lineEnd;
+        }
+
+        // Directives end before this line is part of the original text.
+        final boolean directive = acceptDirective(line);
+
+        this.m__sbOriginal.append(line).append(lineEnd);
+
+        if (!directive)
+        {
+            if (this.m__bPending)
+            {
+                this.m__sbText.append('\n').append(line);
+
+                final String terminator = this.m__dHeredocs.peekFirst();
+                final boolean tabs = terminator.charAt(0) == '-';
+
+                if ((tabs ? stripTabs(line) : line).equals(terminator.substring(1)))
+                {
+                    this.m__dHeredocs.removeFirst();
+
+                    if (this.m__dHeredocs.isEmpty())
+                    {
+                        emit();
+                    }
+                }
+            }
+            else if (this.m__bContinued)
+            {
+                this.m__sbText.append('\n').append(line);
+
+                if (!isBlankOrComment(line))
+                {
+                    appendLogical(line);
+
+                    if (!this.m__bContinued)
+                    {
+                        complete();
+                    }
+                }
+            }
+            else if (isBlankOrComment(line))
+            {
+                this.m__lComments.add(line);
+            }
+            else
+            {
+                this.m__iStart = this.m__iLines;
+                this.m__sbText.setLength(0);
+                this.m__sbText.append(line);
+                this.m__sbLogical.setLength(0);
+                appendLogical(line);
+
+                if (!this.m__bContinued)
+                {
+                    complete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a parser directive, if still allowed.
+     * @param line the line.
+     * @return {@code true} if it was a directive.
+     * @throws IOException if the listener fails.
+     */
+    protected boolean acceptDirective(final String line)
+        throws IOException
+    {
+        boolean result = false;
+
+        if (this.m__bHeader)
+        {
+            final Matcher matcher = DIRECTIVE_PATTERN.matcher(line);
+
+            if (   (matcher.matches())
+                && (!this.m__mDirectives.containsKey(matcher.group(1).toLowerCase(Locale.US))))
+            {
+                this.m__mDirectives.put(matcher.group(1).toLowerCase(Locale.US), matcher.group(2));
+                this.m__lHeader.add(line);
+                result = true;
+            }
+            else
+            {
+                endHeader();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Ends the directives, notifying the listener.
+     * @throws IOException if the listener fails.
+     */
+    protected void endHeader()
+        throws IOException
+    {
+        if (this.m__bHeader)
+        {
+            this.m__bHeader = false;
+
+            final String escape = this.m__mDirectives.get("escape");
+
+            if (   (escape != null)
+                && (escape.length() == 1))
+            {
+                this.m__cEscape = escape.charAt(0);
+            }
+
+            this.m__Listener.directives(
+                new ArrayList<String>(this.m__lHeader), takeOriginal(), getDirectives(), this.m__cEscape);
+        }
+    }
+
+    /**
+     * Appends a line to the current instruction, checking whether it continues.
+     * @param line the line.
+     */
+    protected void appendLogical(final String line)
+    {
+        final int end = trimmedLength(line);
+
+        this.m__bContinued = (end > 0) && (line.charAt(end - 1) == this.m__cEscape);
+
+        this.m__sbLogical.append(line, 0, this.m__bContinued ? end - 1 : line.length());
+    }
+
+    /**
+     * Completes the current instruction, and hands it to the listener unless
+     * it has heredocs to wait for.
+     * @throws IOException if the listener fails.
+     */
+    protected void complete()
+        throws IOException
+    {
+        this.m__bContinued = false;
+
+        int start = 0;
+        int end = this.m__sbLogical.length();
+
+        while (   (start < end)
+               && (Character.isWhitespace(this.m__sbLogical.charAt(start))))
+        {
+            start++;
+        }
+
+        while (   (end > start)
+               && (Character.isWhitespace(this.m__sbLogical.charAt(end - 1))))
+        {
+            end--;
+        }
+
+        int space = start;
+
+        while (   (space < end)
+               && (!Character.isWhitespace(this.m__sbLogical.charAt(space))))
+        {
+            space++;
+        }
+
+        final String keyword = this.m__sbLogical.substring(start, space).toUpperCase(Locale.US);
+
+        while (   (space < end)
+               && (Character.isWhitespace(this.m__sbLogical.charAt(space))))
+        {
+            space++;
+        }
+
+        final String arguments = this.m__sbLogical.substring(space, end);
+
+        this.m__strKeyword = keyword;
+        this.m__strArguments = arguments;
+        this.m__bPending = true;
+        this.m__bHeredoc = false;
+
+        if (   ("RUN".equals(keyword))
+            || ("COPY".equals(keyword))
+            || ("ADD".equals(keyword)))
+        {
+            final Matcher matcher = HEREDOC_PATTERN.matcher(arguments);
+
+            while (matcher.find())
+            {
+                // The first character tells whether leading tabs are stripped.
+                this.m__dHeredocs.addLast(("-".equals(matcher.group(1)) ? "-" : "+") + matcher.group(3));
+                this.m__bHeredoc = true;
+            }
+        }
+
+        if (   (!this.m__bFinished)
+            && (this.m__dHeredocs.isEmpty()))
+        {
+            emit();
+        }
+    }
+
+    /**
+     * Hands the completed instruction to the listener.
+     * @throws IOException if the listener fails.
+     */
+    protected void emit()
+        throws IOException
+    {
+        endHeader();
+
+        final DockerfileInstruction instruction =
+            new DockerfileInstruction(
+                this.m__strKeyword,
+                this.m__strArguments,
+                this.m__sbText.toString(),
+                this.m__lComments,
+                this.m__iStart,
+                this.m__bHeredoc,
+                takeOriginal());
+
+        this.m__bPending = false;
+        this.m__dHeredocs.clear();
+        this.m__lComments.clear();
+
+        this.m__Listener.instruction(instruction);
+    }
+
+    /**
+     * Retrieves the original text of the lines read since last called.
+     * @return such text, terminators included.
+     */
+    protected String takeOriginal()
+    {
+        final String result = this.m__sbOriginal.toString();
+
+        this.m__sbOriginal.setLength(0);
+
+        return result;
+    }
+
+    /**
+     * Checks whether a line is blank or a comment.
+     * @param line the line.
+     * @return {@code true} in such case.
+     */
+    protected static boolean isBlankOrComment(final String line)
+    {
+        int index = 0;
+
+        while (   (index < line.length())
+               && (Character.isWhitespace(line.charAt(index))))
+        {
+            index++;
+        }
+
+        return (index == line.length()) || (line.charAt(index) == '#');
+    }
+
+    /**
+     * Retrieves the length of a line without trailing whitespace.
+     * @param line the line.
+     * @return such length.
+     */
+    protected static int trimmedLength(final CharSequence line)
+    {
+        int result = line.length();
+
+        while (   (result > 0)
+               && (Character.isWhitespace(line.charAt(result - 1))))
+        {
+            result--;
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the leading tabs of a line, as {@code <<-} heredocs do.
+     * @param line the line.
+     * @return the line without them.
+     */
+    protected static String stripTabs(final String line)
+    {
+        int index = 0;
+
+        while (   (index < line.length())
+               && (line.charAt(index) == '\t'))
+        {
+            index++;
+        }
+
+        return line.substring(index);
+    }
+
+    /**
+     * Parses a JSON array of strings, as used by the exec form.
+     * @param json the array.
+     * @return its strings, or {@code null} if it's not a valid array of strings.
+     */
+    public static List<String> parseJsonArray(final CharSequence json)
+    {
+        List<String> result = new ArrayList<String>();
+
+        final StringBuilder current = new StringBuilder();
+
+        boolean quoted = false;
+        boolean expectValue = true;
+        boolean closed = false;
+        int index = trimmedStart(json, 0);
+
+        if (   (index >= json.length())
+            || (json.charAt(index) != '['))
+        {
+            result = null;
+        }
+        else
+        {
+            index++;
+        }
+
+        while (   (result != null)
+               && (!closed)
+               && (index < json.length()))
+        {
+            final char character = json.charAt(index);
+
+            if (quoted)
+            {
+                if (character == '"')
+                {
+                    result.add(current.toString());
+                    current.setLength(0);
+                    quoted = false;
+                }
+                else if (   (character == '\\')
+                         && (index + 1 < json.length()))
+                {
+                    index++;
+                    index = unescape(json, index, current);
+                }
+                else
+                {
+                    current.append(character);
+                }
+            }
+            else if (Character.isWhitespace(character))
+            {
+                // Insignificant whitespace.
+            }
+            else if (   (character == '"')
+                     && (expectValue))
+            {
+                quoted = true;
+                expectValue = false;
+            }
+            else if (   (character == ',')
+                     && (!expectValue))
+            {
+                expectValue = true;
+            }
+            else if (   (character == ']')
+                     && (   (!expectValue)
+                         || (result.isEmpty())))
+            {
+                closed = true;
+            }
+            else
+            {
+                result = null;
+            }
+
+            index++;
+        }
+
+        if (   (result != null)
+            && (   (!closed)
+                || (trimmedStart(json, index) < json.length())))
+        {
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Appends an escaped JSON character.
+     * @param json the JSON text.
+     * @param index the position of the character after the backslash.
+     * @param current where to append it.
+     * @return the position of the last character of the escape sequence.
+     */
+    protected static int unescape(final CharSequence json, final int index, final StringBuilder current)
+    {
+        int result = index;
+
+        final char escaped = json.charAt(index);
+
+        switch (escaped)
+        {
+            case 'n':
+                current.append('\n');
+                break;
+            case 't':
+                current.append('\t');
+                break;
+            case 'r':
+                current.append('\r');
+                break;
+            case 'b':
+                current.append('\b');
+                break;
+            case 'f':
+                current.append('\f');
+                break;
+            case 'u':
+                if (   (index + 4 < json.length())
+                    && (json.subSequence(index + 1, index + 5).toString().matches("[0-9A-Fa-f]{4}")))
+                {
+                    current.append((char) Integer.parseInt(json.subSequence(index + 1, index + 5).toString(), 16));
+                    result = index + 4;
+                }
+                else
+                {
+                    current.append(escaped);
+                }
+                break;
+            default:
+                current.append(escaped);
+                break;
+        }
+
+        return result;
+    }
+
+    /**
+     * Skips whitespace.
+     * @param text the text.
+     * @param index where to start.
+     * @return the position of the first character that's not whitespace.
+     */
+    protected static int trimmedStart(final CharSequence text, final int index)
+    {
+        int result = index;
+
+        while (   (result < text.length())
+               && (Character.isWhitespace(text.charAt(result))))
+        {
+            result++;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileValidateMojo.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Compiles the Dockerfile templates without rendering them.
+ */
+package org.acmsl.dockerfile.maven;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles every configured template, and the groups and packs it imports,
+ * in parallel and without rendering. Reports compile errors, includes of
+ * undefined templates and a missing {@code source} as errors, and references
+ * the model does not provide as warnings, with file, line and column.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@Mojo(name = Literals.VALIDATE_L,
+      defaultPhase = LifecyclePhase.VALIDATE,
+      threadSafe = true)
+public class DockerfileValidateMojo extends DockerfileMojo {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DockerfileValidateMojo.class);
+
+  /**
+   * Whether warnings, such as references the model does not provide, fail the build too.
+   */
+  @Parameter(property = Literals.DOCKERFILE_VALIDATE_FAIL_ON_WARNINGS, defaultValue = "false")
+  private boolean failOnWarnings;
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    Charset cs = (encoding == null || encoding.isBlank())
+        ? Charset.defaultCharset()
+        : Charset.forName(encoding);
+
+    String ownVersion = (pluginVersion == null) ? Literals.UNKNOWN_L : pluginVersion;
+    List<DockerfileEntry> entries = retrieveEntries(template, classifier, dockerfiles);
+    List<File> packs = resolveTemplatePacks(project, templatePacks);
+    Set<String> modelNames = new TreeSet<>(retrieveModel(project, ownVersion).keySet());
+
+    if (matrix != null && !matrix.isEmpty()) {
+      modelNames.add(Literals.MATRIX_L);
+    }
+
+    ExecutorService executor = ThreadPools.newBoundedExecutor(
+        ThreadPools.retrieveParallelism(entries.size(), parallelism), "dockerfile-validate");
+    int errors = 0;
+    int warnings = 0;
+
+    try {
+      List<Future<List<TemplateProblem>>> results = new ArrayList<>(entries.size());
+
+      for (DockerfileEntry entry : entries) {
+        results.add(executor.submit(() ->
+            new DockerfileGenerator(Collections.emptyMap(), entry.getTemplate(), cs, TemplateCache.getInstance(), packs)
+                .validate(modelNames)));
+      }
+
+      for (int index = 0; index < entries.size(); index++) {
+        DockerfileEntry entry = entries.get(index);
+        List<TemplateProblem> problems;
+
+        try {
+          problems = results.get(index).get();
+        } catch (final ExecutionException e) {
+          problems = Collections.singletonList(
+              new TemplateProblem(entry.getTemplate().getPath(), 0, 0, String.valueOf(e.getCause()), false));
+        }
+
+        for (TemplateProblem problem : problems) {
+          if (problem.isWarning()) {
+            warnings++;
+            LOGGER.warn(problem.toString());
+          } else {
+            errors++;
+            LOGGER.error(problem.toString());
+          }
+        }
+
+        if (problems.isEmpty()) {
+          LOGGER.info("Template " + entry.getTemplate() + " (" + entry.getClassifier() + ") is valid.");
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("Interrupted while validating templates", e);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    if (errors > 0 || (failOnWarnings && warnings > 0)) {
+      throw new MojoExecutionException(
+          errors + " error(s) and " + warnings + " warning(s) in " + entries.size() + " template(s)");
+    }
+  }
+}
@@ -0,0 +1,249 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileWatchMojo.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Re-renders Dockerfiles whenever their templates or the POM change.
+ */
+package org.acmsl.dockerfile.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps running, re-rendering each Dockerfile within milliseconds of a change
+ * to its template, the groups and packs it imports, or the POM, instead of
+ * paying Maven's startup for every edit. Compiled groups stay warm in the
+ * {@link TemplateCache}; changes are debounced, and only the affected
+ * Dockerfiles are rendered again.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@Mojo(name = Literals.WATCH_L,
+      threadSafe = true)
+public class DockerfileWatchMojo extends DockerfileMojo {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DockerfileWatchMojo.class);
+
+  /**
+   * How long files must be quiet, in milliseconds, before re-rendering.
+   */
+  @Parameter(property = Literals.DOCKERFILE_WATCH_DEBOUNCE, defaultValue = "100")
+  private long debounce;
+
+  /**
+   * Stop after this many milliseconds without changes. Zero to watch until interrupted.
+   */
+  @Parameter(property = Literals.DOCKERFILE_WATCH_TIMEOUT, defaultValue = "0")
+  private long timeout;
+
+  @Component
+  private ProjectBuilder projectBuilder;
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    if (!outputDir.exists() && !outputDir.mkdirs()) {
+      LOGGER.warn("Cannot create output folder: " + outputDir);
+    }
+
+    Charset cs = (encoding == null || encoding.isBlank())
+        ? Charset.defaultCharset()
+        : Charset.forName(encoding);
+
+    String ownVersion = (pluginVersion == null) ? Literals.UNKNOWN_L : pluginVersion;
+    List<DockerfileEntry> entries = retrieveEntries(template, classifier, dockerfiles);
+    List<File> packs = resolveTemplatePacks(project, templatePacks);
+    File pom = project.getFile();
+    MavenProject current = project;
+
+    try (TemplateWatcher<DockerfileEntry> watcher = new TemplateWatcher<>(debounce)) {
+      render(entries, current, ownVersion, cs, packs, pom, watcher, System.nanoTime());
+
+      LOGGER.info(watcher + ". Press Ctrl+C to stop.");
+
+      while (true) {
+        Set<File> changes = watcher.awaitChanges(timeout);
+
+        if (changes.isEmpty()) {
+          LOGGER.info("No changes in " + timeout + " ms, stopping.");
+          break;
+        }
+
+        Collection<DockerfileEntry> affected = watcher.retrieveTargets(changes);
+
+        if (pom != null && changes.contains(pom.toPath().toAbsolutePath().normalize().toFile())) {
+          current = reloadProject(current);
+          affected = entries;
+        }
+
+        LOGGER.info("Changed: " + changes);
+        render(affected, current, ownVersion, cs, packs, pom, watcher, watcher.getFirstEventNanos());
+      }
+    } catch (final IOException e) {
+      throw new MojoExecutionException("Cannot watch templates", e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOGGER.info("Interrupted, stopping.");
+    }
+  }
+
+    /**
+     * Renders given Dockerfiles, and watches the files they depend on.
+     * Failures are logged, so that fixing the template triggers a new attempt.
+     * @param entries the Dockerfiles.
+     * @param target the project.
+     * @param ownVersion my own version.
+     * @param encoding the file encoding.
+     * @param packs the template packs.
+     * @param pom the POM, watched for every Dockerfile.
+     * @param watcher the watcher.
+     * @param changed when the change was detected, or the goal started.
+     * @throws IOException if the files cannot be watched.
+     */
+    protected void render(
+        final Collection<DockerfileEntry> entries,
+        final MavenProject target,
+        final String ownVersion,
+        final Charset encoding,
+        final List<File> packs,
+        final File pom,
+        final TemplateWatcher<DockerfileEntry> watcher,
+        final long changed)
+      throws IOException
+    {
+        final LazyTemplateModel model = retrieveModel(target, ownVersion);
+
+        for (final DockerfileEntry entry : entries)
+        {
+            final GenerationMetrics metrics =
+                new GenerationMetrics(target.getGroupId() + ":" + target.getArtifactId(), entry.getClassifier());
+
+            try
+            {
+                final File dockerfile = generate(entry, target, model, ownVersion, encoding, packs, metrics);
+
+                LOGGER.info(
+                    (metrics.isUpToDate() ? "Unchanged " : "Rendered ") + dockerfile + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(metrics.getTotalNanos()) + " ms ("
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - changed) + " ms end to end)");
+            }
+            catch (final IOException | RuntimeException cannotGenerate)
+            {
+                LOGGER.error("Failed to generate " + entry + ": " + cannotGenerate);
+            }
+
+            watcher.watch(entry, retrieveWatchedFiles(entry, encoding, packs, pom));
+        }
+
+        flushChecksums();
+    }
+
+    /**
+     * Retrieves the files a Dockerfile depends on.
+     * @param entry the Dockerfile.
+     * @param encoding the file encoding.
+     * @param packs the template packs.
+     * @param pom the POM.
+     * @return the template, the local groups and packs it imports, and the POM.
+     */
+    protected List<File> retrieveWatchedFiles(
+        final DockerfileEntry entry,
+        final Charset encoding,
+        final List<File> packs,
+        final File pom)
+    {
+        final List<File> result = new ArrayList<File>();
+
+        result.add(entry.getTemplate());
+
+        try
+        {
+            result.addAll(
+                new DockerfileGenerator(
+                        Collections.<String, Object>emptyMap(),
+                        entry.getTemplate(),
+                        encoding,
+                        TemplateCache.getInstance(),
+                        packs)
+                    .retrieveTemplateDependencies());
+        }
+        catch (final RuntimeException cannotLoad)
+        {
+            LOGGER.debug("Cannot find the dependencies of " + entry, cannotLoad);
+        }
+
+        if (pom != null)
+        {
+            result.add(pom);
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds the project again from its POM, so templates see the changes.
+     * @param previous the project as it was.
+     * @return the new project, or the previous one if the POM is not valid.
+     */
+    protected MavenProject reloadProject(final MavenProject previous)
+    {
+        MavenProject result = previous;
+
+        final ProjectBuildingRequest request = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+        request.setRepositorySession(session.getRepositorySession());
+        request.setResolveDependencies(false);
+
+        try
+        {
+            result = projectBuilder.build(previous.getFile(), request).getProject();
+        }
+        catch (final ProjectBuildingException invalidPom)
+        {
+            LOGGER.error("Cannot reload " + previous.getFile() + ", keeping the previous model: " + invalidPom.getMessage());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,321 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: Dockerignore.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Builds and evaluates .dockerignore patterns.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A {@code .dockerignore} file. It can be derived from the sources a
+ * Dockerfile copies, so the daemon only receives what the build uses, and
+ * evaluated the way docker does: the last matching pattern wins, and a
+ * pattern matching a folder matches everything inside it.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class Dockerignore
+{
+    /**
+     * The extension of Dockerfile-specific ignore files, as in {@code Dockerfile.dockerignore}.
+     */
+    public static final String EXTENSION = ".dockerignore";
+
+    /**
+     * The patterns, in order.
+     */
+    private final List<String> m__lLines;
+
+    /**
+     * The compiled patterns, in order.
+     */
+    private final List<Pattern> m__lPatterns;
+
+    /**
+     * Whether each pattern is an exception ({@code !pattern}).
+     */
+    private final List<Boolean> m__lExceptions;
+
+    /**
+     * Creates a new instance.
+     * @param lines the lines of the file, including comments.
+     */
+    public Dockerignore(final List<String> lines)
+    {
+        this.m__lLines = Collections.unmodifiableList(new ArrayList<String>(lines));
+        this.m__lPatterns = new ArrayList<Pattern>();
+        this.m__lExceptions = new ArrayList<Boolean>();
+
+        for (final String line : lines)
+        {
+            String pattern = line.trim();
+
+            if (   (pattern.isEmpty())
+                || (pattern.startsWith("#")))
+            {
+                continue;
+            }
+
+            final boolean exception = pattern.startsWith("!");
+
+            if (exception)
+            {
+                pattern = pattern.substring(1).trim();
+            }
+
+            pattern = clean(pattern);
+
+            if (!pattern.isEmpty())
+            {
+                this.m__lPatterns.add(compile(pattern));
+                this.m__lExceptions.add(exception);
+            }
+        }
+    }
+
+    /**
+     * Derives the ignore file that keeps only what a Dockerfile copies.
+     * @param sources the context paths the Dockerfile copies, as found by {@link DockerfileSources}.
+     * @param dockerfile the Dockerfile name, for the header.
+     * @return such file.
+     */
+    public static Dockerignore generate(final List<String> sources, final String dockerfile)
+    {
+        final List<String> lines = new ArrayList<String>();
+
+        lines.add("# Generated by " + Literals.DOCKERFILE_MAVEN_PLUGIN + " from the ADD/COPY sources of " + dockerfile);
+        lines.add("**");
+
+        final Set<String> kept = new LinkedHashSet<String>();
+
+        for (final String source : sources)
+        {
+            final String path = clean(source);
+
+            if (path.isEmpty())
+            {
+                // The whole context is copied: nothing can be ignored.
+                kept.clear();
+                lines.clear();
+                lines.add("# " + dockerfile + " copies the whole context");
+                break;
+            }
+
+            kept.add(path);
+        }
+
+        for (final String path : kept)
+        {
+            lines.add("!" + path);
+        }
+
+        return new Dockerignore(lines);
+    }
+
+    /**
+     * Retrieves the lines of the file.
+     * @return such lines.
+     */
+    public List<String> getLines()
+    {
+        return this.m__lLines;
+    }
+
+    /**
+     * Checks whether given context path is left out of the context.
+     * @param path the path, relative to the context, with {@code /} separators.
+     * @return {@code true} in such case.
+     */
+    public boolean isExcluded(final String path)
+    {
+        boolean result = false;
+
+        final String cleaned = clean(path);
+
+        for (int index = 0; index < this.m__lPatterns.size(); index++)
+        {
+            if (matches(this.m__lPatterns.get(index), cleaned))
+            {
+                result = !this.m__lExceptions.get(index);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether a pattern matches a path, or any of its parent folders.
+     * @param pattern the pattern.
+     * @param path the path.
+     * @return {@code true} in such case.
+     */
+    protected boolean matches(final Pattern pattern, final String path)
+    {
+        boolean result = pattern.matcher(path).matches();
+
+        int slash = path.lastIndexOf('/');
+
+        while (   (!result)
+               && (slash > 0))
+        {
+            result = pattern.matcher(path.substring(0, slash)).matches();
+            slash = path.lastIndexOf('/', slash - 1);
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes leading {@code ./} and {@code /}, and trailing slashes.
+     * @param path the path or pattern.
+     * @return the cleaned one.
+     */
+    protected static String clean(final String path)
+    {
+        String result = path.trim().replace('\\', '/');
+
+        boolean changed = true;
+
+        while (changed)
+        {
+            changed = false;
+
+            if (result.startsWith("./"))
+            {
+                result = result.substring(2);
+                changed = true;
+            }
+            else if (result.startsWith("/"))
+            {
+                result = result.substring(1);
+                changed = true;
+            }
+        }
+
+        while (result.endsWith("/"))
+        {
+            result = result.substring(0, result.length() - 1);
+        }
+
+        return ".".equals(result) ? "" : result;
+    }
+
+    /**
+     * Compiles a pattern: {@code **} matches any number of folders, {@code *}
+     * and {@code ?} anything but a separator, and {@code [...]} a class.
+     * @param pattern the pattern.
+     * @return the regular expression.
+     */
+    protected static Pattern compile(final String pattern)
+    {
+        final StringBuilder regex = new StringBuilder("^");
+
+        for (int index = 0; index < pattern.length(); index++)
+        {
+            final char character = pattern.charAt(index);
+
+            if (character == '*')
+            {
+                if (   (index + 1 < pattern.length())
+                    && (pattern.charAt(index + 1) == '*'))
+                {
+                    index++;
+
+                    if (   (index + 1 < pattern.length())
+                        && (pattern.charAt(index + 1) == '/'))
+                    {
+                        // "**/" matches zero or more folders.
+                        index++;
+                        regex.append("(.*/)?");
+                    }
+                    else
+                    {
+                        regex.append(".*");
+                    }
+                }
+                else
+                {
+                    regex.append("[^/]*");
+                }
+            }
+            else if (character == '?')
+            {
+                regex.append("[^/]");
+            }
+            else if (character == '[')
+            {
+                final int end = pattern.indexOf(']', index + 1);
+
+                if (end < 0)
+                {
+                    regex.append("\\[");
+                }
+                else
+                {
+                    final String range = pattern.substring(index + 1, end);
+
+                    // Both [!a-z] and [^a-z] negate a class.
+                    regex.append('[').append(range.startsWith("!") ? "^" + range.substring(1) : range).append(']');
+                    index = end;
+                }
+            }
+            else
+            {
+                regex.append(Pattern.quote(String.valueOf(character)));
+            }
+        }
+
+        return Pattern.compile(regex.append('$').toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder result = new StringBuilder();
+
+        for (final String line : this.m__lLines)
+        {
+            result.append(line).append('\n');
+        }
+
+        return result.toString();
+    }
+}
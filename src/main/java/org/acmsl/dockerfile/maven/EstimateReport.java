@@ -0,0 +1,228 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: EstimateReport.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Writes Dockerfile estimates per module, and sums them up for the reactor.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Writes {@link DockerfileEstimator.Estimate}s as JSON, one file per module,
+ * and gathers them for the whole reactor so that they can be summarized as
+ * a table.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public final class EstimateReport
+{
+    /**
+     * The name of the per-module report.
+     */
+    public static final String FILE_NAME = "dockerfile-estimate.json";
+
+    /**
+     * The estimates of each reactor, by session.
+     */
+    private static final Map<Object, List<DockerfileEstimator.Estimate>> REACTORS =
+        new WeakHashMap<Object, List<DockerfileEstimator.Estimate>>();
+
+    /**
+     * Utility class.
+     */
+    private EstimateReport()
+    {
+    }
+
+    /**
+     * Writes the report of a module.
+     * @param file the report file.
+     * @param module the module.
+     * @param estimates the estimates of its Dockerfiles.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(final File file, final String module, final List<DockerfileEstimator.Estimate> estimates)
+        throws IOException
+    {
+        final StringBuilder json = new StringBuilder();
+
+        long bytes = 0;
+
+        json.append("{\"module\":").append(GenerationMetrics.quote(module)).append(",\"dockerfiles\":[");
+
+        for (int index = 0; index < estimates.size(); index++)
+        {
+            if (index > 0)
+            {
+                json.append(',');
+            }
+
+            estimates.get(index).toJson(json);
+            bytes += estimates.get(index).getImageBytes();
+        }
+
+        json.append("],\"imageBytes\":").append(bytes).append("}\n");
+
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        Files.write(file.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records the estimates of a module.
+     * @param reactor the reactor, usually the Maven session.
+     * @param estimates the estimates.
+     */
+    public static void record(final Object reactor, final List<DockerfileEstimator.Estimate> estimates)
+    {
+        synchronized (REACTORS)
+        {
+            List<DockerfileEstimator.Estimate> recorded = REACTORS.get(reactor);
+
+            if (recorded == null)
+            {
+                recorded = new ArrayList<DockerfileEstimator.Estimate>();
+                REACTORS.put(reactor, recorded);
+            }
+
+            recorded.addAll(estimates);
+        }
+    }
+
+    /**
+     * Retrieves the estimates recorded for a reactor.
+     * @param reactor the reactor.
+     * @return such estimates.
+     */
+    public static List<DockerfileEstimator.Estimate> retrieve(final Object reactor)
+    {
+        final List<DockerfileEstimator.Estimate> result;
+
+        synchronized (REACTORS)
+        {
+            final List<DockerfileEstimator.Estimate> recorded = REACTORS.get(reactor);
+
+            result =
+                (recorded == null)
+                ? Collections.<DockerfileEstimator.Estimate>emptyList()
+                : new ArrayList<DockerfileEstimator.Estimate>(recorded);
+        }
+
+        return result;
+    }
+
+    /**
+     * Formats given estimates as a table, one row per Dockerfile, plus totals.
+     * @param estimates the estimates.
+     * @return the table.
+     */
+    public static String summarize(final List<DockerfileEstimator.Estimate> estimates)
+    {
+        final StringBuilder result = new StringBuilder();
+
+        final String format = "%-40s %-20s %7s %7s %12s %8s %8s %8s %8s %12s%n";
+
+        result.append(
+            String.format(
+                Locale.US, format, "Module", "Dockerfile", "layers", "image", "bytes", "unknown",
+                "fetches", "busters", "rebuilt", "rebuilt bytes"));
+
+        final long[] totals = new long[8];
+
+        for (final DockerfileEstimator.Estimate estimate : estimates)
+        {
+            final long[] row =
+                new long[]
+                {
+                    estimate.getLayers(),
+                    estimate.getImageLayers(),
+                    estimate.getImageBytes(),
+                    estimate.getUnknownLayers(),
+                    estimate.getNetworkFetches(),
+                    estimate.getCacheBusters(),
+                    estimate.getRebuiltLayers(),
+                    estimate.getRebuiltBytes()
+                };
+
+            for (int index = 0; index < row.length; index++)
+            {
+                totals[index] += row[index];
+            }
+
+            result.append(
+                format(
+                    format,
+                    MetricsReport.abbreviate(estimate.getModule(), 40),
+                    MetricsReport.abbreviate(estimate.getClassifier(), 20),
+                    row));
+        }
+
+        result.append(format(format, "Total (" + estimates.size() + " Dockerfiles)", "", totals));
+
+        return result.toString();
+    }
+
+    /**
+     * Formats a row.
+     * @param format the format.
+     * @param module the module.
+     * @param classifier the classifier.
+     * @param values the layers, image layers, bytes, unknown layers, fetches,
+     * busters, rebuilt layers and rebuilt bytes.
+     * @return the row.
+     */
+    protected static String format(final String format, final String module, final String classifier, final long[] values)
+    {
+        return
+            String.format(
+                Locale.US,
+                format,
+                module,
+                classifier,
+                values[0],
+                values[1],
+                ContextAnalyzer.formatBytes(values[2]),
+                values[3],
+                values[4],
+                values[5],
+                values[6],
+                ContextAnalyzer.formatBytes(values[7]));
+    }
+}
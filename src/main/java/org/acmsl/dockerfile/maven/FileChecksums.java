@@ -0,0 +1,226 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: FileChecksums.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Checksums of project files, computed on first access.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * SHA-256 checksums of project files, keyed by their path relative to the
+ * project directory, as in {@code <C.checksums.("target/app.jar")>}. Each file
+ * is only read the first time a template asks for it, and not even then if
+ * the {@link ChecksumService} remembers it unchanged since an earlier build,
+ * or the file was {@link #prefetch(Collection) prefetched} before rendering.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public class FileChecksums
+    extends AbstractMap<String, String>
+{
+    /**
+     * The directory relative paths are resolved against.
+     */
+    private final File m__BaseDir;
+
+    /**
+     * The service computing the checksums.
+     */
+    private final ChecksumService m__Service;
+
+    /**
+     * The checksums computed so far.
+     */
+    private final ConcurrentMap<String, String> m__mChecksums = new ConcurrentHashMap<String, String>();
+
+    /**
+     * The checksums computed ahead of rendering, by file.
+     */
+    private final ConcurrentMap<File, String> m__mPrefetched = new ConcurrentHashMap<File, String>();
+
+    /**
+     * Creates a new instance, remembering checksums in memory only.
+     * @param baseDir the directory relative paths are resolved against.
+     */
+    public FileChecksums(final File baseDir)
+    {
+        this(baseDir, new ChecksumService(null));
+    }
+
+    /**
+     * Creates a new instance.
+     * @param baseDir the directory relative paths are resolved against.
+     * @param service the service computing the checksums.
+     */
+    public FileChecksums(final File baseDir, final ChecksumService service)
+    {
+        this.m__BaseDir = baseDir;
+        this.m__Service = service;
+    }
+
+    /**
+     * Retrieves the directory relative paths are resolved against.
+     * @return such directory.
+     */
+    public File getBaseDir()
+    {
+        return this.m__BaseDir;
+    }
+
+    /**
+     * Retrieves the service computing the checksums.
+     * @return such service.
+     */
+    public ChecksumService getService()
+    {
+        return this.m__Service;
+    }
+
+    /**
+     * Resolves given path.
+     * @param path the path.
+     * @return the file.
+     */
+    protected File resolve(final String path)
+    {
+        final File file = new File(path);
+
+        return file.isAbsolute() ? file : new File(this.m__BaseDir, path);
+    }
+
+    /**
+     * Computes, in parallel, the checksums of the files templates are
+     * expected to ask for, so that rendering only looks them up. They are
+     * not reported by {@link #getFiles()} unless asked for.
+     * @param files the files; those that do not exist are skipped.
+     * @throws IOException if any file cannot be read.
+     */
+    public void prefetch(final Collection<File> files)
+        throws IOException
+    {
+        final Map<File, String> digests = this.m__Service.digestAll(files);
+
+        for (final Map.Entry<File, String> digest : digests.entrySet())
+        {
+            this.m__mPrefetched.put(digest.getKey().getAbsoluteFile(), digest.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(final Object path)
+    {
+        return
+               (path instanceof String)
+            && (resolve((String) path).isFile());
+    }
+
+    /**
+     * Retrieves the checksum of a file, prefetched or computed on first access.
+     * @param path the path.
+     * @return the SHA-256 checksum, or {@code null} if the file does not exist.
+     * @throws UncheckedIOException if the file cannot be read.
+     */
+    @Override
+    public String get(final Object path)
+    {
+        String result = null;
+
+        if (containsKey(path))
+        {
+            result = this.m__mChecksums.get(path);
+
+            if (result == null)
+            {
+                final File file = resolve((String) path);
+
+                result = this.m__mPrefetched.get(file.getAbsoluteFile());
+
+                if (result == null)
+                {
+                    try
+                    {
+                        result = this.m__Service.digest(file);
+                    }
+                    catch (final IOException cannotRead)
+                    {
+                        throw new UncheckedIOException(cannotRead);
+                    }
+                }
+
+                this.m__mChecksums.putIfAbsent((String) path, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the files whose checksums have been asked for.
+     * @return such files.
+     */
+    public Set<File> getFiles()
+    {
+        final Set<File> result = new TreeSet<File>();
+
+        for (final String path : this.m__mChecksums.keySet())
+        {
+            result.add(resolve(path));
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the checksums computed so far.
+     * @return such entries.
+     */
+    @Override
+    public Set<Map.Entry<String, String>> entrySet()
+    {
+        return Collections.unmodifiableMap(new TreeMap<String, String>(this.m__mChecksums)).entrySet();
+    }
+}
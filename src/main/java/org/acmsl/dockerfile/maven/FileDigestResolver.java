@@ -0,0 +1,111 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: FileDigestResolver.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Resolves image digests from a local properties file.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+
+/**
+ * Resolves image digests from a properties file mapping each reference to its
+ * digest, as in {@code acmsl/tomcat\:201410=sha256:...}. It stands in for the
+ * registry in tests, and in builds that must not reach any registry at all.
+ * The file is read on each lookup, so edits are seen immediately.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class FileDigestResolver
+    implements ImageDigestResolver
+{
+    /**
+     * The file.
+     */
+    private final File m__File;
+
+    /**
+     * Creates a new resolver.
+     * @param file the properties file.
+     */
+    public FileDigestResolver(final File file)
+    {
+        this.m__File = file;
+    }
+
+    /**
+     * Retrieves the file.
+     * @return such file.
+     */
+    public File getFile()
+    {
+        return this.m__File;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String resolve(final String reference)
+        throws IOException
+    {
+        final Properties digests = new Properties();
+
+        try (Reader reader = Files.newBufferedReader(this.m__File.toPath(), StandardCharsets.UTF_8))
+        {
+            digests.load(reader);
+        }
+
+        final String result = digests.getProperty(reference);
+
+        if (   (result == null)
+            || (result.trim().isEmpty()))
+        {
+            throw new IOException("No digest for " + reference + " in " + this.m__File);
+        }
+
+        return result.trim();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return "file:" + this.m__File;
+    }
+}
@@ -0,0 +1,680 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: GenerationCache.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Content-addressed cache of generated Dockerfiles, shared on disk.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Content-addressed cache of generated Dockerfiles, shared on disk by every
+ * build using the same folder: typically, all workspaces of a CI agent
+ * sharing {@code ~/.m2}. Entries are keyed by a digest of the template
+ * sources, the plugin version, the encoding and the model values the
+ * template uses, none of which depend on where the project is checked out.
+ * The folder is bounded in size, evicting the least recently used entries;
+ * a lock file serializes changes among Maven processes.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class GenerationCache
+{
+    /**
+     * The default maximum size, in bytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The default folder, relative to the local repository.
+     */
+    public static final String DEFAULT_FOLDER = ".cache/" + Literals.DOCKERFILE_MAVEN_PLUGIN;
+
+    /**
+     * The lock file.
+     */
+    protected static final String LOCK_FILE = ".lock";
+
+    /**
+     * The extension of the entries.
+     */
+    protected static final String ENTRY_EXTENSION = ".dockerfile";
+
+    /**
+     * What replaces the project folder in descriptions.
+     */
+    protected static final String BASEDIR_PLACEHOLDER = "${basedir}";
+
+    /**
+     * The caches in use, by folder, so that all modules share statistics.
+     */
+    private static final ConcurrentMap<Path, GenerationCache> CACHES = new ConcurrentHashMap<Path, GenerationCache>();
+
+    /**
+     * The folder.
+     */
+    private final Path m__Root;
+
+    /**
+     * The maximum size, in bytes.
+     */
+    private final long m__lMaxBytes;
+
+    /**
+     * Serializes changes to the folder.
+     */
+    private final LockedFile m__Lock;
+
+    /**
+     * The number of hits.
+     */
+    private final AtomicLong m__lHits = new AtomicLong();
+
+    /**
+     * The number of misses.
+     */
+    private final AtomicLong m__lMisses = new AtomicLong();
+
+    /**
+     * The number of stored entries.
+     */
+    private final AtomicLong m__lStores = new AtomicLong();
+
+    /**
+     * The number of evicted entries.
+     */
+    private final AtomicLong m__lEvictions = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     * @param root the folder.
+     * @param maxBytes the maximum size.
+     */
+    public GenerationCache(final File root, final long maxBytes)
+    {
+        this.m__Root = root.toPath().toAbsolutePath().normalize();
+        this.m__lMaxBytes = Math.max(0, maxBytes);
+
+        this.m__Lock = new LockedFile(this.m__Root.resolve(LOCK_FILE));
+    }
+
+    /**
+     * Retrieves the cache of a folder, shared within this process.
+     * @param root the folder.
+     * @param maxBytes the maximum size, if the cache is not in use yet.
+     * @return such cache.
+     */
+    public static GenerationCache retrieve(final File root, final long maxBytes)
+    {
+        final Path key = root.toPath().toAbsolutePath().normalize();
+
+        GenerationCache result = CACHES.get(key);
+
+        if (result == null)
+        {
+            final GenerationCache cache = new GenerationCache(root, maxBytes);
+
+            result = CACHES.putIfAbsent(key, cache);
+
+            if (result == null)
+            {
+                result = cache;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the folder.
+     * @return such folder.
+     */
+    public File getRoot()
+    {
+        return this.m__Root.toFile();
+    }
+
+    /**
+     * Retrieves the maximum size.
+     * @return such size, in bytes.
+     */
+    public long getMaxBytes()
+    {
+        return this.m__lMaxBytes;
+    }
+
+    /**
+     * Retrieves the number of hits.
+     * @return such number.
+     */
+    public long getHits()
+    {
+        return this.m__lHits.get();
+    }
+
+    /**
+     * Retrieves the number of misses.
+     * @return such number.
+     */
+    public long getMisses()
+    {
+        return this.m__lMisses.get();
+    }
+
+    /**
+     * Retrieves the number of evicted entries.
+     * @return such number.
+     */
+    public long getEvictions()
+    {
+        return this.m__lEvictions.get();
+    }
+
+    /**
+     * Computes the key of a generation.
+     * @param template the template.
+     * @param imports the files the template imports: groups, folders and packs.
+     * @param pluginVersion the plugin version.
+     * @param encoding the encoding.
+     * @param input a description of the model values the template uses, free of local paths.
+     * @return the key.
+     * @throws IOException if the sources cannot be read.
+     */
+    public static String computeKey(
+        final File template,
+        final Collection<File> imports,
+        final String pluginVersion,
+        final Charset encoding,
+        final String input)
+      throws IOException
+    {
+        final StringBuilder description = new StringBuilder();
+
+        description.append(BuildFingerprint.TEMPLATE_PREFIX).append(Digests.digest(template, Digests.SHA_256)).append('\n');
+
+        final File folder = template.getAbsoluteFile().getParentFile();
+        final File canonicalTemplate = template.getCanonicalFile();
+
+        final SortedMap<String, String> sources = new TreeMap<String, String>();
+
+        for (final File imported : imports)
+        {
+            if (!imported.getCanonicalFile().equals(canonicalTemplate))
+            {
+                sources.put(retrieveSourceName(folder, imported), digestSource(imported));
+            }
+        }
+
+        for (final Map.Entry<String, String> source : sources.entrySet())
+        {
+            description.append(BuildFingerprint.IMPORT_PREFIX).append(source.getKey())
+                .append('=').append(source.getValue()).append('\n');
+        }
+
+        description.append(BuildFingerprint.PLUGIN_VERSION).append('=').append(pluginVersion).append('\n');
+        description.append(BuildFingerprint.ENCODING).append('=').append(encoding.name()).append('\n');
+        description.append(BuildFingerprint.MODEL_PREFIX).append("input=").append(Digests.sha256(input)).append('\n');
+
+        return Digests.sha256(description.toString());
+    }
+
+    /**
+     * Describes a template input in a stable way, replacing the project
+     * folder with {@code ${basedir}} so that checkouts in different folders
+     * share entries.
+     * @param input the input, with the project replaced by a snapshot.
+     * @param basedir the project folder.
+     * @return such description, or {@code null} if any value cannot be
+     * described reliably, in which case the output must not be cached.
+     */
+    public static String describeInput(final Map<String, ?> input, final File basedir)
+    {
+        String result = null;
+
+        final StringBuilder description = new StringBuilder();
+
+        if (describe(new TreeMap<String, Object>(input), description))
+        {
+            result = description.toString();
+
+            if (basedir != null)
+            {
+                result = result.replace(basedir.getAbsolutePath(), BASEDIR_PLACEHOLDER);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Describes a model value.
+     * @param value the value.
+     * @param description the description so far.
+     * @return {@code false} if the value, or any within it, only has the
+     * identity-based {@link Object#toString()}, or is a whole project.
+     */
+    protected static boolean describe(final Object value, final StringBuilder description)
+    {
+        boolean result = true;
+
+        if (value instanceof Map)
+        {
+            final SortedMap<String, Object> sorted = new TreeMap<String, Object>();
+
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+
+            description.append('{');
+
+            for (final Map.Entry<String, Object> entry : sorted.entrySet())
+            {
+                description.append(entry.getKey()).append('=');
+                result &= describe(entry.getValue(), description);
+                description.append(',');
+            }
+
+            description.append('}');
+        }
+        else if (value instanceof Collection)
+        {
+            description.append('[');
+
+            for (final Object item : (Collection<?>) value)
+            {
+                result &= describe(item, description);
+                description.append(',');
+            }
+
+            description.append(']');
+        }
+        else if (value instanceof Build)
+        {
+            final Build build = (Build) value;
+
+            description.append(build.getFinalName()).append(':').append(build.getDirectory())
+                .append(':').append(build.getOutputDirectory()).append(':').append(build.getSourceDirectory())
+                .append(':').append(build.getDefaultGoal());
+        }
+        else if (value instanceof MavenProject)
+        {
+            // Its toString() is just the coordinates: the rest could be referenced.
+            result = false;
+        }
+        else if (value == null)
+        {
+            description.append(value);
+        }
+        else
+        {
+            final String text = value.toString();
+
+            result =
+                !text.equals(value.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(value)));
+
+            if (value instanceof Plugin)
+            {
+                description.append(BuildFingerprint.describe(value));
+            }
+            else
+            {
+                description.append(text);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Names a template source without depending on where it lives, so that
+     * checkouts in different folders share entries.
+     * @param folder the template folder.
+     * @param source the source.
+     * @return its path relative to the folder, or its name if outside.
+     */
+    protected static String retrieveSourceName(final File folder, final File source)
+    {
+        final String result;
+
+        if (source.getAbsoluteFile().toPath().startsWith(folder.toPath()))
+        {
+            result = LayeredJar.relativize(folder, source);
+        }
+        else
+        {
+            result = source.getName();
+        }
+
+        return result;
+    }
+
+    /**
+     * Digests a template source: a file, or the templates in a folder.
+     * @param source the source.
+     * @return its digest.
+     * @throws IOException if it cannot be read.
+     */
+    protected static String digestSource(final File source)
+        throws IOException
+    {
+        final String result;
+
+        if (source.isFile())
+        {
+            result = Digests.digest(source, Digests.SHA_256);
+        }
+        else if (source.isDirectory())
+        {
+            final StringBuilder contents = new StringBuilder();
+
+            final File[] children = source.listFiles();
+
+            if (children != null)
+            {
+                Arrays.sort(children);
+
+                for (final File child : children)
+                {
+                    if (   (child.isFile())
+                        && (   (child.getName().endsWith(TemplatePack.TEMPLATE_EXTENSION))
+                            || (child.getName().endsWith(TemplatePack.GROUP_EXTENSION))))
+                    {
+                        contents.append(child.getName()).append('=')
+                            .append(Digests.digest(child, Digests.SHA_256)).append('\n');
+                    }
+                }
+            }
+
+            result = Digests.sha256(contents.toString());
+        }
+        else
+        {
+            result = BuildFingerprint.MISSING;
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the output of a generation, and marks it as recently used.
+     * @param key the key.
+     * @return the output, or {@code null} if it's not cached.
+     * @throws IOException if the cache cannot be read.
+     */
+    public byte[] get(final String key)
+        throws IOException
+    {
+        final Path entry = resolve(key);
+
+        final byte[] result =
+            withLock(
+                new Callable<byte[]>()
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public byte[] call()
+                        throws IOException
+                    {
+                        byte[] contents = null;
+
+                        try
+                        {
+                            contents = Files.readAllBytes(entry);
+                            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+                        }
+                        catch (final NoSuchFileException missing)
+                        {
+                            contents = null;
+                        }
+
+                        return contents;
+                    }
+                });
+
+        if (result == null)
+        {
+            this.m__lMisses.incrementAndGet();
+        }
+        else
+        {
+            this.m__lHits.incrementAndGet();
+        }
+
+        return result;
+    }
+
+    /**
+     * Stores the output of a generation, evicting old entries if the cache grows too large.
+     * @param key the key.
+     * @param output the output.
+     * @throws IOException if the cache cannot be written.
+     */
+    public void put(final String key, final byte[] output)
+        throws IOException
+    {
+        final Path entry = resolve(key);
+
+        Files.createDirectories(entry.getParent());
+
+        // Written outside the lock: only the move needs it.
+        final Path temp = Files.createTempFile(entry.getParent(), "." + key, ".tmp");
+
+        try
+        {
+            Files.write(temp, output);
+
+            withLock(
+                new Callable<Void>()
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public Void call()
+                        throws IOException
+                    {
+                        LockedFile.replace(temp, entry);
+
+                        m__lStores.incrementAndGet();
+
+                        evict(m__lMaxBytes);
+
+                        return null;
+                    }
+                });
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the cache fits in given size.
+     * Callers must hold the lock.
+     * @param maxBytes the size.
+     * @return the number of removed entries.
+     * @throws IOException if the entries cannot be listed or removed.
+     */
+    protected int evict(final long maxBytes)
+        throws IOException
+    {
+        int result = 0;
+
+        final List<Path> entries = new ArrayList<Path>();
+        final List<BasicFileAttributes> attributes = new ArrayList<BasicFileAttributes>();
+
+        long total = 0;
+
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(this.m__Root))
+        {
+            for (final Path shard : shards)
+            {
+                if (Files.isDirectory(shard))
+                {
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(shard, "*" + ENTRY_EXTENSION))
+                    {
+                        for (final Path file : files)
+                        {
+                            final BasicFileAttributes attribute = Files.readAttributes(file, BasicFileAttributes.class);
+
+                            entries.add(file);
+                            attributes.add(attribute);
+                            total += attribute.size();
+                        }
+                    }
+                }
+            }
+        }
+
+        if (total > maxBytes)
+        {
+            final List<Integer> order = new ArrayList<Integer>(entries.size());
+
+            for (int index = 0; index < entries.size(); index++)
+            {
+                order.add(index);
+            }
+
+            Collections.sort(
+                order,
+                new Comparator<Integer>()
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public int compare(final Integer first, final Integer second)
+                    {
+                        return
+                            attributes.get(first).lastModifiedTime().compareTo(
+                                attributes.get(second).lastModifiedTime());
+                    }
+                });
+
+            for (final Integer index : order)
+            {
+                if (total <= maxBytes)
+                {
+                    break;
+                }
+
+                Files.deleteIfExists(entries.get(index));
+                total -= attributes.get(index).size();
+                result++;
+            }
+
+            this.m__lEvictions.addAndGet(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs given action holding both the in-process lock and the lock file.
+     * @param action the action.
+     * @param <T> the type of the result.
+     * @return its result.
+     * @throws IOException if the lock cannot be acquired, or the action fails.
+     */
+    protected <T> T withLock(final Callable<T> action)
+        throws IOException
+    {
+        return this.m__Lock.withLock(action);
+    }
+
+    /**
+     * Resolves the file of an entry, sharded by the first two characters of its key.
+     * @param key the key.
+     * @return such file.
+     */
+    protected Path resolve(final String key)
+    {
+        return this.m__Root.resolve(key.substring(0, 2)).resolve(key + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Describes the cache statistics.
+     * @return such description.
+     */
+    public String describe()
+    {
+        final long hits = getHits();
+        final long misses = getMisses();
+        final long total = hits + misses;
+
+        return
+              "Generation cache " + this.m__Root + ": " + hits + " hit(s), " + misses + " miss(es)"
+            + (total > 0 ? " (" + (hits * 100 / total) + "% hit rate)" : "")
+            + ", " + this.m__lStores.get() + " stored, " + getEvictions() + " eviction(s)";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return describe();
+    }
+}
@@ -0,0 +1,483 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: GenerationMetrics.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Timings and sizes of the generation of one Dockerfile.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Timings and sizes of the generation of one Dockerfile: nanoseconds spent in
+ * each {@link Phase}, bytes written, and bytes allocated by the thread that
+ * generated it.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class GenerationMetrics
+{
+    /**
+     * Value used when the JVM cannot tell the allocated bytes.
+     */
+    public static final long UNKNOWN = -1L;
+
+    /**
+     * The phases of a generation.
+     */
+    public enum Phase
+    {
+        /**
+         * Retrieving (and compiling, if not cached) the template group.
+         */
+        LOAD,
+
+        /**
+         * Loading the groups the template imports.
+         */
+        IMPORTS,
+
+        /**
+         * Scanning and checking the template, and preparing its inputs and
+         * post-processors.
+         */
+        PREPARE,
+
+        /**
+         * Computing, comparing and storing the fingerprint of the inputs.
+         */
+        FINGERPRINT,
+
+        /**
+         * Rendering the template.
+         */
+        RENDER,
+
+        /**
+         * Encoding, digesting and writing the output.
+         */
+        WRITE,
+
+        /**
+         * Attaching the Dockerfile to the project.
+         */
+        ATTACH;
+
+        /**
+         * Retrieves the name used in reports.
+         * @return such name.
+         */
+        public String getLabel()
+        {
+            return name().toLowerCase(Locale.US);
+        }
+    }
+
+    /**
+     * The module.
+     */
+    private final String m__strModule;
+
+    /**
+     * The classifier.
+     */
+    private final String m__strClassifier;
+
+    /**
+     * The nanoseconds per phase.
+     */
+    private final long[] m__aNanos = new long[Phase.values().length];
+
+    /**
+     * The bytes written.
+     */
+    private long m__lBytesWritten;
+
+    /**
+     * The bytes allocated by the generating thread.
+     */
+    private long m__lAllocatedBytes = UNKNOWN;
+
+    /**
+     * Whether the Dockerfile was up to date.
+     */
+    private boolean m__bUpToDate;
+
+    /**
+     * Whether the Dockerfile failed.
+     */
+    private boolean m__bFailed;
+
+    /**
+     * Creates a new instance.
+     * @param module the module.
+     * @param classifier the Dockerfile classifier.
+     */
+    public GenerationMetrics(final String module, final String classifier)
+    {
+        this.m__strModule = module;
+        this.m__strClassifier = classifier;
+    }
+
+    /**
+     * Retrieves the module.
+     * @return such module.
+     */
+    public String getModule()
+    {
+        return this.m__strModule;
+    }
+
+    /**
+     * Retrieves the classifier.
+     * @return such classifier.
+     */
+    public String getClassifier()
+    {
+        return this.m__strClassifier;
+    }
+
+    /**
+     * Records the time elapsed since given instant.
+     * @param phase the phase.
+     * @param start the {@link System#nanoTime()} the phase started at.
+     * @return the current {@link System#nanoTime()}, to start the next phase.
+     */
+    public synchronized long record(final Phase phase, final long start)
+    {
+        final long result = System.nanoTime();
+
+        this.m__aNanos[phase.ordinal()] += result - start;
+
+        return result;
+    }
+
+    /**
+     * Adds time to a phase.
+     * @param phase the phase.
+     * @param nanos the nanoseconds.
+     */
+    public synchronized void add(final Phase phase, final long nanos)
+    {
+        this.m__aNanos[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * Retrieves the time spent in a phase.
+     * @param phase the phase.
+     * @return the nanoseconds.
+     */
+    public synchronized long getNanos(final Phase phase)
+    {
+        return this.m__aNanos[phase.ordinal()];
+    }
+
+    /**
+     * Retrieves the time spent in all phases.
+     * @return the nanoseconds.
+     */
+    public synchronized long getTotalNanos()
+    {
+        long result = 0;
+
+        for (final long nanos : this.m__aNanos)
+        {
+            result += nanos;
+        }
+
+        return result;
+    }
+
+    /**
+     * Specifies the bytes written.
+     * @param bytes such bytes.
+     */
+    public synchronized void setBytesWritten(final long bytes)
+    {
+        this.m__lBytesWritten = bytes;
+    }
+
+    /**
+     * Retrieves the bytes written.
+     * @return such bytes.
+     */
+    public synchronized long getBytesWritten()
+    {
+        return this.m__lBytesWritten;
+    }
+
+    /**
+     * Specifies the bytes allocated by the generating thread.
+     * @param bytes such bytes, or {@link #UNKNOWN}.
+     */
+    public synchronized void setAllocatedBytes(final long bytes)
+    {
+        this.m__lAllocatedBytes = bytes;
+    }
+
+    /**
+     * Retrieves the bytes allocated by the generating thread.
+     * @return such bytes, or {@link #UNKNOWN}.
+     */
+    public synchronized long getAllocatedBytes()
+    {
+        return this.m__lAllocatedBytes;
+    }
+
+    /**
+     * Specifies whether the Dockerfile was up to date.
+     * @param upToDate such condition.
+     */
+    public synchronized void setUpToDate(final boolean upToDate)
+    {
+        this.m__bUpToDate = upToDate;
+    }
+
+    /**
+     * Checks whether the Dockerfile was up to date.
+     * @return {@code true} in such case.
+     */
+    public synchronized boolean isUpToDate()
+    {
+        return this.m__bUpToDate;
+    }
+
+    /**
+     * Specifies whether the Dockerfile failed.
+     * @param failed such condition.
+     */
+    public synchronized void setFailed(final boolean failed)
+    {
+        this.m__bFailed = failed;
+    }
+
+    /**
+     * Checks whether the Dockerfile failed.
+     * @return {@code true} in such case.
+     */
+    public synchronized boolean isFailed()
+    {
+        return this.m__bFailed;
+    }
+
+    /**
+     * Retrieves the bytes allocated so far by the current thread.
+     * @return such bytes, or {@link #UNKNOWN} if the JVM cannot tell, as
+     * happens with virtual threads.
+     */
+    public static long currentThreadAllocatedBytes()
+    {
+        long result = UNKNOWN;
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        if (threads instanceof com.sun.management.ThreadMXBean)
+        {
+            final com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+
+            if (   (hotspot.isThreadAllocatedMemorySupported())
+                && (hotspot.isThreadAllocatedMemoryEnabled()))
+            {
+                result = hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Wraps a writer so that the time spent in it counts as {@link Phase#WRITE}.
+     * @param writer the writer.
+     * @return the wrapped writer.
+     */
+    public Writer timeWrites(final Writer writer)
+    {
+        return new TimedWriter(writer, this);
+    }
+
+    /**
+     * Appends this instance as a JSON object.
+     * @param json the output.
+     * @return the output.
+     */
+    public synchronized StringBuilder toJson(final StringBuilder json)
+    {
+        json.append("{\"module\":").append(quote(this.m__strModule));
+        json.append(",\"classifier\":").append(quote(this.m__strClassifier));
+        json.append(",\"upToDate\":").append(this.m__bUpToDate);
+        json.append(",\"failed\":").append(this.m__bFailed);
+        json.append(",\"totalNanos\":").append(getTotalNanos());
+        json.append(",\"phases\":{");
+
+        for (final Phase phase : Phase.values())
+        {
+            if (phase.ordinal() > 0)
+            {
+                json.append(',');
+            }
+
+            json.append(quote(phase.getLabel())).append(':').append(this.m__aNanos[phase.ordinal()]);
+        }
+
+        json.append("},\"bytesWritten\":").append(this.m__lBytesWritten);
+        json.append(",\"allocatedBytes\":").append(this.m__lAllocatedBytes);
+        json.append('}');
+
+        return json;
+    }
+
+    /**
+     * Quotes a JSON string.
+     * @param text the text.
+     * @return the quoted text.
+     */
+    public static String quote(final String text)
+    {
+        final StringBuilder result = new StringBuilder("\"");
+
+        if (text != null)
+        {
+            for (int index = 0; index < text.length(); index++)
+            {
+                final char character = text.charAt(index);
+
+                if (   (character == '"')
+                    || (character == '\\'))
+                {
+                    result.append('\\').append(character);
+                }
+                else if (character < ' ')
+                {
+                    result.append(String.format(Locale.US, "\\u%04x", (int) character));
+                }
+                else
+                {
+                    result.append(character);
+                }
+            }
+        }
+
+        return result.append('"').toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return toJson(new StringBuilder()).toString();
+    }
+
+    /**
+     * Accounts the time spent in the wrapped writer as {@link Phase#WRITE}.
+     */
+    protected static final class TimedWriter
+        extends FilterWriter
+    {
+        /**
+         * The metrics.
+         */
+        private final GenerationMetrics m__Metrics;
+
+        /**
+         * Creates a new writer.
+         * @param writer the wrapped writer.
+         * @param metrics the metrics.
+         */
+        public TimedWriter(final Writer writer, final GenerationMetrics metrics)
+        {
+            super(writer);
+            this.m__Metrics = metrics;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(final int character)
+            throws IOException
+        {
+            final long start = System.nanoTime();
+
+            out.write(character);
+
+            this.m__Metrics.record(Phase.WRITE, start);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(final char[] buffer, final int offset, final int length)
+            throws IOException
+        {
+            final long start = System.nanoTime();
+
+            out.write(buffer, offset, length);
+
+            this.m__Metrics.record(Phase.WRITE, start);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(final String text, final int offset, final int length)
+            throws IOException
+        {
+            final long start = System.nanoTime();
+
+            out.write(text, offset, length);
+
+            this.m__Metrics.record(Phase.WRITE, start);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void flush()
+            throws IOException
+        {
+            final long start = System.nanoTime();
+
+            out.flush();
+
+            this.m__Metrics.record(Phase.WRITE, start);
+        }
+    }
+}
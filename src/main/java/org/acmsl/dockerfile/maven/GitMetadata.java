@@ -0,0 +1,252 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: GitMetadata.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Reads the current branch and commit of a git working copy.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads the current branch and commit of a git working copy straight from its
+ * {@code .git} directory, without forking {@code git}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public final class GitMetadata
+{
+    /**
+     * The key of the branch.
+     */
+    public static final String BRANCH = "branch";
+
+    /**
+     * The key of the commit.
+     */
+    public static final String COMMIT = "commit";
+
+    /**
+     * The key of the abbreviated commit.
+     */
+    public static final String SHORT_COMMIT = "shortCommit";
+
+    /**
+     * The length of abbreviated commits.
+     */
+    protected static final int SHORT_COMMIT_LENGTH = 7;
+
+    /**
+     * The prefix of symbolic references.
+     */
+    protected static final String REF_PREFIX = "ref: ";
+
+    /**
+     * The prefix of branch references.
+     */
+    protected static final String HEADS_PREFIX = "refs/heads/";
+
+    /**
+     * The prefix of {@code .git} files pointing elsewhere.
+     */
+    protected static final String GITDIR_PREFIX = "gitdir: ";
+
+    /**
+     * Utility class.
+     */
+    private GitMetadata()
+    {
+    }
+
+    /**
+     * Reads the metadata of the working copy given directory belongs to.
+     * @param directory the directory.
+     * @return the {@link #BRANCH}, {@link #COMMIT} and {@link #SHORT_COMMIT},
+     * or an empty map if it's not in a git working copy.
+     * @throws IOException if the repository cannot be read.
+     */
+    public static Map<String, String> read(final File directory)
+        throws IOException
+    {
+        final Map<String, String> result = new TreeMap<String, String>();
+
+        final File gitDir = findGitDir(directory);
+
+        if (gitDir != null)
+        {
+            final String head = readFirstLine(new File(gitDir, "HEAD"));
+            String commit = head;
+
+            if (   (head != null)
+                && (head.startsWith(REF_PREFIX)))
+            {
+                final String ref = head.substring(REF_PREFIX.length()).trim();
+
+                if (ref.startsWith(HEADS_PREFIX))
+                {
+                    result.put(BRANCH, ref.substring(HEADS_PREFIX.length()));
+                }
+
+                commit = resolveRef(gitDir, ref);
+            }
+
+            if (commit != null)
+            {
+                result.put(COMMIT, commit);
+                result.put(SHORT_COMMIT, commit.substring(0, Math.min(SHORT_COMMIT_LENGTH, commit.length())));
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Finds the git directory, looking upwards from given directory.
+     * @param directory the directory.
+     * @return the git directory, or {@code null} if there's none.
+     * @throws IOException if a {@code .git} file cannot be read.
+     */
+    protected static File findGitDir(final File directory)
+        throws IOException
+    {
+        File result = null;
+
+        File current = directory.getAbsoluteFile();
+
+        while (   (result == null)
+               && (current != null))
+        {
+            final File candidate = new File(current, ".git");
+
+            if (candidate.isDirectory())
+            {
+                result = candidate;
+            }
+            else if (candidate.isFile())
+            {
+                // Worktrees and submodules point to their actual git directory.
+                final String line = readFirstLine(candidate);
+
+                if (   (line != null)
+                    && (line.startsWith(GITDIR_PREFIX)))
+                {
+                    final File gitDir = new File(line.substring(GITDIR_PREFIX.length()).trim());
+
+                    result = gitDir.isAbsolute() ? gitDir : new File(current, gitDir.getPath());
+                }
+            }
+
+            current = current.getParentFile();
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves a reference, either loose or packed.
+     * @param gitDir the git directory.
+     * @param ref the reference.
+     * @return the commit, or {@code null} if the reference does not exist yet.
+     * @throws IOException if the repository cannot be read.
+     */
+    protected static String resolveRef(final File gitDir, final String ref)
+        throws IOException
+    {
+        // Worktrees keep their HEAD, but share refs with the main repository.
+        final String common = readFirstLine(new File(gitDir, "commondir"));
+        final File refsDir = (common == null) ? gitDir : new File(gitDir, common);
+
+        String result = readFirstLine(new File(gitDir, ref));
+
+        if (result == null)
+        {
+            result = readFirstLine(new File(refsDir, ref));
+        }
+
+        if (result == null)
+        {
+            final File packedRefs = new File(refsDir, "packed-refs");
+
+            if (packedRefs.isFile())
+            {
+                final List<String> lines = Files.readAllLines(packedRefs.toPath(), StandardCharsets.UTF_8);
+
+                for (final String line : lines)
+                {
+                    if (line.endsWith(" " + ref))
+                    {
+                        result = line.substring(0, line.indexOf(' '));
+                        break;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads the first line of a file.
+     * @param file the file.
+     * @return the trimmed line, or {@code null} if the file does not exist or is empty.
+     * @throws IOException if the file cannot be read.
+     */
+    protected static String readFirstLine(final File file)
+        throws IOException
+    {
+        String result = null;
+
+        if (file.isFile())
+        {
+            final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+
+            if (!lines.isEmpty())
+            {
+                result = lines.get(0).trim();
+            }
+
+            if (   (result != null)
+                && (result.isEmpty()))
+            {
+                result = null;
+            }
+        }
+
+        return result;
+    }
+}
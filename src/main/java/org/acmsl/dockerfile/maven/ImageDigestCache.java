@@ -0,0 +1,627 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ImageDigestCache.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Resolves image digests concurrently, remembering them on disk for a while.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves image references to digests, remembering each digest on disk for
+ * a while, so that builds within that time neither wait for the registry nor
+ * see a tag move under them. The file is shared by every build using it,
+ * typically all workspaces sharing {@code ~/.m2}; a lock file serializes
+ * changes among Maven processes. Offline, only the remembered digests are
+ * used, however old. Lookups run concurrently on a small pool, and a
+ * reference asked for while its lookup is still running waits for that one,
+ * so each distinct image is resolved once however many modules use it.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class ImageDigestCache
+{
+    /**
+     * The default file, relative to the local repository.
+     */
+    public static final String DEFAULT_FILE = GenerationCache.DEFAULT_FOLDER + "/image-digests.properties";
+
+    /**
+     * The default time to live, in seconds.
+     */
+    public static final long DEFAULT_TTL_SECONDS = 24L * 60 * 60;
+
+    /**
+     * How many lookups run at once.
+     */
+    public static final int PARALLELISM = 8;
+
+    /**
+     * The extension of the lock file.
+     */
+    protected static final String LOCK_EXTENSION = ".lock";
+
+    /**
+     * The caches in use, by file and settings, so that all modules share lookups.
+     */
+    private static final ConcurrentMap<String, ImageDigestCache> CACHES =
+        new ConcurrentHashMap<String, ImageDigestCache>();
+
+    /**
+     * The file, or {@code null} to keep digests in memory only.
+     */
+    private final Path m__File;
+
+    /**
+     * The resolver.
+     */
+    private final ImageDigestResolver m__Resolver;
+
+    /**
+     * The time to live, in milliseconds.
+     */
+    private final long m__lTtlMillis;
+
+    /**
+     * Whether to use remembered digests only.
+     */
+    private final boolean m__bOffline;
+
+    /**
+     * Serializes changes to the file, or {@code null} if there's no file.
+     */
+    private final LockedFile m__Lock;
+
+    /**
+     * The digests, and when they were resolved, by reference.
+     */
+    private final Map<String, Entry> m__mEntries = new HashMap<String, Entry>();
+
+    /**
+     * Whether the file has been read.
+     */
+    private boolean m__bLoaded;
+
+    /**
+     * The lookups still running, by reference.
+     */
+    private final ConcurrentMap<String, Future<String>> m__mLookups = new ConcurrentHashMap<String, Future<String>>();
+
+    /**
+     * The executor, created on first use.
+     */
+    private ExecutorService m__Executor;
+
+    /**
+     * The number of digests taken from the cache.
+     */
+    private final AtomicLong m__lHits = new AtomicLong();
+
+    /**
+     * The number of digests resolved.
+     */
+    private final AtomicLong m__lResolved = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     * @param file the file, or {@code null} to keep digests in memory only.
+     * @param resolver the resolver.
+     * @param ttlSeconds how long digests are used before asking again, in seconds.
+     * @param offline whether to use remembered digests only.
+     */
+    public ImageDigestCache(
+        final File file, final ImageDigestResolver resolver, final long ttlSeconds, final boolean offline)
+    {
+        this.m__File = (file == null) ? null : file.toPath().toAbsolutePath().normalize();
+        this.m__Resolver = resolver;
+        this.m__lTtlMillis = Math.max(0, ttlSeconds) * 1000;
+        this.m__bOffline = offline;
+
+        this.m__Lock =
+            (this.m__File == null)
+            ? null
+            : new LockedFile(this.m__File.resolveSibling(this.m__File.getFileName() + LOCK_EXTENSION));
+    }
+
+    /**
+     * Retrieves the cache of a file, shared within this process by the
+     * modules using the same settings.
+     * @param file the file, or {@code null} to keep digests in memory only.
+     * @param resolver the resolver.
+     * @param ttlSeconds how long digests are used before asking again, in seconds.
+     * @param offline whether to use remembered digests only.
+     * @return such cache.
+     */
+    public static ImageDigestCache retrieve(
+        final File file, final ImageDigestResolver resolver, final long ttlSeconds, final boolean offline)
+    {
+        final String key =
+              ((file == null) ? "" : file.toPath().toAbsolutePath().normalize().toString())
+            + "|" + resolver + "|" + ttlSeconds + "|" + offline;
+
+        ImageDigestCache result = CACHES.get(key);
+
+        if (result == null)
+        {
+            final ImageDigestCache cache = new ImageDigestCache(file, resolver, ttlSeconds, offline);
+
+            result = CACHES.putIfAbsent(key, cache);
+
+            if (result == null)
+            {
+                result = cache;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the file.
+     * @return such file, or {@code null} if digests are kept in memory only.
+     */
+    public File getFile()
+    {
+        return (this.m__File == null) ? null : this.m__File.toFile();
+    }
+
+    /**
+     * Checks whether only remembered digests are used.
+     * @return {@code true} in such case.
+     */
+    public boolean isOffline()
+    {
+        return this.m__bOffline;
+    }
+
+    /**
+     * Retrieves the number of digests taken from the cache.
+     * @return such number.
+     */
+    public long getHits()
+    {
+        return this.m__lHits.get();
+    }
+
+    /**
+     * Retrieves the number of digests resolved.
+     * @return such number.
+     */
+    public long getResolved()
+    {
+        return this.m__lResolved.get();
+    }
+
+    /**
+     * Starts resolving an image reference, unless it's already being resolved.
+     * @param reference the reference.
+     * @return its digest, eventually.
+     */
+    public Future<String> submit(final String reference)
+    {
+        Future<String> result = this.m__mLookups.get(reference);
+
+        if (   (result != null)
+            && (result.isDone()))
+        {
+            // Finished, but not removed yet: later requests check the time to live again.
+            this.m__mLookups.remove(reference, result);
+            result = null;
+        }
+
+        if (result == null)
+        {
+            final FutureTask<String> task =
+                new FutureTask<String>(
+                    new Callable<String>()
+                    {
+                        /**
+                         * {@inheritDoc}
+                         */
+                        @Override
+                        public String call()
+                            throws IOException
+                        {
+                            return lookup(reference);
+                        }
+                    })
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    protected void done()
+                    {
+                        // Later requests check the time to live again.
+                        m__mLookups.remove(reference, this);
+                    }
+                };
+
+            result = this.m__mLookups.putIfAbsent(reference, task);
+
+            if (result == null)
+            {
+                result = task;
+                retrieveExecutor().execute(task);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves an image reference.
+     * @param reference the reference.
+     * @return its digest.
+     * @throws IOException if it cannot be resolved, or is not cached while offline.
+     */
+    public String resolve(final String reference)
+        throws IOException
+    {
+        return await(reference, submit(reference));
+    }
+
+    /**
+     * Resolves image references concurrently.
+     * @param references the references.
+     * @return their digests, by reference.
+     * @throws IOException if any cannot be resolved.
+     */
+    public Map<String, String> resolveAll(final Collection<String> references)
+        throws IOException
+    {
+        final Map<String, Future<String>> lookups = new LinkedHashMap<String, Future<String>>();
+
+        for (final String reference : references)
+        {
+            lookups.put(reference, submit(reference));
+        }
+
+        final Map<String, String> result = new TreeMap<String, String>();
+
+        for (final Map.Entry<String, Future<String>> lookup : lookups.entrySet())
+        {
+            result.put(lookup.getKey(), await(lookup.getKey(), lookup.getValue()));
+        }
+
+        return result;
+    }
+
+    /**
+     * Waits for a lookup.
+     * @param reference the reference.
+     * @param lookup the lookup.
+     * @return the digest.
+     * @throws IOException if it failed, or the thread was interrupted.
+     */
+    protected String await(final String reference, final Future<String> lookup)
+        throws IOException
+    {
+        try
+        {
+            return lookup.get();
+        }
+        catch (final ExecutionException failed)
+        {
+            if (failed.getCause() instanceof IOException)
+            {
+                throw (IOException) failed.getCause();
+            }
+
+            throw new IOException("Cannot resolve " + reference + ": " + failed.getCause(), failed.getCause());
+        }
+        catch (final InterruptedException interrupted)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IOException("Interrupted while resolving " + reference, interrupted);
+        }
+    }
+
+    /**
+     * Resolves an image reference, unless a recent enough digest is cached.
+     * @param reference the reference.
+     * @return its digest.
+     * @throws IOException if it cannot be resolved, or is not cached while offline.
+     */
+    protected String lookup(final String reference)
+        throws IOException
+    {
+        final String result;
+
+        final Entry cached = retrieveEntry(reference);
+
+        if (   (cached != null)
+            && (   (this.m__bOffline)
+                || (System.currentTimeMillis() - cached.getResolvedMillis() < this.m__lTtlMillis)))
+        {
+            this.m__lHits.incrementAndGet();
+            result = cached.getDigest();
+        }
+        else if (this.m__bOffline)
+        {
+            throw new IOException(
+                "Cannot resolve " + reference + " offline: its digest is not in "
+                + ((this.m__File == null) ? "the cache" : this.m__File.toString()));
+        }
+        else
+        {
+            result = this.m__Resolver.resolve(reference);
+
+            this.m__lResolved.incrementAndGet();
+
+            store(reference, new Entry(result, System.currentTimeMillis()));
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the cached entry of a reference, reading the file the first time.
+     * @param reference the reference.
+     * @return such entry, or {@code null}.
+     * @throws IOException if the file cannot be read.
+     */
+    protected Entry retrieveEntry(final String reference)
+        throws IOException
+    {
+        synchronized (this.m__mEntries)
+        {
+            if (!this.m__bLoaded)
+            {
+                this.m__mEntries.putAll(read());
+                this.m__bLoaded = true;
+            }
+
+            return this.m__mEntries.get(reference);
+        }
+    }
+
+    /**
+     * Remembers a digest, and writes it to the file along with the ones other
+     * processes wrote meanwhile.
+     * @param reference the reference.
+     * @param entry its digest.
+     * @throws IOException if the file cannot be written.
+     */
+    protected void store(final String reference, final Entry entry)
+        throws IOException
+    {
+        synchronized (this.m__mEntries)
+        {
+            this.m__mEntries.put(reference, entry);
+        }
+
+        if (this.m__File != null)
+        {
+            this.m__Lock.withLock(
+                new Callable<Void>()
+                {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public Void call()
+                        throws IOException
+                    {
+                        final Map<String, Entry> entries = read();
+
+                        synchronized (m__mEntries)
+                        {
+                            for (final Map.Entry<String, Entry> current : m__mEntries.entrySet())
+                            {
+                                final Entry stored = entries.get(current.getKey());
+
+                                if (   (stored == null)
+                                    || (stored.getResolvedMillis() < current.getValue().getResolvedMillis()))
+                                {
+                                    entries.put(current.getKey(), current.getValue());
+                                }
+                            }
+                        }
+
+                        write(entries);
+
+                        return null;
+                    }
+                });
+        }
+    }
+
+    /**
+     * Reads the file.
+     * @return its entries, empty if there's no file.
+     * @throws IOException if it cannot be read.
+     */
+    protected Map<String, Entry> read()
+        throws IOException
+    {
+        final Map<String, Entry> result = new HashMap<String, Entry>();
+
+        if (this.m__File != null)
+        {
+            final Map<String, String> properties = LockedFile.readProperties(this.m__File);
+
+            for (final String reference : properties.keySet())
+            {
+                final Entry entry = Entry.parse(properties.get(reference));
+
+                if (entry != null)
+                {
+                    result.put(reference, entry);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the file atomically. Callers must hold the lock.
+     * @param entries the entries.
+     * @throws IOException if it cannot be written.
+     */
+    protected void write(final Map<String, Entry> entries)
+        throws IOException
+    {
+        final Map<String, String> properties = new HashMap<String, String>();
+
+        for (final Map.Entry<String, Entry> entry : entries.entrySet())
+        {
+            properties.put(entry.getKey(), entry.getValue().toString());
+        }
+
+        LockedFile.writeProperties(this.m__File, properties);
+    }
+
+    /**
+     * Retrieves the executor, creating it on first use.
+     * @return such executor.
+     */
+    protected synchronized ExecutorService retrieveExecutor()
+    {
+        if (this.m__Executor == null)
+        {
+            // Daemon threads: nothing to shut down when the build ends.
+            this.m__Executor = ThreadPools.newBoundedExecutor(PARALLELISM, "image-digests");
+        }
+
+        return this.m__Executor;
+    }
+
+    /**
+     * Describes the cache usage.
+     * @return such description.
+     */
+    public String describe()
+    {
+        return
+              "Image digests: " + this.m__lHits.get() + " cached, " + this.m__lResolved.get() + " resolved"
+            + (this.m__bOffline ? " (offline)" : "")
+            + ((this.m__File == null) ? "" : " in " + this.m__File);
+    }
+
+    /**
+     * A remembered digest.
+     */
+    protected static final class Entry
+    {
+        /**
+         * The digest.
+         */
+        private final String m__strDigest;
+
+        /**
+         * When it was resolved.
+         */
+        private final long m__lResolvedMillis;
+
+        /**
+         * Creates a new entry.
+         * @param digest the digest.
+         * @param resolvedMillis when it was resolved.
+         */
+        public Entry(final String digest, final long resolvedMillis)
+        {
+            this.m__strDigest = digest;
+            this.m__lResolvedMillis = resolvedMillis;
+        }
+
+        /**
+         * Parses an entry.
+         * @param text the text, as written by {@link #toString()}.
+         * @return the entry, or {@code null} if it's not valid.
+         */
+        public static Entry parse(final String text)
+        {
+            Entry result = null;
+
+            final int space = text.lastIndexOf(' ');
+
+            if (space > 0)
+            {
+                try
+                {
+                    result = new Entry(text.substring(0, space).trim(), Long.parseLong(text.substring(space + 1)));
+                }
+                catch (final NumberFormatException invalid)
+                {
+                    result = null;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the digest.
+         * @return such digest.
+         */
+        public String getDigest()
+        {
+            return this.m__strDigest;
+        }
+
+        /**
+         * Retrieves when it was resolved.
+         * @return such time, in milliseconds since the epoch.
+         */
+        public long getResolvedMillis()
+        {
+            return this.m__lResolvedMillis;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return this.m__strDigest + " " + this.m__lResolvedMillis;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ImageDigestPinner.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Pins the base images of rendered Dockerfiles to their digests.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites {@code FROM} instructions so that each base image carries its
+ * digest, as in {@code FROM acmsl/tomcat:201410@sha256:...}. References
+ * already pinned, depending on build arguments, naming an earlier stage, or
+ * {@code scratch} are left alone. Instructions are held back until the end,
+ * so that the images of every stage are resolved at once.
+ * <p>It's built into the plugin, and enabled with {@code pinDigests}: it
+ * needs the digests of the Dockerfile, so it has no no-argument constructor.</p>
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class ImageDigestPinner
+    implements DockerfilePostProcessor
+{
+    /**
+     * The digests.
+     */
+    private final ImageDigests m__Digests;
+
+    /**
+     * The instructions held back.
+     */
+    private final List<DockerfileInstruction> m__lInstructions = new ArrayList<DockerfileInstruction>();
+
+    /**
+     * The number of pinned images.
+     */
+    private int m__iPinned;
+
+    /**
+     * Creates a new pinner.
+     * @param digests the digests of the Dockerfile.
+     */
+    public ImageDigestPinner(final ImageDigests digests)
+    {
+        this.m__Digests = digests;
+    }
+
+    /**
+     * Retrieves the digests.
+     * @return such digests.
+     */
+    public ImageDigests getDigests()
+    {
+        return this.m__Digests;
+    }
+
+    /**
+     * Retrieves the number of images pinned so far.
+     * @return such number.
+     */
+    public int getPinned()
+    {
+        return this.m__iPinned;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start(final Map<String, String> directives)
+    {
+        this.m__lInstructions.clear();
+        this.m__iPinned = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void process(final DockerfileInstruction instruction, final DockerfilePostProcessor.Sink next)
+    {
+        if (instruction.is("FROM"))
+        {
+            this.m__Digests.prefetch(retrieveImage(instruction));
+        }
+
+        this.m__lInstructions.add(instruction);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finish(final DockerfilePostProcessor.Sink next)
+        throws IOException
+    {
+        final Set<String> stages = new HashSet<String>();
+
+        for (final DockerfileInstruction instruction : this.m__lInstructions)
+        {
+            DockerfileInstruction output = instruction;
+
+            if (instruction.is("FROM"))
+            {
+                final String image = retrieveImage(instruction);
+
+                if (   (image != null)
+                    && (!stages.contains(image.toLowerCase(Locale.US)))
+                    && (ImageDigests.isPinnable(image)))
+                {
+                    output = pin(instruction, image, this.m__Digests.pin(image));
+                    this.m__iPinned++;
+                }
+
+                final String stage = retrieveStage(instruction);
+
+                if (stage != null)
+                {
+                    stages.add(stage.toLowerCase(Locale.US));
+                }
+            }
+
+            next.accept(output);
+        }
+
+        this.m__lInstructions.clear();
+    }
+
+    /**
+     * Retrieves the images a Dockerfile, or a template of one, would pin:
+     * those of its {@code FROM} instructions, except earlier stages and
+     * references depending on template expressions.
+     * @param dockerfile the Dockerfile, or template, contents.
+     * @return such images, in order.
+     */
+    public static Set<String> retrieveImages(final CharSequence dockerfile)
+    {
+        final Set<String> result = new LinkedHashSet<String>();
+
+        final Set<String> stages = new HashSet<String>();
+
+        for (final DockerfileInstruction instruction : DockerfileParser.parse(dockerfile).getInstructions())
+        {
+            if (instruction.is("FROM"))
+            {
+                final String image = retrieveImage(instruction);
+
+                if (   (image != null)
+                    && (!stages.contains(image.toLowerCase(Locale.US)))
+                    && (ImageDigests.isPinnable(image))
+                    && (image.indexOf('<') < 0)
+                    && (image.indexOf('>') < 0))
+                {
+                    result.add(image);
+                }
+
+                final String stage = retrieveStage(instruction);
+
+                if (stage != null)
+                {
+                    stages.add(stage.toLowerCase(Locale.US));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the image of a {@code FROM} instruction.
+     * @param instruction the instruction.
+     * @return the image, or {@code null} if there's none.
+     */
+    protected static String retrieveImage(final DockerfileInstruction instruction)
+    {
+        final String[] words = instruction.getCommand().trim().split("\\s+");
+
+        return words[0].isEmpty() ? null : words[0];
+    }
+
+    /**
+     * Retrieves the stage a {@code FROM} instruction names.
+     * @param instruction the instruction.
+     * @return the name after {@code AS}, or {@code null}.
+     */
+    protected static String retrieveStage(final DockerfileInstruction instruction)
+    {
+        final String[] words = instruction.getCommand().trim().split("\\s+");
+
+        return
+            (   (words.length == 3)
+             && ("AS".equalsIgnoreCase(words[1])))
+            ? words[2]
+            : null;
+    }
+
+    /**
+     * Replaces the image of a {@code FROM} instruction, keeping its layout.
+     * @param instruction the instruction.
+     * @param image the image.
+     * @param pinned the pinned image.
+     * @return the new instruction.
+     */
+    protected static DockerfileInstruction pin(
+        final DockerfileInstruction instruction, final String image, final String pinned)
+    {
+        final Pattern word = Pattern.compile("(?<=\\s)" + Pattern.quote(image) + "(?=\\s|$)");
+
+        final Matcher text = word.matcher(instruction.getText());
+        final Matcher arguments = word.matcher(" " + instruction.getArguments());
+
+        return
+            new DockerfileInstruction(
+                instruction.getKeyword(),
+                arguments.replaceFirst(Matcher.quoteReplacement(pinned)).substring(1),
+                text.replaceFirst(Matcher.quoteReplacement(pinned)),
+                instruction.getComments(),
+                instruction.getLine(),
+                instruction.isHeredoc());
+    }
+}
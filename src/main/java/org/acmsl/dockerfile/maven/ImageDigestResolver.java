@@ -0,0 +1,56 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ImageDigestResolver.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Resolves image references to their content digests.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+
+/**
+ * Resolves image references, such as {@code acmsl/tomcat:201410}, to the
+ * digest of the manifest they currently point to. Implementations must be
+ * thread-safe: different images are resolved concurrently.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public interface ImageDigestResolver
+{
+    /**
+     * Resolves an image reference.
+     * @param reference the reference, as written in the {@code FROM} instruction.
+     * @return its digest, such as {@code sha256:...}.
+     * @throws IOException if it cannot be resolved.
+     */
+    String resolve(String reference)
+        throws IOException;
+}
@@ -0,0 +1,223 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ImageDigests.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Pins image references to their digests, for templates.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Image references pinned to their digests, keyed by reference, as in
+ * {@code FROM <pinned.("acmsl/tomcat:201410")>}, which renders
+ * {@code acmsl/tomcat:201410@sha256:...}. Each Dockerfile gets its own
+ * instance, which remembers the digests it used so they can be part of its
+ * build fingerprint; lookups go through the shared {@link ImageDigestCache}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class ImageDigests
+    extends AbstractMap<String, String>
+{
+    /**
+     * What separates a reference from its digest.
+     */
+    public static final String DIGEST_SEPARATOR = "@";
+
+    /**
+     * The image with nothing in it.
+     */
+    protected static final String SCRATCH = "scratch";
+
+    /**
+     * The cache.
+     */
+    private final ImageDigestCache m__Cache;
+
+    /**
+     * The digests used so far, by reference.
+     */
+    private final ConcurrentMap<String, String> m__mDigests = new ConcurrentHashMap<String, String>();
+
+    /**
+     * Creates a new instance.
+     * @param cache the cache.
+     */
+    public ImageDigests(final ImageDigestCache cache)
+    {
+        this.m__Cache = cache;
+    }
+
+    /**
+     * Retrieves the cache.
+     * @return such cache.
+     */
+    public ImageDigestCache getCache()
+    {
+        return this.m__Cache;
+    }
+
+    /**
+     * Checks whether given reference can be pinned: it's not pinned already,
+     * does not depend on build arguments, and is not {@code scratch}.
+     * @param reference the reference.
+     * @return {@code true} in such case.
+     */
+    public static boolean isPinnable(final String reference)
+    {
+        return
+               (reference != null)
+            && (!reference.isEmpty())
+            && (!reference.contains(DIGEST_SEPARATOR))
+            && (!reference.contains("$"))
+            && (!reference.matches(".*\\s.*"))
+            && (!SCRATCH.equalsIgnoreCase(reference));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(final Object reference)
+    {
+        return
+               (reference instanceof String)
+            && (   (isPinnable((String) reference))
+                || (((String) reference).contains(DIGEST_SEPARATOR)));
+    }
+
+    /**
+     * Pins a reference, resolving its digest on first access.
+     * @param reference the reference.
+     * @return the reference followed by its digest; references already
+     * pinned are returned as they are.
+     * @throws UncheckedIOException if the digest cannot be resolved.
+     */
+    @Override
+    public String get(final Object reference)
+    {
+        String result = null;
+
+        if (containsKey(reference))
+        {
+            try
+            {
+                result = pin((String) reference);
+            }
+            catch (final IOException cannotResolve)
+            {
+                throw new UncheckedIOException(cannotResolve);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Pins a reference.
+     * @param reference the reference.
+     * @return the reference followed by its digest, or the reference itself
+     * if it cannot be pinned.
+     * @throws IOException if the digest cannot be resolved.
+     */
+    public String pin(final String reference)
+        throws IOException
+    {
+        final String result;
+
+        if (isPinnable(reference))
+        {
+            String digest = this.m__mDigests.get(reference);
+
+            if (digest == null)
+            {
+                digest = this.m__Cache.resolve(reference);
+                this.m__mDigests.putIfAbsent(reference, digest);
+            }
+
+            result = reference + DIGEST_SEPARATOR + digest;
+        }
+        else
+        {
+            result = reference;
+        }
+
+        return result;
+    }
+
+    /**
+     * Starts resolving a reference in the background, so that a later
+     * {@link #pin(String)} finds it ready.
+     * @param reference the reference.
+     */
+    public void prefetch(final String reference)
+    {
+        if (isPinnable(reference))
+        {
+            this.m__Cache.submit(reference);
+        }
+    }
+
+    /**
+     * Retrieves the digests used so far.
+     * @return such digests, by reference.
+     */
+    public Map<String, String> getDigests()
+    {
+        return Collections.unmodifiableMap(new TreeMap<String, String>(this.m__mDigests));
+    }
+
+    /**
+     * Retrieves the references pinned so far.
+     * @return such entries.
+     */
+    @Override
+    public Set<Map.Entry<String, String>> entrySet()
+    {
+        final Map<String, String> result = new TreeMap<String, String>();
+
+        for (final Map.Entry<String, String> entry : this.m__mDigests.entrySet())
+        {
+            result.put(entry.getKey(), entry.getKey() + DIGEST_SEPARATOR + entry.getValue());
+        }
+
+        return Collections.unmodifiableMap(result).entrySet();
+    }
+}
@@ -0,0 +1,247 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: LayeredJar.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: A fat jar, and the layer jars it is split into.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A fat jar, and the layer jars {@link LayeredJarExtractor} splits it into,
+ * in the order a Dockerfile should copy them: from the least to the most
+ * frequently changing. Paths are known before the jar is built, so templates
+ * can refer to them in any phase.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class LayeredJar
+{
+    /**
+     * The fat jar.
+     */
+    private final File m__Source;
+
+    /**
+     * The jar name, without extension.
+     */
+    private final String m__strName;
+
+    /**
+     * The layers.
+     */
+    private final List<Layer> m__lLayers;
+
+    /**
+     * Creates a new instance.
+     * @param source the fat jar.
+     * @param layersDir the folder the layers of all jars go to.
+     * @param basedir the folder paths are relative to, usually the build context.
+     */
+    public LayeredJar(final File source, final File layersDir, final File basedir)
+    {
+        this.m__Source = source;
+
+        final String fileName = source.getName();
+        final int dot = fileName.lastIndexOf('.');
+
+        this.m__strName = (dot > 0) ? fileName.substring(0, dot) : fileName;
+
+        final File folder = new File(layersDir, this.m__strName);
+
+        final List<Layer> layers = new ArrayList<Layer>(LayeredJarExtractor.LAYERS.size());
+
+        for (final String layer : LayeredJarExtractor.LAYERS)
+        {
+            final File file = new File(folder, layer + ".jar");
+
+            layers.add(new Layer(layer, file, relativize(basedir, file)));
+        }
+
+        this.m__lLayers = Collections.unmodifiableList(layers);
+    }
+
+    /**
+     * Retrieves the path of a file relative to a folder, if inside it.
+     * @param basedir the folder.
+     * @param file the file.
+     * @return the relative path, with {@code /} separators, or the absolute one.
+     */
+    protected static String relativize(final File basedir, final File file)
+    {
+        final String result;
+
+        if (   (basedir != null)
+            && (file.getAbsoluteFile().toPath().startsWith(basedir.getAbsoluteFile().toPath())))
+        {
+            result =
+                basedir.getAbsoluteFile().toPath().relativize(file.getAbsoluteFile().toPath())
+                    .toString().replace(File.separatorChar, '/');
+        }
+        else
+        {
+            result = file.getAbsolutePath().replace(File.separatorChar, '/');
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the fat jar.
+     * @return such file.
+     */
+    public File getSource()
+    {
+        return this.m__Source;
+    }
+
+    /**
+     * Retrieves the jar name, without extension.
+     * @return such name.
+     */
+    public String getName()
+    {
+        return this.m__strName;
+    }
+
+    /**
+     * Retrieves the layers, in copy order.
+     * @return such layers.
+     */
+    public List<Layer> getLayers()
+    {
+        return this.m__lLayers;
+    }
+
+    /**
+     * Retrieves a layer by name.
+     * @param name the name.
+     * @return the layer, or {@code null} if there's none.
+     */
+    public Layer get(final String name)
+    {
+        Layer result = null;
+
+        for (final Layer layer : this.m__lLayers)
+        {
+            if (layer.getName().equals(name))
+            {
+                result = layer;
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return this.m__strName + this.m__lLayers;
+    }
+
+    /**
+     * One layer of a fat jar.
+     */
+    public static final class Layer
+    {
+        /**
+         * The layer name.
+         */
+        private final String m__strName;
+
+        /**
+         * The layer jar.
+         */
+        private final File m__File;
+
+        /**
+         * The path of the layer jar, relative to the build context.
+         */
+        private final String m__strPath;
+
+        /**
+         * Creates a new layer.
+         * @param name the layer name.
+         * @param file the layer jar.
+         * @param path its path relative to the build context.
+         */
+        public Layer(final String name, final File file, final String path)
+        {
+            this.m__strName = name;
+            this.m__File = file;
+            this.m__strPath = path;
+        }
+
+        /**
+         * Retrieves the layer name.
+         * @return such name.
+         */
+        public String getName()
+        {
+            return this.m__strName;
+        }
+
+        /**
+         * Retrieves the layer jar.
+         * @return such file.
+         */
+        public File getFile()
+        {
+            return this.m__File;
+        }
+
+        /**
+         * Retrieves the path of the layer jar, relative to the build context.
+         * @return such path, with {@code /} separators.
+         */
+        public String getPath()
+        {
+            return this.m__strPath;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return this.m__strName + "=" + this.m__strPath;
+        }
+    }
+}
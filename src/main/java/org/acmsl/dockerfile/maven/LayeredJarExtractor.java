@@ -0,0 +1,847 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: LayeredJarExtractor.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Splits fat jars into layer jars, copying zip entries raw.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Splits a fat jar (Spring Boot's, or any other) into one jar per layer, so
+ * that a Dockerfile can copy them from the least to the most frequently
+ * changing. Entries are copied raw, compressed bytes and headers as they
+ * are, straight from channel to channel: nothing is inflated and deflated
+ * again. Zip64 archives are not supported. Directory entries are left out,
+ * since extracting a layer creates them.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class LayeredJarExtractor
+{
+    /**
+     * The layer of release dependencies, and the launcher.
+     */
+    public static final String DEPENDENCIES = "dependencies";
+
+    /**
+     * The layer of snapshot dependencies.
+     */
+    public static final String SNAPSHOT_DEPENDENCIES = "snapshot-dependencies";
+
+    /**
+     * The layer of resources.
+     */
+    public static final String RESOURCES = "resources";
+
+    /**
+     * The layer of application classes, and the manifest.
+     */
+    public static final String APPLICATION = "application";
+
+    /**
+     * The layers, from the least to the most frequently changing.
+     */
+    public static final List<String> LAYERS =
+        Collections.unmodifiableList(Arrays.asList(DEPENDENCIES, SNAPSHOT_DEPENDENCIES, RESOURCES, APPLICATION));
+
+    /**
+     * The folders nested jars live in.
+     */
+    protected static final String[] LIBRARY_FOLDERS =
+        { "BOOT-INF/lib/", "WEB-INF/lib/", "WEB-INF/lib-provided/" };
+
+    /**
+     * Spring Boot's launcher classes.
+     */
+    protected static final String LOADER_FOLDER = "org/springframework/boot/loader/";
+
+    /**
+     * The local file header signature.
+     */
+    protected static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+    /**
+     * The central directory header signature.
+     */
+    protected static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+
+    /**
+     * The end of central directory signature.
+     */
+    protected static final int END_SIGNATURE = 0x06054b50;
+
+    /**
+     * The optional data descriptor signature.
+     */
+    protected static final int DESCRIPTOR_SIGNATURE = 0x08074b50;
+
+    /**
+     * The size of the fixed part of a local file header.
+     */
+    protected static final int LOCAL_HEADER_SIZE = 30;
+
+    /**
+     * The size of the fixed part of a central directory header.
+     */
+    protected static final int CENTRAL_HEADER_SIZE = 46;
+
+    /**
+     * The size of the end of central directory record, without comment.
+     */
+    protected static final int END_SIZE = 22;
+
+    /**
+     * The flag telling a data descriptor follows the data.
+     */
+    protected static final int DESCRIPTOR_FLAG = 0x08;
+
+    /**
+     * The value marking a Zip64 field.
+     */
+    protected static final long ZIP64_MARKER = 0xFFFFFFFFL;
+
+    /**
+     * The value marking a Zip64 entry count.
+     */
+    protected static final int ZIP64_ENTRIES = 0xFFFF;
+
+    /**
+     * Retrieves the layer of an entry.
+     * @param name the entry name.
+     * @return the layer.
+     */
+    public static String classify(final String name)
+    {
+        String result = null;
+
+        for (final String folder : LIBRARY_FOLDERS)
+        {
+            if (name.startsWith(folder))
+            {
+                result = name.contains("-SNAPSHOT") ? SNAPSHOT_DEPENDENCIES : DEPENDENCIES;
+                break;
+            }
+        }
+
+        if (result == null)
+        {
+            if (name.startsWith(LOADER_FOLDER))
+            {
+                result = DEPENDENCIES;
+            }
+            else if (name.endsWith(".class"))
+            {
+                result = APPLICATION;
+            }
+            else if (   (name.startsWith("BOOT-INF/classes/"))
+                     || (name.startsWith("WEB-INF/classes/"))
+                     || (   (!name.startsWith("META-INF/"))
+                         && (!name.startsWith("BOOT-INF/"))
+                         && (!name.startsWith("WEB-INF/"))))
+            {
+                result = RESOURCES;
+            }
+            else
+            {
+                // The manifest, and Spring Boot's index files.
+                result = APPLICATION;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Splits several jars concurrently.
+     * @param jars the jars.
+     * @param executor the executor.
+     * @return the result for each jar, in order.
+     * @throws IOException if any jar cannot be split.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public List<Result> extractAll(final List<LayeredJar> jars, final ExecutorService executor)
+        throws IOException,
+               InterruptedException
+    {
+        final List<Future<Result>> futures = new ArrayList<Future<Result>>(jars.size());
+
+        for (final LayeredJar jar : jars)
+        {
+            futures.add(
+                executor.submit(
+                    new Callable<Result>()
+                    {
+                        /**
+                         * {@inheritDoc}
+                         */
+                        @Override
+                        public Result call()
+                            throws IOException
+                        {
+                            return extract(jar);
+                        }
+                    }));
+        }
+
+        final List<Result> result = new ArrayList<Result>(jars.size());
+
+        for (final Future<Result> future : futures)
+        {
+            try
+            {
+                result.add(future.get());
+            }
+            catch (final ExecutionException failed)
+            {
+                if (failed.getCause() instanceof IOException)
+                {
+                    throw (IOException) failed.getCause();
+                }
+
+                throw new IOException(failed.getCause());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Splits a jar into its layers, unless they are up to date.
+     * @param jar the jar.
+     * @return the outcome.
+     * @throws IOException if the jar cannot be read, or the layers written.
+     */
+    public Result extract(final LayeredJar jar)
+        throws IOException
+    {
+        final long start = System.nanoTime();
+
+        final Map<String, Tally> tallies = new LinkedHashMap<String, Tally>();
+
+        for (final String layer : LAYERS)
+        {
+            tallies.put(layer, new Tally());
+        }
+
+        final boolean upToDate = isUpToDate(jar);
+
+        if (!upToDate)
+        {
+            try (FileChannel input = FileChannel.open(jar.getSource().toPath(), StandardOpenOption.READ))
+            {
+                final List<Entry> entries = readCentralDirectory(input);
+
+                final Map<String, List<Entry>> layers = new LinkedHashMap<String, List<Entry>>();
+
+                for (final String layer : LAYERS)
+                {
+                    layers.put(layer, new ArrayList<Entry>());
+                }
+
+                for (final Entry entry : entries)
+                {
+                    if (!entry.getName().endsWith("/"))
+                    {
+                        layers.get(classify(entry.getName())).add(entry);
+                    }
+                }
+
+                final FileTime modified = Files.getLastModifiedTime(jar.getSource().toPath());
+
+                for (final LayeredJar.Layer layer : jar.getLayers())
+                {
+                    final List<Entry> layerEntries = layers.get(layer.getName());
+
+                    writeLayer(input, layerEntries, layer.getFile().toPath(), tallies.get(layer.getName()));
+
+                    // Same timestamp as the source: the next build can skip it.
+                    Files.setLastModifiedTime(layer.getFile().toPath(), modified);
+                }
+            }
+        }
+
+        return new Result(jar, tallies, upToDate, System.nanoTime() - start);
+    }
+
+    /**
+     * Checks whether the layers of a jar are up to date.
+     * @param jar the jar.
+     * @return {@code true} if all exist, with the timestamp of the jar.
+     */
+    protected boolean isUpToDate(final LayeredJar jar)
+    {
+        boolean result = jar.getSource().isFile();
+
+        for (final LayeredJar.Layer layer : jar.getLayers())
+        {
+            result &=
+                   (layer.getFile().isFile())
+                && (layer.getFile().lastModified() == jar.getSource().lastModified());
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads the central directory of a zip file.
+     * @param input the zip file.
+     * @return its entries, in order, with their offsets from the start of the file.
+     * @throws IOException if it's not a zip file, or uses Zip64.
+     */
+    protected List<Entry> readCentralDirectory(final FileChannel input)
+        throws IOException
+    {
+        final long size = input.size();
+
+        // The end record is at the end, followed by a comment of up to 64 KB.
+        final int tail = (int) Math.min(size, END_SIZE + 0xFFFF);
+        final ByteBuffer buffer = read(input, size - tail, tail);
+
+        int end = -1;
+
+        for (int position = tail - END_SIZE; position >= 0; position--)
+        {
+            if (buffer.getInt(position) == END_SIGNATURE)
+            {
+                end = position;
+                break;
+            }
+        }
+
+        if (end < 0)
+        {
+            throw new IOException("Not a zip file: no end of central directory");
+        }
+
+        final int count = buffer.getShort(end + 10) & 0xFFFF;
+        final long directorySize = buffer.getInt(end + 12) & ZIP64_MARKER;
+        final long directoryOffset = buffer.getInt(end + 16) & ZIP64_MARKER;
+
+        if (   (count == ZIP64_ENTRIES)
+            || (directorySize == ZIP64_MARKER)
+            || (directoryOffset == ZIP64_MARKER))
+        {
+            throw new IOException("Zip64 archives are not supported");
+        }
+
+        // Executable jars start with a launch script: offsets are relative to the archive.
+        final long directoryStart = size - tail + end - directorySize;
+        final long shift = directoryStart - directoryOffset;
+
+        final ByteBuffer directory = read(input, directoryStart, (int) directorySize);
+
+        final List<Entry> result = new ArrayList<Entry>(count);
+
+        int position = 0;
+
+        while (position + CENTRAL_HEADER_SIZE <= directory.limit())
+        {
+            if (directory.getInt(position) != CENTRAL_HEADER_SIGNATURE)
+            {
+                throw new IOException("Corrupt central directory at " + (directoryStart + position));
+            }
+
+            final int nameLength = directory.getShort(position + 28) & 0xFFFF;
+            final int extraLength = directory.getShort(position + 30) & 0xFFFF;
+            final int commentLength = directory.getShort(position + 32) & 0xFFFF;
+            final int length = CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+
+            final long compressedSize = directory.getInt(position + 20) & ZIP64_MARKER;
+            final long localOffset = directory.getInt(position + 42) & ZIP64_MARKER;
+
+            if (   (compressedSize == ZIP64_MARKER)
+                || (localOffset == ZIP64_MARKER))
+            {
+                throw new IOException("Zip64 archives are not supported");
+            }
+
+            final byte[] header = new byte[length];
+            directory.position(position);
+            directory.get(header);
+
+            final byte[] name = new byte[nameLength];
+            System.arraycopy(header, CENTRAL_HEADER_SIZE, name, 0, nameLength);
+
+            result.add(
+                new Entry(
+                    new String(name, StandardCharsets.UTF_8),
+                    header,
+                    directory.getShort(position + 8) & 0xFFFF,
+                    compressedSize,
+                    localOffset + shift));
+
+            position += length;
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes a layer jar, copying its entries raw.
+     * @param input the fat jar.
+     * @param entries the entries of the layer.
+     * @param target the layer jar.
+     * @param tally where to count entries and bytes.
+     * @throws IOException if it cannot be written.
+     */
+    protected void writeLayer(
+        final FileChannel input, final List<Entry> entries, final Path target, final Tally tally)
+      throws IOException
+    {
+        if (entries.size() >= ZIP64_ENTRIES)
+        {
+            throw new IOException(
+                target + " would need Zip64 for its " + entries.size() + " entries, which is not supported");
+        }
+
+        Files.createDirectories(target.getParent());
+
+        final Path temp =
+            Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+
+        try
+        {
+            try (FileChannel output = FileChannel.open(temp, StandardOpenOption.WRITE))
+            {
+                final long[] offsets = new long[entries.size()];
+
+                for (int index = 0; index < entries.size(); index++)
+                {
+                    offsets[index] = output.position();
+                    copyEntry(input, entries.get(index), output);
+                    tally.add(entries.get(index).getCompressedSize());
+                }
+
+                final long directoryOffset = output.position();
+
+                for (int index = 0; index < entries.size(); index++)
+                {
+                    final ByteBuffer header = ByteBuffer.wrap(entries.get(index).getCentralHeader().clone());
+                    header.order(ByteOrder.LITTLE_ENDIAN);
+                    header.putInt(42, (int) offsets[index]);
+
+                    writeFully(output, header);
+                }
+
+                final long directorySize = output.position() - directoryOffset;
+
+                if (directoryOffset >= ZIP64_MARKER)
+                {
+                    throw new IOException(target + " would need Zip64, which is not supported");
+                }
+
+                final ByteBuffer end = ByteBuffer.allocate(END_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                end.putInt(END_SIGNATURE);
+                end.putShort((short) 0);
+                end.putShort((short) 0);
+                end.putShort((short) entries.size());
+                end.putShort((short) entries.size());
+                end.putInt((int) directorySize);
+                end.putInt((int) directoryOffset);
+                end.putShort((short) 0);
+                end.flip();
+
+                writeFully(output, end);
+            }
+
+            try
+            {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (final AtomicMoveNotSupportedException notAtomic)
+            {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Copies an entry as it is: local header, compressed data, and data descriptor.
+     * @param input the fat jar.
+     * @param entry the entry.
+     * @param output the layer jar.
+     * @throws IOException if it cannot be copied.
+     */
+    protected void copyEntry(final FileChannel input, final Entry entry, final FileChannel output)
+        throws IOException
+    {
+        final ByteBuffer header = read(input, entry.getLocalOffset(), LOCAL_HEADER_SIZE);
+
+        if (header.getInt(0) != LOCAL_HEADER_SIGNATURE)
+        {
+            throw new IOException("Corrupt local header for " + entry.getName());
+        }
+
+        long length =
+              LOCAL_HEADER_SIZE
+            + (header.getShort(26) & 0xFFFF)
+            + (header.getShort(28) & 0xFFFF)
+            + entry.getCompressedSize();
+
+        if ((entry.getFlags() & DESCRIPTOR_FLAG) != 0)
+        {
+            final ByteBuffer descriptor = read(input, entry.getLocalOffset() + length, 4);
+
+            length += (descriptor.getInt(0) == DESCRIPTOR_SIGNATURE) ? 16 : 12;
+        }
+
+        long copied = 0;
+
+        while (copied < length)
+        {
+            final long transferred = input.transferTo(entry.getLocalOffset() + copied, length - copied, output);
+
+            if (transferred <= 0)
+            {
+                throw new IOException("Truncated entry " + entry.getName());
+            }
+
+            copied += transferred;
+        }
+    }
+
+    /**
+     * Reads a region of a file.
+     * @param input the file.
+     * @param position where the region starts.
+     * @param length its length.
+     * @return the bytes, little-endian.
+     * @throws IOException if the file is too short.
+     */
+    protected static ByteBuffer read(final FileChannel input, final long position, final int length)
+        throws IOException
+    {
+        final ByteBuffer result = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (result.hasRemaining())
+        {
+            if (input.read(result, position + result.position()) < 0)
+            {
+                throw new IOException("Unexpected end of file at " + (position + result.position()));
+            }
+        }
+
+        result.flip();
+
+        return result;
+    }
+
+    /**
+     * Writes a whole buffer.
+     * @param output the channel.
+     * @param buffer the buffer.
+     * @throws IOException if it cannot be written.
+     */
+    protected static void writeFully(final FileChannel output, final ByteBuffer buffer)
+        throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            output.write(buffer);
+        }
+    }
+
+    /**
+     * A zip entry, as described in the central directory.
+     */
+    protected static final class Entry
+    {
+        /**
+         * The entry name.
+         */
+        private final String m__strName;
+
+        /**
+         * The central directory header.
+         */
+        private final byte[] m__aCentralHeader;
+
+        /**
+         * The general purpose flags.
+         */
+        private final int m__iFlags;
+
+        /**
+         * The compressed size.
+         */
+        private final long m__lCompressedSize;
+
+        /**
+         * The offset of the local header, from the start of the file.
+         */
+        private final long m__lLocalOffset;
+
+        /**
+         * Creates a new entry.
+         * @param name the name.
+         * @param centralHeader the central directory header.
+         * @param flags the general purpose flags.
+         * @param compressedSize the compressed size.
+         * @param localOffset the offset of the local header.
+         */
+        public Entry(
+            final String name,
+            final byte[] centralHeader,
+            final int flags,
+            final long compressedSize,
+            final long localOffset)
+        {
+            this.m__strName = name;
+            this.m__aCentralHeader = centralHeader;
+            this.m__iFlags = flags;
+            this.m__lCompressedSize = compressedSize;
+            this.m__lLocalOffset = localOffset;
+        }
+
+        /**
+         * Retrieves the name.
+         * @return such name.
+         */
+        public String getName()
+        {
+            return this.m__strName;
+        }
+
+        /**
+         * Retrieves the central directory header.
+         * @return such bytes.
+         */
+        public byte[] getCentralHeader()
+        {
+            return this.m__aCentralHeader;
+        }
+
+        /**
+         * Retrieves the general purpose flags.
+         * @return such flags.
+         */
+        public int getFlags()
+        {
+            return this.m__iFlags;
+        }
+
+        /**
+         * Retrieves the compressed size.
+         * @return such size.
+         */
+        public long getCompressedSize()
+        {
+            return this.m__lCompressedSize;
+        }
+
+        /**
+         * Retrieves the offset of the local header.
+         * @return such offset.
+         */
+        public long getLocalOffset()
+        {
+            return this.m__lLocalOffset;
+        }
+    }
+
+    /**
+     * The entries and bytes copied into a layer.
+     */
+    public static final class Tally
+    {
+        /**
+         * The number of entries.
+         */
+        private int m__iEntries;
+
+        /**
+         * The compressed bytes.
+         */
+        private long m__lBytes;
+
+        /**
+         * Counts an entry.
+         * @param bytes its compressed size.
+         */
+        protected void add(final long bytes)
+        {
+            this.m__iEntries++;
+            this.m__lBytes += bytes;
+        }
+
+        /**
+         * Retrieves the number of entries.
+         * @return such number.
+         */
+        public int getEntries()
+        {
+            return this.m__iEntries;
+        }
+
+        /**
+         * Retrieves the compressed bytes.
+         * @return such size.
+         */
+        public long getBytes()
+        {
+            return this.m__lBytes;
+        }
+    }
+
+    /**
+     * The outcome of splitting a jar.
+     */
+    public static final class Result
+    {
+        /**
+         * The jar.
+         */
+        private final LayeredJar m__Jar;
+
+        /**
+         * The entries and bytes of each layer.
+         */
+        private final Map<String, Tally> m__mLayers;
+
+        /**
+         * Whether the layers were up to date.
+         */
+        private final boolean m__bUpToDate;
+
+        /**
+         * The time spent.
+         */
+        private final long m__lNanos;
+
+        /**
+         * Creates a new result.
+         * @param jar the jar.
+         * @param layers the entries and bytes of each layer.
+         * @param upToDate whether the layers were up to date.
+         * @param nanos the time spent.
+         */
+        public Result(
+            final LayeredJar jar, final Map<String, Tally> layers, final boolean upToDate, final long nanos)
+        {
+            this.m__Jar = jar;
+            this.m__mLayers = Collections.unmodifiableMap(layers);
+            this.m__bUpToDate = upToDate;
+            this.m__lNanos = nanos;
+        }
+
+        /**
+         * Retrieves the jar.
+         * @return such jar.
+         */
+        public LayeredJar getJar()
+        {
+            return this.m__Jar;
+        }
+
+        /**
+         * Retrieves the entries and bytes of each layer.
+         * @return such tallies, by layer; empty counts if up to date.
+         */
+        public Map<String, Tally> getLayers()
+        {
+            return this.m__mLayers;
+        }
+
+        /**
+         * Checks whether the layers were up to date.
+         * @return {@code true} in such case.
+         */
+        public boolean isUpToDate()
+        {
+            return this.m__bUpToDate;
+        }
+
+        /**
+         * Retrieves the time spent.
+         * @return such time, in nanoseconds.
+         */
+        public long getNanos()
+        {
+            return this.m__lNanos;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            final StringBuilder result = new StringBuilder(this.m__Jar.getSource().getName());
+
+            if (this.m__bUpToDate)
+            {
+                result.append(": layers up to date");
+            }
+            else
+            {
+                String separator = ": ";
+
+                for (final Map.Entry<String, Tally> layer : this.m__mLayers.entrySet())
+                {
+                    result
+                        .append(separator).append(layer.getKey()).append(' ')
+                        .append(layer.getValue().getEntries()).append(" entries/")
+                        .append(ContextAnalyzer.formatBytes(layer.getValue().getBytes()));
+                    separator = ", ";
+                }
+            }
+
+            return result.append(" in ").append(this.m__lNanos / 1000000).append(" ms").toString();
+        }
+    }
+}
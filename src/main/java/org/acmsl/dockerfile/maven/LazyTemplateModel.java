@@ -0,0 +1,379 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: LazyTemplateModel.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Template input whose values are computed on first access.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Template input whose values are computed on first access. Besides plain
+ * values, it holds {@link ValueProvider}s that are only invoked when a template
+ * actually reads them, once: views created with {@link #select} share the
+ * computed values, so several templates rendered in the same build reuse them.
+ * <p>StringTemplate reads maps through {@code containsKey} and {@code get}, and
+ * iterates them through {@code keySet}, none of which compute anything.
+ * {@link #entrySet()} does compute every value.</p>
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public class LazyTemplateModel
+    extends AbstractMap<String, Object>
+{
+    /**
+     * Computes a value.
+     */
+    public interface ValueProvider
+    {
+        /**
+         * Computes the value.
+         * @return such value, possibly {@code null}.
+         * @throws Exception if it cannot be computed.
+         */
+        Object provide()
+            throws Exception;
+    }
+
+    /**
+     * Stands for {@code null} values.
+     */
+    protected static final Object NULL = new Object();
+
+    /**
+     * The plain values.
+     */
+    private final ConcurrentMap<String, Object> m__mValues;
+
+    /**
+     * The providers.
+     */
+    private final ConcurrentMap<String, ValueProvider> m__mProviders;
+
+    /**
+     * The computed values, shared by all views.
+     */
+    private final ConcurrentMap<String, FutureTask<Object>> m__mComputed;
+
+    /**
+     * Creates an empty model.
+     */
+    public LazyTemplateModel()
+    {
+        this(
+            new ConcurrentHashMap<String, Object>(),
+            new ConcurrentHashMap<String, ValueProvider>(),
+            new ConcurrentHashMap<String, FutureTask<Object>>());
+    }
+
+    /**
+     * Creates an empty model, sharing the values computed by other models
+     * with the same providers.
+     * @param computed the computed values.
+     */
+    public LazyTemplateModel(final ConcurrentMap<String, FutureTask<Object>> computed)
+    {
+        this(
+            new ConcurrentHashMap<String, Object>(),
+            new ConcurrentHashMap<String, ValueProvider>(),
+            computed);
+    }
+
+    /**
+     * Creates a model.
+     * @param values the plain values.
+     * @param providers the providers.
+     * @param computed the computed values.
+     */
+    protected LazyTemplateModel(
+        final ConcurrentMap<String, Object> values,
+        final ConcurrentMap<String, ValueProvider> providers,
+        final ConcurrentMap<String, FutureTask<Object>> computed)
+    {
+        this.m__mValues = values;
+        this.m__mProviders = providers;
+        this.m__mComputed = computed;
+    }
+
+    /**
+     * Adds a plain value.
+     * @param name the name.
+     * @param value the value.
+     * @return the previous value, if any.
+     */
+    @Override
+    public Object put(final String name, final Object value)
+    {
+        final Object result = unmask(this.m__mValues.put(name, mask(value)));
+
+        this.m__mProviders.remove(name);
+
+        return result;
+    }
+
+    /**
+     * Adds a value computed on first access.
+     * @param name the name.
+     * @param provider the provider.
+     */
+    public void provide(final String name, final ValueProvider provider)
+    {
+        this.m__mValues.remove(name);
+        this.m__mProviders.put(name, provider);
+    }
+
+    /**
+     * Creates a view with the plain values and just the providers the
+     * templates reference. Values computed through the view are shared with
+     * this model.
+     * @param references the references.
+     * @return such view.
+     */
+    public LazyTemplateModel select(final TemplateAttributeScanner.Result references)
+    {
+        final ConcurrentMap<String, ValueProvider> providers = new ConcurrentHashMap<String, ValueProvider>();
+
+        for (final Map.Entry<String, ValueProvider> entry : this.m__mProviders.entrySet())
+        {
+            if (references.references(entry.getKey()))
+            {
+                providers.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return
+            new LazyTemplateModel(
+                new ConcurrentHashMap<String, Object>(this.m__mValues), providers, this.m__mComputed);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(final Object name)
+    {
+        return
+               (this.m__mValues.containsKey(name))
+            || (this.m__mProviders.containsKey(name));
+    }
+
+    /**
+     * Retrieves a value, computing it if needed.
+     * @param name the name.
+     * @return the value.
+     * @throws IllegalStateException if the value cannot be computed.
+     */
+    @Override
+    public Object get(final Object name)
+    {
+        final Object result;
+
+        final Object value = this.m__mValues.get(name);
+
+        if (value != null)
+        {
+            result = unmask(value);
+        }
+        else if (this.m__mProviders.containsKey(name))
+        {
+            result = compute((String) name);
+        }
+        else
+        {
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes a value, or waits for another thread to compute it.
+     * @param name the name.
+     * @return the value.
+     * @throws IllegalStateException if the value cannot be computed.
+     */
+    protected Object compute(final String name)
+    {
+        final Object result;
+
+        final ValueProvider provider = this.m__mProviders.get(name);
+
+        FutureTask<Object> task = this.m__mComputed.get(name);
+
+        if (task == null)
+        {
+            final FutureTask<Object> newTask =
+                new FutureTask<Object>(
+                    new Callable<Object>()
+                    {
+                        /**
+                         * {@inheritDoc}
+                         */
+                        @Override
+                        public Object call()
+                            throws Exception
+                        {
+                            return provider.provide();
+                        }
+                    });
+
+            task = this.m__mComputed.putIfAbsent(name, newTask);
+
+            if (task == null)
+            {
+                task = newTask;
+                task.run();
+            }
+        }
+
+        try
+        {
+            result = task.get();
+        }
+        catch (final InterruptedException interrupted)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while computing " + name, interrupted);
+        }
+        catch (final ExecutionException failed)
+        {
+            throw new IllegalStateException("Cannot compute " + name + ": " + failed.getCause(), failed.getCause());
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether given value is computed on first access.
+     * @param name the name.
+     * @return {@code true} in such case.
+     */
+    public boolean isLazy(final String name)
+    {
+        return this.m__mProviders.containsKey(name);
+    }
+
+    /**
+     * Checks whether given value has already been computed.
+     * @param name the name.
+     * @return {@code true} in such case.
+     */
+    public boolean isComputed(final String name)
+    {
+        final FutureTask<Object> task = this.m__mComputed.get(name);
+
+        return
+               (task != null)
+            && (task.isDone());
+    }
+
+    /**
+     * Retrieves the names of the values computed on first access.
+     * @return such names, sorted.
+     */
+    public Set<String> getLazyNames()
+    {
+        return Collections.unmodifiableSet(new TreeSet<String>(this.m__mProviders.keySet()));
+    }
+
+    /**
+     * Retrieves all names, without computing anything.
+     * @return such names.
+     */
+    @Override
+    public Set<String> keySet()
+    {
+        final Set<String> result = new TreeSet<String>(this.m__mValues.keySet());
+
+        result.addAll(this.m__mProviders.keySet());
+
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Counts the values, without computing them.
+     * @return such number.
+     */
+    @Override
+    public int size()
+    {
+        return keySet().size();
+    }
+
+    /**
+     * Retrieves all entries, computing every value.
+     * @return such entries.
+     */
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet()
+    {
+        final Map<String, Object> result = new LinkedHashMap<String, Object>();
+
+        for (final String name : keySet())
+        {
+            result.put(name, get(name));
+        }
+
+        return Collections.unmodifiableMap(result).entrySet();
+    }
+
+    /**
+     * Masks {@code null} values, which concurrent maps do not support.
+     * @param value the value.
+     * @return the value to store.
+     */
+    protected static Object mask(final Object value)
+    {
+        return (value == null) ? NULL : value;
+    }
+
+    /**
+     * Unmasks stored values.
+     * @param value the stored value.
+     * @return the actual value.
+     */
+    protected static Object unmask(final Object value)
+    {
+        return (value == NULL) ? null : value;
+    }
+}
@@ -62,6 +62,86 @@ public class Literals
      */
     public static final String DOCKERFILE_VERSION = DOCKERFILE_L + ".version";
 
+    /**
+     * String literal: "optimize".
+     */
+    public static final String OPTIMIZE_L = "optimize";
+
+    /**
+     * String literal: "postProcessors".
+     */
+    public static final String POST_PROCESSORS_CC = "postProcessors";
+
+    /**
+     * String literal: "pinDigests".
+     */
+    public static final String PIN_DIGESTS_CC = "pinDigests";
+
+    /**
+     * String literal: "layeredJars".
+     */
+    public static final String LAYERED_JARS_CC = "layeredJars";
+
+    /**
+     * String literal: "failOnTemplateErrors".
+     */
+    public static final String FAIL_ON_TEMPLATE_ERRORS_CC = "failOnTemplateErrors";
+
+    /**
+     * String literal: "checksumSidecars".
+     */
+    public static final String CHECKSUM_SIDECARS_CC = "checksumSidecars";
+
+    /**
+     * String literal: "parallelism".
+     */
+    public static final String PARALLELISM_L = "parallelism";
+
+    /**
+     * String literal: "useGenerationCache".
+     */
+    public static final String USE_GENERATION_CACHE_CC = "useGenerationCache";
+
+    /**
+     * String literal: "generationCacheDir".
+     */
+    public static final String GENERATION_CACHE_DIR_CC = "generationCacheDir";
+
+    /**
+     * String literal: "generationCacheMaxBytes".
+     */
+    public static final String GENERATION_CACHE_MAX_BYTES_CC = "generationCacheMaxBytes";
+
+    /**
+     * String literal: "imageDigests".
+     */
+    public static final String IMAGE_DIGESTS_CC = "imageDigests";
+
+    /**
+     * String literal: "imageDigestCache".
+     */
+    public static final String IMAGE_DIGEST_CACHE_CC = "imageDigestCache";
+
+    /**
+     * String literal: "imageDigestTtl".
+     */
+    public static final String IMAGE_DIGEST_TTL_CC = "imageDigestTtl";
+
+    /**
+     * String literal: "imageDigestsOffline".
+     */
+    public static final String IMAGE_DIGESTS_OFFLINE_CC = "imageDigestsOffline";
+
+    /**
+     * String literal: "checksumCache".
+     */
+    public static final String CHECKSUM_CACHE_CC = "checksumCache";
+
+    /**
+     * String literal: "pom".
+     */
+    public static final String POM_L = "pom";
+
     /**
      * String literal: "outputDir".
      */
@@ -161,4 +241,289 @@ public class Literals
      * String literal: "dockerfile.deploymentRetries".
      */
     public static final String DOCKERFILE_DEPLOYMENT_RETRIES = "dockerfile.deploymentRetries";
+
+    /**
+     * String literal: "dockerfile.templateCache.maxEntries".
+     */
+    public static final String DOCKERFILE_TEMPLATE_CACHE_MAX_ENTRIES = "dockerfile.templateCache.maxEntries";
+
+    /**
+     * String literal: "dockerfile-maven-plugin".
+     */
+    public static final String DOCKERFILE_MAVEN_PLUGIN = "dockerfile-maven-plugin";
+
+    /**
+     * String literal: "explain".
+     */
+    public static final String EXPLAIN_L = "explain";
+
+    /**
+     * String literal: "dockerfile.explain".
+     */
+    public static final String DOCKERFILE_EXPLAIN = "dockerfile.explain";
+
+    /**
+     * String literal: "Dockerfile".
+     */
+    public static final String DOCKERFILE_U = "Dockerfile";
+
+    /**
+     * String literal: "dockerfiles".
+     */
+    public static final String DOCKERFILES_L = "dockerfiles";
+
+    /**
+     * String literal: "dockerfile.parallelism".
+     */
+    public static final String DOCKERFILE_PARALLELISM = "dockerfile.parallelism";
+
+    /**
+     * String literal: "dependencies".
+     */
+    public static final String DEPENDENCIES_L = "dependencies";
+
+    /**
+     * String literal: "plugins".
+     */
+    public static final String PLUGINS_L = "plugins";
+
+    /**
+     * String literal: "git".
+     */
+    public static final String GIT_L = "git";
+
+    /**
+     * String literal: "checksums".
+     */
+    public static final String CHECKSUMS_L = "checksums";
+
+    /**
+     * String literal: "dockerfile-maven-plugin.model".
+     */
+    public static final String DOCKERFILE_MAVEN_PLUGIN_MODEL = DOCKERFILE_MAVEN_PLUGIN + ".model";
+
+    /**
+     * String literal: "aggregate".
+     */
+    public static final String AGGREGATE_L = "aggregate";
+
+    /**
+     * String literal: "output".
+     */
+    public static final String OUTPUT_L = "output";
+
+    /**
+     * String literal: "templatePacks".
+     */
+    public static final String TEMPLATE_PACKS_L = "templatePacks";
+
+    /**
+     * String literal: "templatePack".
+     */
+    public static final String TEMPLATE_PACK_L = "templatePack";
+
+    /**
+     * String literal: "watch".
+     */
+    public static final String WATCH_L = "watch";
+
+    /**
+     * String literal: "dockerfile.watch.debounce".
+     */
+    public static final String DOCKERFILE_WATCH_DEBOUNCE = "dockerfile.watch.debounce";
+
+    /**
+     * String literal: "dockerfile.watch.timeout".
+     */
+    public static final String DOCKERFILE_WATCH_TIMEOUT = "dockerfile.watch.timeout";
+
+    /**
+     * String literal: "partitions".
+     */
+    public static final String PARTITIONS_L = "partitions";
+
+    /**
+     * String literal: "dockerfile.stageContext".
+     */
+    public static final String DOCKERFILE_STAGE_CONTEXT = "dockerfile.stageContext";
+
+    /**
+     * String literal: "dockerfile.contextLinks".
+     */
+    public static final String DOCKERFILE_CONTEXT_LINKS = "dockerfile.contextLinks";
+
+    /**
+     * String literal: "dockerfile.deploymentBackoff".
+     */
+    public static final String DOCKERFILE_DEPLOYMENT_BACKOFF = "dockerfile.deploymentBackoff";
+
+    /**
+     * String literal: "altDeploymentRepository".
+     */
+    public static final String ALT_DEPLOYMENT_REPOSITORY = "altDeploymentRepository";
+
+    /**
+     * String literal: "txt".
+     */
+    public static final String TXT_L = "txt";
+
+    /**
+     * String literal: "dockerfile.dockerignore".
+     */
+    public static final String DOCKERFILE_DOCKERIGNORE = "dockerfile.dockerignore";
+
+    /**
+     * String literal: "dockerfile.analyzeContext".
+     */
+    public static final String DOCKERFILE_ANALYZE_CONTEXT = "dockerfile.analyzeContext";
+
+    /**
+     * String literal: "dockerfile.generationCache".
+     */
+    public static final String DOCKERFILE_GENERATION_CACHE = "dockerfile.generationCache";
+
+    /**
+     * String literal: "dockerfile.generationCache.dir".
+     */
+    public static final String DOCKERFILE_GENERATION_CACHE_DIR = DOCKERFILE_GENERATION_CACHE + ".dir";
+
+    /**
+     * String literal: "dockerfile.generationCache.maxBytes".
+     */
+    public static final String DOCKERFILE_GENERATION_CACHE_MAX_BYTES = DOCKERFILE_GENERATION_CACHE + ".maxBytes";
+
+    /**
+     * String literal: "layers".
+     */
+    public static final String LAYERS_L = "layers";
+
+    /**
+     * String literal: "matrix".
+     */
+    public static final String MATRIX_L = "matrix";
+
+    /**
+     * String literal: "name".
+     */
+    public static final String NAME_L = "name";
+
+    /**
+     * String literal: "prefix".
+     */
+    public static final String PREFIX_L = "prefix";
+
+    /**
+     * String literal: "values".
+     */
+    public static final String VALUES_L = "values";
+
+    /**
+     * String literal: "validate".
+     */
+    public static final String VALIDATE_L = "validate";
+
+    /**
+     * String literal: "dockerfile.checksumSidecars".
+     */
+    public static final String DOCKERFILE_CHECKSUM_SIDECARS = "dockerfile.checksumSidecars";
+
+    /**
+     * String literal: "dockerfile.failOnTemplateErrors".
+     */
+    public static final String DOCKERFILE_FAIL_ON_TEMPLATE_ERRORS = "dockerfile.failOnTemplateErrors";
+
+    /**
+     * String literal: "dockerfile.validate.failOnWarnings".
+     */
+    public static final String DOCKERFILE_VALIDATE_FAIL_ON_WARNINGS = "dockerfile.validate.failOnWarnings";
+
+    /**
+     * String literal: "jarLayers".
+     */
+    public static final String JAR_LAYERS_L = "jarLayers";
+
+    /**
+     * String literal: "dockerfile.optimize".
+     */
+    public static final String DOCKERFILE_OPTIMIZE = "dockerfile.optimize";
+
+    /**
+     * String literal: "estimate".
+     */
+    public static final String ESTIMATE_L = "estimate";
+
+    /**
+     * String literal: "pinned".
+     */
+    public static final String PINNED_L = "pinned";
+
+    /**
+     * String literal: "dockerfile.pinDigests".
+     */
+    public static final String DOCKERFILE_PIN_DIGESTS = "dockerfile.pinDigests";
+
+    /**
+     * String literal: "dockerfile.imageDigests".
+     */
+    public static final String DOCKERFILE_IMAGE_DIGESTS = "dockerfile.imageDigests";
+
+    /**
+     * String literal: "dockerfile.imageDigestCache".
+     */
+    public static final String DOCKERFILE_IMAGE_DIGEST_CACHE = "dockerfile.imageDigestCache";
+
+    /**
+     * String literal: "dockerfile.imageDigestTtl".
+     */
+    public static final String DOCKERFILE_IMAGE_DIGEST_TTL = "dockerfile.imageDigestTtl";
+
+    /**
+     * String literal: "dockerfile.imageDigestsOffline".
+     */
+    public static final String DOCKERFILE_IMAGE_DIGESTS_OFFLINE = "dockerfile.imageDigestsOffline";
+
+    /**
+     * String literal: "dockerfile.checksumCache".
+     */
+    public static final String DOCKERFILE_CHECKSUM_CACHE = "dockerfile.checksumCache";
+
+    /**
+     * String literal: "stageContext".
+     */
+    public static final String STAGE_CONTEXT_CC = "stageContext";
+
+    /**
+     * String literal: "contextDir".
+     */
+    public static final String CONTEXT_DIR_CC = "contextDir";
+
+    /**
+     * String literal: "contextLinks".
+     */
+    public static final String CONTEXT_LINKS_CC = "contextLinks";
+
+    /**
+     * String literal: "dockerignore".
+     */
+    public static final String DOCKERIGNORE_L = "dockerignore";
+
+    /**
+     * String literal: "analyzeContext".
+     */
+    public static final String ANALYZE_CONTEXT_CC = "analyzeContext";
+
+    /**
+     * String literal: "deploymentBackoff".
+     */
+    public static final String DEPLOYMENT_BACKOFF_CC = "deploymentBackoff";
+
+    /**
+     * String literal: "debounce".
+     */
+    public static final String DEBOUNCE_L = "debounce";
+
+    /**
+     * String literal: "timeout".
+     */
+    public static final String TIMEOUT_L = "timeout";
 }
@@ -0,0 +1,257 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: LockedFile.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Serializes changes to files shared by threads and processes.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A lock file guarding files shared by the threads of this process and by
+ * other processes, such as the caches in the local repository: actions run
+ * holding both an in-process lock and a {@link FileLock} on it, since file
+ * locks are held by the whole JVM, and cannot be acquired twice. Files are
+ * replaced by renaming a temporary file over them, so readers never see them
+ * half written.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+final class LockedFile
+{
+    /**
+     * The in-process locks, by lock file.
+     */
+    private static final ConcurrentMap<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<Path, ReentrantLock>();
+
+    /**
+     * The lock file.
+     */
+    private final Path m__Path;
+
+    /**
+     * The in-process lock, shared by every instance on the same lock file.
+     */
+    private final ReentrantLock m__Lock;
+
+    /**
+     * Creates a new lock.
+     * @param path the lock file.
+     */
+    LockedFile(final Path path)
+    {
+        this.m__Path = path.toAbsolutePath().normalize();
+
+        final ReentrantLock lock = new ReentrantLock();
+        final ReentrantLock existing = LOCKS.putIfAbsent(this.m__Path, lock);
+
+        this.m__Lock = (existing == null) ? lock : existing;
+    }
+
+    /**
+     * Retrieves the lock file.
+     * @return such file.
+     */
+    Path getPath()
+    {
+        return this.m__Path;
+    }
+
+    /**
+     * Runs given action holding both the in-process lock and the lock file.
+     * @param action the action.
+     * @param <T> the type of the result.
+     * @return its result.
+     * @throws IOException if the lock cannot be acquired, or the action fails.
+     */
+    <T> T withLock(final Callable<T> action)
+        throws IOException
+    {
+        final T result;
+
+        Files.createDirectories(this.m__Path.getParent());
+
+        this.m__Lock.lock();
+
+        try (FileChannel channel = FileChannel.open(this.m__Path, StandardOpenOption.CREATE, StandardOpenOption.WRITE))
+        {
+            final FileLock lock = channel.lock();
+
+            try
+            {
+                result = action.call();
+            }
+            finally
+            {
+                lock.release();
+            }
+        }
+        catch (final IOException | RuntimeException failure)
+        {
+            throw failure;
+        }
+        catch (final Exception unexpected)
+        {
+            throw new IOException(unexpected);
+        }
+        finally
+        {
+            this.m__Lock.unlock();
+        }
+
+        return result;
+    }
+
+    /**
+     * Replaces a file with a temporary one, atomically if the filesystem
+     * allows it.
+     * @param temp the temporary file.
+     * @param target the file.
+     * @throws IOException if it cannot be moved.
+     */
+    static void replace(final Path temp, final Path target)
+        throws IOException
+    {
+        try
+        {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (final AtomicMoveNotSupportedException notAtomic)
+        {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads a properties file.
+     * @param file the file.
+     * @return its properties, empty if there's no file.
+     * @throws IOException if it cannot be read.
+     */
+    static Map<String, String> readProperties(final Path file)
+        throws IOException
+    {
+        final Map<String, String> result = new HashMap<String, String>();
+
+        final Properties properties = new Properties();
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            properties.load(reader);
+        }
+        catch (final NoSuchFileException missing)
+        {
+            properties.clear();
+        }
+
+        for (final String key : properties.stringPropertyNames())
+        {
+            result.put(key, properties.getProperty(key));
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes a properties file atomically, one sorted line per key and
+     * without the timestamp comment, so it diffs well. Callers must hold
+     * the lock.
+     * @param file the file.
+     * @param values the properties.
+     * @throws IOException if it cannot be written.
+     */
+    static void writeProperties(final Path file, final Map<String, String> values)
+        throws IOException
+    {
+        final Path temp = Files.createTempFile(file.getParent(), "." + file.getFileName(), ".tmp");
+
+        try
+        {
+            final Properties properties = new Properties();
+            properties.putAll(values);
+
+            final StringWriter text = new StringWriter();
+
+            properties.store(text, null);
+
+            final List<String> lines = new ArrayList<String>();
+
+            for (final String line : text.toString().split("\\r?\\n"))
+            {
+                if (   (!line.isEmpty())
+                    && (!line.startsWith("#")))
+                {
+                    lines.add(line);
+                }
+            }
+
+            Collections.sort(lines);
+
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8))
+            {
+                for (final String line : lines)
+                {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+
+            replace(temp, file);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: MatrixAxis.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: One axis of a matrix of Dockerfiles.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One axis of a matrix of Dockerfiles, such as the JDK or the architecture.
+ * Configured as {@code <matrix><axis><name>jdk</name><prefix>jdk</prefix>
+ * <values><value>17</value><value>21</value></values></axis></matrix>}.
+ * Templates read the value as {@code C.matrix.jdk}; outputs and classifiers
+ * get the prefixed values as suffix, e.g. {@code Dockerfile.jdk21-arm64}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class MatrixAxis
+{
+    /**
+     * The name.
+     */
+    private String name;
+
+    /**
+     * The prefix of the values in output names, if any.
+     */
+    private String prefix;
+
+    /**
+     * The values.
+     */
+    private List<String> values;
+
+    /**
+     * Creates an empty axis, as Maven does.
+     */
+    public MatrixAxis()
+    {
+    }
+
+    /**
+     * Creates a new axis.
+     * @param name the name.
+     * @param prefix the prefix of the values in output names.
+     * @param values the values.
+     */
+    public MatrixAxis(final String name, final String prefix, final List<String> values)
+    {
+        this.name = name;
+        this.prefix = prefix;
+        this.values = values;
+    }
+
+    /**
+     * Retrieves the name.
+     * @return such name.
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * Specifies the name.
+     * @param name such name.
+     */
+    public void setName(final String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Retrieves the prefix of the values in output names.
+     * @return such prefix, empty by default.
+     */
+    public String getPrefix()
+    {
+        return (this.prefix == null) ? "" : this.prefix;
+    }
+
+    /**
+     * Specifies the prefix of the values in output names.
+     * @param prefix such prefix.
+     */
+    public void setPrefix(final String prefix)
+    {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Retrieves the values.
+     * @return such values.
+     */
+    public List<String> getValues()
+    {
+        return (this.values == null) ? Collections.<String>emptyList() : this.values;
+    }
+
+    /**
+     * Specifies the values.
+     * @param values such values.
+     */
+    public void setValues(final List<String> values)
+    {
+        this.values = values;
+    }
+
+    /**
+     * Retrieves the label of a value in output names.
+     * @param value the value.
+     * @return the prefixed value.
+     */
+    public String getLabel(final String value)
+    {
+        return getPrefix() + value;
+    }
+
+    /**
+     * Computes the cartesian product of given axes, the first one varying slowest.
+     * @param axes the axes.
+     * @return the combinations, each mapping axis names to values in axis order.
+     */
+    public static List<Map<String, String>> combine(final List<MatrixAxis> axes)
+    {
+        List<Map<String, String>> result = new ArrayList<Map<String, String>>();
+
+        result.add(new LinkedHashMap<String, String>());
+
+        for (final MatrixAxis axis : axes)
+        {
+            final List<Map<String, String>> combinations =
+                new ArrayList<Map<String, String>>(result.size() * axis.getValues().size());
+
+            for (final Map<String, String> partial : result)
+            {
+                for (final String value : axis.getValues())
+                {
+                    final Map<String, String> combination = new LinkedHashMap<String, String>(partial);
+
+                    combination.put(axis.getName(), value);
+                    combinations.add(combination);
+                }
+            }
+
+            result = combinations;
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds the suffix of a combination in output names and classifiers.
+     * @param axes the axes.
+     * @param combination the combination.
+     * @return the labels of its values, joined with {@code -}.
+     */
+    public static String retrieveSuffix(final List<MatrixAxis> axes, final Map<String, String> combination)
+    {
+        final StringBuilder result = new StringBuilder();
+
+        for (final MatrixAxis axis : axes)
+        {
+            if (result.length() > 0)
+            {
+                result.append('-');
+            }
+
+            result.append(axis.getLabel(combination.get(axis.getName())));
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return this.name + "=" + getValues();
+    }
+}
@@ -0,0 +1,465 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: MavenModelAdaptor.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: StringTemplate ModelAdaptor for Maven model classes.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.stringtemplate.v4.Interpreter;
+import org.stringtemplate.v4.ModelAdaptor;
+import org.stringtemplate.v4.ST;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.misc.MapModelAdaptor;
+import org.stringtemplate.v4.misc.STNoSuchPropertyException;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * StringTemplate {@link ModelAdaptor} for {@link MavenProject}, {@link Model},
+ * {@link Artifact}, {@link Dependency} and {@link Properties}. Unlike ST's
+ * reflective (and synchronized) {@code ObjectModelAdaptor}, it resolves each
+ * class' accessors once into {@link MethodHandle}s, so deep property chains
+ * such as {@code <pom.artifactId>} cost a map lookup and a direct call.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public class MavenModelAdaptor
+    implements ModelAdaptor
+{
+    /**
+     * The types this adaptor is registered for.
+     */
+    public static final Class<?>[] ADAPTED_TYPES =
+        new Class<?>[]
+        {
+            MavenProject.class, Model.class, Artifact.class, Dependency.class, Properties.class
+        };
+
+    /**
+     * The prefix of the keys of public fields.
+     */
+    protected static final String FIELD_PREFIX = "#";
+
+    /**
+     * The generic accessor type.
+     */
+    protected static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * Singleton implementation to avoid double-locking check.
+     */
+    protected static final class MavenModelAdaptorSingletonContainer
+    {
+        /**
+         * The actual singleton.
+         */
+        public static final MavenModelAdaptor SINGLETON = new MavenModelAdaptor();
+    }
+
+    /**
+     * Resolves {@link Properties} entries, and their {@code keys} and {@code values}.
+     */
+    private final ModelAdaptor m__MapAdaptor = new MapModelAdaptor();
+
+    /**
+     * The accessors, per class and property name.
+     */
+    private final ConcurrentMap<Class<?>, Map<String, MethodHandle>> m__mAccessors =
+        new ConcurrentHashMap<Class<?>, Map<String, MethodHandle>>();
+
+    /**
+     * Retrieves the shared instance.
+     * @return such instance.
+     */
+    public static MavenModelAdaptor getInstance()
+    {
+        return MavenModelAdaptorSingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Registers the shared instance in given group, for all {@link #ADAPTED_TYPES}.
+     * @param group the group.
+     */
+    public static void register(final STGroup group)
+    {
+        for (final Class<?> type : ADAPTED_TYPES)
+        {
+            group.registerModelAdaptor(type, getInstance());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getProperty(
+        final Interpreter interpreter,
+        final ST self,
+        final Object model,
+        final Object property,
+        final String propertyName)
+      throws STNoSuchPropertyException
+    {
+        final Object result;
+
+        if (model instanceof Properties)
+        {
+            result = getProperty(interpreter, self, (Properties) model, property, propertyName);
+        }
+        else
+        {
+            result = getProperty(model, propertyName);
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves a property as ST's {@link MapModelAdaptor} does, so that
+     * {@code keys} and {@code values} still work, and then from the defaults.
+     * @param interpreter the interpreter.
+     * @param self the template.
+     * @param properties the properties.
+     * @param property the property key.
+     * @param propertyName the property name.
+     * @return the value, or {@code null} if not defined.
+     */
+    protected Object getProperty(
+        final Interpreter interpreter,
+        final ST self,
+        final Properties properties,
+        final Object property,
+        final String propertyName)
+    {
+        Object result = this.m__MapAdaptor.getProperty(interpreter, self, properties, property, propertyName);
+
+        if (   (result == null)
+            && (propertyName != null))
+        {
+            result = properties.getProperty(propertyName);
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves a bean property.
+     * @param model the bean.
+     * @param propertyName the property name.
+     * @return the value.
+     * @throws STNoSuchPropertyException if the property does not exist.
+     */
+    public Object getProperty(final Object model, final String propertyName)
+        throws STNoSuchPropertyException
+    {
+        final MethodHandle accessor = retrieveAccessor(model.getClass(), propertyName);
+
+        if (accessor == null)
+        {
+            throw new STNoSuchPropertyException(null, model, model.getClass().getName() + "." + propertyName);
+        }
+
+        try
+        {
+            return (Object) accessor.invokeExact(model);
+        }
+        catch (final RuntimeException | Error propagated)
+        {
+            throw propagated;
+        }
+        catch (final Throwable checked)
+        {
+            throw new STNoSuchPropertyException(
+                new RuntimeException(checked), model, model.getClass().getName() + "." + propertyName);
+        }
+    }
+
+    /**
+     * Checks whether given class exposes a property.
+     * @param type the class.
+     * @param propertyName the property name.
+     * @return {@code true} in such case.
+     */
+    public boolean hasProperty(final Class<?> type, final String propertyName)
+    {
+        return retrieveAccessor(type, propertyName) != null;
+    }
+
+    /**
+     * Retrieves the accessor of a property.
+     * @param type the class.
+     * @param propertyName the property name.
+     * @return the accessor, or {@code null} if the property does not exist.
+     */
+    protected MethodHandle retrieveAccessor(final Class<?> type, final String propertyName)
+    {
+        MethodHandle result = null;
+
+        if (   (propertyName != null)
+            && (propertyName.length() > 0))
+        {
+            final Map<String, MethodHandle> accessors = retrieveAccessors(type);
+
+            // Property names usually come as written in the template: try them first, without allocating.
+            result = accessors.get(propertyName);
+
+            if (result == null)
+            {
+                result = accessors.get(capitalize(propertyName));
+            }
+
+            if (result == null)
+            {
+                result = accessors.get(FIELD_PREFIX + propertyName);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the accessors of given class, building them on first use.
+     * @param type the class.
+     * @return the accessors, by property name.
+     */
+    protected Map<String, MethodHandle> retrieveAccessors(final Class<?> type)
+    {
+        Map<String, MethodHandle> result = this.m__mAccessors.get(type);
+
+        if (result == null)
+        {
+            result = buildAccessors(type);
+
+            final Map<String, MethodHandle> previous = this.m__mAccessors.putIfAbsent(type, result);
+
+            if (previous != null)
+            {
+                result = previous;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds the accessors of given class, following ST's conventions:
+     * {@code getX()}, {@code isX()} and {@code hasX()} methods, then public fields.
+     * Methods are keyed by their suffix, both capitalized and not, and fields
+     * by their name prefixed with {@link #FIELD_PREFIX}.
+     * @param type the class.
+     * @return the accessors.
+     */
+    protected Map<String, MethodHandle> buildAccessors(final Class<?> type)
+    {
+        final Map<String, MethodHandle> result = new HashMap<String, MethodHandle>();
+
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        for (final String prefix : new String[] { "has", "is", "get" })
+        {
+            for (final Method method : type.getMethods())
+            {
+                final String name = method.getName();
+
+                if (   (name.length() > prefix.length())
+                    && (name.startsWith(prefix))
+                    && (method.getParameterCount() == 0)
+                    && (method.getReturnType() != void.class)
+                    && (!Modifier.isStatic(method.getModifiers())))
+                {
+                    final MethodHandle handle = unreflect(lookup, findPublicDeclaration(method));
+
+                    if (handle != null)
+                    {
+                        final String suffix = name.substring(prefix.length());
+
+                        // getX() wins over isX(), which wins over hasX(), as in ObjectModelAdaptor.
+                        result.put(suffix, handle);
+                        result.put(decapitalize(suffix), handle);
+                    }
+                }
+            }
+        }
+
+        for (final Field field : type.getFields())
+        {
+            if (!Modifier.isStatic(field.getModifiers()))
+            {
+                try
+                {
+                    result.put(FIELD_PREFIX + field.getName(), lookup.unreflectGetter(field).asType(ACCESSOR_TYPE));
+                }
+                catch (final IllegalAccessException inaccessible)
+                {
+                    // Ignore fields we cannot read.
+                }
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Finds a declaration of given method in a public type, so that it can be
+     * invoked even if the runtime class itself is not public.
+     * @param method the method.
+     * @return the public declaration, or {@code null} if there's none.
+     */
+    protected Method findPublicDeclaration(final Method method)
+    {
+        Method result = null;
+
+        if (Modifier.isPublic(method.getDeclaringClass().getModifiers()))
+        {
+            result = method;
+        }
+        else
+        {
+            result = findPublicDeclaration(method.getDeclaringClass(), method);
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds a declaration of given method in the public supertypes of a class.
+     * @param type the class.
+     * @param method the method.
+     * @return the public declaration, or {@code null} if there's none.
+     */
+    protected Method findPublicDeclaration(final Class<?> type, final Method method)
+    {
+        Method result = null;
+
+        if (type != null)
+        {
+            if (Modifier.isPublic(type.getModifiers()))
+            {
+                try
+                {
+                    result = type.getMethod(method.getName());
+                }
+                catch (final NoSuchMethodException notDeclared)
+                {
+                    result = null;
+                }
+            }
+
+            if (result == null)
+            {
+                for (final Class<?> implemented : type.getInterfaces())
+                {
+                    result = findPublicDeclaration(implemented, method);
+
+                    if (result != null)
+                    {
+                        break;
+                    }
+                }
+            }
+
+            if (result == null)
+            {
+                result = findPublicDeclaration(type.getSuperclass(), method);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Converts given method into a generic accessor.
+     * @param lookup the lookup.
+     * @param method the method.
+     * @return the accessor, or {@code null} if it's not accessible.
+     */
+    protected MethodHandle unreflect(final MethodHandles.Lookup lookup, final Method method)
+    {
+        MethodHandle result = null;
+
+        if (method != null)
+        {
+            try
+            {
+                result = lookup.unreflect(method).asType(ACCESSOR_TYPE);
+            }
+            catch (final IllegalAccessException inaccessible)
+            {
+                result = null;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Uppercases the first character of given name, as ST does to find accessors.
+     * @param name the name.
+     * @return the accessor suffix.
+     */
+    protected static String capitalize(final String name)
+    {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Lowercases the first character of given accessor suffix.
+     * @param suffix the suffix.
+     * @return the property name.
+     */
+    protected static String decapitalize(final String suffix)
+    {
+        return Character.toLowerCase(suffix.charAt(0)) + suffix.substring(1);
+    }
+}
@@ -0,0 +1,265 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: MetricsReport.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Writes generation metrics per module, and summarizes them per reactor.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Writes {@link GenerationMetrics} as JSON, one file per module, and gathers
+ * them for the whole reactor so that they can be summarized as a table.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public final class MetricsReport
+{
+    /**
+     * The name of the per-module report.
+     */
+    public static final String FILE_NAME = "dockerfile-metrics.json";
+
+    /**
+     * The metrics of each reactor, by session.
+     */
+    private static final Map<Object, List<GenerationMetrics>> REACTORS =
+        new WeakHashMap<Object, List<GenerationMetrics>>();
+
+    /**
+     * Utility class.
+     */
+    private MetricsReport()
+    {
+    }
+
+    /**
+     * Writes the report of a module.
+     * @param file the report file.
+     * @param module the module.
+     * @param metrics the metrics of its Dockerfiles.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(final File file, final String module, final List<GenerationMetrics> metrics)
+        throws IOException
+    {
+        final StringBuilder json = new StringBuilder();
+
+        long total = 0;
+
+        json.append("{\"module\":").append(GenerationMetrics.quote(module)).append(",\"dockerfiles\":[");
+
+        for (int index = 0; index < metrics.size(); index++)
+        {
+            if (index > 0)
+            {
+                json.append(',');
+            }
+
+            metrics.get(index).toJson(json);
+            total += metrics.get(index).getTotalNanos();
+        }
+
+        json.append("],\"totalNanos\":").append(total).append("}\n");
+
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        Files.write(file.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records the metrics of a module.
+     * @param reactor the reactor, usually the Maven session.
+     * @param metrics the metrics.
+     */
+    public static void record(final Object reactor, final List<GenerationMetrics> metrics)
+    {
+        synchronized (REACTORS)
+        {
+            List<GenerationMetrics> recorded = REACTORS.get(reactor);
+
+            if (recorded == null)
+            {
+                recorded = new ArrayList<GenerationMetrics>();
+                REACTORS.put(reactor, recorded);
+            }
+
+            recorded.addAll(metrics);
+        }
+    }
+
+    /**
+     * Retrieves the metrics recorded for a reactor.
+     * @param reactor the reactor.
+     * @return such metrics.
+     */
+    public static List<GenerationMetrics> retrieve(final Object reactor)
+    {
+        final List<GenerationMetrics> result;
+
+        synchronized (REACTORS)
+        {
+            final List<GenerationMetrics> recorded = REACTORS.get(reactor);
+
+            result =
+                (recorded == null)
+                ? Collections.<GenerationMetrics>emptyList()
+                : new ArrayList<GenerationMetrics>(recorded);
+        }
+
+        return result;
+    }
+
+    /**
+     * Formats given metrics as a table, one row per Dockerfile, plus totals.
+     * Times are in milliseconds.
+     * @param metrics the metrics.
+     * @return the table.
+     */
+    public static String summarize(final List<GenerationMetrics> metrics)
+    {
+        final StringBuilder result = new StringBuilder();
+
+        final StringBuilder columns = new StringBuilder("%-40s %-20s");
+        final List<Object> header = new ArrayList<Object>();
+
+        header.add("Module");
+        header.add("Dockerfile");
+
+        for (final GenerationMetrics.Phase phase : GenerationMetrics.Phase.values())
+        {
+            columns.append(" %").append(Math.max(8, phase.getLabel().length())).append('s');
+            header.add(phase.getLabel());
+        }
+
+        final String format = columns.append(" %9s %10s %12s %s%n").toString();
+
+        header.add("total");
+        header.add("bytes");
+        header.add("allocated");
+        header.add("");
+
+        result.append(String.format(Locale.US, format, header.toArray()));
+
+        final long[] totals = new long[GenerationMetrics.Phase.values().length];
+        long bytes = 0;
+
+        for (final GenerationMetrics metric : metrics)
+        {
+            final List<Object> row = new ArrayList<Object>();
+
+            row.add(abbreviate(metric.getModule(), 40));
+            row.add(abbreviate(metric.getClassifier(), 20));
+
+            for (final GenerationMetrics.Phase phase : GenerationMetrics.Phase.values())
+            {
+                row.add(millis(metric.getNanos(phase)));
+                totals[phase.ordinal()] += metric.getNanos(phase);
+            }
+
+            row.add(millis(metric.getTotalNanos()));
+            row.add(String.valueOf(metric.getBytesWritten()));
+            row.add(
+                (metric.getAllocatedBytes() == GenerationMetrics.UNKNOWN)
+                ? "n/a"
+                : String.valueOf(metric.getAllocatedBytes()));
+            row.add(metric.isFailed() ? "FAILED" : metric.isUpToDate() ? "up to date" : "");
+
+            bytes += metric.getBytesWritten();
+
+            result.append(String.format(Locale.US, format, row.toArray()));
+        }
+
+        long total = 0;
+
+        final List<Object> row = new ArrayList<Object>();
+
+        row.add("Total (" + metrics.size() + " Dockerfiles)");
+        row.add("");
+
+        for (final long nanos : totals)
+        {
+            row.add(millis(nanos));
+            total += nanos;
+        }
+
+        row.add(millis(total));
+        row.add(String.valueOf(bytes));
+        row.add("");
+        row.add("");
+
+        result.append(String.format(Locale.US, format, row.toArray()));
+
+        return result.toString();
+    }
+
+    /**
+     * Formats nanoseconds as milliseconds.
+     * @param nanos the nanoseconds.
+     * @return the milliseconds, with two decimals.
+     */
+    protected static String millis(final long nanos)
+    {
+        return String.format(Locale.US, "%.2f", nanos / 1000000.0);
+    }
+
+    /**
+     * Abbreviates given text.
+     * @param text the text.
+     * @param width the maximum width.
+     * @return the text, shortened from the left if needed.
+     */
+    protected static String abbreviate(final String text, final int width)
+    {
+        final String result;
+
+        if (   (text == null)
+            || (text.length() <= width))
+        {
+            result = String.valueOf(text);
+        }
+        else
+        {
+            result = "..." + text.substring(text.length() - width + 3);
+        }
+
+        return result;
+    }
+}
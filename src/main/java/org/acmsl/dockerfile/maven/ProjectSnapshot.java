@@ -0,0 +1,223 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ProjectSnapshot.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Copies the project properties templates reference.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Copies the {@link MavenProject} properties templates reference, such as
+ * {@code artifactId} in {@code <C.T.artifactId>}, into an immutable map.
+ * Nested values are copied too, so rendering a snapshot neither touches the
+ * project from other threads nor keeps its whole graph reachable. Templates
+ * resolving names at render time cannot be captured: see
+ * {@link #isCapturable(TemplateAttributeScanner.Result)}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public final class ProjectSnapshot
+{
+    /**
+     * The properties captured from related projects, such as the parent.
+     */
+    public static final String[] DEFAULT_PROPERTIES =
+        new String[]
+        {
+            "groupId", "artifactId", "version", "packaging", "name", "description", "url",
+            "id", "basedir", "properties", "parent"
+        };
+
+    /**
+     * The package of the Maven model classes, which clone themselves deeply.
+     */
+    protected static final String MODEL_PACKAGE = "org.apache.maven.model.";
+
+    /**
+     * Utility class.
+     */
+    private ProjectSnapshot()
+    {
+    }
+
+    /**
+     * Checks whether a snapshot can hold everything the template reads from
+     * the project: it cannot if the template resolves names at render time.
+     * @param references the template references.
+     * @return {@code true} in such case.
+     */
+    public static boolean isCapturable(final TemplateAttributeScanner.Result references)
+    {
+        return !references.isIndirect();
+    }
+
+    /**
+     * Captures the properties of a project some templates reference.
+     * @param project the project.
+     * @param references the template references.
+     * @return the snapshot.
+     */
+    public static Map<String, Object> capture(
+        final MavenProject project, final TemplateAttributeScanner.Result references)
+    {
+        return capture(project, references.getProperties());
+    }
+
+    /**
+     * Captures given properties of a project.
+     * @param project the project.
+     * @param names the property names; those the project lacks are ignored.
+     * @return the snapshot.
+     */
+    public static Map<String, Object> capture(final MavenProject project, final Collection<String> names)
+    {
+        final Map<String, Object> result = new TreeMap<String, Object>();
+
+        final MavenModelAdaptor adaptor = MavenModelAdaptor.getInstance();
+
+        for (final String name : names)
+        {
+            if (adaptor.hasProperty(MavenProject.class, name))
+            {
+                result.put(name, copy(adaptor.getProperty(project, name)));
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Copies mutable values, so that later changes to the project do not
+     * affect the snapshot: collections and maps item by item, model objects
+     * through their deep {@code clone()}, and related projects as snapshots
+     * of their {@link #DEFAULT_PROPERTIES}.
+     * @param value the value.
+     * @return the copy, or the value itself if it's immutable or unknown.
+     */
+    protected static Object copy(final Object value)
+    {
+        final Object result;
+
+        if (value instanceof Properties)
+        {
+            final Properties properties = new Properties();
+
+            properties.putAll((Properties) value);
+
+            result = properties;
+        }
+        else if (value instanceof Map)
+        {
+            final Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                map.put(entry.getKey(), copy(entry.getValue()));
+            }
+
+            result = Collections.unmodifiableMap(map);
+        }
+        else if (value instanceof Collection)
+        {
+            final List<Object> items = new ArrayList<Object>(((Collection<?>) value).size());
+
+            for (final Object item : (Collection<?>) value)
+            {
+                items.add(copy(item));
+            }
+
+            result = Collections.unmodifiableList(items);
+        }
+        else if (value instanceof MavenProject)
+        {
+            result = capture((MavenProject) value, Arrays.asList(DEFAULT_PROPERTIES));
+        }
+        else if (value instanceof Artifact)
+        {
+            result = ArtifactUtils.copyArtifact((Artifact) value);
+        }
+        else if (value instanceof Xpp3Dom)
+        {
+            result = new Xpp3Dom((Xpp3Dom) value);
+        }
+        else if (   (value instanceof Cloneable)
+                 && (value.getClass().getName().startsWith(MODEL_PACKAGE)))
+        {
+            result = cloneModel(value);
+        }
+        else
+        {
+            result = value;
+        }
+
+        return result;
+    }
+
+    /**
+     * Clones a Maven model object, deeply.
+     * @param value the model object.
+     * @return the copy.
+     */
+    protected static Object cloneModel(final Object value)
+    {
+        try
+        {
+            return value.getClass().getMethod("clone").invoke(value);
+        }
+        catch (final NoSuchMethodException | IllegalAccessException cannotClone)
+        {
+            throw new IllegalStateException("Cannot copy " + value.getClass().getName(), cannotClone);
+        }
+        catch (final InvocationTargetException failed)
+        {
+            throw new IllegalStateException("Cannot copy " + value.getClass().getName(), failed.getCause());
+        }
+    }
+}
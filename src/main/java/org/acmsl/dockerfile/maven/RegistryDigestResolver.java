@@ -0,0 +1,344 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: RegistryDigestResolver.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Resolves image digests asking the registries.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves image digests through the registry HTTP API: a {@code HEAD} of the
+ * manifest returns its digest in the {@code Docker-Content-Digest} header,
+ * without downloading anything. Multi-platform images resolve to the digest
+ * of their index, so pinned references keep working on every platform.
+ * Registries requiring a token get an anonymous one, as {@code docker pull}
+ * does for public images.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class RegistryDigestResolver
+    implements ImageDigestResolver
+{
+    /**
+     * The registry of images without one.
+     */
+    public static final String DEFAULT_REGISTRY = "registry-1.docker.io";
+
+    /**
+     * The namespace of official images in the default registry.
+     */
+    protected static final String OFFICIAL_NAMESPACE = "library/";
+
+    /**
+     * The tag of images without one.
+     */
+    protected static final String DEFAULT_TAG = "latest";
+
+    /**
+     * The manifest types accepted, indexes first.
+     */
+    protected static final String ACCEPT =
+          "application/vnd.oci.image.index.v1+json, "
+        + "application/vnd.docker.distribution.manifest.list.v2+json, "
+        + "application/vnd.oci.image.manifest.v1+json, "
+        + "application/vnd.docker.distribution.manifest.v2+json";
+
+    /**
+     * The header with the digest.
+     */
+    protected static final String DIGEST_HEADER = "Docker-Content-Digest";
+
+    /**
+     * The parameters of a {@code Bearer} challenge.
+     */
+    protected static final Pattern CHALLENGE_PATTERN = Pattern.compile("(\\w+)=\"([^\"]*)\"");
+
+    /**
+     * The token in the response of the token service.
+     */
+    protected static final Pattern TOKEN_PATTERN = Pattern.compile("\"(?:token|access_token)\"\\s*:\\s*\"([^\"]+)\"");
+
+    /**
+     * The default timeout, in milliseconds.
+     */
+    public static final int DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * The timeout, in milliseconds.
+     */
+    private final int m__iTimeoutMillis;
+
+    /**
+     * Creates a new resolver with the default timeout.
+     */
+    public RegistryDigestResolver()
+    {
+        this(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a new resolver.
+     * @param timeoutMillis the connect and read timeout, in milliseconds.
+     */
+    public RegistryDigestResolver(final int timeoutMillis)
+    {
+        this.m__iTimeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String resolve(final String reference)
+        throws IOException
+    {
+        final String[] parts = parse(reference);
+
+        final URL manifest = new URL("https://" + parts[0] + "/v2/" + parts[1] + "/manifests/" + parts[2]);
+
+        HttpURLConnection connection = head(manifest, null);
+
+        if (connection.getResponseCode() == HttpURLConnection.HTTP_UNAUTHORIZED)
+        {
+            final String challenge = connection.getHeaderField("WWW-Authenticate");
+
+            connection.disconnect();
+
+            connection = head(manifest, retrieveToken(reference, challenge));
+        }
+
+        final String result;
+
+        try
+        {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK)
+            {
+                throw new IOException(
+                    "Cannot resolve " + reference + ": " + connection.getResponseCode() + " "
+                    + connection.getResponseMessage() + " from " + manifest);
+            }
+
+            result = connection.getHeaderField(DIGEST_HEADER);
+        }
+        finally
+        {
+            connection.disconnect();
+        }
+
+        if (result == null)
+        {
+            throw new IOException(manifest + " did not return the " + DIGEST_HEADER + " of " + reference);
+        }
+
+        return result;
+    }
+
+    /**
+     * Splits an image reference into its registry, repository and tag.
+     * @param reference the reference.
+     * @return such parts, with Docker's defaults applied.
+     */
+    public static String[] parse(final String reference)
+    {
+        String registry = DEFAULT_REGISTRY;
+        String repository = reference;
+
+        final int slash = reference.indexOf('/');
+
+        if (slash > 0)
+        {
+            final String first = reference.substring(0, slash);
+
+            // As docker does: only a host name, or a port, makes the first component a registry.
+            if (   (first.contains("."))
+                || (first.contains(":"))
+                || ("localhost".equals(first)))
+            {
+                registry = first;
+                repository = reference.substring(slash + 1);
+            }
+        }
+
+        String tag = DEFAULT_TAG;
+
+        final int colon = repository.lastIndexOf(':');
+
+        if (colon > repository.lastIndexOf('/'))
+        {
+            tag = repository.substring(colon + 1);
+            repository = repository.substring(0, colon);
+        }
+
+        if (   (DEFAULT_REGISTRY.equals(registry))
+            && (repository.indexOf('/') < 0))
+        {
+            repository = OFFICIAL_NAMESPACE + repository;
+        }
+
+        return new String[] { registry, repository, tag };
+    }
+
+    /**
+     * Asks for a manifest.
+     * @param manifest its URL.
+     * @param token the bearer token, if any.
+     * @return the connection, with the response available.
+     * @throws IOException if the registry cannot be reached.
+     */
+    protected HttpURLConnection head(final URL manifest, final String token)
+        throws IOException
+    {
+        final HttpURLConnection result = (HttpURLConnection) manifest.openConnection();
+
+        result.setRequestMethod("HEAD");
+        result.setConnectTimeout(this.m__iTimeoutMillis);
+        result.setReadTimeout(this.m__iTimeoutMillis);
+        result.setRequestProperty("Accept", ACCEPT);
+
+        if (token != null)
+        {
+            result.setRequestProperty("Authorization", "Bearer " + token);
+        }
+
+        result.getResponseCode();
+
+        return result;
+    }
+
+    /**
+     * Retrieves an anonymous token, as requested by a {@code Bearer} challenge.
+     * @param reference the reference, for error messages.
+     * @param challenge the {@code WWW-Authenticate} header.
+     * @return the token.
+     * @throws IOException if the registry needs credentials, or cannot be reached.
+     */
+    protected String retrieveToken(final String reference, final String challenge)
+        throws IOException
+    {
+        if (   (challenge == null)
+            || (!challenge.regionMatches(true, 0, "Bearer ", 0, 7)))
+        {
+            throw new IOException("Cannot resolve " + reference + ": the registry asks for " + challenge);
+        }
+
+        final Map<String, String> parameters = new LinkedHashMap<String, String>();
+
+        final Matcher matcher = CHALLENGE_PATTERN.matcher(challenge);
+
+        while (matcher.find())
+        {
+            parameters.put(matcher.group(1), matcher.group(2));
+        }
+
+        final String realm = parameters.remove("realm");
+
+        if (realm == null)
+        {
+            throw new IOException("Cannot resolve " + reference + ": no realm in " + challenge);
+        }
+
+        final StringBuilder url = new StringBuilder(realm);
+
+        char separator = (realm.indexOf('?') < 0) ? '?' : '&';
+
+        for (final Map.Entry<String, String> parameter : parameters.entrySet())
+        {
+            url.append(separator).append(parameter.getKey()).append('=')
+                .append(URLEncoder.encode(parameter.getValue(), "UTF-8"));
+            separator = '&';
+        }
+
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url.toString()).openConnection();
+
+        connection.setConnectTimeout(this.m__iTimeoutMillis);
+        connection.setReadTimeout(this.m__iTimeoutMillis);
+
+        final String body;
+
+        try
+        {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK)
+            {
+                throw new IOException(
+                    "Cannot resolve " + reference + ": " + connection.getResponseCode() + " from " + realm);
+            }
+
+            try (InputStream input = connection.getInputStream())
+            {
+                final ByteArrayOutputStream contents = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[4096];
+
+                int read;
+
+                while ((read = input.read(buffer)) != -1)
+                {
+                    contents.write(buffer, 0, read);
+                }
+
+                body = new String(contents.toByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+        finally
+        {
+            connection.disconnect();
+        }
+
+        final Matcher token = TOKEN_PATTERN.matcher(body);
+
+        if (!token.find())
+        {
+            throw new IOException("Cannot resolve " + reference + ": no token from " + realm);
+        }
+
+        return token.group(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return "registry";
+    }
+}
@@ -0,0 +1,306 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateAttributeScanner.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Finds the attribute and property names templates reference.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.stringtemplate.v4.Interpreter;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.compiler.Bytecode;
+import org.stringtemplate.v4.compiler.CompiledST;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Finds the attribute and property names templates reference, by walking the
+ * bytecode of a compiled template and of every template it includes. Names
+ * read from an argument or attribute, such as {@code dependencies} in
+ * {@code <C.dependencies>}, are attributes; names read from what those
+ * return, such as {@code dependencies} in {@code <C.T.dependencies>}, are
+ * just properties. Names resolved at render time, such as
+ * {@code <C.(name)>}, cannot be known in advance, and are reported as
+ * indirect references.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public final class TemplateAttributeScanner
+{
+    /**
+     * Utility class.
+     */
+    private TemplateAttributeScanner()
+    {
+    }
+
+    /**
+     * Scans given template and all templates it includes.
+     * @param group the group.
+     * @param templateName the name of the root template.
+     * @return the references.
+     */
+    public static Result scan(final STGroup group, final String templateName)
+    {
+        final Set<String> attributes = new TreeSet<String>();
+        final Set<String> properties = new TreeSet<String>();
+        boolean indirect = false;
+
+        final Set<CompiledST> visited = Collections.newSetFromMap(new IdentityHashMap<CompiledST, Boolean>());
+        final Deque<CompiledST> pending = new ArrayDeque<CompiledST>();
+
+        final CompiledST root = group.lookupTemplate(templateName);
+
+        if (root != null)
+        {
+            pending.push(root);
+        }
+
+        while (!pending.isEmpty())
+        {
+            final CompiledST template = pending.pop();
+
+            if (visited.add(template))
+            {
+                indirect |= scan(template, group, attributes, properties, pending);
+            }
+        }
+
+        return new Result(attributes, properties, indirect);
+    }
+
+    /**
+     * Scans the bytecode of a single template.
+     * @param template the compiled template.
+     * @param group the group, to resolve included templates.
+     * @param attributes the attribute names found so far.
+     * @param properties the property names found so far.
+     * @param pending the templates yet to scan.
+     * @return {@code true} if the template resolves names at render time.
+     */
+    protected static boolean scan(
+        final CompiledST template,
+        final STGroup group,
+        final Set<String> attributes,
+        final Set<String> properties,
+        final Deque<CompiledST> pending)
+    {
+        boolean result = false;
+
+        int ip = 0;
+        short previous = 0;
+
+        while (ip < template.codeSize)
+        {
+            final short opcode = template.instrs[ip];
+            final Bytecode.Instruction instruction = Bytecode.instructions[opcode];
+
+            if (instruction == null)
+            {
+                // Unknown instruction: we cannot tell what it reads.
+                result = true;
+                break;
+            }
+
+            switch (opcode)
+            {
+                case Bytecode.INSTR_LOAD_ATTR:
+                    attributes.add(template.strings[Interpreter.getShort(template.instrs, ip + 1)]);
+                    break;
+
+                case Bytecode.INSTR_LOAD_PROP:
+                    final String property = template.strings[Interpreter.getShort(template.instrs, ip + 1)];
+
+                    properties.add(property);
+
+                    if (   (previous == Bytecode.INSTR_LOAD_LOCAL)
+                        || (previous == Bytecode.INSTR_LOAD_ATTR))
+                    {
+                        // Read from the model itself, not from one of its values.
+                        attributes.add(property);
+                    }
+                    break;
+
+                case Bytecode.INSTR_NEW:
+                case Bytecode.INSTR_NEW_BOX_ARGS:
+                case Bytecode.INSTR_SUPER_NEW:
+                case Bytecode.INSTR_SUPER_NEW_BOX_ARGS:
+                    final CompiledST included =
+                        group.lookupTemplate(template.strings[Interpreter.getShort(template.instrs, ip + 1)]);
+
+                    if (included != null)
+                    {
+                        pending.push(included);
+                    }
+                    break;
+
+                case Bytecode.INSTR_LOAD_PROP_IND:
+                case Bytecode.INSTR_NEW_IND:
+                    result = true;
+                    break;
+
+                default:
+                    break;
+            }
+
+            previous = opcode;
+            ip += 1 + instruction.nopnds * Bytecode.OPND_SIZE_IN_BYTES;
+        }
+
+        if (template.implicitlyDefinedTemplates != null)
+        {
+            for (final CompiledST subtemplate : template.implicitlyDefinedTemplates)
+            {
+                pending.push(subtemplate);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * The names a template references.
+     */
+    public static final class Result
+    {
+        /**
+         * The attribute names.
+         */
+        private final Set<String> m__sAttributes;
+
+        /**
+         * The property names.
+         */
+        private final Set<String> m__sProperties;
+
+        /**
+         * Whether names are also resolved at render time.
+         */
+        private final boolean m__bIndirect;
+
+        /**
+         * Creates a new result, whose names are read both as attributes and
+         * as properties.
+         * @param names the names.
+         * @param indirect whether names are also resolved at render time.
+         */
+        public Result(final Set<String> names, final boolean indirect)
+        {
+            this(names, names, indirect);
+        }
+
+        /**
+         * Creates a new result.
+         * @param attributes the attribute names.
+         * @param properties the property names.
+         * @param indirect whether names are also resolved at render time.
+         */
+        public Result(final Set<String> attributes, final Set<String> properties, final boolean indirect)
+        {
+            this.m__sAttributes = Collections.unmodifiableSet(new HashSet<String>(attributes));
+            this.m__sProperties = Collections.unmodifiableSet(new HashSet<String>(properties));
+            this.m__bIndirect = indirect;
+        }
+
+        /**
+         * Retrieves the attribute names found in the templates: those read
+         * from the model, or from the arguments of a template.
+         * @return such names.
+         */
+        public Set<String> getAttributes()
+        {
+            return this.m__sAttributes;
+        }
+
+        /**
+         * Retrieves the property names found in the templates, whatever
+         * they are read from.
+         * @return such names.
+         */
+        public Set<String> getProperties()
+        {
+            return this.m__sProperties;
+        }
+
+        /**
+         * Checks whether the templates resolve names at render time.
+         * @return {@code true} in such case.
+         */
+        public boolean isIndirect()
+        {
+            return this.m__bIndirect;
+        }
+
+        /**
+         * Checks whether the templates may reference given attribute.
+         * @param name the name.
+         * @return {@code true} if they do, or if it cannot be ruled out.
+         */
+        public boolean references(final String name)
+        {
+            return
+                   (this.m__bIndirect)
+                || (this.m__sAttributes.contains(name));
+        }
+
+        /**
+         * Checks whether the templates may read given property of any value.
+         * @param name the name.
+         * @return {@code true} if they do, or if it cannot be ruled out.
+         */
+        public boolean referencesProperty(final String name)
+        {
+            return
+                   (this.m__bIndirect)
+                || (this.m__sProperties.contains(name));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return
+                  this.m__sAttributes + " " + this.m__sProperties
+                + (this.m__bIndirect ? " (and indirect references)" : "");
+        }
+    }
+}
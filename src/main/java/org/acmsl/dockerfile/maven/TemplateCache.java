@@ -0,0 +1,832 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateCache.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Process-wide cache of compiled StringTemplate groups.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.STGroupDir;
+import org.stringtemplate.v4.STGroupFile;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of compiled {@link STGroup}s, so that modules sharing
+ * the same template do not parse it over and over again.
+ * Entries are keyed by canonical template path, charset and lookup paths, and
+ * are validated against the size and last-modification time of the template
+ * and every group it imports. The cache is bounded and evicts the least
+ * recently used entries first.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public class TemplateCache
+{
+    /**
+     * The default maximum number of cached groups.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /**
+     * Loads a group when it's not cached, or no longer valid.
+     */
+    public interface GroupLoader
+    {
+        /**
+         * Loads the group.
+         * @return such group.
+         */
+        STGroup load();
+    }
+
+    /**
+     * Singleton implementation to avoid double-locking check.
+     */
+    protected static final class TemplateCacheSingletonContainer
+    {
+        /**
+         * The actual singleton.
+         */
+        public static final TemplateCache SINGLETON =
+            new TemplateCache(retrieveMaxEntries(System.getProperty(Literals.DOCKERFILE_TEMPLATE_CACHE_MAX_ENTRIES)));
+    }
+
+    /**
+     * The cached entries, in access order.
+     */
+    private final LinkedHashMap<Key, Entry> m__mEntries;
+
+    /**
+     * The per-key locks, to avoid compiling the same group twice concurrently.
+     */
+    private final ConcurrentMap<Key, Object> m__mLocks = new ConcurrentHashMap<Key, Object>();
+
+    /**
+     * The maximum number of entries.
+     */
+    private final int m__iMaxEntries;
+
+    /**
+     * The number of hits.
+     */
+    private final AtomicLong m__lHits = new AtomicLong();
+
+    /**
+     * The number of misses.
+     */
+    private final AtomicLong m__lMisses = new AtomicLong();
+
+    /**
+     * The number of entries discarded because their sources changed.
+     */
+    private final AtomicLong m__lInvalidations = new AtomicLong();
+
+    /**
+     * The number of evicted entries.
+     */
+    private final AtomicLong m__lEvictions = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     * @param maxEntries the maximum number of entries.
+     */
+    public TemplateCache(final int maxEntries)
+    {
+        this.m__iMaxEntries = Math.max(1, maxEntries);
+        this.m__mEntries =
+            new LinkedHashMap<Key, Entry>(16, 0.75f, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest)
+                {
+                    final boolean result = size() > getMaxEntries();
+
+                    if (result)
+                    {
+                        m__lEvictions.incrementAndGet();
+                    }
+
+                    return result;
+                }
+            };
+    }
+
+    /**
+     * Retrieves the process-wide instance.
+     * @return such instance.
+     */
+    public static TemplateCache getInstance()
+    {
+        return TemplateCacheSingletonContainer.SINGLETON;
+    }
+
+    /**
+     * Parses the maximum number of entries.
+     * @param value the configured value.
+     * @return such number, or {@link #DEFAULT_MAX_ENTRIES}.
+     */
+    protected static int retrieveMaxEntries(final String value)
+    {
+        int result = DEFAULT_MAX_ENTRIES;
+
+        if (value != null)
+        {
+            try
+            {
+                result = Integer.parseInt(value.trim());
+            }
+            catch (final NumberFormatException invalidValue)
+            {
+                result = DEFAULT_MAX_ENTRIES;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the maximum number of entries.
+     * @return such number.
+     */
+    public int getMaxEntries()
+    {
+        return this.m__iMaxEntries;
+    }
+
+    /**
+     * Retrieves the number of hits.
+     * @return such count.
+     */
+    public long getHits()
+    {
+        return this.m__lHits.get();
+    }
+
+    /**
+     * Retrieves the number of misses.
+     * @return such count.
+     */
+    public long getMisses()
+    {
+        return this.m__lMisses.get();
+    }
+
+    /**
+     * Retrieves how many entries were discarded because their sources changed.
+     * @return such count.
+     */
+    public long getInvalidations()
+    {
+        return this.m__lInvalidations.get();
+    }
+
+    /**
+     * Retrieves the number of evicted entries.
+     * @return such count.
+     */
+    public long getEvictions()
+    {
+        return this.m__lEvictions.get();
+    }
+
+    /**
+     * Retrieves the number of cached groups.
+     * @return such count.
+     */
+    public int size()
+    {
+        synchronized (this.m__mEntries)
+        {
+            return this.m__mEntries.size();
+        }
+    }
+
+    /**
+     * Discards all cached groups.
+     */
+    public void clear()
+    {
+        synchronized (this.m__mEntries)
+        {
+            this.m__mEntries.clear();
+        }
+    }
+
+    /**
+     * Builds the cache key.
+     * @param template the template.
+     * @param lookupPaths the lookup paths.
+     * @param charset the charset.
+     * @return the key.
+     */
+    public static Key buildKey(
+        final File template, final List<String> lookupPaths, final Charset charset)
+    {
+        String path;
+
+        try
+        {
+            path = template.getCanonicalPath();
+        }
+        catch (final IOException cannotCanonicalize)
+        {
+            path = template.getAbsolutePath();
+        }
+
+        return new Key(path, charset.name(), lookupPaths);
+    }
+
+    /**
+     * Retrieves the group associated to given key, loading it if necessary.
+     * @param key the key.
+     * @param loader the loader to use on misses.
+     * @return the group.
+     */
+    public STGroup retrieve(final Key key, final GroupLoader loader)
+    {
+        STGroup result = lookup(key);
+
+        if (result == null)
+        {
+            final Object lock = this.m__mLocks.computeIfAbsent(key, k -> new Object());
+
+            synchronized (lock)
+            {
+                try
+                {
+                    result = lookup(key);
+
+                    if (result == null)
+                    {
+                        this.m__lMisses.incrementAndGet();
+
+                        // Stamped before loading, so that changes made while loading are seen next time.
+                        final Map<File, FileStamp> before = snapshot(key);
+
+                        result = loader.load();
+
+                        final Entry entry = new Entry(result, snapshot(collectDependencies(result), before));
+
+                        synchronized (this.m__mEntries)
+                        {
+                            this.m__mEntries.put(key, entry);
+                        }
+                    }
+                }
+                finally
+                {
+                    // Waiting threads still hold it, and find the entry once they get it.
+                    this.m__mLocks.remove(key, lock);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Looks up a valid entry for given key, counting it as a hit.
+     * @param key the key.
+     * @return the cached group, or {@code null} if missing or stale.
+     */
+    protected STGroup lookup(final Key key)
+    {
+        STGroup result = null;
+
+        final Entry entry;
+
+        synchronized (this.m__mEntries)
+        {
+            entry = this.m__mEntries.get(key);
+        }
+
+        if (entry != null)
+        {
+            if (entry.isUpToDate())
+            {
+                this.m__lHits.incrementAndGet();
+                result = entry.getGroup();
+            }
+            else
+            {
+                synchronized (this.m__mEntries)
+                {
+                    if (this.m__mEntries.remove(key, entry))
+                    {
+                        this.m__lInvalidations.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the files a cached group was compiled from.
+     * @param key the key.
+     * @return such files, or an empty list if the group is not cached.
+     */
+    public List<File> getDependencies(final Key key)
+    {
+        final List<File> result = new ArrayList<File>();
+
+        final Entry entry;
+
+        synchronized (this.m__mEntries)
+        {
+            entry = this.m__mEntries.get(key);
+        }
+
+        if (entry != null)
+        {
+            for (final FileStamp stamp : entry.getStamps())
+            {
+                result.add(stamp.getFile());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Collects the local files given group, and the groups it imports, come from.
+     * @param group the group.
+     * @return such files.
+     */
+    public static Set<File> collectDependencies(final STGroup group)
+    {
+        final Set<File> result = new LinkedHashSet<File>();
+
+        collectDependencies(group, result, Collections.newSetFromMap(new IdentityHashMap<STGroup, Boolean>()));
+
+        return result;
+    }
+
+    /**
+     * Collects the local files given group, and the groups it imports, come from.
+     * @param group the group.
+     * @param files the files found so far.
+     * @param visited the groups already visited.
+     */
+    protected static void collectDependencies(
+        final STGroup group, final Set<File> files, final Set<STGroup> visited)
+    {
+        if (   (group != null)
+            && (visited.add(group)))
+        {
+            final URL url;
+
+            if (group instanceof TemplatePackGroup)
+            {
+                files.add(((TemplatePackGroup) group).getPack().getFile());
+                url = null;
+            }
+            else if (group instanceof STGroupFile)
+            {
+                url = ((STGroupFile) group).url;
+            }
+            else if (group instanceof STGroupDir)
+            {
+                url = ((STGroupDir) group).root;
+            }
+            else
+            {
+                url = null;
+            }
+
+            final File file = toFile(url);
+
+            if (file != null)
+            {
+                files.add(file);
+            }
+
+            for (final STGroup imported : group.getImportedGroups())
+            {
+                collectDependencies(imported, files, visited);
+            }
+        }
+    }
+
+    /**
+     * Converts given URL to a local file, if possible.
+     * @param url the URL.
+     * @return the file, or {@code null} if it's not a local file.
+     */
+    protected static File toFile(final URL url)
+    {
+        File result = null;
+
+        if (   (url != null)
+            && ("file".equals(url.getProtocol())))
+        {
+            try
+            {
+                result = new File(url.toURI());
+            }
+            catch (final URISyntaxException invalidUri)
+            {
+                result = new File(url.getPath());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Takes a snapshot of the files known before loading a group: the
+     * template, and the template packs.
+     * @param key the key.
+     * @return the stamps, by canonical file.
+     */
+    protected static Map<File, FileStamp> snapshot(final Key key)
+    {
+        final Map<File, FileStamp> result = new HashMap<File, FileStamp>();
+
+        final List<File> files = new ArrayList<File>(key.getLookupPaths().size() + 1);
+        files.add(new File(key.getPath()));
+
+        for (final String path : key.getLookupPaths())
+        {
+            files.add(new File(path));
+        }
+
+        for (final File file : files)
+        {
+            if (   (file.isAbsolute())
+                && (file.exists()))
+            {
+                final File canonical = canonicalize(file);
+
+                result.put(canonical, new FileStamp(canonical));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Takes a snapshot of given files, reusing the stamps taken before loading.
+     * @param files the files.
+     * @param before the stamps taken before loading, by canonical file.
+     * @return the stamps.
+     */
+    protected static List<FileStamp> snapshot(final Set<File> files, final Map<File, FileStamp> before)
+    {
+        final List<FileStamp> result = new ArrayList<FileStamp>(files.size());
+
+        for (final File file : files)
+        {
+            final FileStamp stamp = before.get(canonicalize(file));
+
+            // Imports are only known once loaded.
+            result.add((stamp != null) ? stamp : new FileStamp(file));
+        }
+
+        return result;
+    }
+
+    /**
+     * Canonicalizes given file, if possible.
+     * @param file the file.
+     * @return its canonical form, or its absolute one.
+     */
+    protected static File canonicalize(final File file)
+    {
+        File result;
+
+        try
+        {
+            result = file.getCanonicalFile();
+        }
+        catch (final IOException cannotCanonicalize)
+        {
+            result = file.getAbsoluteFile();
+        }
+
+        return result;
+    }
+
+    /**
+     * Describes the cache statistics.
+     * @return such description.
+     */
+    public String describe()
+    {
+        final long hits = getHits();
+        final long misses = getMisses();
+        final long total = hits + misses;
+
+        return
+              "Template cache: " + hits + " hit(s), " + misses + " miss(es)"
+            + (total > 0 ? " (" + (hits * 100 / total) + "% hit rate)" : "")
+            + ", " + getInvalidations() + " invalidation(s), "
+            + getEvictions() + " eviction(s), " + size() + "/" + getMaxEntries() + " cached";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return describe();
+    }
+
+    /**
+     * The cache key.
+     */
+    public static final class Key
+    {
+        /**
+         * The canonical template path.
+         */
+        private final String m__strPath;
+
+        /**
+         * The charset name.
+         */
+        private final String m__strCharset;
+
+        /**
+         * The lookup paths.
+         */
+        private final List<String> m__lLookupPaths;
+
+        /**
+         * Creates a new key.
+         * @param path the canonical template path.
+         * @param charset the charset name.
+         * @param lookupPaths the lookup paths.
+         */
+        public Key(final String path, final String charset, final List<String> lookupPaths)
+        {
+            this.m__strPath = path;
+            this.m__strCharset = charset;
+            this.m__lLookupPaths = Collections.unmodifiableList(new ArrayList<String>(lookupPaths));
+        }
+
+        /**
+         * Retrieves the canonical template path.
+         * @return such path.
+         */
+        public String getPath()
+        {
+            return this.m__strPath;
+        }
+
+        /**
+         * Retrieves the charset name.
+         * @return such name.
+         */
+        public String getCharset()
+        {
+            return this.m__strCharset;
+        }
+
+        /**
+         * Retrieves the lookup paths.
+         * @return such paths.
+         */
+        public List<String> getLookupPaths()
+        {
+            return this.m__lLookupPaths;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(final Object other)
+        {
+            final boolean result;
+
+            if (this == other)
+            {
+                result = true;
+            }
+            else if (other instanceof Key)
+            {
+                final Key key = (Key) other;
+
+                result =
+                       this.m__strPath.equals(key.m__strPath)
+                    && this.m__strCharset.equals(key.m__strCharset)
+                    && this.m__lLookupPaths.equals(key.m__lLookupPaths);
+            }
+            else
+            {
+                result = false;
+            }
+
+            return result;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode()
+        {
+            return 31 * (31 * this.m__strPath.hashCode() + this.m__strCharset.hashCode())
+                + this.m__lLookupPaths.hashCode();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return this.m__strPath + " (" + this.m__strCharset + ", " + this.m__lLookupPaths + ")";
+        }
+    }
+
+    /**
+     * A cached group, along with the stamps of the files it was compiled from.
+     */
+    protected static final class Entry
+    {
+        /**
+         * The group.
+         */
+        private final STGroup m__Group;
+
+        /**
+         * The stamps.
+         */
+        private final List<FileStamp> m__lStamps;
+
+        /**
+         * Creates a new entry.
+         * @param group the group.
+         * @param stamps the stamps.
+         */
+        public Entry(final STGroup group, final List<FileStamp> stamps)
+        {
+            this.m__Group = group;
+            this.m__lStamps = stamps;
+        }
+
+        /**
+         * Retrieves the group.
+         * @return such group.
+         */
+        public STGroup getGroup()
+        {
+            return this.m__Group;
+        }
+
+        /**
+         * Retrieves the stamps.
+         * @return such stamps.
+         */
+        public List<FileStamp> getStamps()
+        {
+            return this.m__lStamps;
+        }
+
+        /**
+         * Checks whether none of the files changed since the group was compiled.
+         * @return {@code true} in such case.
+         */
+        public boolean isUpToDate()
+        {
+            boolean result = true;
+
+            for (final FileStamp stamp : this.m__lStamps)
+            {
+                if (!stamp.isUpToDate())
+                {
+                    result = false;
+                    break;
+                }
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * The size and last-modification time of a file or, for group
+     * directories, of the templates in it: editing a template does not
+     * change the directory itself.
+     */
+    protected static final class FileStamp
+    {
+        /**
+         * The file.
+         */
+        private final File m__File;
+
+        /**
+         * The stamp.
+         */
+        private final String m__strStamp;
+
+        /**
+         * Takes a stamp of given file.
+         * @param file the file.
+         */
+        public FileStamp(final File file)
+        {
+            this.m__File = file;
+            this.m__strStamp = stamp(file);
+        }
+
+        /**
+         * Describes the current state of a file.
+         * @param file the file.
+         * @return its size and modification time, or those of the templates
+         * in it if it's a directory.
+         */
+        protected static String stamp(final File file)
+        {
+            final String result;
+
+            if (file.isDirectory())
+            {
+                result = BuildFingerprint.describeDirectory(file);
+            }
+            else
+            {
+                result = file.length() + "@" + file.lastModified();
+            }
+
+            return result;
+        }
+
+        /**
+         * Retrieves the file.
+         * @return such file.
+         */
+        public File getFile()
+        {
+            return this.m__File;
+        }
+
+        /**
+         * Checks whether the file is unchanged.
+         * @return {@code true} in such case.
+         */
+        public boolean isUpToDate()
+        {
+            return this.m__strStamp.equals(stamp(this.m__File));
+        }
+    }
+}
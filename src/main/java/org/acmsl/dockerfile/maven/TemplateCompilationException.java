@@ -0,0 +1,101 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateCompilationException.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Thrown when templates do not compile.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown instead of rendering a template that did not compile, which
+ * StringTemplate would otherwise do, skipping the broken parts.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class TemplateCompilationException
+    extends IOException
+{
+    /**
+     * The serial version id.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The problems.
+     */
+    private final List<TemplateProblem> m__lProblems;
+
+    /**
+     * Creates a new exception.
+     * @param template the template.
+     * @param problems the problems.
+     */
+    public TemplateCompilationException(final String template, final List<TemplateProblem> problems)
+    {
+        super(describe(template, problems));
+
+        this.m__lProblems = Collections.unmodifiableList(new ArrayList<TemplateProblem>(problems));
+    }
+
+    /**
+     * Retrieves the problems.
+     * @return such problems.
+     */
+    public List<TemplateProblem> getProblems()
+    {
+        return this.m__lProblems;
+    }
+
+    /**
+     * Describes the problems, one per line.
+     * @param template the template.
+     * @param problems the problems.
+     * @return such description.
+     */
+    protected static String describe(final String template, final List<TemplateProblem> problems)
+    {
+        final StringBuilder result = new StringBuilder();
+
+        result.append(template).append(" does not compile: ").append(problems.size()).append(" problem(s)");
+
+        for (final TemplateProblem problem : problems)
+        {
+            result.append('\n').append(problem);
+        }
+
+        return result.toString();
+    }
+}
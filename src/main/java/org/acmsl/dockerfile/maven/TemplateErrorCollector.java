@@ -0,0 +1,244 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateErrorCollector.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Keeps the compile errors of a template group.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.Token;
+import org.stringtemplate.v4.STErrorListener;
+import org.stringtemplate.v4.misc.STCompiletimeMessage;
+import org.stringtemplate.v4.misc.STGroupCompiletimeMessage;
+import org.stringtemplate.v4.misc.STLexerMessage;
+import org.stringtemplate.v4.misc.STMessage;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listens to the errors of a template group, keeping the compile-time ones
+ * with their location, and passing every error on to another listener.
+ * Since the group keeps its listener, a cached group remembers the errors
+ * found when it was compiled.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class TemplateErrorCollector
+    implements STErrorListener
+{
+    /**
+     * The listener to pass errors on to.
+     */
+    private final STErrorListener m__Delegate;
+
+    /**
+     * The compile-time problems.
+     */
+    private final List<TemplateProblem> m__lProblems = new ArrayList<TemplateProblem>();
+
+    /**
+     * Creates a new collector.
+     * @param delegate the listener to pass errors on to, or {@code null}.
+     */
+    public TemplateErrorCollector(final STErrorListener delegate)
+    {
+        this.m__Delegate = delegate;
+    }
+
+    /**
+     * Retrieves the compile-time problems found so far.
+     * @return such problems.
+     */
+    public synchronized List<TemplateProblem> getProblems()
+    {
+        return new ArrayList<TemplateProblem>(this.m__lProblems);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void compileTimeError(final STMessage stMessage)
+    {
+        record(stMessage);
+
+        if (this.m__Delegate != null)
+        {
+            this.m__Delegate.compileTimeError(stMessage);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void runTimeError(final STMessage stMessage)
+    {
+        if (this.m__Delegate != null)
+        {
+            this.m__Delegate.runTimeError(stMessage);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void IOError(final STMessage stMessage)
+    {
+        // Missing or unreadable groups leave templates undefined.
+        record(stMessage);
+
+        if (this.m__Delegate != null)
+        {
+            this.m__Delegate.IOError(stMessage);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void internalError(final STMessage stMessage)
+    {
+        record(stMessage);
+
+        if (this.m__Delegate != null)
+        {
+            this.m__Delegate.internalError(stMessage);
+        }
+    }
+
+    /**
+     * Records a message as a problem.
+     * @param stMessage the message.
+     */
+    protected synchronized void record(final STMessage stMessage)
+    {
+        this.m__lProblems.add(toProblem(stMessage));
+    }
+
+    /**
+     * Converts a message, locating it as StringTemplate itself does: tokens
+     * within a template are relative to its definition in the group.
+     * @param stMessage the message.
+     * @return the problem.
+     */
+    protected static TemplateProblem toProblem(final STMessage stMessage)
+    {
+        String source = null;
+        String message = null;
+        Token templateToken = null;
+        int line = 0;
+        int column = 0;
+
+        if (stMessage instanceof STCompiletimeMessage)
+        {
+            final STCompiletimeMessage compileTime = (STCompiletimeMessage) stMessage;
+
+            source = compileTime.srcName;
+            templateToken = compileTime.templateToken;
+
+            if (compileTime.cause instanceof RecognitionException)
+            {
+                line = ((RecognitionException) compileTime.cause).line;
+                column = ((RecognitionException) compileTime.cause).charPositionInLine;
+            }
+            else if (compileTime.token != null)
+            {
+                line = compileTime.token.getLine();
+                column = compileTime.token.getCharPositionInLine();
+            }
+        }
+        else if (stMessage instanceof STLexerMessage)
+        {
+            final STLexerMessage lexer = (STLexerMessage) stMessage;
+
+            source = lexer.srcName;
+            templateToken = lexer.templateToken;
+            message = lexer.msg;
+
+            if (lexer.cause instanceof RecognitionException)
+            {
+                line = ((RecognitionException) lexer.cause).line;
+                column = ((RecognitionException) lexer.cause).charPositionInLine;
+            }
+        }
+        else if (stMessage instanceof STGroupCompiletimeMessage)
+        {
+            final STGroupCompiletimeMessage group = (STGroupCompiletimeMessage) stMessage;
+
+            source = group.srcName;
+
+            if (group.cause instanceof RecognitionException)
+            {
+                line = ((RecognitionException) group.cause).line;
+                column = ((RecognitionException) group.cause).charPositionInLine;
+            }
+            else if (group.token != null)
+            {
+                line = group.token.getLine();
+                column = group.token.getCharPositionInLine();
+            }
+        }
+
+        if (   (templateToken != null)
+            && (line > 0))
+        {
+            final String text = templateToken.getText();
+            final int delimiter = ((text != null) && (text.startsWith("<<") || text.startsWith("<%"))) ? 2 : 1;
+
+            line += templateToken.getLine() - 1;
+            column += templateToken.getCharPositionInLine() + delimiter;
+        }
+
+        if (message == null)
+        {
+            message =
+                (stMessage.error == null)
+                ? String.valueOf(stMessage)
+                : String.format(stMessage.error.message, stMessage.arg, stMessage.arg2, stMessage.arg3);
+        }
+
+        return
+            new TemplateProblem(
+                (source == null) ? "<unknown>" : source,
+                line,
+                (line > 0) ? column + 1 : 0,
+                message,
+                false);
+    }
+}
@@ -0,0 +1,331 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplatePack.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: In-memory index of the templates of a template-pack jar.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.stringtemplate.v4.STGroup;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * In-memory index of the {@code .st} and {@code .stg} entries of a template
+ * pack: a jar sharing Dockerfile fragments as a versioned Maven artifact.
+ * The jar is read once, and every lookup is then answered from the index, so
+ * names a pack does not define are rejected without touching the jar. Packs
+ * are kept process-wide, keyed by path, size and last-modification time, so
+ * every module of a build shares the same index.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class TemplatePack
+{
+    /**
+     * The template extension.
+     */
+    public static final String TEMPLATE_EXTENSION = ".st";
+
+    /**
+     * The group extension.
+     */
+    public static final String GROUP_EXTENSION = ".stg";
+
+    /**
+     * The indexed packs, by canonical path.
+     */
+    private static final ConcurrentMap<File, TemplatePack> PACKS = new ConcurrentHashMap<File, TemplatePack>();
+
+    /**
+     * The jar.
+     */
+    private final File m__File;
+
+    /**
+     * The size of the jar when it was indexed.
+     */
+    private final long m__lSize;
+
+    /**
+     * The last-modification time of the jar when it was indexed.
+     */
+    private final long m__lLastModified;
+
+    /**
+     * The contents of the template and group entries, by absolute path
+     * ({@code /fragments/java.st}).
+     */
+    private final Map<String, byte[]> m__mEntries;
+
+    /**
+     * The number of lookups served from the index.
+     */
+    private final AtomicLong m__lHits = new AtomicLong();
+
+    /**
+     * The number of lookups rejected by the index.
+     */
+    private final AtomicLong m__lMisses = new AtomicLong();
+
+    /**
+     * Creates a new pack.
+     * @param file the jar.
+     * @param size its size.
+     * @param lastModified its last-modification time.
+     * @param entries the contents of its template and group entries.
+     */
+    protected TemplatePack(
+        final File file, final long size, final long lastModified, final Map<String, byte[]> entries)
+    {
+        this.m__File = file;
+        this.m__lSize = size;
+        this.m__lLastModified = lastModified;
+        this.m__mEntries = Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Retrieves the pack of given jar, indexing it only if it was not indexed
+     * before, or it changed since.
+     * @param jar the jar.
+     * @return such pack.
+     * @throws IOException if the jar cannot be read.
+     */
+    public static TemplatePack retrieve(final File jar)
+        throws IOException
+    {
+        final File file = jar.getCanonicalFile();
+
+        TemplatePack result = PACKS.get(file);
+
+        if (   (result == null)
+            || (!result.isCurrent()))
+        {
+            result = index(file);
+            PACKS.put(file, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Forgets every indexed pack.
+     */
+    public static void clear()
+    {
+        PACKS.clear();
+    }
+
+    /**
+     * Indexes given jar.
+     * @param jar the jar.
+     * @return the pack.
+     * @throws IOException if the jar cannot be read.
+     */
+    public static TemplatePack index(final File jar)
+        throws IOException
+    {
+        final long size = jar.length();
+        final long lastModified = jar.lastModified();
+
+        final Map<String, byte[]> entries = new HashMap<String, byte[]>();
+
+        try (ZipFile zip = new ZipFile(jar))
+        {
+            final Enumeration<? extends ZipEntry> enumeration = zip.entries();
+
+            while (enumeration.hasMoreElements())
+            {
+                final ZipEntry entry = enumeration.nextElement();
+
+                if (   (!entry.isDirectory())
+                    && (   (entry.getName().endsWith(TEMPLATE_EXTENSION))
+                        || (entry.getName().endsWith(GROUP_EXTENSION))))
+                {
+                    try (InputStream input = zip.getInputStream(entry))
+                    {
+                        entries.put(toPath(entry.getName()), readFully(input));
+                    }
+                }
+            }
+        }
+
+        return new TemplatePack(jar, size, lastModified, entries);
+    }
+
+    /**
+     * Converts a jar entry name to an absolute template path.
+     * @param entryName the entry name.
+     * @return such path.
+     */
+    protected static String toPath(final String entryName)
+    {
+        return entryName.startsWith("/") ? entryName : "/" + entryName;
+    }
+
+    /**
+     * Reads given stream fully.
+     * @param input the stream.
+     * @return its contents.
+     * @throws IOException if the stream cannot be read.
+     */
+    protected static byte[] readFully(final InputStream input)
+        throws IOException
+    {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+
+        final byte[] buffer = new byte[8192];
+
+        int read;
+
+        while ((read = input.read(buffer)) != -1)
+        {
+            result.write(buffer, 0, read);
+        }
+
+        return result.toByteArray();
+    }
+
+    /**
+     * Retrieves the jar.
+     * @return such file.
+     */
+    public File getFile()
+    {
+        return this.m__File;
+    }
+
+    /**
+     * Checks whether the jar is unchanged since it was indexed.
+     * @return {@code true} in such case.
+     */
+    public boolean isCurrent()
+    {
+        return
+               (this.m__File.length() == this.m__lSize)
+            && (this.m__File.lastModified() == this.m__lLastModified);
+    }
+
+    /**
+     * Retrieves the indexed entries.
+     * @return their absolute paths.
+     */
+    public Set<String> getEntries()
+    {
+        return this.m__mEntries.keySet();
+    }
+
+    /**
+     * Retrieves the contents of an entry, counting the lookup.
+     * @param path the absolute path, including the extension.
+     * @return such contents, or {@code null} if the pack does not include it.
+     */
+    public byte[] lookup(final String path)
+    {
+        final byte[] result = this.m__mEntries.get(path);
+
+        if (result == null)
+        {
+            this.m__lMisses.incrementAndGet();
+        }
+        else
+        {
+            this.m__lHits.incrementAndGet();
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the pack includes an entry, without counting the lookup.
+     * @param path the absolute path, including the extension.
+     * @return {@code true} in such case.
+     */
+    public boolean contains(final String path)
+    {
+        return this.m__mEntries.containsKey(path);
+    }
+
+    /**
+     * Retrieves the number of lookups served from the index.
+     * @return such number.
+     */
+    public long getHits()
+    {
+        return this.m__lHits.get();
+    }
+
+    /**
+     * Retrieves the number of lookups rejected by the index.
+     * @return such number.
+     */
+    public long getMisses()
+    {
+        return this.m__lMisses.get();
+    }
+
+    /**
+     * Creates a new group serving this pack's templates. Groups are cheap:
+     * they share the index, and only compile the templates actually used.
+     * @param charset the charset of the templates.
+     * @return such group.
+     */
+    public STGroup newGroup(final Charset charset)
+    {
+        return new TemplatePackGroup(this, charset.name());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return this.m__File + " (" + this.m__mEntries.size() + " templates)";
+    }
+}
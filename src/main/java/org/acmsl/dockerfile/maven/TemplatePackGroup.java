@@ -0,0 +1,198 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplatePackGroup.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: STGroup serving the templates of a TemplatePack.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.compiler.CompiledST;
+import org.stringtemplate.v4.compiler.GroupLexer;
+import org.stringtemplate.v4.compiler.GroupParser;
+import org.stringtemplate.v4.misc.ErrorType;
+import org.stringtemplate.v4.misc.Misc;
+
+/*
+ * Importing ANTLR classes.
+ */
+import org.antlr.runtime.ANTLRInputStream;
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.CommonTokenStream;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * {@link STGroup} serving the templates of a {@link TemplatePack}. Like
+ * {@code STGroupDir}, template {@code /a/b} comes from {@code /a.stg} if the
+ * pack has it, or from {@code /a/b.st} otherwise; but both are looked up in
+ * the pack's index instead of being probed, and unknown names are rejected
+ * at once (and then remembered as missing by {@link STGroup} itself).
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class TemplatePackGroup
+    extends STGroup
+{
+    /**
+     * The pack.
+     */
+    private final TemplatePack m__Pack;
+
+    /**
+     * Creates a new group.
+     * @param pack the pack.
+     * @param encoding the encoding of the templates.
+     */
+    public TemplatePackGroup(final TemplatePack pack, final String encoding)
+    {
+        super();
+        this.encoding = encoding;
+        this.m__Pack = pack;
+    }
+
+    /**
+     * Retrieves the pack.
+     * @return such pack.
+     */
+    public TemplatePack getPack()
+    {
+        return this.m__Pack;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected CompiledST load(final String name)
+    {
+        final CompiledST result;
+
+        final String parent = Misc.getParent(name);
+        final String prefix = Misc.getPrefix(name);
+        final String groupPath = parent + TemplatePack.GROUP_EXTENSION;
+
+        if (this.m__Pack.contains(groupPath))
+        {
+            loadGroup(prefix, groupPath, this.m__Pack.lookup(groupPath));
+
+            result = rawGetTemplate(name);
+        }
+        else
+        {
+            final String templatePath = name + TemplatePack.TEMPLATE_EXTENSION;
+
+            final byte[] contents = this.m__Pack.lookup(templatePath);
+
+            final CharStream stream = (contents == null) ? null : toCharStream(templatePath, contents);
+
+            if (stream == null)
+            {
+                result = null;
+            }
+            else
+            {
+                result = loadTemplateFile(prefix, Misc.getFileName(templatePath), stream);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Defines the templates of a group entry, as {@code loadGroupFile} does.
+     * @param prefix the prefix of the template names.
+     * @param path the path of the entry.
+     * @param contents its contents.
+     */
+    protected void loadGroup(final String prefix, final String path, final byte[] contents)
+    {
+        final CharStream stream = toCharStream(path, contents);
+
+        if (stream != null)
+        {
+            try
+            {
+                new GroupParser(new CommonTokenStream(new GroupLexer(stream))).group(this, prefix);
+            }
+            catch (final Exception cannotParse)
+            {
+                errMgr.IOError(null, ErrorType.CANT_LOAD_GROUP_FILE, cannotParse, path);
+            }
+        }
+    }
+
+    /**
+     * Wraps the contents of an entry.
+     * @param path the path of the entry.
+     * @param contents its contents.
+     * @return the stream, or {@code null} if it cannot be decoded.
+     */
+    protected CharStream toCharStream(final String path, final byte[] contents)
+    {
+        ANTLRInputStream result;
+
+        try
+        {
+            result = new ANTLRInputStream(new ByteArrayInputStream(contents), this.encoding);
+            result.name = getFileName() + "!" + path;
+        }
+        catch (final IOException cannotDecode)
+        {
+            errMgr.IOError(null, ErrorType.NO_SUCH_TEMPLATE, cannotDecode, path);
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName()
+    {
+        return this.m__Pack.getFile().getName();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getFileName()
+    {
+        return this.m__Pack.getFile().getPath();
+    }
+}
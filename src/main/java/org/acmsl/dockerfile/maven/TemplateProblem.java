@@ -0,0 +1,141 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateProblem.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: A problem found in a template, with its location.
+ */
+package org.acmsl.dockerfile.maven;
+
+/**
+ * A problem found in a template: a compile error, or a reference the model
+ * cannot satisfy. Lines and columns start at 1; zero means unknown.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public final class TemplateProblem
+{
+    /**
+     * The file, or the name ST knows the template source by.
+     */
+    private final String m__strSource;
+
+    /**
+     * The line.
+     */
+    private final int m__iLine;
+
+    /**
+     * The column.
+     */
+    private final int m__iColumn;
+
+    /**
+     * The description.
+     */
+    private final String m__strMessage;
+
+    /**
+     * Whether it's just a warning: the template compiles, but may not render as expected.
+     */
+    private final boolean m__bWarning;
+
+    /**
+     * Creates a new problem.
+     * @param source the file.
+     * @param line the line.
+     * @param column the column.
+     * @param message the description.
+     * @param warning whether it's just a warning.
+     */
+    public TemplateProblem(
+        final String source, final int line, final int column, final String message, final boolean warning)
+    {
+        this.m__strSource = source;
+        this.m__iLine = line;
+        this.m__iColumn = column;
+        this.m__strMessage = message;
+        this.m__bWarning = warning;
+    }
+
+    /**
+     * Retrieves the file.
+     * @return such file.
+     */
+    public String getSource()
+    {
+        return this.m__strSource;
+    }
+
+    /**
+     * Retrieves the line.
+     * @return such line, or zero if unknown.
+     */
+    public int getLine()
+    {
+        return this.m__iLine;
+    }
+
+    /**
+     * Retrieves the column.
+     * @return such column, or zero if unknown.
+     */
+    public int getColumn()
+    {
+        return this.m__iColumn;
+    }
+
+    /**
+     * Retrieves the description.
+     * @return such description.
+     */
+    public String getMessage()
+    {
+        return this.m__strMessage;
+    }
+
+    /**
+     * Checks whether it's just a warning.
+     * @return {@code true} in such case.
+     */
+    public boolean isWarning()
+    {
+        return this.m__bWarning;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return
+              this.m__strSource
+            + (this.m__iLine > 0 ? ":" + this.m__iLine + ":" + this.m__iColumn : "")
+            + ": " + (this.m__bWarning ? "warning: " : "") + this.m__strMessage;
+    }
+}
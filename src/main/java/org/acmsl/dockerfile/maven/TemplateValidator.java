@@ -0,0 +1,379 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateValidator.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Checks templates compile, and reference what the model provides.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.compiler.Bytecode;
+import org.stringtemplate.v4.compiler.CompiledST;
+import org.stringtemplate.v4.misc.Coordinate;
+import org.stringtemplate.v4.misc.Interval;
+import org.stringtemplate.v4.misc.Misc;
+import org.stringtemplate.v4.Interpreter;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks a template without rendering it: compiling the root template and
+ * every template it includes, across imported groups and packs, it reports
+ * compile errors and includes of undefined templates as errors, and
+ * references the model cannot satisfy ({@code C.x} not in the model,
+ * {@code C.T.x} not a project property, attributes no template defines) as
+ * warnings, all with file, line and column.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public final class TemplateValidator
+{
+    /**
+     * The attributes StringTemplate defines while iterating.
+     */
+    protected static final Set<String> PREDEFINED_ATTRIBUTES =
+        Collections.unmodifiableSet(new HashSet<String>(Arrays.asList("i", "i0")));
+
+    /**
+     * Utility class.
+     */
+    private TemplateValidator()
+    {
+    }
+
+    /**
+     * Validates a template.
+     * @param group the group.
+     * @param templateName the name of the root template.
+     * @param modelNames the names the model provides, or {@code null} to skip checking them.
+     * @return the problems, errors first.
+     */
+    public static List<TemplateProblem> validate(
+        final STGroup group, final String templateName, final Set<String> modelNames)
+    {
+        final List<TemplateProblem> errors = new ArrayList<TemplateProblem>();
+        final List<TemplateProblem> warnings = new ArrayList<TemplateProblem>();
+
+        final List<CompiledST> templates = new ArrayList<CompiledST>();
+
+        if (group.isDefined(templateName))
+        {
+            collectTemplates(group, group.lookupTemplate(templateName), templates, errors);
+        }
+        else
+        {
+            errors.add(
+                new TemplateProblem(
+                    retrieveSource(group), 0, 0, "template '" + templateName + "' is not defined", false));
+        }
+
+        final Set<String> formalArguments = new HashSet<String>();
+
+        for (final CompiledST template : templates)
+        {
+            if (template.formalArguments != null)
+            {
+                formalArguments.addAll(template.formalArguments.keySet());
+            }
+        }
+
+        for (final CompiledST template : templates)
+        {
+            checkReferences(group, template, formalArguments, modelNames, warnings);
+        }
+
+        // Compiling happens on lookup: errors are complete only now.
+        if (group.getListener() instanceof TemplateErrorCollector)
+        {
+            errors.addAll(0, ((TemplateErrorCollector) group.getListener()).getProblems());
+        }
+
+        final List<TemplateProblem> result = new ArrayList<TemplateProblem>(errors.size() + warnings.size());
+
+        result.addAll(errors);
+        result.addAll(warnings);
+
+        return result;
+    }
+
+    /**
+     * Collects the templates given one includes, compiling them.
+     * @param group the group.
+     * @param root the root template.
+     * @param templates the templates found so far.
+     * @param errors the errors found so far, including missing templates.
+     */
+    protected static void collectTemplates(
+        final STGroup group,
+        final CompiledST root,
+        final List<CompiledST> templates,
+        final List<TemplateProblem> errors)
+    {
+        final Set<CompiledST> visited = Collections.newSetFromMap(new IdentityHashMap<CompiledST, Boolean>());
+        final Deque<CompiledST> pending = new ArrayDeque<CompiledST>();
+
+        pending.push(root);
+
+        while (!pending.isEmpty())
+        {
+            final CompiledST template = pending.pop();
+
+            if (visited.add(template))
+            {
+                templates.add(template);
+
+                int ip = 0;
+
+                while (ip < template.codeSize)
+                {
+                    final short opcode = template.instrs[ip];
+                    final Bytecode.Instruction instruction = Bytecode.instructions[opcode];
+
+                    if (instruction == null)
+                    {
+                        break;
+                    }
+
+                    if (   (opcode == Bytecode.INSTR_NEW)
+                        || (opcode == Bytecode.INSTR_NEW_BOX_ARGS)
+                        || (opcode == Bytecode.INSTR_SUPER_NEW)
+                        || (opcode == Bytecode.INSTR_SUPER_NEW_BOX_ARGS))
+                    {
+                        final String name = template.strings[Interpreter.getShort(template.instrs, ip + 1)];
+                        final CompiledST included = group.lookupTemplate(name);
+
+                        if (included != null)
+                        {
+                            pending.push(included);
+                        }
+                        else if (   (opcode == Bytecode.INSTR_NEW)
+                                 || (opcode == Bytecode.INSTR_NEW_BOX_ARGS))
+                        {
+                            errors.add(locate(template, ip, "template '" + name + "' is not defined", false));
+                        }
+                    }
+
+                    ip += 1 + instruction.nopnds * Bytecode.OPND_SIZE_IN_BYTES;
+                }
+
+                if (template.implicitlyDefinedTemplates != null)
+                {
+                    for (final CompiledST subtemplate : template.implicitlyDefinedTemplates)
+                    {
+                        pending.push(subtemplate);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the attributes and properties a template reads.
+     * @param group the group, for its dictionaries.
+     * @param template the template.
+     * @param formalArguments the arguments of every reachable template,
+     * visible through dynamic scoping.
+     * @param modelNames the names the model provides, or {@code null}.
+     * @param warnings the warnings found so far.
+     */
+    protected static void checkReferences(
+        final STGroup group,
+        final CompiledST template,
+        final Set<String> formalArguments,
+        final Set<String> modelNames,
+        final List<TemplateProblem> warnings)
+    {
+        final List<String> arguments =
+            (template.formalArguments == null)
+            ? Collections.<String>emptyList()
+            : new ArrayList<String>(template.formalArguments.keySet());
+
+        final MavenModelAdaptor adaptor = MavenModelAdaptor.getInstance();
+
+        // What the value on top of the stack is: C, C.T, or anything else.
+        boolean model = false;
+        boolean project = false;
+
+        int ip = 0;
+
+        while (ip < template.codeSize)
+        {
+            final short opcode = template.instrs[ip];
+            final Bytecode.Instruction instruction = Bytecode.instructions[opcode];
+
+            if (instruction == null)
+            {
+                break;
+            }
+
+            final boolean wasModel = model;
+            final boolean wasProject = project;
+
+            model = false;
+            project = false;
+
+            if (opcode == Bytecode.INSTR_LOAD_LOCAL)
+            {
+                final int index = Interpreter.getShort(template.instrs, ip + 1);
+
+                model = (index < arguments.size()) && (Literals.C_U.equals(arguments.get(index)));
+            }
+            else if (opcode == Bytecode.INSTR_LOAD_PROP)
+            {
+                final String name = template.strings[Interpreter.getShort(template.instrs, ip + 1)];
+
+                if (wasModel)
+                {
+                    project = Literals.T_U.equals(name);
+
+                    if (   (modelNames != null)
+                        && (!modelNames.contains(name)))
+                    {
+                        warnings.add(locate(template, ip, Literals.C_U + "." + name + " is not in the model", true));
+                    }
+                }
+                else if (   (wasProject)
+                         && (!adaptor.hasProperty(MavenProject.class, name)))
+                {
+                    warnings.add(
+                        locate(template, ip, Literals.T_U + "." + name + " is not a project property", true));
+                }
+            }
+            else if (opcode == Bytecode.INSTR_LOAD_ATTR)
+            {
+                final String name = template.strings[Interpreter.getShort(template.instrs, ip + 1)];
+
+                if (   (!formalArguments.contains(name))
+                    && (!PREDEFINED_ATTRIBUTES.contains(name))
+                    && (!group.isDictionary(name))
+                    && (   (template.nativeGroup == null)
+                        || (!template.nativeGroup.isDictionary(name))))
+                {
+                    warnings.add(locate(template, ip, "attribute '" + name + "' is never defined", true));
+                }
+            }
+
+            ip += 1 + instruction.nopnds * Bytecode.OPND_SIZE_IN_BYTES;
+        }
+    }
+
+    /**
+     * Builds a problem located at an instruction of a template, relative to
+     * the file the template is defined in when known.
+     * @param template the template.
+     * @param ip the instruction.
+     * @param message the description.
+     * @param warning whether it's just a warning.
+     * @return the problem.
+     */
+    protected static TemplateProblem locate(
+        final CompiledST template, final int ip, final String message, final boolean warning)
+    {
+        int line = 0;
+        int column = 0;
+
+        final Token start = template.templateDefStartToken;
+
+        final Interval interval =
+            ((template.sourceMap != null) && (ip < template.sourceMap.length)) ? template.sourceMap[ip] : null;
+
+        if (start != null)
+        {
+            line = start.getLine();
+            column = start.getCharPositionInLine() + 1;
+
+            final CharStream input = start.getInputStream();
+
+            if (   (input != null)
+                && (interval != null)
+                && (template.template != null))
+            {
+                final String text = input.substring(0, input.size() - 1);
+                final int body = text.indexOf(template.template, (start instanceof CommonToken) ? Math.max(0, ((CommonToken) start).getStartIndex()) : 0);
+
+                if (body >= 0)
+                {
+                    final Coordinate position = Misc.getLineCharPosition(text, body + interval.a);
+
+                    line = position.line;
+                    column = position.charPosition + 1;
+                }
+            }
+        }
+        else if (   (interval != null)
+                 && (template.template != null))
+        {
+            final Coordinate position = Misc.getLineCharPosition(template.template, interval.a);
+
+            line = position.line;
+            column = position.charPosition + 1;
+        }
+
+        return
+            new TemplateProblem(
+                (template.nativeGroup == null) ? "<unknown>" : retrieveSource(template.nativeGroup),
+                line,
+                column,
+                message + " (in " + template.name + ")",
+                warning);
+    }
+
+    /**
+     * Retrieves the name of the file a group comes from.
+     * @param group the group.
+     * @return its file name, or its name.
+     */
+    protected static String retrieveSource(final STGroup group)
+    {
+        final String result = group.getFileName();
+
+        return (result == null) ? group.getName() : result;
+    }
+}
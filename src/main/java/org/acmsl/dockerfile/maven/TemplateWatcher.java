@@ -0,0 +1,357 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateWatcher.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Watches the files each output depends on, debouncing changes.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the files each target (typically, each Dockerfile) depends on.
+ * {@link WatchService} only watches directories, so the parent directory of
+ * every file is registered once, and events are filtered by file. Bursts of
+ * events, such as those of an editor saving through a temporary file, are
+ * debounced into a single batch of changes.
+ * @param <T> the type of the targets.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+public class TemplateWatcher<T>
+    implements Closeable
+{
+    /**
+     * The default quiet period, in milliseconds.
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 100;
+
+    /**
+     * The watch service.
+     */
+    private final WatchService m__WatchService;
+
+    /**
+     * The quiet period, in milliseconds.
+     */
+    private final long m__lDebounceMillis;
+
+    /**
+     * The registered directories.
+     */
+    private final Map<Path, WatchKey> m__mDirectories = new HashMap<Path, WatchKey>();
+
+    /**
+     * The targets depending on each file.
+     */
+    private final Map<Path, Set<T>> m__mTargets = new HashMap<Path, Set<T>>();
+
+    /**
+     * The files each target depends on.
+     */
+    private final Map<T, Set<Path>> m__mFiles = new HashMap<T, Set<Path>>();
+
+    /**
+     * When the first event of the last batch was received.
+     */
+    private long m__lFirstEventNanos;
+
+    /**
+     * Creates a new watcher.
+     * @param debounceMillis how long files must be quiet before changes are reported.
+     * @throws IOException if the platform's watch service cannot be created.
+     */
+    public TemplateWatcher(final long debounceMillis)
+        throws IOException
+    {
+        this.m__WatchService = FileSystems.getDefault().newWatchService();
+        this.m__lDebounceMillis = Math.max(0, debounceMillis);
+    }
+
+    /**
+     * Watches the files of given target, replacing the ones watched before.
+     * @param target the target.
+     * @param files the files it depends on.
+     * @throws IOException if their directories cannot be watched.
+     */
+    public synchronized void watch(final T target, final Collection<File> files)
+        throws IOException
+    {
+        unwatch(target);
+
+        final Set<Path> paths = new HashSet<Path>();
+
+        for (final File file : files)
+        {
+            final Path path = toPath(file);
+            final Path directory = path.getParent();
+
+            if (   (directory != null)
+                && (!this.m__mDirectories.containsKey(directory)))
+            {
+                this.m__mDirectories.put(
+                    directory,
+                    directory.register(
+                        this.m__WatchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE));
+            }
+
+            Set<T> targets = this.m__mTargets.get(path);
+
+            if (targets == null)
+            {
+                targets = new LinkedHashSet<T>();
+                this.m__mTargets.put(path, targets);
+            }
+
+            targets.add(target);
+            paths.add(path);
+        }
+
+        this.m__mFiles.put(target, paths);
+    }
+
+    /**
+     * Stops watching the files of given target.
+     * @param target the target.
+     */
+    public synchronized void unwatch(final T target)
+    {
+        final Set<Path> previous = this.m__mFiles.remove(target);
+
+        if (previous != null)
+        {
+            for (final Path path : previous)
+            {
+                final Set<T> targets = this.m__mTargets.get(path);
+
+                if (targets != null)
+                {
+                    targets.remove(target);
+
+                    if (targets.isEmpty())
+                    {
+                        this.m__mTargets.remove(path);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the watched files.
+     * @return such files.
+     */
+    public synchronized Set<File> getWatchedFiles()
+    {
+        final Set<File> result = new LinkedHashSet<File>();
+
+        for (final Path path : this.m__mTargets.keySet())
+        {
+            result.add(path.toFile());
+        }
+
+        return result;
+    }
+
+    /**
+     * Waits until some watched file changes, and then until files are quiet
+     * for the debounce period.
+     * @param timeoutMillis how long to wait for the first change; zero or
+     * less to wait forever.
+     * @return the changed files, empty if none changed before the timeout.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public Set<File> awaitChanges(final long timeoutMillis)
+        throws InterruptedException
+    {
+        final Set<File> result = new LinkedHashSet<File>();
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        while (result.isEmpty())
+        {
+            final WatchKey key;
+
+            if (timeoutMillis > 0)
+            {
+                final long remaining = deadline - System.nanoTime();
+
+                key = (remaining > 0) ? this.m__WatchService.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            }
+            else
+            {
+                key = this.m__WatchService.take();
+            }
+
+            if (key == null)
+            {
+                break;
+            }
+
+            this.m__lFirstEventNanos = System.nanoTime();
+
+            collectChanges(key, result);
+        }
+
+        if (!result.isEmpty())
+        {
+            WatchKey key = this.m__WatchService.poll(this.m__lDebounceMillis, TimeUnit.MILLISECONDS);
+
+            while (key != null)
+            {
+                collectChanges(key, result);
+                key = this.m__WatchService.poll(this.m__lDebounceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves when the first event of the last batch of changes was received.
+     * @return such time, as per {@link System#nanoTime()}.
+     */
+    public long getFirstEventNanos()
+    {
+        return this.m__lFirstEventNanos;
+    }
+
+    /**
+     * Retrieves the targets affected by given changes.
+     * @param changes the changed files.
+     * @return such targets.
+     */
+    public synchronized Set<T> retrieveTargets(final Collection<File> changes)
+    {
+        final Set<T> result = new LinkedHashSet<T>();
+
+        for (final File file : changes)
+        {
+            final Set<T> targets = this.m__mTargets.get(toPath(file));
+
+            if (targets != null)
+            {
+                result.addAll(targets);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Collects the watched files changed according to given key, and resets it.
+     * @param key the key.
+     * @param changes the changes found so far.
+     */
+    protected synchronized void collectChanges(final WatchKey key, final Set<File> changes)
+    {
+        final Path directory = (Path) key.watchable();
+
+        for (final WatchEvent<?> event : key.pollEvents())
+        {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+            {
+                // Events were lost: assume every file in the directory changed.
+                for (final Path path : this.m__mTargets.keySet())
+                {
+                    if (directory.equals(path.getParent()))
+                    {
+                        changes.add(path.toFile());
+                    }
+                }
+            }
+            else
+            {
+                final Path path = directory.resolve((Path) event.context());
+
+                if (this.m__mTargets.containsKey(path))
+                {
+                    changes.add(path.toFile());
+                }
+            }
+        }
+
+        if (!key.reset())
+        {
+            // The directory is gone: register it again if it comes back.
+            this.m__mDirectories.remove(directory);
+        }
+    }
+
+    /**
+     * Converts given file to the path used as key.
+     * @param file the file.
+     * @return its absolute, normalized path.
+     */
+    protected static Path toPath(final File file)
+    {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        this.m__WatchService.close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String toString()
+    {
+        return
+              "Watching " + this.m__mTargets.size() + " file(s) in "
+            + this.m__mDirectories.size() + " folder(s) for " + this.m__mFiles.size() + " target(s)";
+    }
+}
@@ -0,0 +1,151 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ThreadPools.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Creates the bounded executors used to parallelize work.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing some JDK classes.
+ */
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the bounded executors used to parallelize work. Virtual threads are
+ * used when the running JDK provides them, and daemon platform threads otherwise.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+public final class ThreadPools
+{
+    /**
+     * Utility class.
+     */
+    private ThreadPools()
+    {
+    }
+
+    /**
+     * Retrieves the default parallelism for given number of tasks.
+     * @param tasks the number of tasks.
+     * @param configured the configured parallelism, or a non-positive value to use the default.
+     * @return the parallelism, never larger than the number of tasks.
+     */
+    public static int retrieveParallelism(final int tasks, final int configured)
+    {
+        final int limit = (configured > 0) ? configured : Runtime.getRuntime().availableProcessors();
+
+        return Math.max(1, Math.min(tasks, limit));
+    }
+
+    /**
+     * Creates an executor running at most {@code parallelism} tasks at once.
+     * @param parallelism the maximum number of concurrent tasks.
+     * @param name the prefix of the thread names.
+     * @return such executor.
+     */
+    public static ExecutorService newBoundedExecutor(final int parallelism, final String name)
+    {
+        ThreadFactory factory = retrieveVirtualThreadFactory(name);
+
+        if (factory == null)
+        {
+            factory = newDaemonThreadFactory(name);
+        }
+
+        return Executors.newFixedThreadPool(Math.max(1, parallelism), factory);
+    }
+
+    /**
+     * Checks whether the running JDK supports virtual threads.
+     * @return {@code true} in such case.
+     */
+    public static boolean isVirtualThreadSupported()
+    {
+        return retrieveVirtualThreadFactory("probe") != null;
+    }
+
+    /**
+     * Retrieves a factory of virtual threads, if the JDK supports them.
+     * @param name the prefix of the thread names.
+     * @return such factory, or {@code null} if not available.
+     */
+    protected static ThreadFactory retrieveVirtualThreadFactory(final String name)
+    {
+        ThreadFactory result = null;
+
+        try
+        {
+            final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+
+            Object builder = ofVirtual.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+
+            result = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        }
+        catch (final ReflectiveOperationException virtualThreadsNotAvailable)
+        {
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a factory of daemon platform threads.
+     * @param name the prefix of the thread names.
+     * @return such factory.
+     */
+    protected static ThreadFactory newDaemonThreadFactory(final String name)
+    {
+        final AtomicInteger counter = new AtomicInteger();
+
+        return
+            new ThreadFactory()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Thread newThread(final Runnable runnable)
+                {
+                    final Thread result = new Thread(runnable, name + "-" + counter.getAndIncrement());
+
+                    result.setDaemon(true);
+
+                    return result;
+                }
+            };
+    }
+}
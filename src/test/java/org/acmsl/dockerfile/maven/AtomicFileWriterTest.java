@@ -0,0 +1,177 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: AtomicFileWriterTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for AtomicFileWriter.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AtomicFileWriter}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+@RunWith(JUnit4.class)
+public class AtomicFileWriterTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks unchanged contents leave the file untouched.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void unchanged_contents_leave_the_file_untouched()
+        throws IOException
+    {
+        final File target = new File(tempFolder.getRoot(), "Dockerfile");
+
+        final AtomicFileWriter writer = new AtomicFileWriter();
+
+        Assert.assertTrue(writer.write(target, content("FROM scratch\n")).isChanged());
+
+        Assert.assertTrue(target.setLastModified(1000L));
+
+        final AtomicFileWriter.Result result = writer.write(target, content("FROM scratch\n"));
+
+        Assert.assertFalse(result.isChanged());
+        Assert.assertEquals(1000L, target.lastModified());
+        Assert.assertEquals("no temporary files nor sidecars are left behind", 1, tempFolder.getRoot().listFiles().length);
+    }
+
+    /**
+     * Checks changed contents replace the file and refresh the sidecars,
+     * where they're asked to go.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void changed_contents_replace_the_file_and_its_sidecars()
+        throws IOException
+    {
+        final File target = new File(tempFolder.getRoot(), "Dockerfile");
+
+        final File sidecars = new File(tempFolder.getRoot(), "state/Dockerfile");
+
+        final AtomicFileWriter writer = new AtomicFileWriter(sidecars);
+
+        writer.write(target, content("FROM scratch\n"));
+
+        final AtomicFileWriter.Result result = writer.write(target, content("FROM alpine\n"));
+
+        Assert.assertTrue(result.isChanged());
+        Assert.assertEquals(
+            "FROM alpine\n", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+        Assert.assertEquals(Digests.digest(target, Digests.SHA_256), result.getSha256());
+        Assert.assertEquals(
+            Digests.digest(target, Digests.SHA_1),
+            new String(
+                Files.readAllBytes(new File(sidecars.getPath() + AtomicFileWriter.SHA1_EXTENSION).toPath()),
+                StandardCharsets.US_ASCII));
+        Assert.assertEquals(
+            result.getSha256(),
+            new String(
+                Files.readAllBytes(new File(sidecars.getPath() + AtomicFileWriter.SHA256_EXTENSION).toPath()),
+                StandardCharsets.US_ASCII));
+        Assert.assertFalse(new File(target.getPath() + AtomicFileWriter.SHA1_EXTENSION).exists());
+    }
+
+    /**
+     * Checks a known digest stands for the file's contents, so it's not read
+     * back, and is kept up to date as the file is written.
+     * @throws IOException if the file cannot be written.
+     */
+    @Test
+    public void known_digests_spare_reading_the_file_back()
+        throws IOException
+    {
+        final File target = new File(tempFolder.getRoot(), "Dockerfile");
+
+        Files.write(target.toPath(), "FROM alpine\n".getBytes(StandardCharsets.UTF_8));
+
+        final Map<File, String> digests = new HashMap<File, String>();
+
+        // Same size, other contents: only a digest taken for granted makes it look the same.
+        digests.put(target.getAbsoluteFile(), Digests.digest(target, Digests.SHA_256));
+        Files.write(target.toPath(), "FROM ubuntu\n".getBytes(StandardCharsets.UTF_8));
+
+        final AtomicFileWriter writer = new AtomicFileWriter(null, digests);
+
+        Assert.assertFalse(writer.write(target, content("FROM alpine\n")).isChanged());
+        Assert.assertEquals("FROM ubuntu\n", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+
+        final AtomicFileWriter.Result result = writer.write(target, content("FROM scratch\n"));
+
+        Assert.assertTrue(result.isChanged());
+        Assert.assertEquals(result.getSha256(), writer.getDigest(target));
+        Assert.assertEquals(result.getSha256(), digests.get(target.getAbsoluteFile()));
+    }
+
+    /**
+     * Builds the contents to write.
+     * @param text the text.
+     * @return such contents.
+     */
+    protected AtomicFileWriter.Content content(final String text)
+    {
+        return
+            new AtomicFileWriter.Content()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void writeTo(final OutputStream output)
+                    throws IOException
+                {
+                    output.write(text.getBytes(StandardCharsets.UTF_8));
+                }
+            };
+    }
+}
@@ -0,0 +1,282 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: BuildFingerprintTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for BuildFingerprint.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link BuildFingerprint}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+@RunWith(JUnit4.class)
+public class BuildFingerprintTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks a stored fingerprint matches the same inputs.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void stored_fingerprints_match_unchanged_inputs()
+        throws IOException
+    {
+        final File template = tempFolder.newFile("Dockerfile.stg");
+        Files.write(template.toPath(), "group Dockerfile;".getBytes(StandardCharsets.UTF_8));
+
+        final File state = new File(tempFolder.getRoot(), "state/Dockerfile.properties");
+
+        compute(template, "1.0").store(state);
+
+        Assert.assertTrue(compute(template, "1.0").matches(BuildFingerprint.load(state)));
+    }
+
+    /**
+     * Checks the explanation names the input that changed.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void explanation_names_changed_inputs()
+        throws IOException
+    {
+        final File template = tempFolder.newFile("Dockerfile.stg");
+        Files.write(template.toPath(), "group Dockerfile;".getBytes(StandardCharsets.UTF_8));
+
+        final BuildFingerprint previous = compute(template, "1.0");
+        final BuildFingerprint current = compute(template, "1.1");
+
+        Assert.assertFalse(current.matches(previous));
+
+        final List<String> reasons = current.explain(previous);
+
+        Assert.assertEquals(1, reasons.size());
+        Assert.assertTrue(reasons.get(0).startsWith(BuildFingerprint.PLUGIN_VERSION));
+        Assert.assertEquals(
+            Collections.singletonList("no previous build state"), current.explain(null));
+    }
+
+    /**
+     * Checks only the project properties the template references count.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void only_referenced_project_properties_count()
+        throws IOException
+    {
+        final File template = tempFolder.newFile("Dockerfile.stg");
+        Files.write(template.toPath(), "group Dockerfile;".getBytes(StandardCharsets.UTF_8));
+
+        final MavenProject project = buildProject();
+
+        final BuildFingerprint previous = compute(template, "1.0", project);
+
+        project.setDescription("unreferenced");
+
+        Assert.assertTrue(compute(template, "1.0", project).matches(previous));
+
+        project.getProperties().setProperty("base.image", "alpine");
+
+        final List<String> reasons = compute(template, "1.0", project).explain(previous);
+
+        Assert.assertEquals(1, reasons.size());
+        Assert.assertTrue(reasons.get(0).startsWith(BuildFingerprint.PROJECT_PREFIX + "properties"));
+    }
+
+    /**
+     * Checks values computed on demand can be left out until the cheaper
+     * inputs are known to match, and that they count then.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void model_values_are_only_needed_when_cheaper_inputs_match()
+        throws IOException
+    {
+        final File template = tempFolder.newFile("Dockerfile.stg");
+        final AtomicInteger resolutions = new AtomicInteger();
+
+        final BuildFingerprint previous = compute(template, "1.0").putModel(buildModel(resolutions, "a:b:1"));
+
+        final BuildFingerprint upgraded = compute(template, "1.1");
+
+        Assert.assertFalse(upgraded.matches(previous, BuildFingerprint.MODEL_PREFIX));
+        Assert.assertEquals(
+            Collections.singletonList(BuildFingerprint.PLUGIN_VERSION + " changed: 1.0 -> 1.1"),
+            upgraded.explain(previous, BuildFingerprint.MODEL_PREFIX));
+
+        final BuildFingerprint unchanged = compute(template, "1.0");
+
+        Assert.assertTrue(unchanged.matches(previous, BuildFingerprint.MODEL_PREFIX));
+        Assert.assertFalse(unchanged.matches(previous));
+        Assert.assertEquals(1, resolutions.get());
+
+        Assert.assertFalse(
+            compute(template, "1.0").putModel(buildModel(resolutions, "a:b:2")).matches(previous));
+        Assert.assertTrue(
+            compute(template, "1.0").putModel(buildModel(resolutions, "a:b:1")).matches(previous));
+    }
+
+    /**
+     * Checks the digest of the Dockerfile is only trusted while its size and
+     * modification time are the recorded ones.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void output_digests_are_trusted_only_while_unchanged()
+        throws IOException
+    {
+        final File template = tempFolder.newFile("Dockerfile.stg");
+        final File output = new File(tempFolder.getRoot(), "Dockerfile");
+
+        Files.write(output.toPath(), "FROM scratch\n".getBytes(StandardCharsets.UTF_8));
+
+        final BuildFingerprint stored = compute(template, "1.0").putOutputDigest("abc");
+
+        Assert.assertEquals("abc", stored.getOutputDigest(output));
+
+        Files.write(output.toPath(), "FROM alpine\n".getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertNull(stored.getOutputDigest(output));
+        Assert.assertNull(compute(template, "1.0").putOutputDigest(null).getOutputDigest(output));
+    }
+
+    /**
+     * Builds a template input with resolved dependencies.
+     * @param resolutions how many times they were resolved.
+     * @param dependencies the dependencies.
+     * @return the input.
+     */
+    protected LazyTemplateModel buildModel(final AtomicInteger resolutions, final String dependencies)
+    {
+        final LazyTemplateModel result = new LazyTemplateModel();
+
+        result.provide(
+            Literals.DEPENDENCIES_L,
+            new LazyTemplateModel.ValueProvider()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Object provide()
+                {
+                    resolutions.incrementAndGet();
+
+                    return dependencies;
+                }
+            });
+
+        return result;
+    }
+
+    /**
+     * Computes the fingerprint of a sample project.
+     * @param template the template.
+     * @param pluginVersion the plugin version.
+     * @return the fingerprint.
+     * @throws IOException if the template cannot be read.
+     */
+    protected BuildFingerprint compute(final File template, final String pluginVersion)
+        throws IOException
+    {
+        return compute(template, pluginVersion, buildProject());
+    }
+
+    /**
+     * Builds a sample project.
+     * @return the project.
+     */
+    protected MavenProject buildProject()
+    {
+        final MavenProject result = new MavenProject();
+
+        result.setGroupId("org.acmsl");
+        result.setArtifactId("sample");
+        result.setVersion("1.0");
+
+        return result;
+    }
+
+    /**
+     * Computes the fingerprint of a project, for a template referencing its
+     * artifactId, version and properties.
+     * @param template the template.
+     * @param pluginVersion the plugin version.
+     * @param project the project.
+     * @return the fingerprint.
+     * @throws IOException if the template cannot be read.
+     */
+    protected BuildFingerprint compute(
+        final File template, final String pluginVersion, final MavenProject project)
+      throws IOException
+    {
+        final TemplateAttributeScanner.Result references =
+            new TemplateAttributeScanner.Result(
+                new HashSet<String>(Arrays.asList("artifactId", "version", "properties")), false);
+
+        return
+            BuildFingerprint.compute(
+                template,
+                Collections.<File>emptyList(),
+                ProjectSnapshot.capture(project, references),
+                pluginVersion,
+                StandardCharsets.UTF_8,
+                new File(tempFolder.getRoot(), "Dockerfile"));
+    }
+}
@@ -0,0 +1,195 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ChecksumServiceTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for ChecksumService.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ChecksumService}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class ChecksumServiceTest
+{
+    /**
+     * A temporary folder.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Writes a file with random contents, modified long enough ago for its
+     * checksum to be remembered.
+     * @param name the file name.
+     * @param size its size.
+     * @return the file.
+     * @throws IOException if it cannot be written.
+     */
+    protected File writeFile(final String name, final int size)
+        throws IOException
+    {
+        final File result = tempFolder.newFile(name);
+
+        final byte[] contents = new byte[size];
+        new Random(size).nextBytes(contents);
+
+        Files.write(result.toPath(), contents);
+
+        result.setLastModified(System.currentTimeMillis() - 60000);
+
+        return result;
+    }
+
+    /**
+     * Checks mapped and streamed files get the same checksums as {@link Digests}.
+     * @throws IOException if the files cannot be read.
+     */
+    @Test
+    public void checksums_match_whatever_the_size()
+        throws IOException
+    {
+        final List<File> files = new ArrayList<File>();
+        files.add(writeFile("small.jar", 1000));
+        files.add(writeFile("large.jar", (int) ChecksumService.MAPPED_THRESHOLD * 3 + 17));
+        files.add(writeFile("empty.jar", 0));
+        files.add(new File(tempFolder.getRoot(), "missing.jar"));
+
+        final Map<File, String> digests = new ChecksumService(null).digestAll(files);
+
+        Assert.assertEquals(3, digests.size());
+
+        for (final File file : files.subList(0, 3))
+        {
+            Assert.assertEquals(file.getName(), Digests.digest(file, Digests.SHA_256), digests.get(file));
+        }
+    }
+
+    /**
+     * Checks unchanged files are not hashed again by later builds, and changed ones are.
+     * @throws IOException if the files cannot be read.
+     */
+    @Test
+    public void unchanged_files_are_not_hashed_again()
+        throws IOException
+    {
+        final File cache = new File(tempFolder.getRoot(), "cache/checksums.properties");
+        final File jar = writeFile("app.jar", 5000);
+
+        final ChecksumService first = new ChecksumService(cache);
+        final String digest = first.digest(jar);
+
+        first.flush();
+
+        Assert.assertTrue(cache.isFile());
+
+        final ChecksumService second = new ChecksumService(cache);
+
+        Assert.assertEquals(digest, second.digest(jar));
+        Assert.assertEquals(1, second.getHits());
+        Assert.assertEquals(0, second.getHashed());
+
+        jar.setLastModified(jar.lastModified() + 1000);
+
+        Assert.assertEquals(digest, second.digest(jar));
+        Assert.assertEquals(1, second.getHashed());
+    }
+
+    /**
+     * Checks files modified too recently are hashed, but not remembered.
+     * @throws IOException if the files cannot be read.
+     */
+    @Test
+    public void recently_modified_files_are_not_remembered()
+        throws IOException
+    {
+        final File cache = new File(tempFolder.getRoot(), "checksums.properties");
+        final File jar = writeFile("app.jar", 100);
+
+        jar.setLastModified(System.currentTimeMillis());
+
+        final ChecksumService service = new ChecksumService(cache);
+
+        service.digest(jar);
+        service.digest(jar);
+        service.flush();
+
+        Assert.assertEquals(2, service.getHashed());
+        Assert.assertFalse(cache.exists());
+    }
+
+    /**
+     * Checks prefetched checksums are looked up, not hashed, when templates
+     * ask for them, and only the files asked for are reported.
+     * @throws IOException if the files cannot be read.
+     */
+    @Test
+    public void prefetched_checksums_are_only_looked_up()
+        throws IOException
+    {
+        final File jar = writeFile("app.jar", 100);
+        final File other = writeFile("other.jar", 200);
+
+        // Too recent to be remembered: any further digest would hash it again.
+        jar.setLastModified(System.currentTimeMillis());
+
+        final ChecksumService service = new ChecksumService(null);
+        final FileChecksums checksums = new FileChecksums(tempFolder.getRoot(), service);
+
+        checksums.prefetch(Arrays.asList(jar, other, new File(tempFolder.getRoot(), "missing.jar")));
+
+        Assert.assertEquals(2, service.getHashed());
+        Assert.assertEquals(Digests.digest(jar, Digests.SHA_256), checksums.get("app.jar"));
+        Assert.assertEquals(2, service.getHashed());
+        Assert.assertEquals(Arrays.asList(jar), new ArrayList<File>(checksums.getFiles()));
+    }
+}
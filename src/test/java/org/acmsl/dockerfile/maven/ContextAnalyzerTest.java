@@ -0,0 +1,184 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ContextAnalyzerTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for ContextAnalyzer and Dockerignore.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ContextAnalyzer} and {@link Dockerignore}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class ContextAnalyzerTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks the derived ignore file keeps only the copied sources.
+     */
+    @Test
+    public void derived_ignore_keeps_only_copied_sources()
+    {
+        final Dockerignore ignore =
+            Dockerignore.generate(
+                DockerfileSources.parse(
+                    "FROM scratch\nCOPY ./target/app.jar /app/\nCOPY docker/*.sh lib/release/ /app/\n"),
+                "Dockerfile");
+
+        Assert.assertEquals(
+            Arrays.asList("**", "!target/app.jar", "!docker/*.sh", "!lib/release"),
+            ignore.getLines().subList(1, ignore.getLines().size()));
+
+        Assert.assertFalse(ignore.isExcluded("target/app.jar"));
+        Assert.assertFalse(ignore.isExcluded("docker/entrypoint.sh"));
+        Assert.assertFalse(ignore.isExcluded("lib/release/commons-1.0.jar"));
+        Assert.assertTrue(ignore.isExcluded("docker/nested/entrypoint.sh"));
+        Assert.assertTrue(ignore.isExcluded("target/classes/App.class"));
+        Assert.assertTrue(ignore.isExcluded("pom.xml"));
+    }
+
+    /**
+     * Checks copying the whole context ignores nothing.
+     */
+    @Test
+    public void copying_everything_ignores_nothing()
+    {
+        final Dockerignore ignore = Dockerignore.generate(Arrays.asList("src", "."), "Dockerfile");
+
+        Assert.assertFalse(ignore.isExcluded("pom.xml"));
+        Assert.assertFalse(ignore.isExcluded("node_modules/a/b.js"));
+    }
+
+    /**
+     * Checks patterns follow docker's rules: last match wins, {@code **} spans folders.
+     */
+    @Test
+    public void patterns_follow_docker_rules()
+    {
+        final Dockerignore ignore =
+            new Dockerignore(Arrays.asList("# comment", "**/*.log", "!important.log", "/build/", "[!a]?.tmp"));
+
+        Assert.assertTrue(ignore.isExcluded("a.log"));
+        Assert.assertTrue(ignore.isExcluded("logs/deep/b.log"));
+        Assert.assertFalse(ignore.isExcluded("important.log"));
+        Assert.assertTrue(ignore.isExcluded("build/out/x.bin"));
+        Assert.assertTrue(ignore.isExcluded("bc.tmp"));
+        Assert.assertFalse(ignore.isExcluded("ac.tmp"));
+        Assert.assertFalse(ignore.isExcluded("src/Main.java"));
+    }
+
+    /**
+     * Checks the analyzer measures the context, and reports the largest paths left out.
+     * @throws Exception if the files cannot be written.
+     */
+    @Test
+    public void context_size_and_offenders_are_reported()
+        throws Exception
+    {
+        final File root = tempFolder.getRoot();
+
+        write(root, "target/app.jar", 100);
+        write(root, "target/classes/App.class", 50);
+        write(root, "node_modules/a/index.js", 1000);
+        write(root, "node_modules/b/index.js", 500);
+        write(root, "pom.xml", 10);
+
+        final Dockerignore ignore = Dockerignore.generate(Arrays.asList("target/app.jar"), "Dockerfile");
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try
+        {
+            final ContextAnalyzer.Report report = new ContextAnalyzer(ignore, 2).analyze(root, pool);
+
+            Assert.assertEquals(1660, report.getTotalBytes());
+            Assert.assertEquals(5, report.getTotalFiles());
+            Assert.assertEquals(100, report.getKeptBytes());
+            Assert.assertEquals(1, report.getKeptFiles());
+            Assert.assertEquals(1560, report.getSavedBytes());
+            Assert.assertEquals(2, report.getOffenders().size());
+            Assert.assertEquals("node_modules/", report.getOffenders().get(0).getPath());
+            Assert.assertEquals(1500, report.getOffenders().get(0).getBytes());
+            Assert.assertEquals("target/classes/", report.getOffenders().get(1).getPath());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks sizes are formatted in readable units.
+     */
+    @Test
+    public void sizes_are_readable()
+    {
+        Assert.assertEquals("512 B", ContextAnalyzer.formatBytes(512));
+        Assert.assertEquals("1.5 KB", ContextAnalyzer.formatBytes(1536));
+        Assert.assertEquals("2.0 GB", ContextAnalyzer.formatBytes(2L << 30));
+    }
+
+    /**
+     * Writes a file of given size.
+     * @param root the root folder.
+     * @param path the path.
+     * @param size the size.
+     * @throws IOException if it cannot be written.
+     */
+    protected void write(final File root, final String path, final int size)
+        throws IOException
+    {
+        final File file = new File(root, path);
+
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), new byte[size]);
+    }
+}
@@ -0,0 +1,225 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ContextStagerTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for ContextStager and DockerfileSources.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ContextStager} and {@link DockerfileSources}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class ContextStagerTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks files are linked, or copied, and left alone the second time.
+     * @throws Exception if the context cannot be staged.
+     */
+    @Test
+    public void files_are_staged_once()
+        throws Exception
+    {
+        final File jar = write("repo/app-1.0.jar", "jar contents");
+        final File context = tempFolder.newFolder("context");
+
+        for (final boolean links : new boolean[] { true, false })
+        {
+            final ContextStager stager = new ContextStager(new File(context, String.valueOf(links)), links);
+
+            final ContextStager.Outcome first = stager.stage("lib/release/app-1.0.jar", jar);
+
+            Assert.assertEquals(links ? ContextStager.Outcome.LINKED : ContextStager.Outcome.COPIED, first);
+
+            final File staged = new File(stager.getContextDir(), "lib/release/app-1.0.jar");
+
+            Assert.assertEquals(
+                "jar contents", new String(Files.readAllBytes(staged.toPath()), StandardCharsets.UTF_8));
+            Assert.assertEquals(jar.lastModified(), staged.lastModified());
+            Assert.assertEquals(ContextStager.Outcome.UNCHANGED, stager.stage("lib/release/app-1.0.jar", jar));
+        }
+    }
+
+    /**
+     * Checks staging removes files no longer in the context.
+     * @throws Exception if the context cannot be staged.
+     */
+    @Test
+    public void stale_files_are_removed()
+        throws Exception
+    {
+        final File dockerfile = write("target/Dockerfile", "FROM scratch");
+        final File old = write("target/old-1.0-SNAPSHOT.jar", "old");
+        final File context = tempFolder.newFolder("context");
+        final File manifest = new File(tempFolder.getRoot(), "state/context-default.txt");
+
+        Files.write(new File(context, "foreign.txt").toPath(), new byte[] { 1 });
+
+        final Map<String, File> files = new TreeMap<String, File>();
+        files.put("Dockerfile", dockerfile);
+        files.put("lib/snapshot/old-1.0-SNAPSHOT.jar", old);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try
+        {
+            new ContextStager(context, true, manifest).stageAll(files, executor);
+
+            Assert.assertTrue(new File(context, "lib/snapshot/old-1.0-SNAPSHOT.jar").isFile());
+
+            files.remove("lib/snapshot/old-1.0-SNAPSHOT.jar");
+
+            final ContextStager.Result result = new ContextStager(context, true, manifest).stageAll(files, executor);
+
+            Assert.assertEquals(1, result.getUnchanged());
+            Assert.assertEquals(1, result.getRemoved());
+            Assert.assertTrue(new File(context, "Dockerfile").isFile());
+            Assert.assertFalse(new File(context, "lib").exists());
+            Assert.assertTrue(new File(context, "foreign.txt").isFile());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks files staged by other executions are left alone.
+     * @throws Exception if the context cannot be staged.
+     */
+    @Test
+    public void other_executions_files_are_kept()
+        throws Exception
+    {
+        final File dockerfile = write("target/Dockerfile", "FROM scratch");
+        final File app = write("target/app.jar", "app");
+        final File context = tempFolder.newFolder("context");
+
+        final Map<String, File> first = new TreeMap<String, File>();
+        first.put("Dockerfile", dockerfile);
+
+        final Map<String, File> second = new TreeMap<String, File>();
+        second.put("app.jar", app);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try
+        {
+            final ContextStager one = new ContextStager(context, true, new File(tempFolder.getRoot(), "one.txt"));
+            final ContextStager two = new ContextStager(context, true, new File(tempFolder.getRoot(), "two.txt"));
+
+            one.stageAll(first, executor);
+            two.stageAll(second, executor);
+
+            Assert.assertEquals(0, one.stageAll(first, executor).getRemoved());
+            Assert.assertTrue(new File(context, "app.jar").isFile());
+            Assert.assertTrue(new File(context, "Dockerfile").isFile());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks paths outside the context are rejected.
+     * @throws Exception if the file cannot be written.
+     */
+    @Test(expected = IOException.class)
+    public void paths_outside_the_context_are_rejected()
+        throws Exception
+    {
+        new ContextStager(tempFolder.newFolder("context"), true).stage("../escaped", write("file", "x"));
+    }
+
+    /**
+     * Checks the sources of ADD and COPY instructions are found.
+     */
+    @Test
+    public void copied_sources_are_found()
+    {
+        Assert.assertEquals(
+            Arrays.asList("lib/release/", "target/classes", "docker/entrypoint.sh", "conf/a.yml"),
+            DockerfileSources.parse(
+                  "FROM eclipse-temurin:17\n"
+                + "# COPY ignored/ /ignored/\n"
+                + "COPY --chown=app lib/release/ /app/lib/\n"
+                + "COPY ./target/classes \\\n"
+                + "     /app/classes/\n"
+                + "COPY --from=build /out/app.jar /app/\n"
+                + "ADD https://example.org/tool.tgz /opt/\n"
+                + "add [\"docker/entrypoint.sh\", \"conf/a.yml\", \"/app/\"]\n"
+                + "RUN echo COPY nothing\n"));
+    }
+
+    /**
+     * Writes a file in the temporary folder.
+     * @param path its path.
+     * @param contents its contents.
+     * @return the file.
+     * @throws IOException if it cannot be written.
+     */
+    protected File write(final String path, final String contents)
+        throws IOException
+    {
+        final File result = new File(tempFolder.getRoot(), path);
+
+        Files.createDirectories(result.getParentFile().toPath());
+        Files.write(result.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+
+        return result;
+    }
+}
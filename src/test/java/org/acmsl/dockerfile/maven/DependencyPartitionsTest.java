@@ -0,0 +1,213 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DependencyPartitionsTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for DependencyPartitions.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DependencyPartitions}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class DependencyPartitionsTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks runtime dependencies are split by stability.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void runtime_dependencies_are_split_by_stability()
+        throws IOException
+    {
+        final DependencyPartitions partitions =
+            DependencyPartitions.partition(
+                Arrays.asList(
+                    artifact("commons-lang3", "3.14.0", Artifact.SCOPE_COMPILE, "a"),
+                    artifact("junit", "4.12", Artifact.SCOPE_TEST, "b"),
+                    artifact("sibling", "1.0-SNAPSHOT", Artifact.SCOPE_COMPILE, "c"),
+                    artifact("nightly", "2.0-SNAPSHOT", Artifact.SCOPE_RUNTIME, "d")),
+                reactor(),
+                classes("App.class"));
+
+        Assert.assertEquals("[release, reactor, snapshot, project]", names(partitions.getAll()));
+        Assert.assertEquals(
+            Collections.singletonList("commons-lang3-3.14.0.jar"), partitions.getRelease().getFileNames());
+        Assert.assertEquals(
+            Collections.singletonList("sibling-1.0-SNAPSHOT.jar"), partitions.getReactor().getFileNames());
+        Assert.assertEquals(
+            Collections.singletonList("nightly-2.0-SNAPSHOT.jar"), partitions.getSnapshot().getFileNames());
+        Assert.assertFalse(partitions.getProject().isEmpty());
+        Assert.assertEquals(12, partitions.getRelease().getShortHash().length());
+    }
+
+    /**
+     * Checks hashes only change when the contents of their partition do.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void hashes_change_only_with_their_partition()
+        throws IOException
+    {
+        final Artifact release = artifact("commons-lang3", "3.14.0", Artifact.SCOPE_COMPILE, "a");
+        final Artifact snapshot = artifact("nightly", "2.0-SNAPSHOT", Artifact.SCOPE_RUNTIME, "d");
+
+        final DependencyPartitions before =
+            DependencyPartitions.partition(Arrays.asList(release, snapshot), reactor(), classes("App.class"));
+
+        final DependencyPartitions reordered =
+            DependencyPartitions.partition(Arrays.asList(snapshot, release), reactor(), classes("App.class"));
+
+        Assert.assertEquals(before.toString(), reordered.toString());
+
+        Files.write(snapshot.getFile().toPath(), "rebuilt".getBytes(StandardCharsets.UTF_8));
+
+        final DependencyPartitions after =
+            DependencyPartitions.partition(Arrays.asList(release, snapshot), reactor(), classes("Main.class"));
+
+        Assert.assertEquals(before.getRelease().getHash(), after.getRelease().getHash());
+        Assert.assertEquals(before.getReactor().getHash(), after.getReactor().getHash());
+        Assert.assertNotEquals(before.getSnapshot().getHash(), after.getSnapshot().getHash());
+        Assert.assertNotEquals(before.getProject().getHash(), after.getProject().getHash());
+    }
+
+    /**
+     * Creates a resolved artifact.
+     * @param artifactId the artifact id.
+     * @param version the version.
+     * @param scope the scope.
+     * @param contents the contents of its file.
+     * @return such artifact.
+     * @throws IOException if the file cannot be written.
+     */
+    protected Artifact artifact(
+        final String artifactId, final String version, final String scope, final String contents)
+      throws IOException
+    {
+        final Artifact result =
+            new DefaultArtifact(
+                "org.acmsl", artifactId, version, scope, "jar", null, new DefaultArtifactHandler("jar"));
+
+        final File file = new File(tempFolder.getRoot(), artifactId + ".jar");
+
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        result.setFile(file);
+
+        return result;
+    }
+
+    /**
+     * Retrieves the modules of the reactor.
+     * @return just {@code org.acmsl:sibling}.
+     */
+    protected Set<String> reactor()
+    {
+        return Collections.singleton("org.acmsl:sibling");
+    }
+
+    /**
+     * Creates the project's classes, with a single file.
+     * @param name the name of the file.
+     * @return the classes directory.
+     * @throws IOException if the file cannot be written.
+     */
+    protected File classes(final String name)
+        throws IOException
+    {
+        final File result = new File(tempFolder.getRoot(), "classes");
+
+        if (result.isDirectory())
+        {
+            for (final File child : result.listFiles())
+            {
+                Files.delete(child.toPath());
+            }
+        }
+
+        Files.createDirectories(result.toPath());
+        Files.write(new File(result, name).toPath(), name.getBytes(StandardCharsets.UTF_8));
+
+        return result;
+    }
+
+    /**
+     * Retrieves the names of given partitions.
+     * @param partitions the partitions.
+     * @return such names.
+     */
+    protected String names(final List<DependencyPartitions.Partition> partitions)
+    {
+        final StringBuilder result = new StringBuilder("[");
+
+        for (final DependencyPartitions.Partition partition : partitions)
+        {
+            if (result.length() > 1)
+            {
+                result.append(", ");
+            }
+
+            result.append(partition.getName());
+        }
+
+        return result.append(']').toString();
+    }
+}
@@ -0,0 +1,264 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileAggregateMojoTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for DockerfileAggregateMojo.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing Plexus classes.
+ */
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DockerfileAggregateMojo}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class DockerfileAggregateMojoTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks the Dockerfiles each module configures are found, with paths
+     * resolved against the module.
+     * @throws Exception if the configuration cannot be parsed.
+     */
+    @Test
+    public void module_configurations_are_read()
+        throws Exception
+    {
+        final MavenProject module =
+            buildModule(
+                  "<configuration>"
+                + "<template>src/main/assembly/Dockerfile.stg</template>"
+                + "<dockerfiles><dockerfile>"
+                + "<template>/opt/templates/debug.stg</template>"
+                + "<output>Dockerfile.debug</output>"
+                + "<classifier>debug</classifier>"
+                + "</dockerfile></dockerfiles>"
+                + "</configuration>");
+
+        final List<DockerfileEntry> entries = new DockerfileAggregateMojo().retrieveModuleEntries(module);
+
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals(new File(module.getBasedir(), "src/main/assembly/Dockerfile.stg"), entries.get(0).getTemplate());
+        Assert.assertEquals(Literals.DOCKERFILE_U, entries.get(0).getClassifier());
+        Assert.assertEquals(
+            new File(module.getBuild().getOutputDirectory() + File.separator + "META-INF", "Dockerfile.debug"),
+            entries.get(1).resolveOutputFile(null));
+        Assert.assertEquals("debug", entries.get(1).getClassifier());
+    }
+
+    /**
+     * Checks modules not using the plugin are skipped, and clashing entries rejected.
+     * @throws Exception if the configuration cannot be parsed.
+     */
+    @Test
+    public void unconfigured_modules_are_skipped_and_clashes_rejected()
+        throws Exception
+    {
+        final MavenProject module = new MavenProject();
+
+        Assert.assertTrue(new DockerfileAggregateMojo().retrieveModuleEntries(module).isEmpty());
+
+        final MavenProject clashing =
+            buildModule(
+                  "<configuration><template>a.stg</template>"
+                + "<dockerfiles><dockerfile><template>b.stg</template></dockerfile></dockerfiles>"
+                + "</configuration>");
+
+        try
+        {
+            new DockerfileAggregateMojo().retrieveModuleEntries(clashing);
+            Assert.fail("Both entries are classified as Dockerfile");
+        }
+        catch (final MojoExecutionException expected)
+        {
+            Assert.assertTrue(expected.getMessage().contains(Literals.DOCKERFILE_U));
+        }
+    }
+
+    /**
+     * Checks a matrix expands every Dockerfile into one per combination,
+     * named after the values, first axis varying slowest.
+     * @throws Exception if the configuration cannot be parsed.
+     */
+    @Test
+    public void matrix_cells_are_named_after_their_values()
+        throws Exception
+    {
+        final MavenProject module =
+            buildModule(
+                  "<configuration>"
+                + "<template>Dockerfile.stg</template>"
+                + "<matrix>"
+                + "<axis><name>jdk</name><prefix>jdk</prefix><values><value>17</value><value>21</value><value>25</value></values></axis>"
+                + "<axis><name>arch</name><values><value>amd64</value><value>arm64</value></values></axis>"
+                + "<axis><name>variant</name><values><value>slim</value><value>full</value></values></axis>"
+                + "</matrix>"
+                + "</configuration>");
+
+        final List<DockerfileEntry> entries = new DockerfileAggregateMojo().retrieveModuleEntries(module);
+
+        Assert.assertEquals(12, entries.size());
+        Assert.assertEquals("Dockerfile.jdk17-amd64-slim", entries.get(0).getOutput());
+        Assert.assertEquals("Dockerfile.jdk17-amd64-slim", entries.get(0).getClassifier());
+        Assert.assertEquals("Dockerfile.jdk21-arm64-slim", entries.get(6).getClassifier());
+        Assert.assertEquals("Dockerfile.jdk25-arm64-full", entries.get(11).getOutput());
+        Assert.assertEquals("21", entries.get(6).getMatrix().get("jdk"));
+        Assert.assertEquals("arm64", entries.get(6).getMatrix().get("arch"));
+        Assert.assertEquals(entries.get(0).getTemplate(), entries.get(11).getTemplate());
+
+        final MavenProject invalid =
+            buildModule(
+                  "<configuration><template>Dockerfile.stg</template>"
+                + "<matrix><axis><name>base</name><values><value>debian/bookworm</value></values></axis></matrix>"
+                + "</configuration>");
+
+        try
+        {
+            new DockerfileAggregateMojo().retrieveModuleEntries(invalid);
+            Assert.fail("Values with slashes cannot be part of file names");
+        }
+        catch (final MojoExecutionException expected)
+        {
+            Assert.assertTrue(expected.getMessage().contains("debian/bookworm"));
+        }
+    }
+
+    /**
+     * Checks what changes the output, or the build context, is read per
+     * module, and anything else this goal would ignore does not fail it.
+     * @throws Exception if the configuration cannot be parsed.
+     */
+    @Test
+    public void module_parameters_are_read_and_ignored_ones_tolerated()
+        throws Exception
+    {
+        final MavenProject module =
+            buildModule(
+                  "<configuration>"
+                + "<template>Dockerfile.stg</template>"
+                + "<optimize>true</optimize>"
+                + "<layeredJars><layeredJar>target/app.jar</layeredJar></layeredJars>"
+                + "<postProcessors><postProcessor>org.acmsl.Custom</postProcessor></postProcessors>"
+                + "<explain>false</explain>"
+                + "</configuration>");
+
+        final DockerfileAggregateMojo mojo = new DockerfileAggregateMojo();
+
+        Assert.assertEquals(1, mojo.retrieveModuleEntries(module).size());
+        Assert.assertTrue(mojo.isEnabled(module, Literals.OPTIMIZE_L, false));
+        Assert.assertFalse(mojo.isEnabled(module, Literals.PIN_DIGESTS_CC, false));
+        Assert.assertEquals(
+            Arrays.asList(new File(module.getBasedir(), "target/app.jar")),
+            mojo.retrieveFiles(module, Literals.LAYERED_JARS_CC, null));
+        Assert.assertEquals(
+            Arrays.asList("org.acmsl.Custom"), mojo.retrieveValues(module, Literals.POST_PROCESSORS_CC, null));
+        Assert.assertEquals(
+            new File(module.getBuild().getDirectory(), "docker-context"), mojo.retrieveContextDir(module));
+
+        final MavenProject staging =
+            buildModule(
+                  "<configuration><template>Dockerfile.stg</template>"
+                + "<stageContext>true</stageContext><contextDir>target/context</contextDir>"
+                + "<contextLinks>false</contextLinks><dockerignore>true</dockerignore>"
+                + "<explain>true</explain><deploymentRetries>5</deploymentRetries>"
+                + "</configuration>");
+
+        final DockerfileAggregateMojo aggregate = new DockerfileAggregateMojo();
+
+        Assert.assertEquals(1, aggregate.retrieveModuleEntries(staging).size());
+        Assert.assertTrue(aggregate.isEnabled(staging, Literals.STAGE_CONTEXT_CC, false));
+        Assert.assertFalse(aggregate.isEnabled(staging, Literals.CONTEXT_LINKS_CC, true));
+        Assert.assertTrue(aggregate.isEnabled(staging, Literals.DOCKERIGNORE_L, false));
+        Assert.assertFalse(aggregate.isEnabled(staging, Literals.ANALYZE_CONTEXT_CC, false));
+        Assert.assertEquals(new File(staging.getBasedir(), "target/context"), aggregate.retrieveContextDir(staging));
+    }
+
+    /**
+     * Builds a module using this plugin.
+     * @param configuration the plugin configuration.
+     * @return the module.
+     * @throws IOException if the configuration cannot be read.
+     * @throws XmlPullParserException if the configuration is not valid.
+     */
+    protected MavenProject buildModule(final String configuration)
+        throws IOException, XmlPullParserException
+    {
+        final MavenProject result = new MavenProject();
+
+        result.setArtifactId("module");
+        result.setFile(new File(tempFolder.getRoot(), "pom.xml"));
+
+        final Build build = new Build();
+        build.setDirectory(new File(tempFolder.getRoot(), "target").getPath());
+        build.setOutputDirectory(new File(tempFolder.getRoot(), "target/classes").getPath());
+        result.getModel().setBuild(build);
+
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId("org.acmsl");
+        plugin.setArtifactId(Literals.DOCKERFILE_MAVEN_PLUGIN);
+        plugin.setConfiguration(Xpp3DomBuilder.build(new StringReader(configuration)));
+        build.addPlugin(plugin);
+
+        return result;
+    }
+}
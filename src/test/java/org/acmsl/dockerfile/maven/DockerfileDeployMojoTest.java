@@ -0,0 +1,181 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileDeployMojoTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for DockerfileDeployMojo.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing Plexus classes.
+ */
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/*
+ * Importing Aether classes.
+ */
+import org.eclipse.aether.artifact.Artifact;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DockerfileDeployMojo}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class DockerfileDeployMojoTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks modules configuring this goal, or how the {@code dockerfile}
+     * goal stages contexts, are deployed rather than refused.
+     * @throws Exception if the configuration cannot be parsed.
+     */
+    @Test
+    public void deployment_settings_in_the_plugin_configuration_are_accepted()
+        throws Exception
+    {
+        final MavenProject module =
+            buildModule(
+                  "<configuration>"
+                + "<template>Dockerfile.stg</template>"
+                + "<classifier>app</classifier>"
+                + "<deploymentRetries>5</deploymentRetries>"
+                + "<deploymentBackoff>100</deploymentBackoff>"
+                + "<altDeploymentRepository>releases::file:///tmp/releases</altDeploymentRepository>"
+                + "<stageContext>true</stageContext>"
+                + "<dockerignore>true</dockerignore>"
+                + "</configuration>");
+
+        final List<DockerfileEntry> entries = new DockerfileDeployMojo().retrieveModuleEntries(module);
+
+        Assert.assertEquals(1, entries.size());
+        Assert.assertEquals("app", entries.get(0).getClassifier());
+        Assert.assertEquals(
+            new File(module.getBuild().getOutputDirectory() + File.separator + "META-INF", Literals.DOCKERFILE_U),
+            entries.get(0).resolveOutputFile(null));
+    }
+
+    /**
+     * Checks the SHA-256 sidecar of each Dockerfile is deployed with it, when
+     * the module writes sidecars.
+     * @throws Exception if the files cannot be written.
+     */
+    @Test
+    public void checksum_sidecars_are_deployed_next_to_their_dockerfiles()
+        throws Exception
+    {
+        final MavenProject module =
+            buildModule(
+                  "<configuration>"
+                + "<template>Dockerfile.stg</template>"
+                + "<checksumSidecars>true</checksumSidecars>"
+                + "</configuration>");
+
+        final DockerfileDeployMojo mojo = new DockerfileDeployMojo();
+        final List<DockerfileEntry> entries = mojo.retrieveModuleEntries(module);
+
+        final File dockerfile = entries.get(0).resolveOutputFile(null);
+        Files.createDirectories(dockerfile.getParentFile().toPath());
+        Files.write(dockerfile.toPath(), "FROM scratch\n".getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals(1, mojo.retrieveArtifacts(module, entries).size());
+
+        final File sidecar =
+            new File(mojo.retrieveSidecars(module, Literals.DOCKERFILE_U).getPath() + AtomicFileWriter.SHA256_EXTENSION);
+        Files.createDirectories(sidecar.getParentFile().toPath());
+        Files.write(sidecar.toPath(), Digests.digest(dockerfile, Digests.SHA_256).getBytes(StandardCharsets.US_ASCII));
+
+        final List<Artifact> artifacts = mojo.retrieveArtifacts(module, entries);
+
+        Assert.assertEquals(2, artifacts.size());
+        Assert.assertEquals(Literals.TXT_L, artifacts.get(0).getExtension());
+        Assert.assertEquals(dockerfile, artifacts.get(0).getFile());
+        Assert.assertEquals("txt.sha256", artifacts.get(1).getExtension());
+        Assert.assertEquals(Literals.DOCKERFILE_U, artifacts.get(1).getClassifier());
+        Assert.assertEquals(sidecar, artifacts.get(1).getFile());
+    }
+
+    /**
+     * Builds a module using this plugin.
+     * @param configuration the plugin configuration.
+     * @return the module.
+     * @throws IOException if the configuration cannot be read.
+     * @throws XmlPullParserException if the configuration is not valid.
+     */
+    protected MavenProject buildModule(final String configuration)
+        throws IOException, XmlPullParserException
+    {
+        final MavenProject result = new MavenProject();
+
+        result.setArtifactId("module");
+        result.setFile(new File(tempFolder.getRoot(), "pom.xml"));
+
+        final Build build = new Build();
+        build.setDirectory(new File(tempFolder.getRoot(), "target").getPath());
+        build.setOutputDirectory(new File(tempFolder.getRoot(), "target/classes").getPath());
+        result.getModel().setBuild(build);
+
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId("org.acmsl");
+        plugin.setArtifactId(Literals.DOCKERFILE_MAVEN_PLUGIN);
+        plugin.setConfiguration(Xpp3DomBuilder.build(new StringReader(configuration)));
+        build.addPlugin(plugin);
+
+        return result;
+    }
+}
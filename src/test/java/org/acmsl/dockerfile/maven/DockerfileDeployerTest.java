@@ -0,0 +1,421 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileDeployerTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for DockerfileDeployer.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Aether classes.
+ */
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+/*
+ * Importing JDK classes.
+ */
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DockerfileDeployer}, against a file-based repository and
+ * an embedded HTTP one.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class DockerfileDeployerTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks classifiers are batched by module, and modules uploaded concurrently
+     * within the parallelism.
+     * @throws Exception if the artifacts cannot be written.
+     */
+    @Test
+    public void classifiers_are_batched_and_uploads_bounded()
+        throws Exception
+    {
+        final File repository = tempFolder.newFolder("repository");
+        final FileRepositoryUploader uploader = new FileRepositoryUploader(repository, 0);
+
+        final List<Artifact> artifacts = new ArrayList<Artifact>();
+
+        for (int module = 0; module < 6; module++)
+        {
+            artifacts.add(dockerfile("module" + module, "Dockerfile"));
+            artifacts.add(dockerfile("module" + module, "Dockerfile-alpine"));
+        }
+
+        final List<DockerfileDeployer.DeploymentResult> results =
+            new DockerfileDeployer(uploader, 2, 0, 0, 0).deploy(artifacts);
+
+        Assert.assertEquals(artifacts.size(), results.size());
+        Assert.assertEquals(6, uploader.getBatches().get());
+        Assert.assertTrue(uploader.getMaxConcurrent().get() <= 2);
+
+        for (int index = 0; index < artifacts.size(); index++)
+        {
+            Assert.assertSame(artifacts.get(index), results.get(index).getArtifact());
+            Assert.assertTrue(results.get(index).isSuccessful());
+        }
+
+        Assert.assertTrue(
+            new File(repository, "org/acmsl/module3/1.0/module3-1.0-Dockerfile-alpine.txt").isFile());
+        Assert.assertTrue(
+            DockerfileDeployer.summarize(results).endsWith("12 deployed, 0 failed"));
+    }
+
+    /**
+     * Checks failed uploads are retried, and reported once retries are exhausted.
+     * @throws Exception if the artifacts cannot be written.
+     */
+    @Test
+    public void failed_uploads_are_retried_up_to_the_limit()
+        throws Exception
+    {
+        final File repository = tempFolder.newFolder("repository");
+
+        final List<Artifact> artifacts = Arrays.asList(dockerfile("app", "Dockerfile"));
+
+        final DockerfileDeployer.DeploymentResult recovered =
+            new DockerfileDeployer(new FileRepositoryUploader(repository, 2), 1, 2, 1, 4)
+                .deploy(artifacts).get(0);
+
+        Assert.assertTrue(recovered.isSuccessful());
+        Assert.assertEquals(3, recovered.getAttempts());
+
+        final DockerfileDeployer.DeploymentResult exhausted =
+            new DockerfileDeployer(new FileRepositoryUploader(repository, 5), 1, 2, 1, 4)
+                .deploy(artifacts).get(0);
+
+        Assert.assertFalse(exhausted.isSuccessful());
+        Assert.assertEquals(3, exhausted.getAttempts());
+        Assert.assertTrue(exhausted.toString().contains("FAILED"));
+    }
+
+    /**
+     * Checks backoffs grow exponentially, with jitter, up to the maximum.
+     */
+    @Test
+    public void backoff_is_jittered_and_capped()
+    {
+        final DockerfileDeployer deployer = new DockerfileDeployer(new FileRepositoryUploader(null, 0), 1, 10, 100, 1000);
+
+        for (int sample = 0; sample < 100; sample++)
+        {
+            Assert.assertTrue(deployer.retrieveBackoffMillis(1) <= 100);
+            Assert.assertTrue(deployer.retrieveBackoffMillis(3) <= 400);
+            Assert.assertTrue(deployer.retrieveBackoffMillis(100) <= 1000);
+        }
+    }
+
+    /**
+     * Checks artifacts are uploaded to an HTTP repository, retrying after server errors.
+     * @throws Exception if the server cannot be started.
+     */
+    @Test
+    public void artifacts_are_uploaded_over_http()
+        throws Exception
+    {
+        final Map<String, byte[]> stored = new ConcurrentHashMap<String, byte[]>();
+        final AtomicInteger requests = new AtomicInteger();
+
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+            "/",
+            new HttpHandler()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void handle(final HttpExchange exchange)
+                    throws IOException
+                {
+                    try (InputStream body = exchange.getRequestBody())
+                    {
+                        final byte[] contents = body.readAllBytes();
+
+                        // The first request of all fails, as an overloaded repository would.
+                        if (requests.getAndIncrement() == 0)
+                        {
+                            exchange.sendResponseHeaders(503, -1);
+                        }
+                        else
+                        {
+                            stored.put(exchange.getRequestURI().getPath(), contents);
+                            exchange.sendResponseHeaders(201, -1);
+                        }
+                    }
+                    finally
+                    {
+                        exchange.close();
+                    }
+                }
+            });
+        server.start();
+
+        try
+        {
+            final String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/releases/";
+
+            final List<DockerfileDeployer.DeploymentResult> results =
+                new DockerfileDeployer(new HttpRepositoryUploader(url), 4, 1, 1, 1)
+                    .deploy(Arrays.asList(dockerfile("app", "Dockerfile"), dockerfile("web", "Dockerfile")));
+
+            Assert.assertTrue(results.get(0).isSuccessful());
+            Assert.assertTrue(results.get(1).isSuccessful());
+            Assert.assertEquals(3, requests.get());
+            Assert.assertEquals(
+                "FROM app",
+                new String(
+                    stored.get("/releases/org/acmsl/app/1.0/app-1.0-Dockerfile.txt"), StandardCharsets.UTF_8));
+        }
+        finally
+        {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Writes a Dockerfile, and builds its artifact.
+     * @param artifactId the artifact id.
+     * @param classifier the classifier.
+     * @return the artifact.
+     * @throws IOException if the file cannot be written.
+     */
+    protected Artifact dockerfile(final String artifactId, final String classifier)
+        throws IOException
+    {
+        final File file = new File(tempFolder.getRoot(), artifactId + "/" + classifier);
+
+        if (!file.isFile())
+        {
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(file.toPath(), ("FROM " + artifactId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return new DefaultArtifact("org.acmsl", artifactId, classifier, "txt", "1.0").setFile(file);
+    }
+
+    /**
+     * Retrieves the path of an artifact in the Maven 2 layout.
+     * @param artifact the artifact.
+     * @return such path.
+     */
+    protected static String retrievePath(final Artifact artifact)
+    {
+        return
+              artifact.getGroupId().replace('.', '/') + "/" + artifact.getArtifactId() + "/"
+            + artifact.getVersion() + "/" + artifact.getArtifactId() + "-" + artifact.getVersion()
+            + "-" + artifact.getClassifier() + "." + artifact.getExtension();
+    }
+
+    /**
+     * Copies artifacts into a local folder, failing the first uploads.
+     */
+    protected static class FileRepositoryUploader
+        implements ArtifactUploader
+    {
+        /**
+         * The repository folder.
+         */
+        private final File m__Repository;
+
+        /**
+         * How many uploads fail before the first one succeeds.
+         */
+        private final AtomicInteger m__iFailures;
+
+        /**
+         * The number of successful batches.
+         */
+        private final AtomicInteger m__Batches = new AtomicInteger();
+
+        /**
+         * The number of uploads in progress.
+         */
+        private final AtomicInteger m__Concurrent = new AtomicInteger();
+
+        /**
+         * The maximum number of uploads in progress at once.
+         */
+        private final AtomicInteger m__MaxConcurrent = new AtomicInteger();
+
+        /**
+         * Creates a new uploader.
+         * @param repository the repository folder.
+         * @param failures how many uploads fail first.
+         */
+        public FileRepositoryUploader(final File repository, final int failures)
+        {
+            this.m__Repository = repository;
+            this.m__iFailures = new AtomicInteger(failures);
+        }
+
+        /**
+         * Retrieves the number of successful batches.
+         * @return such number.
+         */
+        public AtomicInteger getBatches()
+        {
+            return this.m__Batches;
+        }
+
+        /**
+         * Retrieves the maximum number of uploads in progress at once.
+         * @return such number.
+         */
+        public AtomicInteger getMaxConcurrent()
+        {
+            return this.m__MaxConcurrent;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void upload(final List<Artifact> batch)
+            throws IOException
+        {
+            final int concurrent = this.m__Concurrent.incrementAndGet();
+
+            this.m__MaxConcurrent.accumulateAndGet(concurrent, Math::max);
+
+            try
+            {
+                if (this.m__iFailures.getAndDecrement() > 0)
+                {
+                    throw new IOException("Service unavailable");
+                }
+
+                for (final Artifact artifact : batch)
+                {
+                    final File target = new File(this.m__Repository, retrievePath(artifact));
+
+                    Files.createDirectories(target.getParentFile().toPath());
+                    Files.copy(artifact.getFile().toPath(), target.toPath());
+                }
+
+                Thread.sleep(10);
+                this.m__Batches.incrementAndGet();
+            }
+            catch (final InterruptedException interrupted)
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException(interrupted);
+            }
+            finally
+            {
+                this.m__Concurrent.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Uploads artifacts with HTTP PUT.
+     */
+    protected static class HttpRepositoryUploader
+        implements ArtifactUploader
+    {
+        /**
+         * The repository URL, ending with a slash.
+         */
+        private final String m__strUrl;
+
+        /**
+         * Creates a new uploader.
+         * @param url the repository URL, ending with a slash.
+         */
+        public HttpRepositoryUploader(final String url)
+        {
+            this.m__strUrl = url;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void upload(final List<Artifact> batch)
+            throws IOException
+        {
+            for (final Artifact artifact : batch)
+            {
+                final HttpURLConnection connection =
+                    (HttpURLConnection) new URL(this.m__strUrl + retrievePath(artifact)).openConnection();
+
+                connection.setRequestMethod("PUT");
+                connection.setDoOutput(true);
+
+                try (OutputStream output = connection.getOutputStream())
+                {
+                    Files.copy(artifact.getFile().toPath(), output);
+                }
+
+                final int status = connection.getResponseCode();
+
+                connection.disconnect();
+
+                if (status >= 300)
+                {
+                    throw new IOException("HTTP " + status + " uploading " + artifact);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileEstimatorTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for DockerfileEstimator and EstimateReport.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DockerfileEstimator} and {@link EstimateReport}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class DockerfileEstimatorTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks local copies are measured, and only the last stage counts for the image.
+     * @throws IOException if the files cannot be written.
+     */
+    @Test
+    public void copied_files_are_measured()
+        throws IOException
+    {
+        final File basedir = tempFolder.newFolder("module");
+        write(new File(basedir, "target/app.jar"), 1000);
+        write(new File(basedir, "conf/a.properties"), 20);
+        write(new File(basedir, "conf/b.properties"), 30);
+
+        final DockerfileEstimator.Estimate estimate =
+            new DockerfileEstimator(resolver(basedir))
+                .estimate(
+                    "com.acme:app",
+                    "dockerfile",
+                      "FROM maven AS build\n"
+                    + "COPY conf /build/conf\n"
+                    + "FROM eclipse-temurin:21\n"
+                    + "COPY --from=build /build /opt/build\n"
+                    + "COPY target/app.jar conf/ /opt/app/\n"
+                    + "COPY <<EOF /etc/motd\n"
+                    + "hello\n"
+                    + "EOF\n"
+                    + "RUN chmod -R a+r /opt/app\n");
+
+        Assert.assertEquals(2, estimate.getStages());
+        Assert.assertEquals(5, estimate.getLayers());
+        Assert.assertEquals(4, estimate.getImageLayers());
+        Assert.assertEquals(1050 + "hello\n".length(), estimate.getImageBytes());
+        Assert.assertEquals(2, estimate.getUnknownLayers());
+        Assert.assertEquals(3, estimate.getSteps().get(4).getFiles());
+        Assert.assertEquals(0, estimate.getNetworkFetches());
+        Assert.assertEquals(0, estimate.getCacheBusters());
+    }
+
+    /**
+     * Checks network fetches and cache busters are flagged, with the layers they rebuild.
+     * @throws IOException if the files cannot be written.
+     */
+    @Test
+    public void fetches_and_cache_busters_are_flagged()
+        throws IOException
+    {
+        final File basedir = tempFolder.newFolder("module");
+        write(new File(basedir, "target/app.war"), 500);
+
+        final DockerfileEstimator.Estimate estimate =
+            new DockerfileEstimator(resolver(basedir))
+                .estimate(
+                    "com.acme:app",
+                    "dockerfile",
+                      "FROM tomcat:9\n"
+                    + "RUN apt-get update && apt-get install -y unzip\n"
+                    + "LABEL build-date=\"2026-10-18T10:15:00Z\"\n"
+                    + "RUN wget -O /opt/app.war http://my.artifactory/repo/com/acme/app/1.0/app-1.0.war\n"
+                    + "COPY target/app.war /opt/tomcat/webapps/\n"
+                    + "ADD https://example.com/agent.jar /opt/agent.jar\n");
+
+        Assert.assertEquals(3, estimate.getNetworkFetches());
+        Assert.assertEquals(
+            Arrays.asList("wget", "http://my.artifactory/repo/com/acme/app/1.0/app-1.0.war"),
+            estimate.getSteps().get(3).getFetches());
+        Assert.assertEquals(Arrays.asList("apt-get update", "apt-get install"), estimate.getSteps().get(1).getFetches());
+        Assert.assertEquals(2, estimate.getCacheBusters());
+        Assert.assertEquals(3, estimate.getRebuiltLayers());
+        Assert.assertEquals(500, estimate.getRebuiltBytes());
+        Assert.assertFalse(estimate.getSteps().get(1).isRebuilt());
+    }
+
+    /**
+     * Checks the reports include every Dockerfile, and the totals.
+     * @throws IOException if the report cannot be written.
+     */
+    @Test
+    public void reports_include_totals()
+        throws IOException
+    {
+        final File basedir = tempFolder.newFolder("module");
+        write(new File(basedir, "app.jar"), 2048);
+
+        final DockerfileEstimator.Estimate estimate =
+            new DockerfileEstimator(resolver(basedir))
+                .estimate("com.acme:app", "dockerfile", "FROM alpine\nCOPY app.jar /app.jar\n");
+
+        final File report = new File(tempFolder.getRoot(), "target/" + EstimateReport.FILE_NAME);
+        EstimateReport.write(report, "com.acme:app", Collections.singletonList(estimate));
+
+        final String json = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+        Assert.assertTrue(json, json.contains("\"imageBytes\":2048"));
+        Assert.assertTrue(json, json.contains("\"instruction\":\"COPY app.jar /app.jar\""));
+
+        final Object reactor = new Object();
+        EstimateReport.record(reactor, Arrays.asList(estimate, estimate));
+
+        final String summary = EstimateReport.summarize(EstimateReport.retrieve(reactor));
+        Assert.assertTrue(summary, summary.contains("Total (2 Dockerfiles)"));
+        Assert.assertTrue(summary, summary.contains(ContextAnalyzer.formatBytes(4096)));
+    }
+
+    /**
+     * Creates a resolver of sources in a folder.
+     * @param basedir the folder.
+     * @return the resolver.
+     */
+    protected DockerfileEstimator.SourceResolver resolver(final File basedir)
+    {
+        return
+            new DockerfileEstimator.SourceResolver()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Map<String, File> resolve(final String source)
+                {
+                    final Map<String, File> result = new TreeMap<String, File>();
+
+                    collect(new File(basedir, source), source, result);
+
+                    return result;
+                }
+            };
+    }
+
+    /**
+     * Collects a file, or the files under a folder.
+     * @param file the file.
+     * @param path its path.
+     * @param files the files found so far.
+     */
+    protected void collect(final File file, final String path, final Map<String, File> files)
+    {
+        final File[] children = file.listFiles();
+
+        if (children != null)
+        {
+            for (final File child : children)
+            {
+                collect(child, path + "/" + child.getName(), files);
+            }
+        }
+        else if (file.isFile())
+        {
+            files.put(path, file);
+        }
+    }
+
+    /**
+     * Writes a file of given size.
+     * @param file the file.
+     * @param size its size.
+     * @throws IOException if it cannot be written.
+     */
+    protected void write(final File file, final int size)
+        throws IOException
+    {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), new byte[size]);
+    }
+}
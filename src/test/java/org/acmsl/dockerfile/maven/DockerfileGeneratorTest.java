@@ -42,6 +42,8 @@ import org.acmsl.commons.utils.io.FileUtils;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Date;
 import java.util.Map;
 import java.util.HashMap;
@@ -106,4 +108,38 @@ public class DockerfileGeneratorTest
 
         Assert.assertTrue(dockerfileContents.contains(testValue));
     }
+
+    /**
+     * Checks the generator streams the Dockerfile using the configured charset.
+     * @throws IOException a the temporary file cannot be created.
+     */
+    @Test
+    public void generator_streams_the_dockerfile_in_the_configured_charset()
+        throws IOException
+    {
+        final Map<String, String> input = new HashMap<String, String>();
+
+        final String testValue = "caf\u00e9-" + new Date().getTime();
+
+        input.put("key", testValue);
+
+        final File template = tempFolder.newFile("Dockerfile.stg");
+
+        final FileUtils fileUtils = FileUtils.getInstance();
+
+        fileUtils.writeFileIfPossible(template, DOCKERFILE_STG_CONTENTS, StandardCharsets.UTF_16);
+
+        final DockerfileGenerator generator =
+            new DockerfileGenerator(input, template, StandardCharsets.UTF_16);
+
+        final File dockerfile = new File(tempFolder.getRoot(), "Dockerfile");
+
+        generator.writeDockerfile(dockerfile);
+
+        final String dockerfileContents =
+            new String(Files.readAllBytes(dockerfile.toPath()), StandardCharsets.UTF_16);
+
+        Assert.assertTrue(dockerfileContents.contains(testValue));
+        Assert.assertEquals(generator.generateDockerfile(), dockerfileContents);
+    }
 }
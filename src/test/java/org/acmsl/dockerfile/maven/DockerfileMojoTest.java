@@ -0,0 +1,281 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileMojoTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for DockerfileMojo.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.DefaultMavenProjectHelper;
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DockerfileMojo}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class DockerfileMojoTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks every configured Dockerfile is rendered and attached in one
+     * execution, in configuration order.
+     * @throws Exception if the Dockerfiles cannot be generated.
+     */
+    @Test
+    public void several_dockerfiles_are_rendered_in_one_execution()
+        throws Exception
+    {
+        final DockerfileMojo mojo = new DockerfileMojo();
+        final Map<String, File> attached = configure(mojo);
+
+        mojo.template = writeTemplate("Dockerfile.stg", "FROM alpine:3.20");
+        mojo.dockerfiles =
+            Arrays.asList(
+                new DockerfileEntry(writeTemplate("debug.stg", "FROM alpine:3.20 AS debug"), null, "Dockerfile.debug", "debug"),
+                new DockerfileEntry(writeTemplate("native.stg", "FROM scratch"), null, "Dockerfile.native", "native"));
+
+        mojo.execute();
+
+        Assert.assertEquals(Arrays.asList(Literals.DOCKERFILE_U, "debug", "native"), new ArrayList<String>(attached.keySet()));
+        Assert.assertEquals("FROM alpine:3.20 AS debug", read(attached.get("debug")).trim());
+        Assert.assertEquals("FROM scratch", read(attached.get("native")).trim());
+        Assert.assertEquals(new File(mojo.outputDir, "Dockerfile.native"), attached.get("native"));
+    }
+
+    /**
+     * Checks a failing Dockerfile does not stop the others, and fails the
+     * execution naming it.
+     * @throws Exception if the templates cannot be written.
+     */
+    @Test
+    public void a_failing_dockerfile_does_not_stop_the_others()
+        throws Exception
+    {
+        final DockerfileMojo mojo = new DockerfileMojo();
+        final Map<String, File> attached = configure(mojo);
+
+        mojo.dockerfiles =
+            Arrays.asList(
+                new DockerfileEntry(writeTemplate("first.stg", "FROM alpine:3.20"), null, "Dockerfile.first", "first"),
+                new DockerfileEntry(new File(tempFolder.getRoot(), "missing.stg"), null, "Dockerfile.broken", "broken"),
+                new DockerfileEntry(writeTemplate("last.stg", "FROM scratch"), null, "Dockerfile.last", "last"));
+
+        try
+        {
+            mojo.execute();
+            Assert.fail("The missing template must fail the execution");
+        }
+        catch (final MojoExecutionException expected)
+        {
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().startsWith("1 of 3 Dockerfile(s) failed"));
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().contains("broken"));
+        }
+
+        Assert.assertEquals(Arrays.asList("first", "last"), new ArrayList<String>(attached.keySet()));
+        Assert.assertTrue(attached.get("last").isFile());
+    }
+
+    /**
+     * Checks no more Dockerfiles than {@code parallelism} are rendered at once.
+     * @throws Exception if the Dockerfiles cannot be generated.
+     */
+    @Test
+    public void rendering_is_bounded_by_parallelism()
+        throws Exception
+    {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final Map<String, String> threads = new ConcurrentHashMap<String, String>();
+
+        final DockerfileMojo mojo =
+            new DockerfileMojo()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                protected File generate(
+                    final DockerfileEntry entry,
+                    final MavenProject target,
+                    final LazyTemplateModel model,
+                    final String ownVersion,
+                    final Charset encoding,
+                    final List<File> templatePacks,
+                    final GenerationMetrics metrics)
+                  throws IOException
+                {
+                    final int now = running.incrementAndGet();
+
+                    peak.accumulateAndGet(now, Math::max);
+                    threads.put(Thread.currentThread().getName(), entry.getClassifier());
+
+                    try
+                    {
+                        Thread.sleep(50);
+                    }
+                    catch (final InterruptedException interrupted)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    finally
+                    {
+                        running.decrementAndGet();
+                    }
+
+                    return entry.resolveOutputFile(outputDir);
+                }
+            };
+
+        final Map<String, File> attached = configure(mojo);
+
+        final List<DockerfileEntry> entries = new ArrayList<DockerfileEntry>();
+
+        for (int index = 0; index < 8; index++)
+        {
+            entries.add(new DockerfileEntry(new File("Dockerfile.stg"), null, "Dockerfile." + index, "entry" + index));
+        }
+
+        mojo.dockerfiles = entries;
+        mojo.parallelism = 2;
+
+        mojo.execute();
+
+        Assert.assertEquals(8, attached.size());
+        Assert.assertEquals(2, peak.get());
+        Assert.assertTrue(threads.keySet().toString(), threads.size() <= 2);
+    }
+
+    /**
+     * Configures a mojo for a project in the temporary folder.
+     * @param mojo the mojo.
+     * @return the Dockerfiles it attaches, by classifier, in order.
+     */
+    protected Map<String, File> configure(final DockerfileMojo mojo)
+    {
+        final Map<String, File> result = Collections.synchronizedMap(new LinkedHashMap<String, File>());
+
+        final MavenProject project = new MavenProject();
+        project.setGroupId("org.acmsl");
+        project.setArtifactId("module");
+        project.setVersion("1.0");
+        project.setFile(new File(tempFolder.getRoot(), "pom.xml"));
+
+        final Build build = new Build();
+        build.setDirectory(new File(tempFolder.getRoot(), "target").getPath());
+        build.setOutputDirectory(new File(tempFolder.getRoot(), "target/classes").getPath());
+        project.getModel().setBuild(build);
+
+        mojo.project = project;
+        mojo.outputDir = new File(tempFolder.getRoot(), "target/classes/META-INF");
+        mojo.classifier = Literals.DOCKERFILE_U;
+        mojo.encoding = StandardCharsets.UTF_8.name();
+        mojo.templatePacks = Collections.<String>emptyList();
+        mojo.projectHelper =
+            new DefaultMavenProjectHelper()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void attachArtifact(
+                    final MavenProject target, final String type, final String classifier, final File file)
+                {
+                    result.put(classifier, file);
+                }
+            };
+
+        return result;
+    }
+
+    /**
+     * Writes a template rendering given text.
+     * @param name the file name.
+     * @param text the text.
+     * @return the template.
+     * @throws IOException if it cannot be written.
+     */
+    protected File writeTemplate(final String name, final String text)
+        throws IOException
+    {
+        final File result = tempFolder.newFile(name);
+
+        Files.write(
+            result.toPath(),
+            ("group Dockerfile;\n\nsource(C) ::= <<\n" + text + "\n>>\n").getBytes(StandardCharsets.UTF_8));
+
+        return result;
+    }
+
+    /**
+     * Reads a Dockerfile.
+     * @param file the file.
+     * @return its contents.
+     * @throws IOException if it cannot be read.
+     */
+    protected String read(final File file)
+        throws IOException
+    {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
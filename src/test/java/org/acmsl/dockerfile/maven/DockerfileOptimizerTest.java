@@ -0,0 +1,221 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileOptimizerTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for DockerfileOptimizer.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.util.Arrays;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DockerfileOptimizer}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class DockerfileOptimizerTest
+{
+    /**
+     * Checks independent layers move above the artifact, and adjacent RUNs are merged.
+     */
+    @Test
+    public void independent_layers_move_above_the_artifact_and_merge()
+    {
+        final String dockerfile =
+              "FROM eclipse-temurin:21\n"
+            + "COPY target/app-1.0.jar /opt/app/app.jar\n"
+            + "RUN chmod 0644 /opt/app/app.jar\n"
+            + "RUN apt-get update && apt-get install -y curl\n"
+            + "RUN groupadd app-users\n"
+            + "CMD [\"java\", \"-jar\", \"/opt/app/app.jar\"]\n";
+
+        final DockerfileOptimizer.Result result =
+            new DockerfileOptimizer(Arrays.asList("my-service", "app-1.0")).optimize(dockerfile);
+
+        Assert.assertEquals(
+              "FROM eclipse-temurin:21\n"
+            + "RUN apt-get update && apt-get install -y curl \\\n"
+            + " && groupadd app-users\n"
+            + "COPY target/app-1.0.jar /opt/app/app.jar\n"
+            + "RUN chmod 0644 /opt/app/app.jar\n"
+            + "CMD [\"java\", \"-jar\", \"/opt/app/app.jar\"]\n",
+            result.getDockerfile());
+        Assert.assertEquals(4, result.getLayersBefore());
+        Assert.assertEquals(3, result.getLayersAfter());
+        Assert.assertEquals(2, result.getHoisted());
+        Assert.assertEquals(1, result.getMerged());
+    }
+
+    /**
+     * Checks commands changing the shell's state run in a subshell once merged.
+     */
+    @Test
+    public void stateful_commands_are_isolated_when_merged()
+    {
+        final DockerfileOptimizer.Result result =
+            new DockerfileOptimizer(Arrays.asList("my-service"))
+                .optimize("FROM alpine\nRUN cd /tmp; wget http://example.com/x.tgz\nRUN ls \\\n  -la\n");
+
+        Assert.assertEquals(
+            "FROM alpine\nRUN (cd /tmp; wget http://example.com/x.tgz) \\\n && ls   -la\n",
+            result.getDockerfile());
+    }
+
+    /**
+     * Checks nothing moves past ENV, nor across stages, and exec-form,
+     * heredoc and flagged RUNs are not merged with plain ones.
+     */
+    @Test
+    public void barriers_are_respected()
+    {
+        final String dockerfile =
+              "# syntax=docker/dockerfile:1\n"
+            + "FROM maven AS build\n"
+            + "COPY pom.xml /src/pom.xml\n"
+            + "ENV MAVEN_OPTS=-Xmx1g\n"
+            + "RUN echo one\n"
+            + "RUN [\"echo\", \"two\"]\n"
+            + "RUN --mount=type=cache,target=/root/.m2 echo three\n"
+            + "RUN <<EOF\n"
+            + "echo four\n"
+            + "EOF\n"
+            + "FROM alpine\n"
+            + "RUN echo five\n";
+
+        final DockerfileOptimizer.Result result =
+            new DockerfileOptimizer(Arrays.asList("pom.xml")).optimize(dockerfile);
+
+        Assert.assertFalse(result.isChanged());
+        Assert.assertEquals(dockerfile, result.getDockerfile());
+    }
+
+    /**
+     * Checks a RUN using what a COPY wrote, through a path relative to the
+     * WORKDIR, stays after it.
+     */
+    @Test
+    public void relative_destinations_are_resolved_against_the_workdir()
+    {
+        final DockerfileOptimizer.Result result =
+            new DockerfileOptimizer(Arrays.asList("myapp", "myapp-1.0"))
+                .optimize(
+                      "FROM eclipse-temurin:21\n"
+                    + "WORKDIR /app\n"
+                    + "COPY target/myapp-1.0.jar app.jar\n"
+                    + "RUN unzip -q app.jar -d exploded\n"
+                    + "RUN echo hi\n");
+
+        Assert.assertEquals(
+              "FROM eclipse-temurin:21\n"
+            + "WORKDIR /app\n"
+            + "RUN echo hi\n"
+            + "COPY target/myapp-1.0.jar app.jar\n"
+            + "RUN unzip -q app.jar -d exploded\n",
+            result.getDockerfile());
+        Assert.assertEquals(1, result.getHoisted());
+    }
+
+    /**
+     * Checks copying a directory covers all of its destination, and RUNs
+     * that may touch anything are not moved.
+     */
+    @Test
+    public void unknown_paths_are_not_moved()
+    {
+        final String dockerfile =
+              "FROM eclipse-temurin:21\n"
+            + "WORKDIR /app\n"
+            + "COPY target/myapp-1.0/ ./\n"
+            + "RUN rm -rf lib\n"
+            + "RUN ls *.txt\n"
+            + "RUN cd /tmp\n"
+            + "RUN echo $HOME\n";
+
+        final DockerfileOptimizer.Result result =
+            new DockerfileOptimizer(Arrays.asList("myapp")).optimize(dockerfile);
+
+        Assert.assertEquals(0, result.getHoisted());
+        Assert.assertTrue(
+            result.getDockerfile().startsWith(
+                "FROM eclipse-temurin:21\nWORKDIR /app\nCOPY target/myapp-1.0/ ./\nRUN "));
+    }
+
+    /**
+     * Checks ENV and LABEL instructions already in effect are dropped, and
+     * adjacent LABELs merged.
+     */
+    @Test
+    public void redundant_metadata_is_removed()
+    {
+        final DockerfileOptimizer.Result result =
+            new DockerfileOptimizer(Arrays.asList("my-service"))
+                .optimize(
+                      "FROM alpine\n"
+                    + "ENV LANG=C.UTF-8\n"
+                    + "LABEL vendor=acme\n"
+                    + "ENV LANG=C.UTF-8\n"
+                    + "LABEL version=\"1.0\"\n"
+                    + "ENV PATH=/opt/bin:$PATH\n"
+                    + "ENV PATH=/opt/bin:$PATH\n");
+
+        Assert.assertEquals(
+              "FROM alpine\n"
+            + "ENV LANG=C.UTF-8\n"
+            + "LABEL vendor=acme \\\n"
+            + "    version=\"1.0\"\n"
+            + "ENV PATH=/opt/bin:$PATH\n"
+            + "ENV PATH=/opt/bin:$PATH\n",
+            result.getDockerfile());
+        Assert.assertEquals(1, result.getRemoved());
+        Assert.assertEquals(1, result.getMerged());
+    }
+
+    /**
+     * Checks Dockerfiles with a custom escape character are left alone.
+     */
+    @Test
+    public void custom_escape_characters_are_not_optimized()
+    {
+        final String dockerfile = "# escape=`\nFROM windows\nRUN dir `\n  c:\\\nRUN echo x\n";
+
+        Assert.assertEquals(
+            dockerfile, new DockerfileOptimizer(Arrays.asList("app")).optimize(dockerfile).getDockerfile());
+    }
+}
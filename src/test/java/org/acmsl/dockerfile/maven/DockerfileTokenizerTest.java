@@ -0,0 +1,421 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: DockerfileTokenizerTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for DockerfileTokenizer and DockerfileStreamWriter.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DockerfileTokenizer} and {@link DockerfileStreamWriter}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class DockerfileTokenizerTest
+{
+    /**
+     * A Dockerfile using every construct.
+     */
+    protected static final String DOCKERFILE =
+          "# syntax=docker/dockerfile:1\n"
+        + "# check=skip=all\n"
+        + "\n"
+        + "# The base image\n"
+        + "FROM alpine:3.20 AS base\n"
+        + "RUN apk add \\\n"
+        + "# a comment inside\n"
+        + "      curl \\\n"
+        + "      git\n"
+        + "COPY <<EOF /etc/motd\n"
+        + "Welcome\n"
+        + "EOF\n"
+        + "RUN <<-ONE cat - && cat <<'TWO'\n"
+        + "\tfirst\n"
+        + "\tONE\n"
+        + "second\n"
+        + "TWO\n"
+        + "CMD [\"sh\", \"-c\", \"echo \\\"hi\\\"\"]\n"
+        + "# trailing\n";
+
+    /**
+     * Checks instructions, directives and comments are found, however the
+     * text is split.
+     * @throws IOException if the tokenizer fails.
+     */
+    @Test
+    public void instructions_are_the_same_whatever_the_chunks()
+        throws IOException
+    {
+        final DockerfileParser.Document whole = DockerfileParser.parse(DOCKERFILE);
+
+        Assert.assertEquals("docker/dockerfile:1", whole.getDirectives().get("syntax"));
+        Assert.assertEquals("skip=all", whole.getDirectives().get("check"));
+        Assert.assertEquals(
+            Arrays.asList("FROM", "RUN", "COPY", "RUN", "CMD"), keywords(whole.getInstructions()));
+        Assert.assertEquals(Arrays.asList("", "# The base image"), whole.getInstructions().get(0).getComments());
+        Assert.assertEquals(5, whole.getInstructions().get(0).getLine());
+        Assert.assertEquals("apk add       curl       git", whole.getInstructions().get(1).getArguments());
+        Assert.assertTrue(whole.getInstructions().get(2).isHeredoc());
+        Assert.assertEquals(
+            "RUN <<-ONE cat - && cat <<'TWO'\n\tfirst\n\tONE\nsecond\nTWO", whole.getInstructions().get(3).getText());
+        Assert.assertEquals(Arrays.asList("# trailing"), whole.getTrailer());
+        Assert.assertEquals(DOCKERFILE, whole.toString());
+
+        for (final int size : new int[] { 1, 3, 7 })
+        {
+            final List<DockerfileInstruction> instructions = new ArrayList<DockerfileInstruction>();
+            final DockerfileTokenizer tokenizer = new DockerfileTokenizer(collect(instructions));
+
+            for (int start = 0; start < DOCKERFILE.length(); start += size)
+            {
+                tokenizer.feed(DOCKERFILE, start, Math.min(DOCKERFILE.length(), start + size));
+            }
+
+            tokenizer.finish();
+
+            Assert.assertEquals(texts(whole.getInstructions()), texts(instructions));
+        }
+    }
+
+    /**
+     * Checks an escape directive changes the continuation character.
+     */
+    @Test
+    public void escape_directive_changes_continuations()
+    {
+        final DockerfileParser.Document document =
+            DockerfileParser.parse("# escape=`\r\nFROM windows\r\nRUN dir `\r\n  c:\\\r\n");
+
+        Assert.assertEquals('`', document.getEscape());
+        Assert.assertEquals("dir   c:\\", document.getInstructions().get(1).getArguments());
+    }
+
+    /**
+     * Checks the JSON form is parsed, and invalid arrays fall back to the shell form.
+     */
+    @Test
+    public void json_form_arguments_are_parsed()
+    {
+        final DockerfileInstruction instruction = DockerfileParser.parse(DOCKERFILE).getInstructions().get(4);
+
+        Assert.assertEquals(Arrays.asList("sh", "-c", "echo \"hi\""), instruction.getExecArguments());
+        Assert.assertEquals(Arrays.asList("a\tb", "\u00e9"), DockerfileTokenizer.parseJsonArray("[ \"a\\tb\" , \"\\u00e9\" ]"));
+        Assert.assertNull(DockerfileTokenizer.parseJsonArray("[\"unterminated\""));
+        Assert.assertNull(DockerfileTokenizer.parseJsonArray("[echo hi]"));
+        Assert.assertNull(
+            DockerfileParser.parse("CMD [echo, hi]\n").getInstructions().get(0).getExecArguments());
+    }
+
+    /**
+     * Checks processors run in order, and can hold instructions back until the end.
+     * @throws IOException if the writer fails.
+     */
+    @Test
+    public void processors_run_in_order_while_streaming()
+        throws IOException
+    {
+        final StringWriter output = new StringWriter();
+
+        final DockerfileStreamWriter writer =
+            new DockerfileStreamWriter(
+                output,
+                Arrays.<DockerfilePostProcessor>asList(new LabelAdder(), new CmdMover()));
+
+        writer.write("# syntax=docker/dockerfile:1\nFROM alpine\nCMD [\"sh\"]\n");
+
+        // The CMD is held back, the rest is already written.
+        Assert.assertEquals(
+            "# syntax=docker/dockerfile:1\nFROM alpine\nLABEL syntax=\"docker/dockerfile:1\"\n", output.toString());
+
+        writer.write("RUN echo hi\n# the end\n");
+        writer.close();
+
+        Assert.assertEquals(
+              "# syntax=docker/dockerfile:1\n"
+            + "FROM alpine\n"
+            + "LABEL syntax=\"docker/dockerfile:1\"\n"
+            + "RUN echo hi\n"
+            + "CMD [\"sh\"]\n"
+            + "# the end\n",
+            output.toString());
+        Assert.assertEquals(4, writer.getInstructions());
+    }
+
+    /**
+     * Checks CRLF, CR and LF line endings are kept as read, whatever the chunks.
+     * @throws IOException if the writer fails.
+     */
+    @Test
+    public void line_terminators_are_kept()
+        throws IOException
+    {
+        final String dockerfile =
+            "# syntax=docker/dockerfile:1\r\n\r\n# base\r\nFROM alpine\r\nRUN apk add \\\r\n  curl\rRUN echo hi\n# end\r\n";
+
+        for (final int size : new int[] { 1, 2, dockerfile.length() })
+        {
+            final StringWriter output = new StringWriter();
+
+            final DockerfileStreamWriter writer =
+                new DockerfileStreamWriter(output, Arrays.<DockerfilePostProcessor>asList(new CmdMover()));
+
+            for (int start = 0; start < dockerfile.length(); start += size)
+            {
+                writer.write(dockerfile, start, Math.min(dockerfile.length(), start + size) - start);
+            }
+
+            writer.close();
+
+            Assert.assertEquals(dockerfile, output.toString());
+            Assert.assertEquals(3, writer.getInstructions());
+        }
+
+        Assert.assertEquals(
+            "apk add   curl", DockerfileParser.parse(dockerfile).getInstructions().get(1).getArguments());
+    }
+
+    /**
+     * Checks a missing final line break is not added, and new lines end as
+     * the ones read.
+     * @throws IOException if the writer fails.
+     */
+    @Test
+    public void missing_final_newline_is_not_added()
+        throws IOException
+    {
+        final StringWriter unchanged = new StringWriter();
+
+        try (DockerfileStreamWriter writer =
+                 new DockerfileStreamWriter(unchanged, Arrays.<DockerfilePostProcessor>asList(new CmdMover())))
+        {
+            writer.write("FROM alpine\r\nRUN echo hi");
+        }
+
+        Assert.assertEquals("FROM alpine\r\nRUN echo hi", unchanged.toString());
+
+        final StringWriter changed = new StringWriter();
+
+        try (DockerfileStreamWriter writer =
+                 new DockerfileStreamWriter(
+                     changed, Arrays.<DockerfilePostProcessor>asList(new LabelAdder(), new CmdMover())))
+        {
+            writer.write("FROM alpine\r\nCMD [\"sh\"]\r\nRUN echo hi");
+        }
+
+        Assert.assertEquals(
+            "FROM alpine\r\nLABEL syntax=\"null\"\r\nRUN echo hi\r\nCMD [\"sh\"]\r\n", changed.toString());
+    }
+
+    /**
+     * Adds a label after each {@code FROM}, with the syntax directive.
+     */
+    public static class LabelAdder
+        implements DockerfilePostProcessor
+    {
+        /**
+         * The syntax.
+         */
+        private String m__strSyntax;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void start(final Map<String, String> directives)
+        {
+            this.m__strSyntax = directives.get("syntax");
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void process(final DockerfileInstruction instruction, final Sink next)
+            throws IOException
+        {
+            next.accept(instruction);
+
+            if (instruction.is("FROM"))
+            {
+                next.accept(
+                    DockerfileInstruction.of(
+                        "LABEL", "syntax=\"" + this.m__strSyntax + "\"", new ArrayList<String>()));
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void finish(final Sink next)
+        {
+        }
+    }
+
+    /**
+     * Moves {@code CMD} to the end.
+     */
+    public static class CmdMover
+        implements DockerfilePostProcessor
+    {
+        /**
+         * The held back instruction.
+         */
+        private DockerfileInstruction m__Cmd;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void start(final Map<String, String> directives)
+        {
+            this.m__Cmd = null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void process(final DockerfileInstruction instruction, final Sink next)
+            throws IOException
+        {
+            if (instruction.is("CMD"))
+            {
+                this.m__Cmd = instruction;
+            }
+            else
+            {
+                next.accept(instruction);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void finish(final Sink next)
+            throws IOException
+        {
+            if (this.m__Cmd != null)
+            {
+                next.accept(this.m__Cmd);
+            }
+        }
+    }
+
+    /**
+     * Creates a listener collecting instructions.
+     * @param instructions where to collect them.
+     * @return the listener.
+     */
+    protected DockerfileTokenizer.Listener collect(final List<DockerfileInstruction> instructions)
+    {
+        return
+            new DockerfileTokenizer.Listener()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void directives(
+                    final List<String> lines, final String text, final Map<String, String> directives, final char escape)
+                {
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void instruction(final DockerfileInstruction instruction)
+                {
+                    instructions.add(instruction);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void end(final List<String> lines, final String text)
+                {
+                }
+            };
+    }
+
+    /**
+     * Retrieves the keywords of some instructions.
+     * @param instructions the instructions.
+     * @return their keywords.
+     */
+    protected List<String> keywords(final List<DockerfileInstruction> instructions)
+    {
+        final List<String> result = new ArrayList<String>();
+
+        for (final DockerfileInstruction instruction : instructions)
+        {
+            result.add(instruction.getKeyword());
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the texts of some instructions.
+     * @param instructions the instructions.
+     * @return their texts, with comments.
+     */
+    protected List<String> texts(final List<DockerfileInstruction> instructions)
+    {
+        final List<String> result = new ArrayList<String>();
+
+        for (final DockerfileInstruction instruction : instructions)
+        {
+            result.add(instruction.toString());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: GenerationCacheTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for GenerationCache.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link GenerationCache}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class GenerationCacheTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks a stored output is found, and counted as a hit.
+     * @throws Exception if the cache cannot be used.
+     */
+    @Test
+    public void stored_outputs_are_hits()
+        throws Exception
+    {
+        final GenerationCache cache = new GenerationCache(tempFolder.newFolder("cache"), 1024);
+
+        Assert.assertNull(cache.get("ab01"));
+
+        cache.put("ab01", bytes("FROM scratch\n"));
+
+        Assert.assertEquals("FROM scratch\n", new String(cache.get("ab01"), StandardCharsets.UTF_8));
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertTrue(cache.describe(), cache.describe().contains("50% hit rate"));
+    }
+
+    /**
+     * Checks the least recently used entries are evicted first.
+     * @throws Exception if the cache cannot be used.
+     */
+    @Test
+    public void least_recently_used_entries_are_evicted()
+        throws Exception
+    {
+        final GenerationCache cache = new GenerationCache(tempFolder.newFolder("cache"), 25);
+
+        cache.put("aa01", bytes("0123456789"));
+        age(cache, "aa01", 3);
+        cache.put("bb02", bytes("0123456789"));
+        age(cache, "bb02", 2);
+
+        // Reading it makes it the most recently used.
+        Assert.assertNotNull(cache.get("aa01"));
+
+        cache.put("cc03", bytes("0123456789"));
+
+        Assert.assertEquals(1, cache.getEvictions());
+        Assert.assertNotNull(cache.get("aa01"));
+        Assert.assertNull(cache.get("bb02"));
+        Assert.assertNotNull(cache.get("cc03"));
+    }
+
+    /**
+     * Checks the key does not depend on where the project is checked out,
+     * but does on the template and on the input.
+     * @throws Exception if the templates cannot be read.
+     */
+    @Test
+    public void keys_do_not_depend_on_the_checkout_folder()
+        throws Exception
+    {
+        final File first = write("first/src/main/docker/Dockerfile.stg", "group; root(T) ::= <<FROM <T.name> >>\n");
+        final File second = write("second/src/main/docker/Dockerfile.stg", "group; root(T) ::= <<FROM <T.name> >>\n");
+
+        final String firstKey = key(first, tempFolder.getRoot().toPath().resolve("first").toFile(), "app");
+        final String secondKey = key(second, tempFolder.getRoot().toPath().resolve("second").toFile(), "app");
+
+        Assert.assertEquals(firstKey, secondKey);
+        Assert.assertNotEquals(firstKey, key(second, tempFolder.getRoot().toPath().resolve("second").toFile(), "other"));
+
+        Files.write(second.toPath(), bytes("group; root(T) ::= <<FROM <T.version> >>\n"));
+
+        Assert.assertNotEquals(firstKey, key(second, tempFolder.getRoot().toPath().resolve("second").toFile(), "app"));
+    }
+
+    /**
+     * Checks values without a reliable description make the input uncacheable.
+     */
+    @Test
+    public void identity_values_are_not_cached()
+    {
+        final Map<String, Object> input = new HashMap<String, Object>();
+
+        input.put("name", "app");
+
+        Assert.assertNotNull(GenerationCache.describeInput(input, null));
+
+        input.put("opaque", new Object());
+
+        Assert.assertNull(GenerationCache.describeInput(input, null));
+    }
+
+    /**
+     * Checks concurrent writers, as from parallel builds, keep the cache within bounds.
+     * @throws Exception if the cache cannot be used.
+     */
+    @Test
+    public void concurrent_writers_keep_the_cache_bounded()
+        throws Exception
+    {
+        final File root = tempFolder.newFolder("cache");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try
+        {
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+
+            for (int thread = 0; thread < 4; thread++)
+            {
+                final int offset = thread;
+
+                results.add(
+                    executor.submit(
+                        new Callable<Void>()
+                        {
+                            /**
+                             * {@inheritDoc}
+                             */
+                            @Override
+                            public Void call()
+                                throws IOException
+                            {
+                                // Separate instances, as separate builds would have.
+                                final GenerationCache cache = new GenerationCache(root, 100);
+
+                                for (int index = 0; index < 20; index++)
+                                {
+                                    cache.put(String.format("%02d%02d", offset, index), bytes("0123456789"));
+                                }
+
+                                return null;
+                            }
+                        }));
+            }
+
+            for (final Future<Void> result : results)
+            {
+                result.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        final GenerationCache cache = new GenerationCache(root, 100);
+
+        Assert.assertEquals(0, cache.evict(100));
+        Assert.assertEquals(10, cache.evict(0));
+    }
+
+    /**
+     * Computes the key of a template.
+     * @param template the template.
+     * @param basedir the project folder.
+     * @param name the project name.
+     * @return the key.
+     * @throws IOException if the template cannot be read.
+     */
+    protected String key(final File template, final File basedir, final String name)
+        throws IOException
+    {
+        final Map<String, Object> input = new HashMap<String, Object>();
+
+        input.put("name", name);
+        input.put("output", new File(basedir, "target").getAbsolutePath());
+
+        return
+            GenerationCache.computeKey(
+                template,
+                Collections.<File>emptyList(),
+                "1.0",
+                StandardCharsets.UTF_8,
+                GenerationCache.describeInput(input, basedir));
+    }
+
+    /**
+     * Makes an entry look older.
+     * @param cache the cache.
+     * @param key the key.
+     * @param minutes how many minutes older.
+     * @throws IOException if its time cannot be changed.
+     */
+    protected void age(final GenerationCache cache, final String key, final int minutes)
+        throws IOException
+    {
+        Files.setLastModifiedTime(
+            cache.resolve(key), FileTime.fromMillis(System.currentTimeMillis() - minutes * 60000L));
+    }
+
+    /**
+     * Writes a file in the temporary folder.
+     * @param path its path.
+     * @param contents its contents.
+     * @return the file.
+     * @throws IOException if it cannot be written.
+     */
+    protected File write(final String path, final String contents)
+        throws IOException
+    {
+        final File result = new File(tempFolder.getRoot(), path);
+
+        Files.createDirectories(result.getParentFile().toPath());
+        Files.write(result.toPath(), bytes(contents));
+
+        return result;
+    }
+
+    /**
+     * Encodes text.
+     * @param text the text.
+     * @return its UTF-8 bytes.
+     */
+    protected static byte[] bytes(final String text)
+    {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: GenerationMetricsTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for GenerationMetrics and MetricsReport.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link GenerationMetrics} and {@link MetricsReport}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class GenerationMetricsTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks the time spent in the wrapped writer counts as writing.
+     * @throws IOException if the writer fails.
+     */
+    @Test
+    public void timed_writers_account_writing_time()
+        throws IOException
+    {
+        final GenerationMetrics metrics = new GenerationMetrics("org.acmsl:sample", "Dockerfile");
+        final StringWriter output = new StringWriter();
+
+        final Writer writer = metrics.timeWrites(output);
+
+        writer.write("FROM scratch\n");
+        writer.flush();
+
+        Assert.assertEquals("FROM scratch\n", output.toString());
+        Assert.assertTrue(metrics.getNanos(GenerationMetrics.Phase.WRITE) > 0);
+        Assert.assertEquals(0, metrics.getNanos(GenerationMetrics.Phase.RENDER));
+        Assert.assertEquals(metrics.getNanos(GenerationMetrics.Phase.WRITE), metrics.getTotalNanos());
+    }
+
+    /**
+     * Checks module reports are written as JSON, and summarized as a table.
+     * @throws IOException if the report cannot be written.
+     */
+    @Test
+    public void reports_are_written_as_json_and_summarized()
+        throws IOException
+    {
+        final GenerationMetrics first = new GenerationMetrics("org.acmsl:sample", "Dockerfile");
+        first.add(GenerationMetrics.Phase.LOAD, 2000000L);
+        first.add(GenerationMetrics.Phase.RENDER, 3000000L);
+        first.setBytesWritten(120);
+
+        final GenerationMetrics second = new GenerationMetrics("org.acmsl:sample", "Dockerfile \"debug\"");
+        second.setUpToDate(true);
+
+        final File report = new File(tempFolder.getRoot(), "target/" + MetricsReport.FILE_NAME);
+
+        MetricsReport.write(report, "org.acmsl:sample", Arrays.asList(first, second));
+
+        final String json = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+
+        Assert.assertTrue(json, json.startsWith("{\"module\":\"org.acmsl:sample\",\"dockerfiles\":[{"));
+        Assert.assertTrue(json, json.contains("\"phases\":{\"load\":2000000,\"imports\":0,\"prepare\":0,\"fingerprint\":0,\"render\":3000000,\"write\":0,\"attach\":0}"));
+        Assert.assertTrue(json, json.contains("\"classifier\":\"Dockerfile \\\"debug\\\"\",\"upToDate\":true"));
+        Assert.assertTrue(json, json.contains("\"totalNanos\":5000000}"));
+
+        final String summary = MetricsReport.summarize(Arrays.asList(first, second));
+
+        Assert.assertTrue(summary, summary.contains("5.00"));
+        Assert.assertTrue(summary, summary.contains("up to date"));
+        Assert.assertTrue(summary, summary.contains("Total (2 Dockerfiles)"));
+    }
+}
@@ -0,0 +1,336 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ImageDigestsTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for ImageDigests, ImageDigestCache and ImageDigestPinner.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ImageDigests}, {@link ImageDigestCache} and {@link ImageDigestPinner}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class ImageDigestsTest
+{
+    /**
+     * The digest of the tomcat image.
+     */
+    protected static final String TOMCAT =
+        "sha256:1111111111111111111111111111111111111111111111111111111111111111";
+
+    /**
+     * The digest of the alpine image.
+     */
+    protected static final String ALPINE =
+        "sha256:2222222222222222222222222222222222222222222222222222222222222222";
+
+    /**
+     * A temporary folder.
+     */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Writes a file of digests.
+     * @return the file.
+     * @throws IOException if it cannot be written.
+     */
+    protected File writeDigests()
+        throws IOException
+    {
+        final File result = tempFolder.newFile("digests.properties");
+
+        Files.write(
+            result.toPath(),
+            ("acmsl/tomcat\\:201410=" + TOMCAT + "\nalpine\\:3.20=" + ALPINE + "\n").getBytes(StandardCharsets.UTF_8));
+
+        return result;
+    }
+
+    /**
+     * Checks templates pin references through a file standing in for the registry.
+     * @throws IOException if the files cannot be written.
+     */
+    @Test
+    public void templates_pin_references_with_a_file_of_digests()
+        throws IOException
+    {
+        final File template = new File(tempFolder.getRoot(), "Dockerfile.stg");
+
+        Files.write(
+            template.toPath(),
+            "group Dockerfile;\n\nsource(C) ::= <<\nFROM <C.pinned.(\"acmsl/tomcat:201410\")>\n>>\n"
+                .getBytes(StandardCharsets.UTF_8));
+
+        final ImageDigests pinned =
+            new ImageDigests(new ImageDigestCache(null, new FileDigestResolver(writeDigests()), 60, false));
+
+        final Map<String, Object> input = new HashMap<String, Object>();
+        input.put(Literals.PINNED_L, pinned);
+
+        final String dockerfile =
+            new DockerfileGenerator(input, template, StandardCharsets.UTF_8, null, Collections.<File>emptyList())
+                .generateDockerfile();
+
+        Assert.assertEquals("FROM acmsl/tomcat:201410@" + TOMCAT, dockerfile.trim());
+        Assert.assertEquals(Collections.singletonMap("acmsl/tomcat:201410", TOMCAT), pinned.getDigests());
+    }
+
+    /**
+     * Checks digests are remembered on disk within their time to live, and
+     * served offline however old.
+     * @throws IOException if the digests cannot be resolved.
+     */
+    @Test
+    public void digests_are_remembered_and_served_offline()
+        throws IOException
+    {
+        final File file = new File(tempFolder.getRoot(), "cache/image-digests.properties");
+        final AtomicInteger lookups = new AtomicInteger();
+
+        final ImageDigestResolver registry =
+            new ImageDigestResolver()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String resolve(final String reference)
+                {
+                    lookups.incrementAndGet();
+
+                    return TOMCAT;
+                }
+            };
+
+        final ImageDigestCache cache = new ImageDigestCache(file, registry, 60, false);
+
+        Assert.assertEquals(TOMCAT, cache.resolve("acmsl/tomcat:201410"));
+        Assert.assertEquals(TOMCAT, cache.resolve("acmsl/tomcat:201410"));
+        Assert.assertEquals(1, lookups.get());
+        Assert.assertEquals(1, cache.getHits());
+
+        // A later build, with no time to live: the registry is asked again.
+        Assert.assertEquals(TOMCAT, new ImageDigestCache(file, registry, 0, false).resolve("acmsl/tomcat:201410"));
+        Assert.assertEquals(2, lookups.get());
+
+        final ImageDigestResolver unreachable =
+            new ImageDigestResolver()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String resolve(final String reference)
+                    throws IOException
+                {
+                    throw new IOException("unreachable");
+                }
+            };
+
+        final ImageDigestCache offline = new ImageDigestCache(file, unreachable, 0, true);
+
+        Assert.assertEquals(TOMCAT, offline.resolve("acmsl/tomcat:201410"));
+
+        try
+        {
+            offline.resolve("alpine:3.20");
+            Assert.fail("alpine:3.20 is not cached");
+        }
+        catch (final IOException expected)
+        {
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().contains("offline"));
+        }
+    }
+
+    /**
+     * Checks distinct images are resolved concurrently, and each only once.
+     * @throws IOException if the digests cannot be resolved.
+     */
+    @Test
+    public void distinct_images_are_resolved_concurrently_once()
+        throws IOException
+    {
+        final CountDownLatch bothRunning = new CountDownLatch(2);
+        final AtomicInteger lookups = new AtomicInteger();
+
+        final ImageDigestResolver registry =
+            new ImageDigestResolver()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String resolve(final String reference)
+                    throws IOException
+                {
+                    lookups.incrementAndGet();
+                    bothRunning.countDown();
+
+                    try
+                    {
+                        // Only returns if the other image is being resolved at the same time.
+                        if (!bothRunning.await(10, TimeUnit.SECONDS))
+                        {
+                            throw new IOException(reference + " was resolved alone");
+                        }
+                    }
+                    catch (final InterruptedException interrupted)
+                    {
+                        throw new IOException(interrupted);
+                    }
+
+                    return reference.startsWith("alpine") ? ALPINE : TOMCAT;
+                }
+            };
+
+        final ImageDigestCache cache = new ImageDigestCache(null, registry, 60, false);
+
+        final Map<String, String> digests =
+            cache.resolveAll(Arrays.asList("alpine:3.20", "acmsl/tomcat:201410", "alpine:3.20"));
+
+        Assert.assertEquals(ALPINE, digests.get("alpine:3.20"));
+        Assert.assertEquals(TOMCAT, digests.get("acmsl/tomcat:201410"));
+        Assert.assertEquals(2, lookups.get());
+    }
+
+    /**
+     * Checks the pinner rewrites base images, but not stages, scratch,
+     * build arguments or images already pinned.
+     * @throws IOException if the Dockerfile cannot be processed.
+     */
+    @Test
+    public void pinner_rewrites_base_images_only()
+        throws IOException
+    {
+        final ImageDigests pinned =
+            new ImageDigests(new ImageDigestCache(null, new FileDigestResolver(writeDigests()), 60, false));
+
+        final StringWriter output = new StringWriter();
+
+        final DockerfileStreamWriter writer =
+            new DockerfileStreamWriter(
+                output, Collections.<DockerfilePostProcessor>singletonList(new ImageDigestPinner(pinned)));
+
+        writer.write(
+              "FROM --platform=$BUILDPLATFORM alpine:3.20 AS build\n"
+            + "RUN make\n"
+            + "FROM build AS test\n"
+            + "FROM scratch\n"
+            + "FROM ${BASE}\n"
+            + "FROM alpine:3.20@" + ALPINE + "\n"
+            + "# runtime\n"
+            + "from acmsl/tomcat:201410\n"
+            + "COPY --from=build /app /app\n");
+        writer.finish();
+
+        Assert.assertEquals(
+              "FROM --platform=$BUILDPLATFORM alpine:3.20@" + ALPINE + " AS build\n"
+            + "RUN make\n"
+            + "FROM build AS test\n"
+            + "FROM scratch\n"
+            + "FROM ${BASE}\n"
+            + "FROM alpine:3.20@" + ALPINE + "\n"
+            + "# runtime\n"
+            + "from acmsl/tomcat:201410@" + TOMCAT + "\n"
+            + "COPY --from=build /app /app\n",
+            output.toString());
+        Assert.assertEquals(2, pinned.getDigests().size());
+    }
+
+    /**
+     * Checks the images of Dockerfiles and templates are found ahead of
+     * rendering, leaving out what the pinner would.
+     */
+    @Test
+    public void images_to_prefetch_are_found_in_templates()
+    {
+        Assert.assertEquals(
+            Arrays.asList("alpine:3.20", "acmsl/tomcat:201410"),
+            Arrays.asList(
+                ImageDigestPinner.retrieveImages(
+                      "group Dockerfile;\n"
+                    + "dockerfile(C) ::= <<\n"
+                    + "FROM --platform=$BUILDPLATFORM alpine:3.20 AS build\n"
+                    + "FROM build AS test\n"
+                    + "FROM scratch\n"
+                    + "FROM <C.base>\n"
+                    + "FROM alpine:3.20@" + ALPINE + "\n"
+                    + "from acmsl/tomcat:201410\n"
+                    + ">>\n")
+                .toArray()));
+    }
+
+    /**
+     * Checks references are split as docker does.
+     */
+    @Test
+    public void references_are_split_as_docker_does()
+    {
+        Assert.assertArrayEquals(
+            new String[] { "registry-1.docker.io", "library/ubuntu", "latest" },
+            RegistryDigestResolver.parse("ubuntu"));
+        Assert.assertArrayEquals(
+            new String[] { "registry-1.docker.io", "acmsl/tomcat", "201410" },
+            RegistryDigestResolver.parse("acmsl/tomcat:201410"));
+        Assert.assertArrayEquals(
+            new String[] { "localhost:5000", "team/app", "1.0" },
+            RegistryDigestResolver.parse("localhost:5000/team/app:1.0"));
+        Assert.assertArrayEquals(
+            new String[] { "ghcr.io", "acmsl/base", "latest" },
+            RegistryDigestResolver.parse("ghcr.io/acmsl/base"));
+    }
+}
@@ -0,0 +1,393 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: LayeredJarExtractorTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for LayeredJarExtractor.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link LayeredJarExtractor}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class LayeredJarExtractorTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks entries are classified into the expected layers.
+     */
+    @Test
+    public void entries_are_classified_into_layers()
+    {
+        Assert.assertEquals(LayeredJarExtractor.DEPENDENCIES, LayeredJarExtractor.classify("BOOT-INF/lib/guava-33.0.jar"));
+        Assert.assertEquals(
+            LayeredJarExtractor.SNAPSHOT_DEPENDENCIES,
+            LayeredJarExtractor.classify("BOOT-INF/lib/common-1.0-SNAPSHOT.jar"));
+        Assert.assertEquals(
+            LayeredJarExtractor.DEPENDENCIES,
+            LayeredJarExtractor.classify("org/springframework/boot/loader/launch/JarLauncher.class"));
+        Assert.assertEquals(
+            LayeredJarExtractor.RESOURCES, LayeredJarExtractor.classify("BOOT-INF/classes/application.yml"));
+        Assert.assertEquals(
+            LayeredJarExtractor.APPLICATION, LayeredJarExtractor.classify("BOOT-INF/classes/com/example/App.class"));
+        Assert.assertEquals(LayeredJarExtractor.APPLICATION, LayeredJarExtractor.classify("META-INF/MANIFEST.MF"));
+        Assert.assertEquals(LayeredJarExtractor.RESOURCES, LayeredJarExtractor.classify("static/index.html"));
+    }
+
+    /**
+     * Checks every entry ends up in one layer, with the same compressed bytes.
+     * @throws Exception if the jars cannot be written.
+     */
+    @Test
+    public void layers_keep_the_compressed_entries()
+        throws Exception
+    {
+        final File source = writeFatJar("app-1.0.jar", new byte[0]);
+        final LayeredJar jar = new LayeredJar(source, new File(tempFolder.getRoot(), "target/layers"), tempFolder.getRoot());
+
+        final LayeredJarExtractor.Result result = new LayeredJarExtractor().extract(jar);
+
+        Assert.assertFalse(result.isUpToDate());
+        Assert.assertEquals(2, result.getLayers().get(LayeredJarExtractor.DEPENDENCIES).getEntries());
+        Assert.assertEquals("target/layers/app-1.0/resources.jar", jar.get(LayeredJarExtractor.RESOURCES).getPath());
+
+        assertSameEntries(source, jar);
+
+        try (ZipFile snapshots = new ZipFile(jar.get(LayeredJarExtractor.SNAPSHOT_DEPENDENCIES).getFile()))
+        {
+            Assert.assertEquals(
+                Collections.singletonList("BOOT-INF/lib/common-1.0-SNAPSHOT.jar"), names(snapshots));
+        }
+
+        Assert.assertTrue(new LayeredJarExtractor().extract(jar).isUpToDate());
+    }
+
+    /**
+     * Checks layers with too many entries for a plain end record are rejected,
+     * rather than written with a wrapped count.
+     * @throws Exception if the test cannot be set up.
+     */
+    @Test(expected = IOException.class)
+    public void layers_needing_zip64_entry_counts_are_rejected()
+        throws Exception
+    {
+        new LayeredJarExtractor().writeLayer(
+            null,
+            Collections.<LayeredJarExtractor.Entry>nCopies(LayeredJarExtractor.ZIP64_ENTRIES, null),
+            new File(tempFolder.getRoot(), "layers/classes.jar").toPath(),
+            null);
+    }
+
+    /**
+     * Checks executable jars, starting with a launch script, and several jars at once.
+     * @throws Exception if the jars cannot be written.
+     */
+    @Test
+    public void executable_jars_are_split_concurrently()
+        throws Exception
+    {
+        final File layersDir = new File(tempFolder.getRoot(), "layers");
+
+        final List<LayeredJar> jars =
+            Arrays.asList(
+                new LayeredJar(writeFatJar("plain.jar", new byte[0]), layersDir, tempFolder.getRoot()),
+                new LayeredJar(
+                    writeFatJar("launchable.jar", "#!/bin/sh\nexec java -jar \"$0\" \"$@\"\n".getBytes(StandardCharsets.UTF_8)),
+                    layersDir,
+                    tempFolder.getRoot()));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try
+        {
+            final List<LayeredJarExtractor.Result> results = new LayeredJarExtractor().extractAll(jars, executor);
+
+            Assert.assertEquals(2, results.size());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        for (final LayeredJar jar : jars)
+        {
+            assertSameEntries(jar.getSource(), jar);
+        }
+    }
+
+    /**
+     * Checks the built-in template copies the layers in order, in two stages.
+     * @throws Exception if the files cannot be written.
+     */
+    @Test
+    public void layers_template_builds_a_multi_stage_dockerfile()
+        throws Exception
+    {
+        final File template = new File(tempFolder.getRoot(), "Dockerfile.stg");
+
+        Files.write(
+            template.toPath(),
+            "group Dockerfile;\n\nsource(C) ::= <<\n<layers/multiStage(jar=first(C.jarLayers), runtime=\"jre\")>\n>>\n"
+                .getBytes(StandardCharsets.UTF_8));
+
+        final Map<String, Object> input = new HashMap<String, Object>();
+        input.put(
+            Literals.JAR_LAYERS_L,
+            Collections.singletonList(
+                new LayeredJar(
+                    new File(tempFolder.getRoot(), "target/app.jar"),
+                    new File(tempFolder.getRoot(), "target/layers"),
+                    tempFolder.getRoot())));
+
+        final String dockerfile =
+            new DockerfileGenerator(input, template, StandardCharsets.UTF_8, null, Collections.<File>emptyList())
+                .generateDockerfile();
+
+        Assert.assertTrue(dockerfile, dockerfile.contains("COPY target/layers/app/dependencies.jar /layers/dependencies.jar\n"));
+        Assert.assertTrue(dockerfile, dockerfile.contains("FROM jre\n"));
+        Assert.assertTrue(
+            dockerfile,
+            dockerfile.indexOf("COPY --from=layers /layers/dependencies/ ./")
+            < dockerfile.indexOf("COPY --from=layers /layers/application/ ./"));
+    }
+
+    /**
+     * Checks the layers hold every file entry of the source, with the same compressed size and contents.
+     * @param source the fat jar.
+     * @param jar its layers.
+     * @throws IOException if the jars cannot be read.
+     */
+    protected void assertSameEntries(final File source, final LayeredJar jar)
+        throws IOException
+    {
+        final Map<String, ZipEntry> expected = new TreeMap<String, ZipEntry>();
+        final Map<String, byte[]> contents = new HashMap<String, byte[]>();
+
+        try (ZipFile zip = new ZipFile(source))
+        {
+            for (final Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); )
+            {
+                final ZipEntry entry = entries.nextElement();
+
+                if (!entry.isDirectory())
+                {
+                    expected.put(entry.getName(), entry);
+                    contents.put(entry.getName(), read(zip, entry));
+                }
+            }
+        }
+
+        final Map<String, ZipEntry> actual = new TreeMap<String, ZipEntry>();
+
+        for (final LayeredJar.Layer layer : jar.getLayers())
+        {
+            try (ZipFile zip = new ZipFile(layer.getFile()))
+            {
+                for (final Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); )
+                {
+                    final ZipEntry entry = entries.nextElement();
+
+                    Assert.assertEquals(layer.getName(), LayeredJarExtractor.classify(entry.getName()));
+                    Assert.assertArrayEquals(contents.get(entry.getName()), read(zip, entry));
+                    actual.put(entry.getName(), entry);
+                }
+            }
+        }
+
+        Assert.assertEquals(expected.keySet(), actual.keySet());
+
+        for (final String name : expected.keySet())
+        {
+            Assert.assertEquals(name, expected.get(name).getCompressedSize(), actual.get(name).getCompressedSize());
+            Assert.assertEquals(name, expected.get(name).getMethod(), actual.get(name).getMethod());
+        }
+    }
+
+    /**
+     * Writes a Spring Boot-style jar, with stored nested jars and deflated classes.
+     * @param name the file name.
+     * @param prefix bytes before the archive, such as a launch script.
+     * @return the jar.
+     * @throws IOException if it cannot be written.
+     */
+    protected File writeFatJar(final String name, final byte[] prefix)
+        throws IOException
+    {
+        final File result = new File(tempFolder.getRoot(), name);
+
+        try (OutputStream file = new FileOutputStream(result))
+        {
+            file.write(prefix);
+
+            try (ZipOutputStream zip = new ZipOutputStream(file))
+            {
+                deflated(zip, "META-INF/MANIFEST.MF", "Main-Class: org.springframework.boot.loader.launch.JarLauncher\n");
+                directory(zip, "BOOT-INF/");
+                directory(zip, "BOOT-INF/lib/");
+                stored(zip, "BOOT-INF/lib/guava-33.0.jar", "guava classes");
+                stored(zip, "BOOT-INF/lib/common-1.0-SNAPSHOT.jar", "snapshot classes");
+                deflated(zip, "org/springframework/boot/loader/launch/JarLauncher.class", "launcher bytecode");
+                deflated(zip, "BOOT-INF/classes/application.yml", "server:\n  port: 8080\n");
+                deflated(zip, "BOOT-INF/classes/com/example/App.class", "application bytecode, application bytecode");
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds a directory entry.
+     * @param zip the zip.
+     * @param name the name.
+     * @throws IOException if it cannot be written.
+     */
+    protected void directory(final ZipOutputStream zip, final String name)
+        throws IOException
+    {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.closeEntry();
+    }
+
+    /**
+     * Adds a deflated entry, followed by a data descriptor.
+     * @param zip the zip.
+     * @param name the name.
+     * @param contents the contents.
+     * @throws IOException if it cannot be written.
+     */
+    protected void deflated(final ZipOutputStream zip, final String name, final String contents)
+        throws IOException
+    {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(contents.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    /**
+     * Adds a stored entry, as Spring Boot does for nested jars.
+     * @param zip the zip.
+     * @param name the name.
+     * @param contents the contents.
+     * @throws IOException if it cannot be written.
+     */
+    protected void stored(final ZipOutputStream zip, final String name, final String contents)
+        throws IOException
+    {
+        final byte[] bytes = contents.getBytes(StandardCharsets.UTF_8);
+
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCompressedSize(bytes.length);
+        entry.setCrc(crc.getValue());
+
+        zip.putNextEntry(entry);
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+
+    /**
+     * Reads an entry.
+     * @param zip the zip.
+     * @param entry the entry.
+     * @return its contents.
+     * @throws IOException if it cannot be read.
+     */
+    protected byte[] read(final ZipFile zip, final ZipEntry entry)
+        throws IOException
+    {
+        try (InputStream input = zip.getInputStream(entry))
+        {
+            final ByteArrayOutputStream result = new ByteArrayOutputStream();
+
+            input.transferTo(result);
+
+            return result.toByteArray();
+        }
+    }
+
+    /**
+     * Retrieves the entry names of a zip.
+     * @param zip the zip.
+     * @return such names.
+     */
+    protected List<String> names(final ZipFile zip)
+    {
+        final List<String> result = new ArrayList<String>();
+
+        for (final ZipEntry entry : Collections.list(zip.entries()))
+        {
+            result.add(entry.getName());
+        }
+
+        return result;
+    }
+}
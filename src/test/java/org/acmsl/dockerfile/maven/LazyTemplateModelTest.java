@@ -0,0 +1,183 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: LazyTemplateModelTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for LazyTemplateModel.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing ACM-SL Java Commons classes.
+ */
+import org.acmsl.commons.utils.io.FileUtils;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link LazyTemplateModel}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+@RunWith(JUnit4.class)
+public class LazyTemplateModelTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks only the values the template reads are computed, and only once.
+     * @throws IOException if the temporary file cannot be created.
+     */
+    @Test
+    public void only_referenced_values_are_computed_once()
+        throws IOException
+    {
+        final AtomicInteger dependencies = new AtomicInteger();
+        final AtomicInteger git = new AtomicInteger();
+
+        final LazyTemplateModel model = new LazyTemplateModel();
+
+        model.put(Literals.VERSION_L, "1.0");
+        model.provide(Literals.DEPENDENCIES_L, counting(dependencies, Arrays.asList("a", "b")));
+        model.provide(Literals.GIT_L, counting(git, "abc"));
+
+        final File template = tempFolder.newFile("Dockerfile.stg");
+
+        FileUtils.getInstance().writeFile(
+            template,
+            "group Dockerfile;\n\nsource(C) ::= <<\n<C.version> <C.dependencies; separator=\",\"> <C.dependencies:{d | <d>}>\n>>\n",
+            Charset.defaultCharset());
+
+        final DockerfileGenerator templates = new DockerfileGenerator(model, template, (TemplateCache) null);
+        final LazyTemplateModel input = model.select(templates.retrieveReferencedAttributes());
+
+        Assert.assertEquals(
+            "1.0 a,b ab",
+            new DockerfileGenerator(input, template, (TemplateCache) null).generateDockerfile().trim());
+        Assert.assertEquals(
+            "1.0 a,b ab",
+            new DockerfileGenerator(model.select(templates.retrieveReferencedAttributes()), template, (TemplateCache) null)
+                .generateDockerfile().trim());
+
+        Assert.assertEquals(1, dependencies.get());
+        Assert.assertEquals(0, git.get());
+        Assert.assertFalse(input.containsKey(Literals.GIT_L));
+        Assert.assertFalse(model.isComputed(Literals.GIT_L));
+    }
+
+    /**
+     * Checks listing the names does not compute anything.
+     */
+    @Test
+    public void listing_names_computes_nothing()
+    {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final LazyTemplateModel model = new LazyTemplateModel();
+
+        model.put(Literals.T_U, null);
+        model.provide(Literals.GIT_L, counting(calls, "abc"));
+
+        Assert.assertEquals(2, model.size());
+        Assert.assertTrue(model.keySet().contains(Literals.GIT_L));
+        Assert.assertTrue(model.containsKey(Literals.T_U));
+        Assert.assertNull(model.get(Literals.T_U));
+        Assert.assertEquals(0, calls.get());
+    }
+
+    /**
+     * Checks models sharing the computed values use their own providers
+     * only for what's not computed yet.
+     */
+    @Test
+    public void shared_values_are_computed_once_by_whichever_model_comes_first()
+    {
+        final ConcurrentMap<String, FutureTask<Object>> computed = new ConcurrentHashMap<String, FutureTask<Object>>();
+
+        final AtomicInteger first = new AtomicInteger();
+        final AtomicInteger second = new AtomicInteger();
+
+        final LazyTemplateModel one = new LazyTemplateModel(computed);
+        one.provide(Literals.GIT_L, counting(first, "abc"));
+
+        final LazyTemplateModel other = new LazyTemplateModel(computed);
+        other.provide(Literals.GIT_L, counting(second, "def"));
+        other.provide(Literals.DEPENDENCIES_L, counting(second, Arrays.asList("a")));
+
+        Assert.assertEquals("abc", one.get(Literals.GIT_L));
+        Assert.assertEquals("abc", other.get(Literals.GIT_L));
+        Assert.assertEquals(Arrays.asList("a"), other.get(Literals.DEPENDENCIES_L));
+        Assert.assertEquals(1, first.get());
+        Assert.assertEquals(1, second.get());
+        Assert.assertFalse(one.containsKey(Literals.DEPENDENCIES_L));
+    }
+
+    /**
+     * Builds a provider counting its invocations.
+     * @param calls the counter.
+     * @param value the value to provide.
+     * @return such provider.
+     */
+    protected LazyTemplateModel.ValueProvider counting(final AtomicInteger calls, final Object value)
+    {
+        return
+            new LazyTemplateModel.ValueProvider()
+            {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Object provide()
+                {
+                    calls.incrementAndGet();
+
+                    return value;
+                }
+            };
+    }
+}
@@ -0,0 +1,164 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: MavenModelAdaptorTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for MavenModelAdaptor.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.stringtemplate.v4.ST;
+import org.stringtemplate.v4.STGroup;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MavenModelAdaptor}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+@RunWith(JUnit4.class)
+public class MavenModelAdaptorTest
+{
+    /**
+     * A template reaching project, model, dependency and property attributes.
+     */
+    public static final String TEMPLATE =
+          "<pom.groupId>:<pom.artifactId>:<pom.version> <pom.model.packaging>"
+        + " <pom.properties.(\"java.version\")> <pom.dependencies:{d | <d.artifactId>}>";
+
+    /**
+     * Checks the adaptor renders the same output as ST's reflective one.
+     */
+    @Test
+    public void adaptor_renders_like_the_reflective_one()
+    {
+        final MavenProject project = buildProject();
+
+        Assert.assertEquals(render(project, false), render(project, true));
+        Assert.assertEquals("org.acmsl:sample:1.0 war 17 commons", render(project, true));
+    }
+
+    /**
+     * Checks missing properties are reported as such.
+     */
+    @Test
+    public void adaptor_knows_which_properties_exist()
+    {
+        final MavenModelAdaptor adaptor = MavenModelAdaptor.getInstance();
+
+        Assert.assertTrue(adaptor.hasProperty(MavenProject.class, "artifactId"));
+        Assert.assertTrue(adaptor.hasProperty(Dependency.class, "optional"));
+        Assert.assertFalse(adaptor.hasProperty(MavenProject.class, "nonExistent"));
+    }
+
+    /**
+     * Checks the project properties still expose their keys and values.
+     */
+    @Test
+    public void properties_keep_their_keys_and_values()
+    {
+        final MavenProject project = buildProject();
+
+        final String template = "<pom.properties.keys:{k | <k>}>=<pom.properties.values:{v | <v>}>";
+
+        Assert.assertEquals(render(project, template, false), render(project, template, true));
+        Assert.assertEquals("java.version=17", render(project, template, true));
+    }
+
+    /**
+     * Builds a sample project.
+     * @return such project.
+     */
+    protected MavenProject buildProject()
+    {
+        final MavenProject result = new MavenProject();
+
+        result.setGroupId("org.acmsl");
+        result.setArtifactId("sample");
+        result.setVersion("1.0");
+        result.setPackaging("war");
+        result.getProperties().setProperty("java.version", "17");
+
+        final Dependency dependency = new Dependency();
+        dependency.setGroupId("org.acmsl");
+        dependency.setArtifactId("commons");
+        dependency.setVersion("1.0");
+        result.getModel().addDependency(dependency);
+
+        return result;
+    }
+
+    /**
+     * Renders the sample template.
+     * @param project the project.
+     * @param adapted whether to register the {@link MavenModelAdaptor}.
+     * @return the output.
+     */
+    protected String render(final MavenProject project, final boolean adapted)
+    {
+        return render(project, TEMPLATE, adapted);
+    }
+
+    /**
+     * Renders a template.
+     * @param project the project.
+     * @param template the template.
+     * @param adapted whether to register the {@link MavenModelAdaptor}.
+     * @return the output.
+     */
+    protected String render(final MavenProject project, final String template, final boolean adapted)
+    {
+        final STGroup group = new STGroup();
+
+        if (adapted)
+        {
+            MavenModelAdaptor.register(group);
+        }
+
+        final ST st = new ST(group, template);
+
+        st.add("pom", project);
+
+        return st.render();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: ProjectSnapshotTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for ProjectSnapshot.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing Maven classes.
+ */
+import org.apache.maven.model.Build;
+import org.apache.maven.project.MavenProject;
+
+/*
+ * Importing JDK classes.
+ */
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ProjectSnapshot}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class ProjectSnapshotTest
+{
+    /**
+     * Checks only the referenced project properties are captured, and copied.
+     */
+    @Test
+    public void snapshots_capture_only_referenced_properties()
+    {
+        final MavenProject project = new MavenProject();
+
+        project.setArtifactId("sample");
+        project.setVersion("1.0");
+        project.getProperties().setProperty("java.version", "17");
+
+        final Map<String, Object> snapshot =
+            ProjectSnapshot.capture(
+                project,
+                new TemplateAttributeScanner.Result(
+                    new HashSet<String>(Arrays.asList("T", "artifactId", "properties", "key")), false));
+
+        project.getProperties().setProperty("java.version", "21");
+
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("artifactId", "properties")), snapshot.keySet());
+        Assert.assertEquals("sample", snapshot.get("artifactId"));
+        Assert.assertEquals("17", ((Properties) snapshot.get("properties")).getProperty("java.version"));
+    }
+
+    /**
+     * Checks templates resolving names at render time cannot be captured.
+     */
+    @Test
+    public void indirect_references_cannot_be_captured()
+    {
+        Assert.assertFalse(
+            ProjectSnapshot.isCapturable(new TemplateAttributeScanner.Result(new HashSet<String>(), true)));
+        Assert.assertTrue(
+            ProjectSnapshot.isCapturable(
+                new TemplateAttributeScanner.Result(new HashSet<String>(Arrays.asList("artifactId")), false)));
+    }
+
+    /**
+     * Checks nested values are copied, instead of kept live.
+     */
+    @Test
+    public void nested_values_are_copied()
+    {
+        final MavenProject parent = new MavenProject();
+        parent.setArtifactId("parent");
+        parent.setVersion("2.0");
+
+        final MavenProject project = new MavenProject();
+        project.setParent(parent);
+
+        final Build build = new Build();
+        build.setFinalName("sample-1.0");
+        project.getModel().setBuild(build);
+
+        final Map<String, Object> snapshot =
+            ProjectSnapshot.capture(
+                project,
+                new TemplateAttributeScanner.Result(new HashSet<String>(Arrays.asList("build", "parent")), false));
+
+        build.setFinalName("changed");
+        parent.setVersion("2.1");
+
+        Assert.assertNotSame(build, snapshot.get("build"));
+        Assert.assertEquals("sample-1.0", ((Build) snapshot.get("build")).getFinalName());
+        Assert.assertEquals("2.0", ((Map<?, ?>) snapshot.get("parent")).get("version"));
+        Assert.assertEquals("parent", ((Map<?, ?>) snapshot.get("parent")).get("artifactId"));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateAttributeScannerTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for TemplateAttributeScanner.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing ACM-SL Java Commons classes.
+ */
+import org.acmsl.commons.utils.io.FileUtils;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TemplateAttributeScanner}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+@RunWith(JUnit4.class)
+public class TemplateAttributeScannerTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks properties read in included templates and subtemplates are found.
+     * @throws IOException if the temporary file cannot be created.
+     */
+    @Test
+    public void scanner_follows_included_templates_and_subtemplates()
+        throws IOException
+    {
+        final TemplateAttributeScanner.Result references =
+            scan(
+                  "source(C) ::= <<\n<C.T.artifactId>\n<deps(C)>\n>>\n\n"
+                + "deps(C) ::= <<\n<C.dependencies:{d | <d.artifactId>}>\n>>\n");
+
+        Assert.assertFalse(references.isIndirect());
+        Assert.assertTrue(references.references("T"));
+        Assert.assertTrue(references.references("artifactId"));
+        Assert.assertTrue(references.references("dependencies"));
+        Assert.assertFalse(references.references("git"));
+    }
+
+    /**
+     * Checks properties of the values in the model are not taken for
+     * attributes of the model itself.
+     * @throws IOException if the temporary file cannot be created.
+     */
+    @Test
+    public void nested_properties_are_not_attributes()
+        throws IOException
+    {
+        final TemplateAttributeScanner.Result references =
+            scan("source(C) ::= <<\n<C.T.dependencies:{d | <d.artifactId>}>\n>>\n");
+
+        Assert.assertTrue(references.references("T"));
+        Assert.assertFalse(references.references("dependencies"));
+        Assert.assertTrue(references.referencesProperty("dependencies"));
+        Assert.assertTrue(references.referencesProperty("artifactId"));
+    }
+
+    /**
+     * Checks properties resolved at render time are reported as indirect.
+     * @throws IOException if the temporary file cannot be created.
+     */
+    @Test
+    public void indirect_references_may_reference_anything()
+        throws IOException
+    {
+        final TemplateAttributeScanner.Result references =
+            scan("source(C) ::= <<\n<C.(C.name).commit>\n>>\n");
+
+        Assert.assertTrue(references.isIndirect());
+        Assert.assertTrue(references.references("git"));
+    }
+
+    /**
+     * Scans a template group.
+     * @param rules the group rules.
+     * @return the references of its {@code source} template.
+     * @throws IOException if the file cannot be written.
+     */
+    protected TemplateAttributeScanner.Result scan(final String rules)
+        throws IOException
+    {
+        final File template = tempFolder.newFile("Dockerfile.stg");
+
+        FileUtils.getInstance().writeFile(template, "group Dockerfile;\n\n" + rules, Charset.defaultCharset());
+
+        return
+            new DockerfileGenerator(Collections.<String, Object>emptyMap(), template, (TemplateCache) null)
+                .retrieveReferencedAttributes();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateCacheTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for TemplateCache.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing ACM-SL Java Commons classes.
+ */
+import org.acmsl.commons.utils.io.FileUtils;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TemplateCache}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/17
+ */
+@RunWith(JUnit4.class)
+public class TemplateCacheTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks the template is compiled only once while it doesn't change.
+     * @throws IOException if the temporary file cannot be created.
+     */
+    @Test
+    public void unchanged_templates_are_compiled_once()
+        throws IOException
+    {
+        final TemplateCache cache = new TemplateCache(TemplateCache.DEFAULT_MAX_ENTRIES);
+
+        final File template = writeTemplate("Dockerfile.stg", "<C.key>");
+
+        Assert.assertEquals("value", render(template, cache));
+        Assert.assertEquals("value", render(template, cache));
+
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertTrue(cache.getDependencies(buildKey(template)).contains(template.getCanonicalFile()));
+    }
+
+    /**
+     * Checks changed templates are compiled again.
+     * @throws IOException if the temporary file cannot be created.
+     */
+    @Test
+    public void changed_templates_are_compiled_again()
+        throws IOException
+    {
+        final TemplateCache cache = new TemplateCache(TemplateCache.DEFAULT_MAX_ENTRIES);
+
+        final File template = writeTemplate("Dockerfile.stg", "<C.key>");
+
+        Assert.assertEquals("value", render(template, cache));
+
+        writeTemplate("Dockerfile.stg", "changed <C.key>");
+        Assert.assertTrue(template.setLastModified(template.lastModified() + 2000));
+
+        Assert.assertEquals("changed value", render(template, cache));
+        Assert.assertEquals(2, cache.getMisses());
+        Assert.assertEquals(1, cache.getInvalidations());
+    }
+
+    /**
+     * Checks the least recently used groups are evicted.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void changed_templates_in_imported_directories_are_compiled_again()
+        throws IOException
+    {
+        final TemplateCache cache = new TemplateCache(TemplateCache.DEFAULT_MAX_ENTRIES);
+
+        final File lib = tempFolder.newFolder("lib");
+        final File imported = new File(lib, "body.st");
+        FileUtils.getInstance().writeFile(imported, "body(C) ::= <<\n<C.key>\n>>\n", Charset.defaultCharset());
+
+        final File template = new File(tempFolder.getRoot(), "Dockerfile.stg");
+        FileUtils.getInstance().writeFile(
+            template,
+            "group Dockerfile;\n\nimport \"lib\"\n\nsource(C) ::= <<\n<body(C)>\n>>\n",
+            Charset.defaultCharset());
+
+        Assert.assertEquals("value", render(template, cache));
+
+        final long directoryModified = lib.lastModified();
+        FileUtils.getInstance().writeFile(imported, "body(C) ::= <<\nchanged <C.key>\n>>\n", Charset.defaultCharset());
+        Assert.assertTrue(imported.setLastModified(imported.lastModified() + 2000));
+        Assert.assertTrue(lib.setLastModified(directoryModified));
+
+        Assert.assertEquals("changed value", render(template, cache));
+        Assert.assertEquals(2, cache.getMisses());
+        Assert.assertEquals(1, cache.getInvalidations());
+    }
+
+    @Test
+    public void least_recently_used_groups_are_evicted()
+        throws IOException
+    {
+        final TemplateCache cache = new TemplateCache(1);
+
+        final File first = writeTemplate("first.stg", "first");
+        final File second = writeTemplate("second.stg", "second");
+
+        render(first, cache);
+        render(second, cache);
+        render(first, cache);
+
+        Assert.assertEquals(3, cache.getMisses());
+        Assert.assertEquals(2, cache.getEvictions());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    /**
+     * Writes a template whose {@code source} rule renders given body.
+     * @param name the file name.
+     * @param body the rule body.
+     * @return the template.
+     * @throws IOException if the file cannot be written.
+     */
+    protected File writeTemplate(final String name, final String body)
+        throws IOException
+    {
+        final File result = new File(tempFolder.getRoot(), name);
+
+        FileUtils.getInstance().writeFile(
+            result,
+            "group Dockerfile;\n\nsource(C) ::= <<\n" + body + "\n>>\n",
+            Charset.defaultCharset());
+
+        return result;
+    }
+
+    /**
+     * Renders given template.
+     * @param template the template.
+     * @param cache the cache.
+     * @return the output.
+     */
+    protected String render(final File template, final TemplateCache cache)
+    {
+        final Map<String, String> input = new HashMap<String, String>();
+
+        input.put("key", "value");
+
+        return new DockerfileGenerator(input, template, cache).generateDockerfile().trim();
+    }
+
+    /**
+     * Builds the key the generator uses for given template.
+     * @param template the template.
+     * @return such key.
+     */
+    protected TemplateCache.Key buildKey(final File template)
+    {
+        return
+            TemplateCache.buildKey(
+                template, Arrays.asList(Literals.ORG_ACMSL_DOCKERFILE), Charset.defaultCharset());
+    }
+}
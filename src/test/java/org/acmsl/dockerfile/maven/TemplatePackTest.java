@@ -0,0 +1,197 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplatePackTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for TemplatePack.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing ACM-SL Java Commons classes.
+ */
+import org.acmsl.commons.utils.io.FileUtils;
+
+/*
+ * Importing StringTemplate classes.
+ */
+import org.stringtemplate.v4.STGroup;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TemplatePack}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class TemplatePackTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Forgets the packs indexed by each test.
+     */
+    @After
+    public void clearPacks()
+    {
+        TemplatePack.clear();
+    }
+
+    /**
+     * Checks templates and groups in a pack can be used from a Dockerfile template.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void templates_in_packs_are_found()
+        throws IOException
+    {
+        final File pack = writePack("fragments.jar", "FROM openjdk");
+
+        final File template = new File(tempFolder.getRoot(), "Dockerfile.stg");
+
+        FileUtils.getInstance().writeFile(
+            template,
+            "group Dockerfile;\n\nsource(C) ::= <<\n<fragments/base()>\n<labels/maintainer(C.name)>\n>>\n",
+            StandardCharsets.UTF_8);
+
+        final Map<String, String> input = new HashMap<String, String>();
+        input.put("name", "rydnr");
+
+        final DockerfileGenerator generator =
+            new DockerfileGenerator(
+                input, template, StandardCharsets.UTF_8, null, Collections.singletonList(pack));
+
+        Assert.assertEquals("FROM openjdk\nLABEL maintainer=rydnr", generator.generateDockerfile().trim());
+        Assert.assertTrue(generator.retrieveTemplateDependencies().contains(pack.getCanonicalFile()));
+    }
+
+    /**
+     * Checks unknown names are rejected by the index.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void unknown_templates_are_rejected_by_the_index()
+        throws IOException
+    {
+        final TemplatePack pack = TemplatePack.retrieve(writePack("fragments.jar", "FROM openjdk"));
+
+        Assert.assertEquals(
+            new HashSet<String>(Arrays.asList("/fragments/base.st", "/labels.stg")),
+            pack.getEntries());
+
+        final STGroup group = pack.newGroup(StandardCharsets.UTF_8);
+
+        Assert.assertNull(group.lookupTemplate("missing"));
+        Assert.assertNull(group.lookupTemplate("missing"));
+        Assert.assertNotNull(group.lookupTemplate("fragments/base"));
+
+        // The second lookup of a missing name doesn't even reach the index.
+        Assert.assertEquals(1, pack.getMisses());
+        Assert.assertEquals(1, pack.getHits());
+    }
+
+    /**
+     * Checks packs are indexed once, until they change.
+     * @throws IOException if the temporary files cannot be created.
+     */
+    @Test
+    public void packs_are_indexed_once_until_they_change()
+        throws IOException
+    {
+        final File jar = writePack("fragments.jar", "FROM openjdk");
+
+        final TemplatePack first = TemplatePack.retrieve(jar);
+
+        Assert.assertSame(first, TemplatePack.retrieve(jar));
+
+        writePack("fragments.jar", "FROM eclipse-temurin");
+        Assert.assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+
+        final TemplatePack second = TemplatePack.retrieve(jar);
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(
+            "FROM eclipse-temurin",
+            second.newGroup(StandardCharsets.UTF_8).getInstanceOf("fragments/base").render().trim());
+    }
+
+    /**
+     * Writes a pack with a {@code fragments/base} template and a {@code labels} group.
+     * @param name the jar name.
+     * @param from the body of {@code fragments/base}.
+     * @return the jar.
+     * @throws IOException if the jar cannot be written.
+     */
+    protected File writePack(final String name, final String from)
+        throws IOException
+    {
+        final File result = new File(tempFolder.getRoot(), name);
+
+        try (ZipOutputStream jar = new ZipOutputStream(new FileOutputStream(result)))
+        {
+            jar.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            jar.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+
+            jar.putNextEntry(new ZipEntry("fragments/"));
+
+            jar.putNextEntry(new ZipEntry("fragments/base.st"));
+            jar.write(("base() ::= <<\n" + from + "\n>>\n").getBytes(StandardCharsets.UTF_8));
+
+            jar.putNextEntry(new ZipEntry("labels.stg"));
+            jar.write(
+                "maintainer(name) ::= <<\nLABEL maintainer=<name>\n>>\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        return result;
+    }
+}
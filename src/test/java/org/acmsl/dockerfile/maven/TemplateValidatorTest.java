@@ -0,0 +1,233 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateValidatorTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for TemplateValidator.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TemplateValidator}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class TemplateValidatorTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * The names the model provides, in these tests.
+     */
+    protected static final Set<String> MODEL_NAMES = new HashSet<String>(Arrays.asList("T", "dependencies"));
+
+    /**
+     * Checks a valid template has no problems.
+     * @throws IOException if the template cannot be written.
+     */
+    @Test
+    public void valid_templates_have_no_problems()
+        throws IOException
+    {
+        final File template =
+            write(
+                  "group Dockerfile;\n\n"
+                + "source(C) ::= <<\n"
+                + "FROM <C.T.artifactId>\n"
+                + "<C.dependencies:{d | # <i>\n<copy(d)>}; separator=\"\\n\">\n"
+                + ">>\n\n"
+                + "copy(d) ::= \"COPY <d> /app/\"\n");
+
+        Assert.assertEquals(Collections.emptyList(), validate(template));
+    }
+
+    /**
+     * Checks syntax errors are reported with their line and column.
+     * @throws IOException if the template cannot be written.
+     */
+    @Test
+    public void syntax_errors_are_located()
+        throws IOException
+    {
+        final File template =
+            write(
+                  "group Dockerfile;\n\n"
+                + "source(C) ::= <<\n"
+                + "FROM <C.T.artifactId>\n"
+                + ">>\n\n"
+                + "broken(x) ::= \"RUN <x\"\n");
+
+        final List<TemplateProblem> problems = validate(template);
+
+        Assert.assertFalse(problems.isEmpty());
+        Assert.assertFalse(problems.get(0).isWarning());
+        Assert.assertEquals(problems.toString(), 7, problems.get(0).getLine());
+        Assert.assertTrue(problems.toString(), problems.get(0).getColumn() > 0);
+
+        try
+        {
+            new DockerfileGenerator(Collections.<String, Object>emptyMap(), template).checkTemplate();
+            Assert.fail("Templates that do not compile must not be rendered");
+        }
+        catch (final TemplateCompilationException expected)
+        {
+            Assert.assertFalse(expected.getProblems().isEmpty());
+        }
+    }
+
+    /**
+     * Checks a missing source template, and included templates nobody defines, are errors.
+     * @throws IOException if the template cannot be written.
+     */
+    @Test
+    public void missing_templates_are_errors()
+        throws IOException
+    {
+        final List<TemplateProblem> missingSource =
+            validate(write("group Dockerfile;\n\nmain(C) ::= \"FROM scratch\"\n"));
+
+        Assert.assertEquals(1, missingSource.size());
+        Assert.assertTrue(missingSource.get(0).getMessage().contains("'source'"));
+
+        final List<TemplateProblem> missingInclude =
+            validate(
+                write(
+                      "group Dockerfile;\n\n"
+                    + "source(C) ::= <<\n"
+                    + "FROM scratch\n"
+                    + "<healthcheck()>\n"
+                    + ">>\n"));
+
+        Assert.assertEquals(missingInclude.toString(), 1, missingInclude.size());
+        Assert.assertFalse(missingInclude.get(0).isWarning());
+        Assert.assertEquals(5, missingInclude.get(0).getLine());
+        Assert.assertEquals(2, missingInclude.get(0).getColumn());
+    }
+
+    /**
+     * Checks references the model cannot satisfy are warnings.
+     * @throws IOException if the template cannot be written.
+     */
+    @Test
+    public void unknown_references_are_warnings()
+        throws IOException
+    {
+        final File template =
+            write(
+                  "group Dockerfile;\n\n"
+                + "source(C) ::= <<\n"
+                + "FROM <C.T.artifactID>\n"
+                + "COPY <C.dependecies> /app\n"
+                + "RUN <undefined>\n"
+                + ">>\n");
+
+        final List<TemplateProblem> problems = validate(template);
+
+        Assert.assertEquals(problems.toString(), 3, problems.size());
+
+        for (final TemplateProblem problem : problems)
+        {
+            Assert.assertTrue(problem.isWarning());
+        }
+
+        Assert.assertTrue(problems.get(0).getMessage().contains("T.artifactID"));
+        Assert.assertEquals(4, problems.get(0).getLine());
+        Assert.assertTrue(problems.get(1).getMessage().contains("C.dependecies"));
+        Assert.assertEquals(5, problems.get(1).getLine());
+        Assert.assertTrue(problems.get(2).getMessage().contains("undefined"));
+
+        new DockerfileGenerator(Collections.<String, Object>emptyMap(), template).checkTemplate();
+    }
+
+    /**
+     * Checks the bundled template compiles, along with the groups it may import.
+     */
+    @Test
+    public void bundled_template_compiles()
+    {
+        final File template = new File("src/main/resources/org/acmsl/dockerfile/Dockerfile.stg");
+
+        for (final TemplateProblem problem : validate(template))
+        {
+            Assert.assertTrue(problem.toString(), problem.isWarning());
+        }
+    }
+
+    /**
+     * Validates a template.
+     * @param template the template.
+     * @return the problems.
+     */
+    protected List<TemplateProblem> validate(final File template)
+    {
+        return
+            new DockerfileGenerator(
+                    Collections.<String, Object>emptyMap(), template, StandardCharsets.UTF_8, (TemplateCache) null)
+                .validate(MODEL_NAMES);
+    }
+
+    /**
+     * Writes a template.
+     * @param contents its contents.
+     * @return the file.
+     * @throws IOException if it cannot be written.
+     */
+    protected File write(final String contents)
+        throws IOException
+    {
+        final File result = File.createTempFile("Dockerfile", ".stg", tempFolder.getRoot());
+
+        Files.write(result.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+
+        return result;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+                        Dockerfile Maven Plugin
+
+    Copyright (C) 2014-today  Jose San Leandro Armendariz
+                              chous@acm-sl.org
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public
+    License as published by the Free Software Foundation; either
+    version 2 of the License, or any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+    Thanks to ACM S.L. for distributing this library under the GPL license.
+    Contact info: jose.sanleandro@acm-sl.com
+
+ ******************************************************************************
+ *
+ * Filename: TemplateWatcherTest.java
+ *
+ * Author: Jose San Leandro Armendariz.
+ *
+ * Description: Tests for TemplateWatcher.
+ */
+package org.acmsl.dockerfile.maven;
+
+/*
+ * Importing JDK classes.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+/*
+ * Importing JUnit classes.
+ */
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.rules.TemporaryFolder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TemplateWatcher}.
+ * @author <a href="mailto:chous@acm-sl.org">Jose San Leandro Armendariz</a>
+ * Created: 2026/10/18
+ */
+@RunWith(JUnit4.class)
+public class TemplateWatcherTest
+{
+    /**
+     * How long to wait for the platform to report changes.
+     */
+    protected static final long TIMEOUT_MILLIS = 10000;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks changes to watched files are reported, with the targets they affect.
+     * @throws Exception if the files cannot be watched.
+     */
+    @Test
+    public void changes_to_watched_files_are_reported()
+        throws Exception
+    {
+        final File template = write("Dockerfile.stg", "first");
+        final File pom = write("pom.xml", "<project/>");
+
+        try (TemplateWatcher<String> watcher = new TemplateWatcher<String>(50))
+        {
+            watcher.watch("app", Arrays.asList(template, pom));
+            watcher.watch("other", Collections.singletonList(pom));
+
+            write("Dockerfile.stg", "second");
+
+            final Set<File> changes = watcher.awaitChanges(TIMEOUT_MILLIS);
+
+            Assert.assertEquals(Collections.singleton(template.getAbsoluteFile()), changes);
+            Assert.assertEquals(Collections.singleton("app"), watcher.retrieveTargets(changes));
+        }
+    }
+
+    /**
+     * Checks bursts of changes are reported once, and unwatched files are ignored.
+     * @throws Exception if the files cannot be watched.
+     */
+    @Test
+    public void bursts_of_changes_are_debounced()
+        throws Exception
+    {
+        final File template = write("Dockerfile.stg", "first");
+
+        try (TemplateWatcher<String> watcher = new TemplateWatcher<String>(300))
+        {
+            watcher.watch("app", Collections.singletonList(template));
+
+            write("unrelated.txt", "ignored");
+            write("Dockerfile.stg", "second");
+            write("Dockerfile.stg", "third");
+            write("Dockerfile.stg", "fourth");
+
+            Assert.assertEquals(
+                Collections.singleton(template.getAbsoluteFile()), watcher.awaitChanges(TIMEOUT_MILLIS));
+
+            write("unrelated.txt", "still ignored");
+
+            Assert.assertTrue(watcher.awaitChanges(500).isEmpty());
+        }
+    }
+
+    /**
+     * Writes a file in the temporary folder.
+     * @param name the file name.
+     * @param contents the contents.
+     * @return the file.
+     * @throws IOException if the file cannot be written.
+     */
+    protected File write(final String name, final String contents)
+        throws IOException
+    {
+        final File result = new File(tempFolder.getRoot(), name);
+
+        Files.write(result.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+
+        return result;
+    }
+}